@@ -0,0 +1,151 @@
+package com.pki.io;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180ParserBuilder;
+import com.pki.model.User;
+import com.pki.util.TestCertificates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import of a synthetic 100k-row Jira export (20k distinct users, one
+ * certificate per user, some in the wrong column): the original per-field
+ * header lookups and {@code String.replace} chain ({@link #legacyDecode})
+ * against the compiled column plan on one thread and on all processors.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench.args=CsvImporterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImporterBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int USERS = 20_000;
+
+    private File csv;
+
+    @Setup
+    public void setUp() throws Exception {
+        String[] pems = new String[16];
+        for (int i = 0; i < pems.length; i++) {
+            pems[i] = TestCertificates.selfSigned("Benchmark User " + i, 365).strip().replace("\n", "\r\n");
+        }
+        csv = File.createTempFile("csv-bench", ".csv");
+        csv.deleteOnExit();
+        try (BufferedWriter w = Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8)) {
+            w.write("Key,cn,Name,Email,Organisation,userID,userID Integration,cert,Comment,"
+                    + "Org Owner,Org SecOff,Org Op\r\n");
+            for (int i = 0; i < ROWS; i++) {
+                int u = i % USERS;
+                String pem = "\"" + pems[u % pems.length] + "&nbsp;\"";
+                boolean wrongColumn = u % 10 == 0;
+                w.write("EDOC-" + i + ",User " + u + ",Name " + u + ",user" + u + "@example.com,Org "
+                        + (u % 50) + "," + (10_000_000 + u) + ",," + (wrongColumn ? "" : pem) + ","
+                        + (wrongColumn ? pem : "comment " + i) + ",CVCA PP (Prod)||CVCA PP (PreProd),,DV "
+                        + (i % 5) + "\r\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        csv.delete();
+    }
+
+    @Benchmark
+    public Object legacyDecode() throws Exception {
+        // Rows via the current reader, decoded with the original per-field code
+        String[] header = {"Key", "cn", "Name", "Email", "Organisation", "userID", "userID Integration",
+                "cert", "Comment", "Org Owner", "Org SecOff", "Org Op"};
+        Map<String, Integer> headerMap = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) headerMap.put(header[i], i);
+        Map<String, User> usersByCn = new LinkedHashMap<>();
+        try (CSVReader reader = new CSVReaderBuilder(Files.newBufferedReader(csv.toPath()))
+                .withCSVParser(new RFC4180ParserBuilder().build()).withSkipLines(1).build()) {
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                User user = new User();
+                user.setCn(legacyField(row, headerMap, "cn").trim());
+                user.setName(legacyField(row, headerMap, "Name").trim());
+                user.setEmail(legacyField(row, headerMap, "Email").trim());
+                user.setOrganisation(legacyField(row, headerMap, "Organisation").trim());
+                user.setUserId(legacyField(row, headerMap, "userID").trim());
+                user.setUserIdIntegration(legacyField(row, headerMap, "userID Integration").trim());
+                String cert = legacyClean(legacyField(row, headerMap, "cert"));
+                if (cert.isEmpty()) {
+                    for (String field : row) {
+                        if (field.contains("-----BEGIN CERTIFICATE-----")) {
+                            cert = legacyClean(field);
+                            if (!cert.isEmpty()) break;
+                        }
+                    }
+                }
+                user.setCertificate(cert);
+                user.setOrgOwnerOf(legacyMultiValue(legacyField(row, headerMap, "Org Owner")));
+                user.setOrgSecOffOf(legacyMultiValue(legacyField(row, headerMap, "Org SecOff")));
+                user.setOrgOpOf(legacyMultiValue(legacyField(row, headerMap, "Org Op")));
+                usersByCn.putIfAbsent(user.getCn(), user);
+            }
+        }
+        return new ArrayList<>(usersByCn.values());
+    }
+
+    @Benchmark
+    public Object importSequential() throws Exception {
+        return new CsvImporter(1).importUsers(csv);
+    }
+
+    @Benchmark
+    public Object importParallel() throws Exception {
+        return new CsvImporter().importUsers(csv);
+    }
+
+    private static String legacyField(String[] row, Map<String, Integer> headerMap, String column) {
+        Integer idx = headerMap.get(column);
+        return idx == null || idx >= row.length ? "" : row[idx];
+    }
+
+    private static String legacyClean(String raw) {
+        String cleaned = raw.replace("&nbsp;", "").replace("\u00A0", "")
+                .replace("\r\n", "\n").replace("\r", "\n").trim();
+        if (!cleaned.contains("-----BEGIN CERTIFICATE-----")) return "";
+        int start = cleaned.indexOf("-----BEGIN CERTIFICATE-----");
+        int end = cleaned.indexOf("-----END CERTIFICATE-----");
+        if (start < 0 || end < 0) return "";
+        return cleaned.substring(start, end + "-----END CERTIFICATE-----".length()).trim();
+    }
+
+    private static Set<String> legacyMultiValue(String raw) {
+        Set<String> result = new LinkedHashSet<>();
+        if (raw.trim().isEmpty()) return result;
+        for (String part : raw.split("\\|\\|")) {
+            if (!part.trim().isEmpty()) result.add(part.trim());
+        }
+        return result;
+    }
+}
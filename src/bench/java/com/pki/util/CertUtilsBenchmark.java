@@ -0,0 +1,70 @@
+package com.pki.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificate parsing: the original {@code CertUtils.parse} path
+ * ({@link #legacyParse}) against the current uncached and cached paths.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench.args=CertUtilsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CertUtilsBenchmark {
+
+    private String pem;
+
+    @Setup
+    public void setUp() {
+        pem = TestCertificates.selfSigned("Benchmark User", 365);
+    }
+
+    @Benchmark
+    public Object legacyParse() throws Exception {
+        String normalized = pem.trim();
+        if (!normalized.startsWith("-----BEGIN")) {
+            normalized = "-----BEGIN CERTIFICATE-----\n" + normalized + "\n-----END CERTIFICATE-----";
+        }
+        CertificateFactory cf = CertificateFactory.getInstance("X.509");
+        X509Certificate cert = (X509Certificate) cf.generateCertificate(
+                new ByteArrayInputStream(normalized.getBytes(StandardCharsets.UTF_8)));
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(cert.getEncoded());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < digest.length; i++) {
+            if (i > 0) sb.append(':');
+            sb.append(String.format("%02X", digest[i] & 0xFF));
+        }
+        return new Object[] {cert.getSubjectX500Principal().getName(),
+                cert.getIssuerX500Principal().getName(), cert.getSerialNumber().toString(16), sb.toString()};
+    }
+
+    @Benchmark
+    public Object parseUncached() {
+        return CertUtils.parseUncached(pem);
+    }
+
+    @Benchmark
+    public Object parseCached() {
+        return CertUtils.parse(pem);
+    }
+}
@@ -7,11 +7,20 @@ import javax.swing.*;
 
 /**
  * SKA Configurator — entry point.
- * Launches the Swing GUI for creating and editing SKA configuration files.
+ * Launches the Swing GUI for creating and editing SKA configuration files,
+ * or runs a headless query: {@link ExpiringCommand} when started with
+ * {@code --expiring}, {@link ValidityCommand} with {@code --validity}.
  */
 public class App {
 
     public static void main(String[] args) {
+        if (ExpiringCommand.matches(args)) {
+            System.exit(ExpiringCommand.run(args, System.out, System.err));
+        }
+        if (ValidityCommand.matches(args)) {
+            System.exit(ValidityCommand.run(args, System.out, System.err));
+        }
+
         // Set modern look-and-feel before any Swing component is created
         FlatLightLaf.setup();
 
@@ -0,0 +1,109 @@
+package com.pki;
+
+import com.pki.io.SkaFolderLoader;
+import com.pki.model.CertExpiryIndex;
+import com.pki.model.SkaConfigEntry;
+import com.pki.model.SkaWorkspace;
+import com.pki.model.User;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Headless "expiring certificates" query, for scheduled checks:
+ * <pre>
+ * java -jar ska-configurator.jar --expiring &lt;days&gt; &lt;folder-or-file.xml&gt;
+ * </pre>
+ * Loads the SKA files, builds the master user pool and prints one
+ * tab-separated line per certificate that expires within {@code days} days
+ * (or has already expired), soonest first.
+ * <p>
+ * Exit status: 0 if nothing expires, 2 if at least one certificate does,
+ * 1 on usage or load errors.
+ */
+public final class ExpiringCommand {
+
+    public static final String OPTION = "--expiring";
+
+    static final int EXIT_NONE = 0;
+    static final int EXIT_ERROR = 1;
+    static final int EXIT_EXPIRING = 2;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    private ExpiringCommand() {}
+
+    /** True if {@code args} select this command instead of the GUI. */
+    public static boolean matches(String[] args) {
+        return args.length > 0 && OPTION.equals(args[0]);
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length != 3 || !OPTION.equals(args[0])) {
+            err.println("Usage: " + OPTION + " <days> <folder-or-file.xml>");
+            return EXIT_ERROR;
+        }
+        int days;
+        try {
+            days = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            days = -1;
+        }
+        if (days < 0) {
+            err.println("Invalid number of days: " + args[1]);
+            return EXIT_ERROR;
+        }
+        List<SkaFolderLoader.LoadedFile> loaded = loadSkaFiles(args[2], err);
+        if (loaded == null) return EXIT_ERROR;
+
+        SkaWorkspace workspace = new SkaWorkspace();
+        Map<String, Set<String>> filesByCn = new HashMap<>();
+        for (SkaFolderLoader.LoadedFile lf : loaded) {
+            workspace.addEntry(new SkaConfigEntry(lf.config, lf.file));
+            for (User u : lf.config.getUsers()) {
+                filesByCn.computeIfAbsent(u.getCn(), k -> new TreeSet<>()).add(lf.file.getName());
+            }
+        }
+        workspace.rebuildMasterUserPool();
+
+        Instant now = Instant.now();
+        List<CertExpiryIndex.Expiry> expiring =
+                workspace.getMasterUserPool().getExpiryIndex().expiringWithin(days, now);
+        out.println("Not After\tDays Left\tCN\tName\tFiles");
+        for (CertExpiryIndex.Expiry e : expiring) {
+            out.println(DATE.format(e.notAfter) + "\t" + e.daysLeft(now) + "\t" + e.user.getCn()
+                    + "\t" + e.user.getName()
+                    + "\t" + String.join(",", filesByCn.getOrDefault(e.user.getCn(), Set.of())));
+        }
+        return expiring.isEmpty() ? EXIT_NONE : EXIT_EXPIRING;
+    }
+
+    /**
+     * Parse a SKA XML file, or every one in a folder, reporting per-file
+     * errors to {@code err}. Shared with {@link ValidityCommand}.
+     *
+     * @return the parsed files, or {@code null} if none could be loaded
+     */
+    static List<SkaFolderLoader.LoadedFile> loadSkaFiles(String pathArg, PrintStream err) {
+        File path = new File(pathArg);
+        List<File> files = path.isDirectory() ? SkaFolderLoader.listXmlFiles(path) : List.of(path);
+        if (!path.exists() || files.isEmpty()) {
+            err.println("No SKA XML files found: " + path);
+            return null;
+        }
+
+        SkaFolderLoader.LoadResult result;
+        try {
+            result = new SkaFolderLoader().load(files, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        result.errors.forEach((file, msg) -> err.println(file.getName() + ": " + msg));
+        return result.loaded.isEmpty() ? null : result.loaded;
+    }
+}
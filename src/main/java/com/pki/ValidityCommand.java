@@ -0,0 +1,85 @@
+package com.pki;
+
+import com.pki.io.SkaFolderLoader;
+import com.pki.model.SkaConfigEntry;
+import com.pki.model.SkaWorkspace;
+import com.pki.model.ValidityIndex;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Headless "section keys ending soon" query, for scheduled checks:
+ * <pre>
+ * java -jar ska-configurator.jar --validity &lt;days&gt; &lt;folder-or-file.xml&gt; [YYYY-MM-DD]
+ * </pre>
+ * Loads the SKA files and prints one tab-separated line per Organization,
+ * SKA Plus or SKA Modify key whose end validity falls within {@code days}
+ * days of the given date (today by default) or lies before it, soonest
+ * first, using the workspace {@link ValidityIndex}.
+ * <p>
+ * Exit status: 0 if no key ends, 2 if at least one does, 1 on usage or
+ * load errors.
+ */
+public final class ValidityCommand {
+
+    public static final String OPTION = "--validity";
+
+    static final int EXIT_NONE = 0;
+    static final int EXIT_ERROR = 1;
+    static final int EXIT_ENDING = 2;
+
+    private ValidityCommand() {}
+
+    /** True if {@code args} select this command instead of the GUI. */
+    public static boolean matches(String[] args) {
+        return args.length > 0 && OPTION.equals(args[0]);
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length < 3 || args.length > 4 || !OPTION.equals(args[0])) {
+            err.println("Usage: " + OPTION + " <days> <folder-or-file.xml> [YYYY-MM-DD]");
+            return EXIT_ERROR;
+        }
+        int days;
+        try {
+            days = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            days = -1;
+        }
+        if (days < 0) {
+            err.println("Invalid number of days: " + args[1]);
+            return EXIT_ERROR;
+        }
+        LocalDate date;
+        try {
+            date = args.length == 4 ? LocalDate.parse(args[3]) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            err.println("Invalid date (expected YYYY-MM-DD): " + args[3]);
+            return EXIT_ERROR;
+        }
+
+        List<SkaFolderLoader.LoadedFile> loaded = ExpiringCommand.loadSkaFiles(args[2], err);
+        if (loaded == null) return EXIT_ERROR;
+
+        SkaWorkspace workspace = new SkaWorkspace();
+        for (SkaFolderLoader.LoadedFile lf : loaded) {
+            workspace.addEntry(new SkaConfigEntry(lf.config, lf.file));
+        }
+        ValidityIndex index = workspace.getValidityIndex();
+        if (index.invalidCount() > 0) {
+            err.println(index.invalidCount() + " section(s) with an invalid validity date were skipped");
+        }
+
+        List<ValidityIndex.Window> ending = index.endingBetween(LocalDate.MIN, date.plusDays(days));
+        out.println("End Validity\tDays Left\tSection\tKey Label\tFile");
+        for (ValidityIndex.Window w : ending) {
+            out.println(w.end + "\t" + ChronoUnit.DAYS.between(date, w.end) + "\t" + w.sectionName
+                    + "\t" + w.keyLabel + "\t" + w.entry.getSourceFile().getName());
+        }
+        return ending.isEmpty() ? EXIT_NONE : EXIT_ENDING;
+    }
+}
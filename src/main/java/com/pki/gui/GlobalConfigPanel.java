@@ -1,6 +1,7 @@
 package com.pki.gui;
 
 import com.pki.model.SkaConfig;
+import com.pki.model.SkaSection;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -9,7 +10,6 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 /**
  * Panel for editing the top-level SKA configuration attributes:
@@ -208,21 +208,21 @@ public class GlobalConfigPanel extends JPanel {
      */
     public List<String> validateFields() {
         List<String> warnings = new ArrayList<>();
-        Pattern datePattern = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
 
-        validateDate(orgStartValidity.getText().trim(), "Organization start validity", datePattern, warnings);
-        validateDate(orgEndValidity.getText().trim(), "Organization end validity", datePattern, warnings);
-        validateDate(plusStartValidity.getText().trim(), "SKA Plus start validity", datePattern, warnings);
-        validateDate(plusEndValidity.getText().trim(), "SKA Plus end validity", datePattern, warnings);
-        validateDate(modStartValidity.getText().trim(), "SKA Modify start validity", datePattern, warnings);
-        validateDate(modEndValidity.getText().trim(), "SKA Modify end validity", datePattern, warnings);
+        validateDate(orgStartValidity.getText().trim(), "Organization start validity", warnings);
+        validateDate(orgEndValidity.getText().trim(), "Organization end validity", warnings);
+        validateDate(plusStartValidity.getText().trim(), "SKA Plus start validity", warnings);
+        validateDate(plusEndValidity.getText().trim(), "SKA Plus end validity", warnings);
+        validateDate(modStartValidity.getText().trim(), "SKA Modify start validity", warnings);
+        validateDate(modEndValidity.getText().trim(), "SKA Modify end validity", warnings);
 
         return warnings;
     }
 
-    private void validateDate(String value, String label, Pattern pattern, List<String> warnings) {
-        if (!value.isEmpty() && !pattern.matcher(value).matches()) {
-            warnings.add(label + " is not in YYYY-MM-DD format: \"" + value + "\"");
+    /** Same parser the model uses, so e.g. 2025-02-30 is rejected as well. */
+    private void validateDate(String value, String label, List<String> warnings) {
+        if (!value.isEmpty() && SkaSection.parseDate(value) == null) {
+            warnings.add(label + " is not a valid YYYY-MM-DD date: \"" + value + "\"");
         }
     }
 }
@@ -60,12 +60,14 @@ public class KeysProtoPanel extends JPanel {
         unblockPanel.loadFrom(ops.getUnblock());
     }
 
-    public void saveTo(KeysProto kp) {
+    /** @return true if the boundaries of any operation were replaced */
+    public boolean saveTo(KeysProto kp) {
         ecPanel.saveTo(kp.getEcParameters());
         Operations ops = kp.getOperations();
-        usePanel.saveTo(ops.getUse());
-        modifyPanel.saveTo(ops.getModify());
-        blockPanel.saveTo(ops.getBlock());
-        unblockPanel.saveTo(ops.getUnblock());
+        boolean replaced = usePanel.saveTo(ops.getUse());
+        replaced |= modifyPanel.saveTo(ops.getModify());
+        replaced |= blockPanel.saveTo(ops.getBlock());
+        replaced |= unblockPanel.saveTo(ops.getUnblock());
+        return replaced;
     }
 }
@@ -1,13 +1,20 @@
 package com.pki.gui;
 
+import com.pki.io.CertDirectoryImporter;
+import com.pki.io.CsvImportState;
 import com.pki.io.CsvImporter;
 import com.pki.io.ReportGenerator;
+import com.pki.io.SkaFolderLoader;
+import com.pki.io.SkaFolderSaver;
 import com.pki.io.SkaXmlReader;
 import com.pki.io.SkaXmlWriter;
+import com.pki.io.WorkspaceCache;
+import com.pki.io.WorkspaceWatcher;
 import com.pki.model.SkaConfig;
 import com.pki.model.SkaConfigEntry;
 import com.pki.model.SkaWorkspace;
 import com.pki.model.User;
+import com.pki.model.UserPool;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -15,6 +22,7 @@ import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -47,6 +55,7 @@ public class MainFrame extends JFrame {
 
     private final SkaWorkspace workspace = new SkaWorkspace();
     private File workspaceFolder;  // non-null when a folder was opened
+    private WorkspaceWatcher watcher; // reports external changes in workspaceFolder
     private Boolean loadEnvironmentIntegration = null; // null = not asked yet this session
     private String sessionEnvironmentName = ""; // free-text env label for filename
 
@@ -65,6 +74,15 @@ public class MainFrame extends JFrame {
     private final JLabel skaSelectorLabel;
     private boolean skaSelectorUpdating = false;  // guard against listener re-entry
 
+    // Background file operations: one at a time, conflicting actions disabled meanwhile
+    private final TaskRunner tasks;
+    private final List<JComponent> taskConflictingActions = new java.util.ArrayList<>();
+    private final TaskRunner.BlockingLayerUI editorBlocker = new TaskRunner.BlockingLayerUI();
+    private final List<WorkspaceWatcher.FileChange> deferredExternalChanges = new java.util.ArrayList<>();
+
+    // Editor tabs still showing an older config; reloaded when selected (see invalidateTabs)
+    private final java.util.Set<Component> staleTabs = new java.util.HashSet<>();
+
     public MainFrame() {
         super("SKA Configurator");
         this.config = new SkaConfig();
@@ -126,6 +144,9 @@ public class MainFrame extends JFrame {
             if (idx >= 0) switchToEntry(idx);
         });
         envToolBar.add(skaSelector);
+        taskConflictingActions.add(prodRadio);
+        taskConflictingActions.add(integrationRadio);
+        taskConflictingActions.add(skaSelector);
 
         add(envToolBar, BorderLayout.NORTH);
 
@@ -140,7 +161,9 @@ public class MainFrame extends JFrame {
         usersPanel = new UsersPanel();
         usersPanel.setStatusCallback(this::setStatus);
         usersPanel.setDirtyCallback(this::markDirty);
-        usersPanel.setRefreshCallback(this::loadModelIntoUI);
+        usersPanel.setModelSyncCallback(this::collectUIIntoModel);
+        usersPanel.setWhereUsedProvider(workspace::whereUsed);
+        usersPanel.setValidityIndexProvider(workspace::getValidityIndex);
 
         // Wire user list supplier so operation panels can pick users
         java.util.function.Supplier<java.util.List<User>> userSupplier = () -> config.getUsers();
@@ -164,14 +187,26 @@ public class MainFrame extends JFrame {
                 tabbedPane.setTitleAt(idx, name.isEmpty() ? "Keys" : "Keys (" + name + ")");
             }
         });
-        add(tabbedPane, BorderLayout.CENTER);
+        // Section editors of another config are only loaded once their tab is shown
+        tabbedPane.addChangeListener(e -> {
+            Component selected = tabbedPane.getSelectedComponent();
+            if (staleTabs.remove(selected)) loadTab(selected);
+        });
+        workspace.addListener(new WorkspaceChanges());
+
+        // Editors stay visible but take no input while a background task reads the model
+        add(new JLayer<JComponent>(tabbedPane, editorBlocker), BorderLayout.CENTER);
 
-        // Status bar
+        // Status bar, with the progress and Cancel button of the running task on the right
         statusBar = new JLabel("  Ready — No file loaded");
-        statusBar.setBorder(BorderFactory.createCompoundBorder(
+        tasks = new TaskRunner(this, this::setStatus, this::setBusy);
+        JPanel statusPanel = new JPanel(new BorderLayout(8, 0));
+        statusPanel.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createMatteBorder(1, 0, 0, 0, UIManager.getColor("Separator.foreground")),
                 BorderFactory.createEmptyBorder(4, 8, 4, 8)));
-        add(statusBar, BorderLayout.SOUTH);
+        statusPanel.add(statusBar, BorderLayout.CENTER);
+        statusPanel.add(tasks.getComponent(), BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
 
         loadModelIntoUI();
     }
@@ -197,14 +232,13 @@ public class MainFrame extends JFrame {
         // Save current UI state into current model
         collectUIIntoModel();
 
-        workspace.setActiveIndex(index);
-        SkaConfigEntry entry = workspace.getActiveEntry();
+        SkaConfigEntry entry = workspace.getEntries().get(index);
         this.config = entry.getConfig();
         this.currentFile = entry.getSourceFile();
         this.dirty = entry.isDirty();
         this.loadedVersion = entry.getLoadedVersion();
 
-        loadModelIntoUI();
+        workspace.setActiveIndex(index); // WorkspaceChanges shows the entry
         refreshSkaSelector();
         setStatus("Switched to: " + entry.getDisplayLabel());
     }
@@ -213,6 +247,24 @@ public class MainFrame extends JFrame {
         statusBar.setText("  " + message);
     }
 
+    /**
+     * Called by {@link TaskRunner} when a task starts and ends: disables the
+     * file actions and editors that would conflict with it, and applies
+     * changes on disk that arrived meanwhile once it is over.
+     */
+    private void setBusy(boolean busy) {
+        for (JComponent c : taskConflictingActions) {
+            c.setEnabled(!busy);
+        }
+        editorBlocker.setBlocked(busy);
+        if (!busy && !deferredExternalChanges.isEmpty()) {
+            List<WorkspaceWatcher.FileChange> changes = new java.util.ArrayList<>(deferredExternalChanges);
+            deferredExternalChanges.clear();
+            // After the task's completion callback; deferred again if it starts another task
+            SwingUtilities.invokeLater(() -> applyExternalChanges(changes));
+        }
+    }
+
     // --- Environment toggle ---
 
     private void onEnvironmentChanged() {
@@ -258,6 +310,9 @@ public class MainFrame extends JFrame {
         importCsvItem.setAccelerator(KeyStroke.getKeyStroke("control I"));
         importCsvItem.addActionListener(e -> doImportCsv());
 
+        JMenuItem importCertsItem = new JMenuItem("Import Certificates from Folder\u2026");
+        importCertsItem.addActionListener(e -> doImportCertificateFolder());
+
         JMenuItem reportItem = new JMenuItem("Generate Report…");
         reportItem.setAccelerator(KeyStroke.getKeyStroke("control R"));
         reportItem.addActionListener(e -> doGenerateReport());
@@ -265,6 +320,9 @@ public class MainFrame extends JFrame {
         JMenuItem exitItem = new JMenuItem("Exit");
         exitItem.addActionListener(e -> doExit());
 
+        taskConflictingActions.addAll(List.of(newItem, openItem, openFolderItem, saveItem, saveAsItem,
+                saveAllItem, importCsvItem, importCertsItem, reportItem));
+
         fileMenu.add(newItem);
         fileMenu.addSeparator();
         fileMenu.add(openItem);
@@ -274,6 +332,7 @@ public class MainFrame extends JFrame {
         fileMenu.add(saveAllItem);
         fileMenu.addSeparator();
         fileMenu.add(importCsvItem);
+        fileMenu.add(importCertsItem);
         fileMenu.add(reportItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
@@ -292,6 +351,7 @@ public class MainFrame extends JFrame {
         this.dirty = false;
         this.loadedVersion = -1;
 
+        stopWatching();
         workspace.clear();
         workspaceFolder = null;
         SkaConfigEntry entry = new SkaConfigEntry(config, null);
@@ -311,36 +371,51 @@ public class MainFrame extends JFrame {
         if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
 
         File file = chooser.getSelectedFile();
-        try {
-            boolean isIntegration = promptLoadEnvironment();
+        boolean isIntegration = promptLoadEnvironment();
 
-            SkaXmlReader reader = new SkaXmlReader();
-            this.config = reader.read(file);
-            applyLoadEnvironmentToUsers(config.getUsers(), isIntegration);
-            config.setIntegrationEnvironment(isIntegration);
+        // Parse and hash off the EDT; the new config is not shown until succeeded()
+        tasks.start(new TaskRunner.Task<SkaConfigEntry>("Open " + file.getName()) {
+            @Override
+            protected SkaConfigEntry work(TaskRunner.Progress progress) throws Exception {
+                SkaConfig loaded = new SkaXmlReader().read(file);
+                applyLoadEnvironmentToUsers(loaded.getUsers(), isIntegration);
+                loaded.setIntegrationEnvironment(isIntegration);
+                SkaConfigEntry entry = new SkaConfigEntry(loaded, file);
+                entry.setContentHash(contentHashOrNull(loaded));
+                return entry;
+            }
 
-            this.currentFile = file;
-            this.dirty = false;
-            this.loadedVersion = config.getVersion();
+            @Override
+            protected void succeeded(SkaConfigEntry entry) {
+                config = entry.getConfig();
+                currentFile = file;
+                dirty = false;
+                loadedVersion = config.getVersion();
+
+                stopWatching();
+                workspace.clear();
+                workspaceFolder = null;
+                workspace.addEntry(entry);
 
-            workspace.clear();
-            workspaceFolder = null;
-            SkaConfigEntry entry = new SkaConfigEntry(config, file);
-            entry.setLoadedVersion(loadedVersion);
-            workspace.addEntry(entry);
+                loadModelIntoUI();
+                refreshSkaSelector();
+                setStatus("Loaded: " + file.getName() + "  (" + config.getUsers().size() + " users)");
 
-            loadModelIntoUI();
-            refreshSkaSelector();
-            setStatus("Loaded: " + file.getName() + "  (" + config.getUsers().size() + " users)");
+                promptCsvVerification();
+            }
 
-            promptCsvVerification();
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to open file:\n" + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to open file:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
+    /** Files parsed by Open Folder, as entries with their content hashes. */
+    private record FolderLoad(SkaFolderLoader.LoadResult result, List<SkaConfigEntry> entries) { }
+
     private void doOpenFolder() {
         if (!confirmDiscardChanges("Open Folder")) return;
 
@@ -351,35 +426,81 @@ public class MainFrame extends JFrame {
         if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
 
         File folder = chooser.getSelectedFile();
-        File[] xmlFiles = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".xml"));
-        if (xmlFiles == null || xmlFiles.length == 0) {
+        List<File> xmlFiles = SkaFolderLoader.listXmlFiles(folder);
+        if (xmlFiles.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                     "No XML files found in:\n" + folder.getAbsolutePath(),
                     "Open Folder", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
 
-        workspace.clear();
-        workspaceFolder = folder;
-        java.util.Arrays.sort(xmlFiles, java.util.Comparator.comparing(File::getName));
-
         boolean isIntegration = promptLoadEnvironment();
 
-        SkaXmlReader reader = new SkaXmlReader();
-        int errorCount = 0;
-        StringBuilder errors = new StringBuilder();
+        // Parse in parallel off the EDT; the current workspace stays as it is until succeeded()
+        SkaFolderLoader loader = new SkaFolderLoader();
+        loader.setCache(WorkspaceCache.forFolder(folder));
+        tasks.start(new TaskRunner.Task<FolderLoad>("Open folder " + folder.getName()) {
+            @Override
+            protected FolderLoad work(TaskRunner.Progress progress) throws Exception {
+                progress.update(0, xmlFiles.size(), null);
+                SkaFolderLoader.LoadResult result = loader.load(xmlFiles,
+                        (done, total, file) -> progress.update(done, total, file.getName()));
+                List<SkaConfigEntry> entries = new java.util.ArrayList<>();
+                if (result.cancelled) return new FolderLoad(result, entries);
+
+                // Results arrive in sorted filename order regardless of parse completion order
+                for (SkaFolderLoader.LoadedFile lf : result.loaded) {
+                    applyLoadEnvironmentToUsers(lf.config.getUsers(), isIntegration);
+                    lf.config.setIntegrationEnvironment(isIntegration);
+                    SkaConfigEntry entry = new SkaConfigEntry(lf.config, lf.file);
+                    // The writer emits the integration user ID in place of the moved
+                    // XML value, so the environment does not change the cached hash
+                    entry.setContentHash(lf.contentHash);
+                    entries.add(entry);
+                }
+                rememberContentHashes(entries);
+                return new FolderLoad(result, entries);
+            }
 
-        for (File f : xmlFiles) {
-            try {
-                SkaConfig cfg = reader.read(f);
-                applyLoadEnvironmentToUsers(cfg.getUsers(), isIntegration);
-                cfg.setIntegrationEnvironment(isIntegration);
-                SkaConfigEntry entry = new SkaConfigEntry(cfg, f);
-                workspace.addEntry(entry);
-            } catch (Exception ex) {
-                errorCount++;
-                errors.append("  \u2022 ").append(f.getName()).append(": ").append(ex.getMessage()).append("\n");
+            @Override
+            protected boolean stop() {
+                loader.cancel();
+                return true;
             }
+
+            @Override
+            protected void succeeded(FolderLoad load) {
+                showLoadedFolder(folder, load);
+            }
+
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to open folder:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    /** Replace the workspace with a loaded folder. Runs on the EDT. */
+    private void showLoadedFolder(File folder, FolderLoad load) {
+        SkaFolderLoader.LoadResult result = load.result();
+        if (result.cancelled) {
+            setStatus("Open folder cancelled — workspace unchanged");
+            return;
+        }
+
+        stopWatching();
+        workspace.clear();
+        workspaceFolder = folder;
+        for (SkaConfigEntry entry : load.entries()) {
+            workspace.addEntry(entry);
+        }
+
+        int errorCount = result.errors.size();
+        StringBuilder errors = new StringBuilder();
+        for (var err : result.errors.entrySet()) {
+            errors.append("  \u2022 ").append(err.getKey().getName()).append(": ").append(err.getValue()).append("\n");
         }
 
         if (workspace.isEmpty()) {
@@ -406,6 +527,9 @@ public class MainFrame extends JFrame {
         int total = workspace.getEntries().size();
         String msg = "Opened folder: " + folder.getName() + " — " + total + " SKA file(s)"
                 + ", " + workspace.getMasterUserPool().size() + " unique user(s)";
+        if (result.cacheHits > 0) {
+            msg += " [" + result.cacheHits + " unchanged file(s) read from cache]";
+        }
         if (errorCount > 0) {
             msg += " (" + errorCount + " file(s) failed to parse)";
             JOptionPane.showMessageDialog(this,
@@ -413,10 +537,120 @@ public class MainFrame extends JFrame {
                     "Parse Warnings", JOptionPane.WARNING_MESSAGE);
         }
         setStatus(msg);
+        startWatching(folder);
 
         promptCsvVerification();
     }
 
+    // --- External changes (folder watcher) ---
+
+    private void startWatching(File folder) {
+        stopWatching();
+        try {
+            watcher = new WorkspaceWatcher(folder,
+                    changes -> SwingUtilities.invokeLater(() -> applyExternalChanges(changes)));
+        } catch (java.io.IOException ex) {
+            watcher = null; // watching is a convenience; the workspace still works
+            setStatus("Folder opened, but changes on disk will not be detected: " + ex.getMessage());
+        }
+    }
+
+    private void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Apply files created, modified or deleted by someone else. Clean entries
+     * are reloaded/added/removed; dirty entries are only flagged so unsaved
+     * edits are never overwritten. Runs on the EDT.
+     */
+    private void applyExternalChanges(List<WorkspaceWatcher.FileChange> changes) {
+        if (workspaceFolder == null) return; // workspace closed meanwhile
+        if (tasks.isBusy()) {
+            deferredExternalChanges.addAll(changes); // the running task may be reading these entries
+            return;
+        }
+
+        // Keep edits of the active entry before entries are swapped out
+        collectUIIntoModel();
+        SkaConfigEntry activeBefore = workspace.getActiveEntry();
+        boolean integration = loadEnvironmentIntegration != null && loadEnvironmentIntegration;
+
+        int added = 0, reloaded = 0, removed = 0;
+        StringBuilder conflicts = new StringBuilder();
+        StringBuilder failures = new StringBuilder();
+        for (WorkspaceWatcher.FileChange change : changes) {
+            SkaWorkspace.ExternalChange outcome;
+            if (change.kind == WorkspaceWatcher.Kind.DELETED) {
+                outcome = workspace.applyFileDeleted(change.file);
+            } else if (change.config == null) {
+                // Often a file still being copied; the next write triggers another attempt
+                failures.append("  \u2022 ").append(change.file.getName())
+                        .append(": ").append(change.error).append("\n");
+                continue;
+            } else {
+                applyLoadEnvironmentToUsers(change.config.getUsers(), integration);
+                change.config.setIntegrationEnvironment(integration);
+                outcome = workspace.applyFileChanged(change.file, change.config);
+                if (outcome != SkaWorkspace.ExternalChange.CONFLICT) {
+                    workspace.findEntryByFile(change.file).setContentHash(change.contentHash);
+                }
+            }
+            switch (outcome) {
+                case ADDED -> added++;
+                case RELOADED -> reloaded++;
+                case REMOVED -> removed++;
+                case CONFLICT -> conflicts.append("  \u2022 ").append(change.file.getName())
+                        .append(change.kind == WorkspaceWatcher.Kind.DELETED ? " (deleted)" : " (modified)")
+                        .append("\n");
+                default -> { }
+            }
+        }
+
+        if (workspace.isEmpty()) {
+            setStatus("All SKA files were removed from " + workspaceFolder.getName());
+            doNew();
+            return;
+        }
+
+        // The pool merges already announced updated and added users. Only
+        // re-point the editors if the active entry itself was replaced, and
+        // reload the user table only if it switches between file and pool view.
+        SkaConfigEntry active = workspace.getActiveEntry();
+        boolean poolView = workspace.getEntries().size() > 1;
+        if (active != activeBefore || active.getConfig() != config || poolView != usersPanel.isWorkspaceMode()) {
+            this.config = active.getConfig();
+            this.currentFile = active.getSourceFile();
+            this.dirty = active.isDirty();
+            this.loadedVersion = active.getLoadedVersion();
+            if (poolView != usersPanel.isWorkspaceMode()) {
+                loadModelIntoUI();
+            } else {
+                showActiveEntry(active);
+            }
+        }
+        refreshSkaSelector();
+
+        StringBuilder msg = new StringBuilder("Changes on disk:");
+        if (added > 0) msg.append(" ").append(added).append(" added");
+        if (reloaded > 0) msg.append(" ").append(reloaded).append(" reloaded");
+        if (removed > 0) msg.append(" ").append(removed).append(" removed");
+        if (conflicts.length() > 0) msg.append(" — conflicts with unsaved changes");
+        if (failures.length() > 0) msg.append(" — some files could not be parsed");
+        setStatus(msg.toString());
+
+        if (conflicts.length() > 0) {
+            JOptionPane.showMessageDialog(this,
+                    "These files changed on disk but have unsaved changes here.\n"
+                            + "Your edits were kept; saving will overwrite the external version:\n\n"
+                            + conflicts,
+                    "External Changes", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
     /**
      * Prompt for the load environment (Prod or Integration).
      * Remembered for the session — only asks once.
@@ -468,121 +702,143 @@ public class MainFrame extends JFrame {
         chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
         if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
 
-        try {
-            CsvImporter importer = new CsvImporter();
-            List<User> csvUsers = importer.importUsers(chooser.getSelectedFile());
-
-            // Build CSV lookup by CN
-            var csvByCn = new java.util.LinkedHashMap<String, User>();
-            for (User u : csvUsers) {
-                if (!u.getCn().isEmpty()) csvByCn.put(u.getCn(), u);
-            }
-
-            // Collect all loaded users (master pool or single config)
-            List<User> loadedUsers = workspace.getEntries().size() > 1
-                    ? workspace.getMasterUserPool()
-                    : config.getUsers();
-
-            StringBuilder report = new StringBuilder();
-            int mismatches = 0;
-            List<String> missingUsers = new java.util.ArrayList<>();
-
-            for (User loaded : loadedUsers) {
-                User csv = csvByCn.get(loaded.getCn());
-                if (csv == null) {
-                    String label = loaded.getCn();
-                    if (loaded.getName() != null && !loaded.getName().isEmpty()) {
-                        label += " (" + loaded.getName() + ")";
-                    }
-                    missingUsers.add(label);
-                    continue;
-                }
+        File file = chooser.getSelectedFile();
+        tasks.start(new TaskRunner.Task<List<User>>("Read " + file.getName()) {
+            @Override
+            protected List<User> work(TaskRunner.Progress progress) throws Exception {
+                return new CsvImporter().importUsers(file);
+            }
 
-                // Check Prod userId
-                String loadedProd = loaded.getUserId();
-                String csvProd = csv.getUserId();
-                if (!csvProd.isEmpty() && !loadedProd.isEmpty()
-                        && !csvProd.equals(loadedProd)) {
-                    mismatches++;
-                    report.append("  \u2022 ").append(loaded.getCn())
-                            .append("\n    Prod UserID: SKA=\"").append(loadedProd)
-                            .append("\" CSV=\"").append(csvProd).append("\"\n");
-                }
+            @Override
+            protected void succeeded(List<User> csvUsers) {
+                showCsvVerification(csvUsers);
+            }
 
-                // Check Integration userId
-                String loadedInt = loaded.getUserIdIntegration();
-                String csvInt = csv.getUserIdIntegration();
-                if (!csvInt.isEmpty() && !loadedInt.isEmpty()
-                        && !csvInt.equals(loadedInt)) {
-                    mismatches++;
-                    report.append("  \u2022 ").append(loaded.getCn())
-                            .append("\n    Int UserID:  SKA=\"").append(loadedInt)
-                            .append("\" CSV=\"").append(csvInt).append("\"\n");
-                }
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to read CSV:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
             }
+        });
+    }
 
-            // Build missing-users section
-            StringBuilder missingSection = new StringBuilder();
-            if (!missingUsers.isEmpty()) {
-                missingSection.append(missingUsers.size())
-                        .append(" SKA user(s) not found in CSV:\n");
-                for (String label : missingUsers) {
-                    missingSection.append("  \u2022 ").append(label).append("\n");
+    /** Report user ID mismatches between the loaded users and {@code csvUsers}. */
+    private void showCsvVerification(List<User> csvUsers) {
+        // Build CSV lookup by CN
+        var csvByCn = new java.util.LinkedHashMap<String, User>();
+        for (User u : csvUsers) {
+            if (!u.getCn().isEmpty()) csvByCn.put(u.getCn(), u);
+        }
+
+        // Collect all loaded users (master pool or single config)
+        List<User> loadedUsers = workspace.getEntries().size() > 1
+                ? workspace.getMasterUserPool()
+                : config.getUsers();
+
+        StringBuilder report = new StringBuilder();
+        int mismatches = 0;
+        List<String> missingUsers = new java.util.ArrayList<>();
+
+        for (User loaded : loadedUsers) {
+            User csv = csvByCn.get(loaded.getCn());
+            if (csv == null) {
+                String label = loaded.getCn();
+                if (loaded.getName() != null && !loaded.getName().isEmpty()) {
+                    label += " (" + loaded.getName() + ")";
                 }
+                missingUsers.add(label);
+                continue;
             }
 
-            // Show result
-            if (mismatches == 0 && missingUsers.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "All user IDs match the CSV. No inconsistencies found.",
-                        "CSV Verification", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                StringBuilder full = new StringBuilder();
-                if (mismatches > 0) {
-                    full.append(mismatches).append(" UserID mismatch(es) found:\n\n")
-                            .append(report).append("\n");
-                }
-                if (!missingUsers.isEmpty()) {
-                    full.append(missingSection);
-                }
-                JTextArea textArea = new JTextArea(full.toString());
-                textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-                textArea.setEditable(false);
-                int rows = Math.min(mismatches * 3 + missingUsers.size() + 5, 30);
-                textArea.setRows(rows);
-                textArea.setColumns(70);
-                textArea.setCaretPosition(0);
-                JScrollPane scroll = new JScrollPane(textArea);
-                String title = mismatches > 0
-                        ? "CSV Verification \u2014 Mismatches" : "CSV Verification \u2014 Missing Users";
-                JOptionPane.showMessageDialog(this, scroll, title, JOptionPane.WARNING_MESSAGE);
-            }
-
-            setStatus("CSV verification: " + mismatches + " mismatch(es)"
-                    + (!missingUsers.isEmpty() ? ", " + missingUsers.size() + " not in CSV" : ""));
-
-            // Also merge ALL CSV users into the master pool so they are
-            // available for assignment to any SKA
-            if (usersPanel.isWorkspaceMode()) {
-                doImportCsvIntoPool(csvUsers);
-                loadModelIntoUI();
+            // Check Prod userId
+            String loadedProd = loaded.getUserId();
+            String csvProd = csv.getUserId();
+            if (!csvProd.isEmpty() && !loadedProd.isEmpty()
+                    && !csvProd.equals(loadedProd)) {
+                mismatches++;
+                report.append("  \u2022 ").append(loaded.getCn())
+                        .append("\n    Prod UserID: SKA=\"").append(loadedProd)
+                        .append("\" CSV=\"").append(csvProd).append("\"\n");
             }
-        } catch (Exception ex) {
+
+            // Check Integration userId
+            String loadedInt = loaded.getUserIdIntegration();
+            String csvInt = csv.getUserIdIntegration();
+            if (!csvInt.isEmpty() && !loadedInt.isEmpty()
+                    && !csvInt.equals(loadedInt)) {
+                mismatches++;
+                report.append("  \u2022 ").append(loaded.getCn())
+                        .append("\n    Int UserID:  SKA=\"").append(loadedInt)
+                        .append("\" CSV=\"").append(csvInt).append("\"\n");
+            }
+        }
+
+        // Build missing-users section
+        StringBuilder missingSection = new StringBuilder();
+        if (!missingUsers.isEmpty()) {
+            missingSection.append(missingUsers.size())
+                    .append(" SKA user(s) not found in CSV:\n");
+            for (String label : missingUsers) {
+                missingSection.append("  \u2022 ").append(label).append("\n");
+            }
+        }
+
+        // Show result
+        if (mismatches == 0 && missingUsers.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "Failed to read CSV:\n" + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+                    "All user IDs match the CSV. No inconsistencies found.",
+                    "CSV Verification", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            StringBuilder full = new StringBuilder();
+            if (mismatches > 0) {
+                full.append(mismatches).append(" UserID mismatch(es) found:\n\n")
+                        .append(report).append("\n");
+            }
+            if (!missingUsers.isEmpty()) {
+                full.append(missingSection);
+            }
+            JTextArea textArea = new JTextArea(full.toString());
+            textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            textArea.setEditable(false);
+            int rows = Math.min(mismatches * 3 + missingUsers.size() + 5, 30);
+            textArea.setRows(rows);
+            textArea.setColumns(70);
+            textArea.setCaretPosition(0);
+            JScrollPane scroll = new JScrollPane(textArea);
+            String title = mismatches > 0
+                    ? "CSV Verification \u2014 Mismatches" : "CSV Verification \u2014 Missing Users";
+            JOptionPane.showMessageDialog(this, scroll, title, JOptionPane.WARNING_MESSAGE);
+        }
+
+        setStatus("CSV verification: " + mismatches + " mismatch(es)"
+                + (!missingUsers.isEmpty() ? ", " + missingUsers.size() + " not in CSV" : ""));
+
+        // Also merge ALL CSV users into the master pool so they are
+        // available for assignment to any SKA
+        if (usersPanel.isWorkspaceMode()) {
+            doImportCsvIntoPool(csvUsers);
         }
     }
 
     private void doSave() {
+        doSave(() -> { });
+    }
+
+    /** Save the current file; {@code afterSave} runs on the EDT once it was written. */
+    private void doSave(Runnable afterSave) {
         if (currentFile == null) {
-            doSaveAs();
+            doSaveAs(afterSave);
             return;
         }
-        saveToFile(currentFile);
+        saveToFile(currentFile, afterSave);
     }
 
     private void doSaveAs() {
+        doSaveAs(() -> { });
+    }
+
+    private void doSaveAs(Runnable afterSave) {
         JFileChooser chooser = fastFileChooser(".");
         chooser.setDialogTitle("Save SKA XML Configuration");
         chooser.setFileFilter(new FileNameExtensionFilter("XML files (*.xml)", "xml"));
@@ -603,69 +859,97 @@ public class MainFrame extends JFrame {
             if (confirm != JOptionPane.YES_OPTION) return;
         }
 
-        saveToFile(file);
+        saveToFile(file, afterSave);
     }
 
-    private void saveToFile(File file) {
-        try {
-            collectUIIntoModel();
+    private void saveToFile(File file, Runnable afterSave) {
+        collectUIIntoModel();
 
-            // Prompt to increase version if unchanged since load
-            if (loadedVersion >= 0 && config.getVersion() <= loadedVersion) {
-                int ans = JOptionPane.showConfirmDialog(this,
-                        "The version number (" + config.getVersion()
-                                + ") has not been increased since loading the file.\n\n"
-                                + "Increase version to " + (loadedVersion + 1) + "?",
-                        "Version Number", JOptionPane.YES_NO_CANCEL_OPTION,
-                        JOptionPane.QUESTION_MESSAGE);
-                if (ans == JOptionPane.CANCEL_OPTION || ans == JOptionPane.CLOSED_OPTION) return;
-                if (ans == JOptionPane.YES_OPTION) {
-                    config.setVersion(loadedVersion + 1);
-                    loadModelIntoUI(); // refresh spinner
-                }
+        // Prompt to increase version if unchanged since load
+        if (loadedVersion >= 0 && config.getVersion() <= loadedVersion) {
+            int ans = JOptionPane.showConfirmDialog(this,
+                    "The version number (" + config.getVersion()
+                            + ") has not been increased since loading the file.\n\n"
+                            + "Increase version to " + (loadedVersion + 1) + "?",
+                    "Version Number", JOptionPane.YES_NO_CANCEL_OPTION,
+                    JOptionPane.QUESTION_MESSAGE);
+            if (ans == JOptionPane.CANCEL_OPTION || ans == JOptionPane.CLOSED_OPTION) return;
+            if (ans == JOptionPane.YES_OPTION) {
+                config.setVersion(loadedVersion + 1);
+                workspace.fireMetadataChanged(config); // refresh spinner
             }
+        }
 
-            // Pre-save validation warnings
-            String warnings = buildSaveWarnings();
-            if (!warnings.isEmpty()) {
-                int ans = JOptionPane.showConfirmDialog(this,
-                        "The configuration has potential issues:\n\n" + warnings
-                                + "\nSave anyway?",
-                        "Validation Warnings", JOptionPane.YES_NO_OPTION,
-                        JOptionPane.WARNING_MESSAGE);
-                if (ans != JOptionPane.YES_OPTION) return;
-            }
+        // Pre-save validation warnings
+        String warnings = buildSaveWarnings();
+        if (!warnings.isEmpty()) {
+            int ans = JOptionPane.showConfirmDialog(this,
+                    "The configuration has potential issues:\n\n" + warnings
+                            + "\nSave anyway?",
+                    "Validation Warnings", JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+            if (ans != JOptionPane.YES_OPTION) return;
+        }
 
-            String envName = promptEnvironmentName();
-            if (envName == null) return; // user cancelled
+        String envName = promptEnvironmentName();
+        if (envName == null) return; // user cancelled
 
-            SkaXmlWriter writer = new SkaXmlWriter();
-            String oldEnv = sessionEnvironmentName;
-            sessionEnvironmentName = envName;
-            file = applyVersionToFilename(file, config.getVersion(), envName, oldEnv);
-            writer.write(config, file);
-            this.currentFile = file;
-            this.dirty = false;
+        String oldEnv = sessionEnvironmentName;
+        sessionEnvironmentName = envName;
+        File target = applyVersionToFilename(file, config.getVersion(), envName, oldEnv);
+        SkaConfig saving = config;
+        SkaConfigEntry active = workspace.getActiveEntry();
+        WorkspaceWatcher ownWrites = watcher;
 
-            // Keep workspace entry in sync
-            SkaConfigEntry active = workspace.getActiveEntry();
-            if (active != null) {
-                active.setSourceFile(file);
-                active.setDirty(false);
-                active.setLoadedVersion(config.getVersion());
+        // Write and hash off the EDT; the editors are blocked meanwhile
+        tasks.start(new TaskRunner.Task<byte[]>("Save " + target.getName()) {
+            @Override
+            protected byte[] work(TaskRunner.Progress progress) throws Exception {
+                new SkaXmlWriter().write(saving, target);
+                if (ownWrites != null) ownWrites.markOwnWrite(target);
+                return contentHashOrNull(saving);
             }
-            this.loadedVersion = config.getVersion();
 
-            refreshSkaSelector();
-            setStatus("Saved: " + file.getName());
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to save file:\n" + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void succeeded(byte[] contentHash) {
+                currentFile = target;
+                dirty = false;
+
+                // Keep workspace entry in sync
+                if (active != null) {
+                    active.setSourceFile(target);
+                    active.setDirty(false);
+                    active.setExternalConflict(false);
+                    active.setLoadedVersion(saving.getVersion());
+                    active.setContentHash(contentHash);
+                }
+                loadedVersion = saving.getVersion();
+
+                updateTitle();
+                refreshSkaSelector();
+                setStatus("Saved: " + target.getName());
+                afterSave.run();
+            }
+
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to save file:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void doSaveAll() {
+        doSaveAll(() -> { });
+    }
+
+    /**
+     * Save every dirty entry. Content hashes and the writes run as
+     * background tasks; the prompts in between run on the EDT.
+     * {@code afterSave} runs on the EDT once the save is complete.
+     */
+    private void doSaveAll(Runnable afterSave) {
         if (workspace.isEmpty()) return;
 
         // Collect UI into the active model
@@ -679,6 +963,55 @@ public class MainFrame extends JFrame {
             }
         }
 
+        // Entries marked dirty whose content did not actually change (e.g. after
+        // a CSV import that touched other SKAs) are neither rewritten nor re-versioned
+        List<SkaConfigEntry> candidates = new java.util.ArrayList<>();
+        for (SkaConfigEntry entry : workspace.getEntries()) {
+            if (entry.isDirty()) candidates.add(entry);
+        }
+        tasks.start(new TaskRunner.Task<java.util.Map<SkaConfigEntry, byte[]>>("Save All") {
+            @Override
+            protected java.util.Map<SkaConfigEntry, byte[]> work(TaskRunner.Progress progress) {
+                java.util.Map<SkaConfigEntry, byte[]> hashes = new java.util.concurrent.ConcurrentHashMap<>();
+                java.util.concurrent.atomic.AtomicInteger done = new java.util.concurrent.atomic.AtomicInteger();
+                candidates.parallelStream().forEach(entry -> {
+                    if (progress.isCancelRequested()) return;
+                    byte[] hash = contentHashOrNull(entry.getConfig());
+                    if (hash != null) hashes.put(entry, hash);
+                    progress.update(done.incrementAndGet(), candidates.size(), "checking for changes");
+                });
+                return hashes;
+            }
+
+            @Override
+            protected void succeeded(java.util.Map<SkaConfigEntry, byte[]> hashes) {
+                saveChangedEntries(candidates, hashes, afterSave);
+            }
+        });
+    }
+
+    /** Second half of Save All, on the EDT: skip unchanged entries, prompt, then write. */
+    private void saveChangedEntries(List<SkaConfigEntry> candidates,
+                                    java.util.Map<SkaConfigEntry, byte[]> hashes, Runnable afterSave) {
+        int unchanged = 0;
+        for (SkaConfigEntry entry : candidates) {
+            if (entry.isUnchanged(hashes.get(entry))) {
+                entry.setDirty(false);
+                entry.setExternalConflict(false);
+                unchanged++;
+            }
+        }
+        if (unchanged == candidates.size()) {
+            SkaConfigEntry active = workspace.getActiveEntry();
+            if (active != null) this.dirty = active.isDirty();
+            updateTitle();
+            refreshSkaSelector();
+            setStatus("Save All: nothing to save"
+                    + (unchanged > 0 ? " (" + unchanged + " unchanged file(s) skipped)" : ""));
+            afterSave.run();
+            return;
+        }
+
         // Prompt for environment name once (applies to all files)
         String envName = promptEnvironmentName();
         if (envName == null) return; // user cancelled
@@ -722,17 +1055,19 @@ public class MainFrame extends JFrame {
                         int loaded = entry.getLoadedVersion();
                         if (loaded >= 0 && current <= loaded) {
                             entry.getConfig().setVersion(loaded + 1);
+                            workspace.fireMetadataChanged(entry.getConfig());
                         }
                     }
                 }
             }
         }
 
-        SkaXmlWriter writer = new SkaXmlWriter();
-        int saved = 0;
         int errors = 0;
         StringBuilder errorDetails = new StringBuilder();
 
+        // Resolve target files on the EDT, then write in parallel
+        List<SkaConfigEntry> savedEntries = new java.util.ArrayList<>();
+        List<SkaFolderSaver.SaveJob> jobs = new java.util.ArrayList<>();
         for (SkaConfigEntry entry : workspace.getEntries()) {
             if (!entry.isDirty()) continue;
             File file = entry.getSourceFile();
@@ -743,22 +1078,91 @@ public class MainFrame extends JFrame {
                 errors++;
                 continue;
             }
-            try {
-                File versionedFile = applyVersionToFilename(file, entry.getConfig().getVersion(),
-                        envName, oldEnv);
-                writer.write(entry.getConfig(), versionedFile);
-                if (!versionedFile.equals(file)) {
-                    entry.setSourceFile(versionedFile);
-                }
-                entry.setDirty(false);
-                entry.setLoadedVersion(entry.getConfig().getVersion());
-                saved++;
-            } catch (Exception ex) {
+            File versionedFile = applyVersionToFilename(file, entry.getConfig().getVersion(),
+                    envName, oldEnv);
+            savedEntries.add(entry);
+            jobs.add(new SkaFolderSaver.SaveJob(entry.getConfig(), versionedFile));
+        }
+
+        SaveAllOutcome outcome = new SaveAllOutcome(savedEntries, jobs, hashes, errors, errorDetails, unchanged);
+        if (jobs.isEmpty()) {
+            finishSaveAll(outcome, new SkaFolderSaver.SaveResult(List.of(), java.util.Map.of(), false), afterSave);
+            return;
+        }
+
+        SkaFolderSaver saver = new SkaFolderSaver();
+        WorkspaceWatcher ownWrites = watcher;
+        tasks.start(new TaskRunner.Task<SkaFolderSaver.SaveResult>("Save All") {
+            @Override
+            protected SkaFolderSaver.SaveResult work(TaskRunner.Progress progress) throws Exception {
+                progress.update(0, jobs.size(), null);
+                return saver.save(jobs, (done, total, file) -> {
+                    // Mark right away: the watcher may fire before the task ends
+                    if (ownWrites != null) ownWrites.markOwnWrite(file);
+                    progress.update(done, total, file.getName());
+                });
+            }
+
+            @Override
+            protected boolean stop() {
+                saver.cancel();
+                return true;
+            }
+
+            @Override
+            protected void succeeded(SkaFolderSaver.SaveResult result) {
+                finishSaveAll(outcome, result, afterSave);
+            }
+
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to save files:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                finishSaveAll(outcome, null, afterSave);
+            }
+
+            @Override
+            protected void cancelled() {
+                finishSaveAll(outcome, null, afterSave);
+            }
+        });
+    }
+
+    /** What Save All decided on the EDT before writing, for {@link #finishSaveAll}. */
+    private record SaveAllOutcome(List<SkaConfigEntry> savedEntries, List<SkaFolderSaver.SaveJob> jobs,
+                                  java.util.Map<SkaConfigEntry, byte[]> hashes, int errors,
+                                  StringBuilder errorDetails, int unchanged) { }
+
+    /**
+     * Apply the result of the Save All writes on the EDT.
+     *
+     * @param result the save result, or {@code null} if the save failed as a whole
+     */
+    private void finishSaveAll(SaveAllOutcome outcome, SkaFolderSaver.SaveResult result, Runnable afterSave) {
+        int errors = outcome.errors();
+        StringBuilder errorDetails = outcome.errorDetails();
+        List<SkaFolderSaver.SaveJob> jobs = outcome.jobs();
+        int saved = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            SkaConfigEntry entry = outcome.savedEntries().get(i);
+            File versionedFile = jobs.get(i).file;
+            String error = result != null ? result.errors.get(versionedFile) : null;
+            if (error != null) {
                 errors++;
-                errorDetails.append("  \u2022 ").append(file.getName())
-                        .append(": ").append(ex.getMessage()).append("\n");
+                errorDetails.append("  \u2022 ").append(versionedFile.getName())
+                        .append(": ").append(error).append("\n");
+                continue;
             }
+            if (result == null || !result.saved.contains(versionedFile)) continue; // cancelled: still dirty
+            entry.setSourceFile(versionedFile);
+            entry.setDirty(false);
+            entry.setExternalConflict(false);
+            entry.setLoadedVersion(entry.getConfig().getVersion());
+            entry.setContentHash(outcome.hashes().get(entry));
+            saved++;
         }
+        boolean cancelled = result == null || result.cancelled;
 
         // Sync local dirty flag with active entry
         SkaConfigEntry active = workspace.getActiveEntry();
@@ -775,7 +1179,30 @@ public class MainFrame extends JFrame {
                     "Saved " + saved + " file(s), " + errors + " error(s):\n\n" + errorDetails,
                     "Save All", JOptionPane.WARNING_MESSAGE);
         }
-        setStatus("Save All: " + saved + " file(s) saved" + (errors > 0 ? ", " + errors + " failed" : ""));
+        setStatus("Save All: " + saved + " file(s) saved" + (errors > 0 ? ", " + errors + " failed" : "")
+                + (outcome.unchanged() > 0 ? ", " + outcome.unchanged() + " unchanged skipped" : "")
+                + (cancelled && saved < jobs.size() ? " — cancelled, remaining files unchanged" : ""));
+        afterSave.run();
+    }
+
+    /**
+     * Record the canonical content hash of each entry that has none yet as its
+     * clean baseline (see {@link SkaXmlWriter#contentHash}). Computed in
+     * parallel; the configs must not be modified meanwhile.
+     */
+    private static void rememberContentHashes(List<SkaConfigEntry> entries) {
+        entries.parallelStream()
+                .filter(e -> e.getContentHash() == null)
+                .forEach(e -> e.setContentHash(contentHashOrNull(e.getConfig())));
+    }
+
+    /** Content hash of {@code cfg}, or {@code null} if it cannot be serialized. */
+    private static byte[] contentHashOrNull(SkaConfig cfg) {
+        try {
+            return SkaXmlWriter.contentHash(cfg);
+        } catch (Exception ex) {
+            return null; // unknown: the entry is simply always written
+        }
     }
 
     /**
@@ -869,43 +1296,53 @@ public class MainFrame extends JFrame {
 
         File outputDir = chooser.getSelectedFile();
 
-        try {
-            // Build list of entries and users
-            List<SkaConfigEntry> entries;
-            List<User> users;
-
-            if (!workspace.getEntries().isEmpty()) {
-                // Folder mode: report all loaded entries
-                entries = workspace.getEntries();
-                users = new java.util.ArrayList<>(workspace.getMasterUserPool());
-            } else {
-                // Single-file mode
-                SkaConfigEntry single = new SkaConfigEntry(config,
-                        currentFile != null ? currentFile : new File("unsaved.xml"));
-                entries = List.of(single);
-                users = config.getUsers();
-            }
+        // Build list of entries and users
+        List<SkaConfigEntry> entries;
+        List<User> users;
 
-            ReportGenerator generator = new ReportGenerator();
-            ReportGenerator.ReportResult result = generator.generate(entries, users, outputDir);
+        if (!workspace.getEntries().isEmpty()) {
+            // Folder mode: report all loaded entries
+            entries = new java.util.ArrayList<>(workspace.getEntries());
+            users = new java.util.ArrayList<>(workspace.getMasterUserPool());
+        } else {
+            // Single-file mode
+            SkaConfigEntry single = new SkaConfigEntry(config,
+                    currentFile != null ? currentFile : new File("unsaved.xml"));
+            entries = List.of(single);
+            users = config.getUsers();
+        }
 
-            statusBar.setText("Report generated: " + result.membershipRows
-                    + " membership rows, " + result.userRows + " users");
+        ReportGenerator generator = new ReportGenerator();
+        generator.setCrlIndex(usersPanel.getCrlIndex());
+        tasks.start(new TaskRunner.Task<ReportGenerator.ReportResult>("Generate Report") {
+            @Override
+            protected ReportGenerator.ReportResult work(TaskRunner.Progress progress) throws Exception {
+                return generator.generate(entries, users, outputDir);
+            }
 
-            JOptionPane.showMessageDialog(this,
-                    "Report generated successfully!\n\n"
-                            + "Membership report: " + result.membershipFile.getName()
-                            + " (" + result.membershipRows + " rows)\n"
-                            + "User report: " + result.userFile.getName()
-                            + " (" + result.userRows + " users)\n\n"
-                            + "Output folder:\n" + outputDir.getAbsolutePath(),
-                    "Report Generated", JOptionPane.INFORMATION_MESSAGE);
+            @Override
+            protected void succeeded(ReportGenerator.ReportResult result) {
+                statusBar.setText("Report generated: " + result.membershipRows
+                        + " membership rows, " + result.userRows + " users ("
+                        + result.timingSummary() + ")");
+
+                JOptionPane.showMessageDialog(MainFrame.this,
+                        "Report generated successfully!\n\n"
+                                + "Membership report: " + result.membershipFile.getName()
+                                + " (" + result.membershipRows + " rows)\n"
+                                + "User report: " + result.userFile.getName()
+                                + " (" + result.userRows + " users)\n\n"
+                                + "Output folder:\n" + outputDir.getAbsolutePath(),
+                        "Report Generated", JOptionPane.INFORMATION_MESSAGE);
+            }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to generate report:\n" + ex.getMessage(),
-                    "Report Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to generate report:\n" + error.getMessage(),
+                        "Report Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void doImportCsv() {
@@ -915,42 +1352,55 @@ public class MainFrame extends JFrame {
         if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
 
         File file = chooser.getSelectedFile();
-        try {
-            CsvImporter importer = new CsvImporter();
-            List<User> imported = importer.importUsers(file);
-
-            if (imported.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "No users found in CSV file.",
-                        "Import Result", JOptionPane.INFORMATION_MESSAGE);
-                return;
+        CsvImporter importer = new CsvImporter();
+        if (usersPanel.isWorkspaceMode()) {
+            doImportCsvIncrementally(importer, file);
+            return;
+        }
+        tasks.start(new TaskRunner.Task<List<User>>("Import " + file.getName()) {
+            @Override
+            protected List<User> work(TaskRunner.Progress progress) throws Exception {
+                return importer.importUsers(file);
             }
 
-            if (usersPanel.isWorkspaceMode()) {
-                // Workspace mode: update master pool
-                doImportCsvIntoPool(imported);
-            } else {
+            @Override
+            protected void succeeded(List<User> imported) {
+                if (imported.isEmpty()) {
+                    JOptionPane.showMessageDialog(MainFrame.this,
+                            "No users found in CSV file.",
+                            "Import Result", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+
                 // Single-file mode: update per-SKA user list
                 if (!config.getUsers().isEmpty()) {
                     detectAndPromptCertChanges(imported);
                 } else {
                     config.setUsers(imported);
+                    workspace.fireUserListChanged();
                 }
+
+                setStatus("Imported " + imported.size() + " users from " + file.getName());
+                markDirty();
             }
 
-            loadModelIntoUI();
-            setStatus("Imported " + imported.size() + " users from " + file.getName());
-            markDirty();
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to import CSV:\n" + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                showCsvImportError(error);
+            }
+        });
+    }
+
+    private void showCsvImportError(Throwable error) {
+        JOptionPane.showMessageDialog(this,
+                "Failed to import CSV:\n" + error.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
      * Compare imported users against current users by CN.
-     * Prompt user to update certificates that have changed.
+     * Prompt user to update certificates that have changed. Updated and
+     * added users are announced to the workspace listeners.
      */
     private void detectAndPromptCertChanges(List<User> imported) {
         // Build lookup of current users by CN
@@ -959,35 +1409,27 @@ public class MainFrame extends JFrame {
             if (!u.getCn().isEmpty()) currentByCn.put(u.getCn(), u);
         }
 
-        StringBuilder changed = new StringBuilder();
-        int changedCount = 0;
+        List<String> changed = new java.util.ArrayList<>();
         List<User> newUsers = new java.util.ArrayList<>();
 
         for (User imp : imported) {
             User existing = currentByCn.get(imp.getCn());
             if (existing == null) {
                 newUsers.add(imp);
-            } else if (!imp.getCertificate().isEmpty()
-                    && !imp.getCertificate().equals(existing.getCertificate())) {
-                changedCount++;
-                changed.append("  • ").append(imp.getCn()).append("\n");
+            } else if (imp.hasCertificate()
+                    && !imp.getCertificateData().equals(existing.getCertificateData())) {
+                changed.add(imp.getCn());
             }
         }
 
         // Prompt for cert updates
-        if (changedCount > 0) {
-            int answer = JOptionPane.showConfirmDialog(this,
-                    changedCount + " certificate(s) have changed in the CSV:\n\n"
-                            + changed
-                            + "\nUpdate these certificates now?",
-                    "Certificate Changes Detected",
-                    JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
-
-            if (answer == JOptionPane.YES_OPTION) {
+        if (!changed.isEmpty()) {
+            if (confirmCertificateChanges(changed, "the CSV")) {
+                List<User> updated = new java.util.ArrayList<>();
                 for (User imp : imported) {
                     User existing = currentByCn.get(imp.getCn());
-                    if (existing != null && !imp.getCertificate().isEmpty()) {
-                        existing.setCertificate(imp.getCertificate());
+                    if (existing != null && imp.hasCertificate()) {
+                        existing.setCertificateData(imp.getCertificateData());
                     }
                     // Also update other fields from CSV (email, org, etc.)
                     if (existing != null) {
@@ -998,8 +1440,10 @@ public class MainFrame extends JFrame {
                         existing.getOrgOwnerOf().addAll(imp.getOrgOwnerOf());
                         existing.getOrgSecOffOf().addAll(imp.getOrgSecOffOf());
                         existing.getOrgOpOf().addAll(imp.getOrgOpOf());
+                        updated.add(existing);
                     }
                 }
+                workspace.fireUsersUpdated(updated);
             }
         }
 
@@ -1017,53 +1461,239 @@ public class MainFrame extends JFrame {
                     JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
             if (answer == JOptionPane.YES_OPTION) {
                 config.getUsers().addAll(newUsers);
+                workspace.fireUserListChanged();
             }
         }
 
-        if (changedCount == 0 && newUsers.isEmpty()) {
+        if (changed.isEmpty() && newUsers.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                     "All users are up to date. No changes needed.",
                     "Import Result", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
+    /** Longest list of CNs shown in a confirmation prompt. */
+    private static final int MAX_LISTED_CNS = 30;
+
+    /**
+     * Ask whether to update the certificates of {@code cns}, which changed
+     * in {@code source} (e.g. "the CSV").
+     */
+    private boolean confirmCertificateChanges(List<String> cns, String source) {
+        int answer = JOptionPane.showConfirmDialog(this,
+                cns.size() + " certificate(s) have changed in " + source + ":\n\n"
+                        + bulletList(cns)
+                        + "\nUpdate these certificates now?",
+                "Certificate Changes Detected",
+                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        return answer == JOptionPane.YES_OPTION;
+    }
+
+    /** Bullet lines for {@code items}, cut off after {@link #MAX_LISTED_CNS}. */
+    private static String bulletList(List<String> items) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < items.size() && i < MAX_LISTED_CNS; i++) {
+            sb.append("  \u2022 ").append(items.get(i)).append("\n");
+        }
+        if (items.size() > MAX_LISTED_CNS) {
+            sb.append("  \u2026 and ").append(items.size() - MAX_LISTED_CNS).append(" more\n");
+        }
+        return sb.toString();
+    }
+
     /**
-     * Import CSV users into the master user pool (workspace/folder mode).
-     * Updates existing users by CN, adds new ones, and includes new users
-     * in the current SKA by default.
+     * Update user certificates from a folder of certificate files, matched
+     * to the users (master pool in folder mode) by subject CN.
      */
-    private void doImportCsvIntoPool(List<User> imported) {
-        List<User> pool = workspace.getMasterUserPool();
-        var poolByCn = new java.util.LinkedHashMap<String, User>();
-        for (User u : pool) {
-            if (!u.getCn().isEmpty()) poolByCn.put(u.getCn(), u);
+    private void doImportCertificateFolder() {
+        JFileChooser chooser = fastFileChooser(workspaceFolder != null ? workspaceFolder : new File("."));
+        chooser.setDialogTitle("Import Certificates from Folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        chooser.setAcceptAllFileFilterUsed(false);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File dir = chooser.getSelectedFile();
+
+        tasks.start(new TaskRunner.Task<CertDirectoryImporter.ScanResult>("Scan " + dir.getName()) {
+            @Override
+            protected CertDirectoryImporter.ScanResult work(TaskRunner.Progress progress) throws Exception {
+                return new CertDirectoryImporter().scan(dir);
+            }
+
+            @Override
+            protected void succeeded(CertDirectoryImporter.ScanResult scan) {
+                applyCertificateFolder(dir, scan);
+            }
+
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                JOptionPane.showMessageDialog(parent,
+                        "Failed to import certificates:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    /** Apply a scanned certificate folder on the EDT, asking before any certificate changes. */
+    private void applyCertificateFolder(File dir, CertDirectoryImporter.ScanResult scan) {
+        setStatus("Certificate folder " + dir.getName() + ": " + scan.summary());
+
+        List<User> users = usersPanel.isWorkspaceMode() ? workspace.getMasterUserPool() : config.getUsers();
+        CertDirectoryImporter.Matches matches = scan.match(users);
+
+        if (!matches.changed.isEmpty()) {
+            List<String> cns = matches.changed.stream().map(c -> c.user.getCn()).toList();
+            if (confirmCertificateChanges(cns, "the folder")) {
+                matches.apply();
+                if (usersPanel.isWorkspaceMode()) {
+                    // Only files that list one of the updated users need saving
+                    workspace.markEntriesDirtyFor(new java.util.HashSet<>(cns));
+                }
+                workspace.fireUsersUpdated(matches.changed.stream().map(c -> c.user).toList());
+                markDirty();
+                setStatus("Updated " + cns.size() + " certificate(s) from " + dir.getName());
+            }
         }
 
-        int updated = 0;
+        StringBuilder info = new StringBuilder();
+        if (matches.changed.isEmpty()) {
+            info.append(scan.byCn.isEmpty()
+                    ? "No user certificates found in " + dir.getName() + ".\n"
+                    : "All matching users are up to date. No changes needed.\n");
+        }
+        if (!matches.unmatched.isEmpty()) {
+            info.append("\n").append(matches.unmatched.size())
+                    .append(" certificate(s) match no user:\n\n")
+                    .append(bulletList(matches.unmatched.stream().map(f -> f.cn).toList()));
+        }
+        if (!scan.errors.isEmpty()) {
+            info.append("\n").append(scan.errors.size()).append(" file(s) could not be read:\n\n")
+                    .append(bulletList(scan.errors));
+        }
+        if (info.length() > 0) {
+            JOptionPane.showMessageDialog(this, info.toString().strip(),
+                    "Import Result", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    /**
+     * Workspace mode CSV import. Rows whose CN is unchanged since the last
+     * import into this folder (see {@link CsvImportState}) are skipped
+     * without being decoded; only the remaining users are applied to the
+     * master pool, and only entries using a changed user are marked dirty.
+     */
+    private void doImportCsvIncrementally(CsvImporter importer, File file) {
+        UserPool pool = workspace.getMasterUserPool();
+        File folder = workspaceFolder;
+        // The pool may still change while the task runs (e.g. reloads from
+        // disk), so the background only sees this snapshot of it
+        java.util.Map<String, Long> poolHashes = CsvImportState.userHashes(pool);
+
+        // Hashing and decoding run in the background; the pool is updated
+        // on the EDT once they finished
+        tasks.start(new TaskRunner.Task<CsvDelta>("Import " + file.getName()) {
+            @Override
+            protected CsvDelta work(TaskRunner.Progress progress) throws Exception {
+                CsvImportState state = folder != null ? CsvImportState.forFolder(folder) : null;
+                progress.update(0, 0, "comparing with the last import");
+                java.util.Map<String, Long> rowHashes = importer.hashRows(file);
+                if (rowHashes.isEmpty()) return new CsvDelta(state, rowHashes, java.util.Set.of(), List.of());
+                java.util.Set<String> changed = state != null
+                        ? state.changedCns(rowHashes, poolHashes) : rowHashes.keySet();
+                progress.update(0, 0, "reading " + changed.size() + " changed user(s)");
+                return new CsvDelta(state, rowHashes, changed, importer.importUsers(file, changed));
+            }
+
+            @Override
+            protected void succeeded(CsvDelta delta) {
+                if (delta.rowHashes().isEmpty()) {
+                    JOptionPane.showMessageDialog(MainFrame.this,
+                            "No users found in CSV file.",
+                            "Import Result", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                int dirtyEntries = doImportCsvIntoPool(delta.imported());
+                if (delta.state() != null) {
+                    delta.state().record(delta.rowHashes(), pool);
+                    delta.state().save();
+                }
+
+                SkaConfigEntry active = workspace.getActiveEntry();
+                if (active != null) dirty = active.isDirty();
+                updateTitle();
+                refreshSkaSelector();
+                int total = delta.rowHashes().size();
+                setStatus("Imported " + delta.imported().size() + " changed of " + total + " users from "
+                        + file.getName() + " (" + (total - delta.changed().size()) + " unchanged skipped, "
+                        + dirtyEntries + " SKA(s) marked modified)");
+            }
+
+            @Override
+            protected void failed(Throwable error, Component parent) {
+                showCsvImportError(error);
+            }
+        });
+    }
+
+    /** Background result of an incremental CSV import, applied on the EDT. */
+    private record CsvDelta(CsvImportState state, java.util.Map<String, Long> rowHashes,
+                            java.util.Set<String> changed, List<User> imported) { }
+
+    /**
+     * Import CSV users into the master user pool (workspace/folder mode).
+     * Updates existing users by CN and adds new ones. Only entries using a
+     * user whose data actually changed are marked dirty.
+     *
+     * @return number of entries marked dirty
+     */
+    private int doImportCsvIntoPool(List<User> imported) {
+        UserPool pool = workspace.getMasterUserPool();
+
+        java.util.Set<String> touched = new java.util.HashSet<>();
+        List<User> updatedUsers = new java.util.ArrayList<>();
         List<User> newUsers = new java.util.ArrayList<>();
         List<String> certChanges = new java.util.ArrayList<>();
 
         for (User imp : imported) {
-            User existing = poolByCn.get(imp.getCn());
+            User existing = imp.getCn().isEmpty() ? null : pool.findByCn(imp.getCn());
             if (existing == null) {
                 newUsers.add(imp);
             } else {
                 // Track certificate changes before overwriting
-                if (!imp.getCertificate().isEmpty()
-                        && !imp.getCertificate().equals(existing.getCertificate())
-                        && !existing.getCertificate().isEmpty()) {
+                if (imp.hasCertificate()
+                        && !imp.getCertificateData().equals(existing.getCertificateData())
+                        && existing.hasCertificate()) {
                     certChanges.add(existing.getCn());
                 }
-                // Update fields from CSV
-                if (!imp.getEmail().isEmpty()) existing.setEmail(imp.getEmail());
-                if (!imp.getOrganisation().isEmpty()) existing.setOrganisation(imp.getOrganisation());
-                if (!imp.getUserId().isEmpty()) existing.setUserId(imp.getUserId());
-                if (!imp.getUserIdIntegration().isEmpty()) existing.setUserIdIntegration(imp.getUserIdIntegration());
-                if (!imp.getCertificate().isEmpty()) existing.setCertificate(imp.getCertificate());
-                existing.getOrgOwnerOf().addAll(imp.getOrgOwnerOf());
-                existing.getOrgSecOffOf().addAll(imp.getOrgSecOffOf());
-                existing.getOrgOpOf().addAll(imp.getOrgOpOf());
-                updated++;
+                // Update fields from CSV, remembering whether anything actually changed
+                boolean changed = false;
+                if (!imp.getEmail().isEmpty() && !imp.getEmail().equals(existing.getEmail())) {
+                    existing.setEmail(imp.getEmail());
+                    changed = true;
+                }
+                if (!imp.getOrganisation().isEmpty() && !imp.getOrganisation().equals(existing.getOrganisation())) {
+                    existing.setOrganisation(imp.getOrganisation());
+                    changed = true;
+                }
+                if (!imp.getUserId().isEmpty() && !imp.getUserId().equals(existing.getUserId())) {
+                    existing.setUserId(imp.getUserId());
+                    changed = true;
+                }
+                if (!imp.getUserIdIntegration().isEmpty()
+                        && !imp.getUserIdIntegration().equals(existing.getUserIdIntegration())) {
+                    existing.setUserIdIntegration(imp.getUserIdIntegration());
+                    changed = true;
+                }
+                if (imp.hasCertificate() && !imp.getCertificateData().equals(existing.getCertificateData())) {
+                    existing.setCertificateData(imp.getCertificateData());
+                    changed = true;
+                }
+                changed |= existing.getOrgOwnerOf().addAll(imp.getOrgOwnerOf());
+                changed |= existing.getOrgSecOffOf().addAll(imp.getOrgSecOffOf());
+                changed |= existing.getOrgOpOf().addAll(imp.getOrgOpOf());
+                if (changed) {
+                    touched.add(existing.getCn());
+                    updatedUsers.add(existing);
+                }
             }
         }
 
@@ -1095,30 +1725,27 @@ public class MainFrame extends JFrame {
                     JOptionPane.INFORMATION_MESSAGE);
         }
 
-        if (updated == 0 && newUsers.isEmpty()) {
+        if (touched.isEmpty() && newUsers.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                     "All users are up to date. No changes needed.",
                     "Import Result", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            // Mark all entries dirty since pool data may have changed
-            for (SkaConfigEntry entry : workspace.getEntries()) {
-                entry.setDirty(true);
-            }
         }
+        // Repaint only the affected rows instead of reloading every panel
+        workspace.fireUsersUpdated(updatedUsers);
+        if (!newUsers.isEmpty()) workspace.fireUserListChanged();
+        // New users are in no entry yet; only entries using an updated user need saving
+        return workspace.markEntriesDirtyFor(touched);
     }
 
     // --- Model ↔ UI synchronization ---
 
     /**
-     * Push model data into all UI panels.
+     * Push model data into all UI panels. Used when a different document
+     * or workspace is shown; edits within the workspace are applied by
+     * {@link WorkspaceChanges} instead.
      */
     private void loadModelIntoUI() {
-        globalConfigPanel.loadFrom(config);
-        organizationPanel.loadFrom(config.getOrganization());
-        skaPlusPanel.loadFrom(config.getSkaPlus());
-        skaModifyPanel.loadFrom(config.getSkaModify());
-        keysProtoPanel.loadFrom(config.getKeysProto());
-        persoKekPanel.loadFrom(config.getPersonalization());
+        loadConfigIntoUI();
 
         // Users: workspace mode shows master pool + per-SKA checkboxes
         if (workspaceFolder != null && workspace.getEntries().size() > 1) {
@@ -1128,20 +1755,123 @@ public class MainFrame extends JFrame {
             usersPanel.clearWorkspaceMode();
             usersPanel.loadFrom(config.getUsers());
         }
+        usersPanel.setIntegrationEnvironment(config.isIntegrationEnvironment());
+    }
+
+    /**
+     * Show {@link #config} in the editor tabs, leaving the user table alone.
+     * The global settings are loaded right away; of the section editors,
+     * which copy every group, only the visible one is loaded now and the
+     * others when their tab is selected.
+     */
+    private void loadConfigIntoUI() {
+        globalConfigPanel.loadFrom(config);
+        invalidateTabs(List.of(organizationPanel, skaPlusPanel, skaModifyPanel, keysProtoPanel, persoKekPanel));
 
         // Sync environment toggle
         boolean isIntegration = config.isIntegrationEnvironment();
         prodRadio.setSelected(!isIntegration);
         integrationRadio.setSelected(isIntegration);
-        usersPanel.setIntegrationEnvironment(isIntegration);
-        // Update the Keys tab label to reflect the actual child name
+        updateKeysTabTitle();
+        updateTitle();
+    }
+
+    /** Update the Keys tab label to reflect the actual child name. */
+    private void updateKeysTabTitle() {
         String childName = config.getKeysProto().getChildName();
         int keysTabIndex = tabbedPane.indexOfComponent(keysProtoPanel);
         if (keysTabIndex >= 0) {
             String label = childName.isEmpty() ? "Keys" : "Keys (" + childName + ")";
             tabbedPane.setTitleAt(keysTabIndex, label);
         }
-        updateTitle();
+    }
+
+    /**
+     * The model behind {@code tabs} changed: reload the one that is visible,
+     * and mark the others stale so they are reloaded when selected (and are
+     * not written back by {@link #collectUIIntoModel} in the meantime).
+     */
+    private void invalidateTabs(List<? extends Component> tabs) {
+        Component selected = tabbedPane.getSelectedComponent();
+        for (Component tab : tabs) {
+            if (tab == selected) {
+                staleTabs.remove(tab);
+                loadTab(tab);
+            } else {
+                staleTabs.add(tab);
+            }
+        }
+    }
+
+    private void loadTab(Component tab) {
+        if (tab == organizationPanel) organizationPanel.loadFrom(config.getOrganization());
+        else if (tab == skaPlusPanel) skaPlusPanel.loadFrom(config.getSkaPlus());
+        else if (tab == skaModifyPanel) skaModifyPanel.loadFrom(config.getSkaModify());
+        else if (tab == keysProtoPanel) keysProtoPanel.loadFrom(config.getKeysProto());
+        else if (tab == persoKekPanel) persoKekPanel.loadFrom(config.getPersonalization());
+    }
+
+    /** The editor tab of a section named as in {@link com.pki.model.MembershipIndex.Placement#section}. */
+    private Component sectionTab(String section) {
+        return switch (section) {
+            case "Organization" -> organizationPanel;
+            case "SkaPlus" -> skaPlusPanel;
+            case "SkaModify" -> skaModifyPanel;
+            default -> keysProtoPanel; // "Keys(<child>)"
+        };
+    }
+
+    /**
+     * Show {@code active}, whose config is {@link #config}, in the editor tabs
+     * and select its users; the pool itself is left as it is.
+     */
+    private void showActiveEntry(SkaConfigEntry active) {
+        loadConfigIntoUI();
+        if (usersPanel.isWorkspaceMode()) {
+            usersPanel.showEntryCns(workspace.getCnsForEntry(active));
+        } else {
+            usersPanel.loadFrom(config.getUsers());
+        }
+        usersPanel.setIntegrationEnvironment(config.isIntegrationEnvironment());
+    }
+
+    /**
+     * Applies targeted workspace changes to the panels that show them,
+     * instead of reloading every panel.
+     */
+    private final class WorkspaceChanges implements SkaWorkspace.Listener {
+        @Override
+        public void activeEntryChanged(SkaConfigEntry previous, SkaConfigEntry active) {
+            if (active == null || active.getConfig() != config) return; // not shown (yet)
+            showActiveEntry(active);
+        }
+
+        @Override
+        public void usersUpdated(java.util.Collection<User> users) {
+            usersPanel.usersUpdated(users);
+        }
+
+        @Override
+        public void userListChanged() {
+            if (usersPanel.isWorkspaceMode()) {
+                usersPanel.userListChanged();
+            } else {
+                usersPanel.loadFrom(config.getUsers()); // the list may have been replaced
+            }
+        }
+
+        @Override
+        public void groupsChanged(SkaConfig changed, String section) {
+            if (changed == config) invalidateTabs(List.of(sectionTab(section)));
+        }
+
+        @Override
+        public void metadataChanged(SkaConfig changed) {
+            if (changed != config) return;
+            globalConfigPanel.loadFrom(config);
+            updateKeysTabTitle();
+            updateTitle();
+        }
     }
 
     /**
@@ -1186,6 +1916,13 @@ public class MainFrame extends JFrame {
      * Exit the application, prompting to save if dirty.
      */
     private void doExit() {
+        if (tasks.isBusy()) {
+            JOptionPane.showMessageDialog(this,
+                    "A file operation is still running.\n"
+                            + "Wait for it to finish or cancel it before exiting.",
+                    "Exit", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         boolean anyDirty = dirty || workspace.hasAnyDirty();
         if (anyDirty) {
             String message = "You have unsaved changes.";
@@ -1204,15 +1941,24 @@ public class MainFrame extends JFrame {
                     "Exit", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE);
             if (ans == JOptionPane.CANCEL_OPTION || ans == JOptionPane.CLOSED_OPTION) return;
             if (ans == JOptionPane.YES_OPTION) {
+                // The save finishes in the background; exit only if nothing
+                // is still dirty afterwards (i.e. it was not cancelled)
+                Runnable exitIfSaved = () -> {
+                    if (!dirty && !workspace.hasAnyDirty()) exit();
+                };
                 if (workspace.getEntries().size() > 1) {
-                    doSaveAll();
+                    doSaveAll(exitIfSaved);
                 } else {
-                    doSave();
+                    doSave(exitIfSaved);
                 }
-                // If save was cancelled (still dirty), don't exit
-                if (dirty || workspace.hasAnyDirty()) return;
+                return;
             }
         }
+        exit();
+    }
+
+    private void exit() {
+        stopWatching();
         dispose();
         System.exit(0);
     }
@@ -1226,7 +1972,7 @@ public class MainFrame extends JFrame {
             sb.append("  \u2022 Module name is empty\n");
         }
         long missingCerts = config.getUsers().stream()
-                .filter(u -> u.getCertificate().isEmpty()).count();
+                .filter(u -> !u.hasCertificate()).count();
         if (missingCerts > 0) {
             sb.append("  \u2022 ").append(missingCerts).append(" user(s) have no certificate\n");
         }
@@ -1265,16 +2011,23 @@ public class MainFrame extends JFrame {
      */
     private void collectUIIntoModel() {
         globalConfigPanel.saveTo(config);
-        organizationPanel.saveTo(config.getOrganization());
-        skaPlusPanel.saveTo(config.getSkaPlus());
-        skaModifyPanel.saveTo(config.getSkaModify());
-        keysProtoPanel.saveTo(config.getKeysProto());
-        persoKekPanel.saveTo(config.getPersonalization());
+        // Stale tabs still hold another config's data; the model is current for them
+        boolean groupsReplaced = false;
+        if (!staleTabs.contains(organizationPanel)) groupsReplaced |= organizationPanel.saveTo(config.getOrganization());
+        if (!staleTabs.contains(skaPlusPanel)) groupsReplaced |= skaPlusPanel.saveTo(config.getSkaPlus());
+        if (!staleTabs.contains(skaModifyPanel)) groupsReplaced |= skaModifyPanel.saveTo(config.getSkaModify());
+        if (!staleTabs.contains(keysProtoPanel)) groupsReplaced |= keysProtoPanel.saveTo(config.getKeysProto());
+        if (!staleTabs.contains(persoKekPanel)) persoKekPanel.saveTo(config.getPersonalization());
         config.setIntegrationEnvironment(integrationRadio.isSelected());
 
+        // An operation panel replaced its boundaries/groups wholesale: refresh the membership index
+        SkaConfigEntry active = workspace.getActiveEntry();
+        if (groupsReplaced && active != null && active.getConfig() == config) {
+            workspace.reindexEntry(active);
+        }
+
         // In workspace mode, sync per-SKA user list from pool checkboxes
         if (usersPanel.isWorkspaceMode()) {
-            SkaConfigEntry active = workspace.getActiveEntry();
             if (active != null) {
                 workspace.syncEntryUsersFromPool(active, usersPanel.getSkaCns());
             }
@@ -9,7 +9,9 @@ import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -26,6 +28,7 @@ public class OperationPanel extends JPanel {
     private final DefaultListModel<String> boundaryListModel = new DefaultListModel<>();
     private final JList<String> boundaryList = new JList<>(boundaryListModel);
     private final List<Boundary> boundaries = new ArrayList<>();
+    private boolean edited; // boundaries or groups changed since the last load or save
 
     // Groups list
     private final DefaultListModel<String> groupListModel = new DefaultListModel<>();
@@ -181,6 +184,7 @@ public class OperationPanel extends JPanel {
     private void addBoundary() {
         Boundary b = new Boundary();
         boundaries.add(b);
+        edited = true;
         refreshBoundaryList();
         boundaryList.setSelectedIndex(boundaries.size() - 1);
     }
@@ -193,6 +197,7 @@ public class OperationPanel extends JPanel {
                 "Confirm", JOptionPane.YES_NO_OPTION);
         if (confirm != JOptionPane.YES_OPTION) return;
         boundaries.remove(idx);
+        edited = true;
         refreshBoundaryList();
         refreshGroupList();
     }
@@ -232,6 +237,7 @@ public class OperationPanel extends JPanel {
         Group g = new Group();
         g.setName("New Group");
         b.getGroups().add(g);
+        edited = true;
         refreshGroupList();
         refreshBoundaryList();
         groupList.setSelectedIndex(b.getGroups().size() - 1);
@@ -246,6 +252,7 @@ public class OperationPanel extends JPanel {
                 "Confirm", JOptionPane.YES_NO_OPTION);
         if (confirm != JOptionPane.YES_OPTION) return;
         b.getGroups().remove(idx);
+        edited = true;
         refreshGroupList();
         refreshBoundaryList();
     }
@@ -293,13 +300,9 @@ public class OperationPanel extends JPanel {
         }
         g.setName(groupNameField.getText().trim());
         g.setQuorum((int) quorumSpinner.getValue());
+        edited = true;
 
-        // Collect members/keys from list
-        List<String> items = new ArrayList<>();
-        for (int i = 0; i < memberListModel.size(); i++) {
-            items.add(memberListModel.get(i));
-        }
-
+        List<String> items = detailItems();
         if (keysRadio.isSelected()) {
             g.setKeyLabels(items);
             g.setMemberCns(new ArrayList<>());
@@ -312,6 +315,24 @@ public class OperationPanel extends JPanel {
         refreshBoundaryList();
     }
 
+    /** Members/keys from the detail list. */
+    private List<String> detailItems() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < memberListModel.size(); i++) {
+            items.add(memberListModel.get(i));
+        }
+        return items;
+    }
+
+    /** True if the detail fields hold edits not yet applied to {@code g}. */
+    private boolean hasPendingDetail(Group g) {
+        boolean keys = keysRadio.isSelected();
+        return !g.getName().equals(groupNameField.getText().trim())
+                || g.getQuorum() != (int) quorumSpinner.getValue()
+                || !detailItems().equals(keys ? g.getKeyLabels() : g.getMemberCns())
+                || !(keys ? g.getMemberCns() : g.getKeyLabels()).isEmpty();
+    }
+
     private void addMember() {
         String text = addMemberField.getText().trim();
         if (text.isEmpty()) return;
@@ -344,13 +365,13 @@ public class OperationPanel extends JPanel {
         UserPickerDialog dlg = new UserPickerDialog(
                 owner instanceof JFrame ? (JFrame) owner : null, users);
         dlg.setVisible(true);
+        // Avoid duplicates in the current member list
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < memberListModel.size(); i++) {
+            existing.add(memberListModel.get(i));
+        }
         for (String cn : dlg.getSelectedCns()) {
-            // Avoid duplicates in the current member list
-            boolean exists = false;
-            for (int i = 0; i < memberListModel.size(); i++) {
-                if (memberListModel.get(i).equals(cn)) { exists = true; break; }
-            }
-            if (!exists) memberListModel.addElement(cn);
+            if (existing.add(cn)) memberListModel.addElement(cn);
         }
     }
 
@@ -375,6 +396,7 @@ public class OperationPanel extends JPanel {
         delaySpinner.setValue(op.getDelayMillis());
         timeLimitSpinner.setValue(op.getTimeLimitMillis());
         boundaries.clear();
+        edited = false;
         // Deep copy boundaries so UI edits don't directly modify until apply
         for (Boundary orig : op.getBoundaries()) {
             Boundary copy = new Boundary();
@@ -398,12 +420,21 @@ public class OperationPanel extends JPanel {
         }
     }
 
-    public void saveTo(Operation op) {
+    /**
+     * Write the panel back into {@code op}. The boundaries are replaced only
+     * if boundaries or groups were edited since the last load or save.
+     *
+     * @return true if the boundaries of {@code op} were replaced
+     */
+    public boolean saveTo(Operation op) {
         op.setDelayMillis((long) delaySpinner.getValue());
         op.setTimeLimitMillis((long) timeLimitSpinner.getValue());
         // Apply any pending group detail edits
         Group g = getSelectedGroup();
-        if (g != null) applyGroupDetail();
+        if (g != null && hasPendingDetail(g)) applyGroupDetail();
+        if (!edited) return false;
         op.setBoundaries(new ArrayList<>(boundaries));
+        edited = false;
+        return true;
     }
 }
@@ -139,6 +139,12 @@ public class ReplaceUserDialog extends JDialog {
         report.append("Outgoing  : ").append(outCn).append("\n");
         report.append("Replacement: ").append(repCn).append("\n\n");
 
+        // Group memberships of the outgoing user, from the workspace membership index
+        Map<SkaConfigEntry, List<MembershipIndex.Placement>> placementsByEntry = new IdentityHashMap<>();
+        for (MembershipIndex.Placement p : workspace.whereUsed(outCn)) {
+            placementsByEntry.computeIfAbsent(p.entry, e -> new ArrayList<>()).add(p);
+        }
+
         for (SkaConfigEntry entry : workspace.getEntries()) {
             SkaConfig cfg = entry.getConfig();
             List<String> entryChanges = new ArrayList<>();
@@ -158,14 +164,12 @@ public class ReplaceUserDialog extends JDialog {
                 pendingChanges.add(new ChangeRecord(entry, ChangeType.REMOVE_USER_FROM_LIST, null, null, null, outCn));
             }
 
-            // Check all sections / operations / boundaries / groups
-            scanSection(entry, cfg.getOrganization(), "Organization", outCn, repCn, entryChanges);
-            scanSection(entry, cfg.getSkaPlus(), "SkaPlus", outCn, repCn, entryChanges);
-            scanSection(entry, cfg.getSkaModify(), "SkaModify", outCn, repCn, entryChanges);
-
-            // Keys section
-            String keysLabel = "Keys(" + cfg.getKeysProto().getChildName() + ")";
-            scanKeysProto(entry, cfg.getKeysProto(), keysLabel, outCn, repCn, entryChanges);
+            // Groups in all sections / operations / boundaries
+            for (MembershipIndex.Placement p : placementsByEntry.getOrDefault(entry, List.of())) {
+                entryChanges.add("  \u2022 " + p.describe() + ": " + outCn + " \u2192 " + repCn);
+                pendingChanges.add(new ChangeRecord(entry, ChangeType.REPLACE_IN_GROUP,
+                        p.operation, p.boundary, p.group, null));
+            }
 
             if (!entryChanges.isEmpty()) {
                 report.append("--- ").append(entry.getDisplayLabel()).append(" ---\n");
@@ -201,46 +205,6 @@ public class ReplaceUserDialog extends JDialog {
         commitBtn.setEnabled(!pendingChanges.isEmpty());
     }
 
-    private void scanSection(SkaConfigEntry entry, SkaSection section,
-                             String sectionName, String outCn, String repCn,
-                             List<String> changes) {
-        Operations ops = section.getOperations();
-        scanOperation(entry, ops.getUse(), sectionName, "use", outCn, repCn, changes);
-        scanOperation(entry, ops.getModify(), sectionName, "modify", outCn, repCn, changes);
-        scanOperation(entry, ops.getBlock(), sectionName, "block", outCn, repCn, changes);
-        scanOperation(entry, ops.getUnblock(), sectionName, "unblock", outCn, repCn, changes);
-    }
-
-    private void scanKeysProto(SkaConfigEntry entry, KeysProto keysProto,
-                               String label, String outCn, String repCn,
-                               List<String> changes) {
-        Operations ops = keysProto.getOperations();
-        scanOperation(entry, ops.getUse(), label, "use", outCn, repCn, changes);
-        scanOperation(entry, ops.getModify(), label, "modify", outCn, repCn, changes);
-        scanOperation(entry, ops.getBlock(), label, "block", outCn, repCn, changes);
-        scanOperation(entry, ops.getUnblock(), label, "unblock", outCn, repCn, changes);
-    }
-
-    private void scanOperation(SkaConfigEntry entry, Operation op,
-                                String sectionName, String opName,
-                                String outCn, String repCn,
-                                List<String> changes) {
-        for (int bi = 0; bi < op.getBoundaries().size(); bi++) {
-            Boundary b = op.getBoundaries().get(bi);
-            for (int gi = 0; gi < b.getGroups().size(); gi++) {
-                Group g = b.getGroups().get(gi);
-                if (g.getMemberCns().contains(outCn)) {
-                    String groupDesc = sectionName + " > " + opName
-                            + " > boundary " + (bi + 1)
-                            + " > group" + (g.getName().isEmpty() ? " " + (gi + 1) : " \"" + g.getName() + "\"");
-                    changes.add("  \u2022 " + groupDesc + ": " + outCn + " \u2192 " + repCn);
-                    pendingChanges.add(new ChangeRecord(entry, ChangeType.REPLACE_IN_GROUP,
-                            op, b, g, null));
-                }
-            }
-        }
-    }
-
     private void transferRolePreview(Set<String> outRoles, Set<String> repRoles,
                                      String roleName, List<String> changes) {
         for (String role : outRoles) {
@@ -261,12 +225,16 @@ public class ReplaceUserDialog extends JDialog {
         String repCn = repItem.user.getCn();
 
         // Apply group membership replacements across all entries
+        Map<SkaConfig, Set<String>> changedSections = new IdentityHashMap<>();
+        for (MembershipIndex.Placement p : workspace.whereUsed(outCn)) {
+            replaceInGroup(p.group, outCn, repCn);
+            p.entry.setDirty(true);
+            changedSections.computeIfAbsent(p.entry.getConfig(), c -> new LinkedHashSet<>()).add(p.section);
+        }
+        boolean userListsChanged = false;
+
         for (SkaConfigEntry entry : workspace.getEntries()) {
             SkaConfig cfg = entry.getConfig();
-            replaceInSection(cfg.getOrganization(), outCn, repCn);
-            replaceInSection(cfg.getSkaPlus(), outCn, repCn);
-            replaceInSection(cfg.getSkaModify(), outCn, repCn);
-            replaceInKeysProto(cfg.getKeysProto(), outCn, repCn);
 
             // User list: add replacement if not present, remove outgoing
             boolean outInUsers = cfg.getUsers().stream()
@@ -284,6 +252,7 @@ public class ReplaceUserDialog extends JDialog {
                 }
                 cfg.getUsers().removeIf(u -> u.getCn().equals(outCn));
                 entry.setDirty(true);
+                userListsChanged = true;
             }
         }
 
@@ -299,6 +268,11 @@ public class ReplaceUserDialog extends JDialog {
             outPool.getOrgOpOf().clear();
         }
 
+        // Tell the open editors exactly what changed
+        changedSections.forEach((cfg, sections) -> sections.forEach(s -> workspace.fireGroupsChanged(cfg, s)));
+        if (userListsChanged) workspace.fireUserListChanged();
+        if (outPool != null && repPool != null) workspace.fireUsersUpdated(List.of(outPool, repPool));
+
         // Update workspace CN sets: remove outgoing, add replacement
         for (SkaConfigEntry entry : workspace.getEntries()) {
             Set<String> cns = workspace.getCnsForEntry(entry);
@@ -317,36 +291,16 @@ public class ReplaceUserDialog extends JDialog {
         simulateBtn.setEnabled(false);
     }
 
-    private void replaceInSection(SkaSection section, String outCn, String repCn) {
-        Operations ops = section.getOperations();
-        replaceInOperation(ops.getUse(), outCn, repCn);
-        replaceInOperation(ops.getModify(), outCn, repCn);
-        replaceInOperation(ops.getBlock(), outCn, repCn);
-        replaceInOperation(ops.getUnblock(), outCn, repCn);
-    }
-
-    private void replaceInKeysProto(KeysProto keysProto, String outCn, String repCn) {
-        Operations ops = keysProto.getOperations();
-        replaceInOperation(ops.getUse(), outCn, repCn);
-        replaceInOperation(ops.getModify(), outCn, repCn);
-        replaceInOperation(ops.getBlock(), outCn, repCn);
-        replaceInOperation(ops.getUnblock(), outCn, repCn);
-    }
-
-    private void replaceInOperation(Operation op, String outCn, String repCn) {
-        for (Boundary b : op.getBoundaries()) {
-            for (Group g : b.getGroups()) {
-                List<String> members = g.getMemberCns();
-                int idx = members.indexOf(outCn);
-                if (idx >= 0) {
-                    if (members.contains(repCn)) {
-                        // Replacement already in group — just remove outgoing
-                        members.remove(idx);
-                    } else {
-                        // Swap in-place to preserve ordering
-                        members.set(idx, repCn);
-                    }
-                }
+    private void replaceInGroup(Group g, String outCn, String repCn) {
+        List<String> members = g.getMemberCns();
+        int idx = members.indexOf(outCn);
+        if (idx >= 0) {
+            if (g.containsMember(repCn)) {
+                // Replacement already in group — just remove outgoing
+                members.remove(idx);
+            } else {
+                // Swap in-place to preserve ordering
+                members.set(idx, repCn);
             }
         }
     }
@@ -359,7 +313,7 @@ public class ReplaceUserDialog extends JDialog {
         copy.setOrganisation(src.getOrganisation());
         copy.setUserId(src.getUserId());
         copy.setUserIdIntegration(src.getUserIdIntegration());
-        copy.setCertificate(src.getCertificate());
+        copy.setCertificateData(src.getCertificateData());
         copy.setOrgOwnerOf(new LinkedHashSet<>(src.getOrgOwnerOf()));
         copy.setOrgSecOffOf(new LinkedHashSet<>(src.getOrgSecOffOf()));
         copy.setOrgOpOf(new LinkedHashSet<>(src.getOrgOpOf()));
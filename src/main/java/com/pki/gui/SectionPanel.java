@@ -59,12 +59,14 @@ public class SectionPanel extends JPanel {
         unblockPanel.loadFrom(ops.getUnblock());
     }
 
-    public void saveTo(SkaSection section) {
+    /** @return true if the boundaries of any operation were replaced */
+    public boolean saveTo(SkaSection section) {
         ecPanel.saveTo(section.getEcParameters());
         Operations ops = section.getOperations();
-        usePanel.saveTo(ops.getUse());
-        modifyPanel.saveTo(ops.getModify());
-        blockPanel.saveTo(ops.getBlock());
-        unblockPanel.saveTo(ops.getUnblock());
+        boolean replaced = usePanel.saveTo(ops.getUse());
+        replaced |= modifyPanel.saveTo(ops.getModify());
+        replaced |= blockPanel.saveTo(ops.getBlock());
+        replaced |= unblockPanel.saveTo(ops.getUnblock());
+        return replaced;
     }
 }
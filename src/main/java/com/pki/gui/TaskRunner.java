@@ -0,0 +1,266 @@
+package com.pki.gui;
+
+import javax.swing.*;
+import javax.swing.plaf.LayerUI;
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs long file operations (open, save, import, report) off the Event
+ * Dispatch Thread, one at a time.
+ * <p>
+ * A {@link Task} does its work in {@link Task#work} on a background thread
+ * and must not touch Swing components or the live model from there. When it
+ * ends, exactly one of {@link Task#succeeded}, {@link Task#failed} or
+ * {@link Task#cancelled} is called on the EDT; that is the only place where
+ * results are applied to the model and the UI.
+ * <p>
+ * While a task runs, the runner shows its progress and a Cancel button next
+ * to the status bar and reports {@code busy = true} to its busy listener,
+ * which disables the actions that would conflict with it. The listener is
+ * told {@code busy = false} before the completion callback runs, so a
+ * callback may start the next task (e.g. Open followed by CSV verification).
+ */
+final class TaskRunner {
+
+    /** Progress reporting from {@link Task#work}; safe to call from any thread. */
+    interface Progress {
+        /** {@code total <= 0} shows an indeterminate bar. */
+        void update(int done, int total, String detail);
+
+        boolean isCancelRequested();
+    }
+
+    /** One background operation; see {@link TaskRunner}. */
+    abstract static class Task<T> {
+        final String title;
+
+        /** @param title short name for the status bar, e.g. "Save All" */
+        protected Task(String title) {
+            this.title = title;
+        }
+
+        /** Background thread: do the work and return its result. */
+        protected abstract T work(Progress progress) throws Exception;
+
+        /** EDT: apply the result. */
+        protected abstract void succeeded(T result);
+
+        /** EDT: the work threw. Shows an error dialog by default. */
+        protected void failed(Throwable error, Component parent) {
+            JOptionPane.showMessageDialog(parent,
+                    title + " failed:\n" + error.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+
+        /** EDT: the task was cancelled before producing a result. */
+        protected void cancelled() { }
+
+        /**
+         * EDT: the user pressed Cancel. Return {@code true} if the work stops
+         * cooperatively and still returns a (partial) result to
+         * {@link #succeeded}; the default interrupts the worker thread instead.
+         */
+        protected boolean stop() {
+            return false;
+        }
+    }
+
+    private final Component parent;
+    private final Consumer<String> status;
+    private final Consumer<Boolean> busyListener;
+    private final JPanel panel = new JPanel(new BorderLayout(6, 0));
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JButton cancelBtn = new JButton("Cancel");
+    private Worker<?> running;
+
+    /**
+     * @param parent       owner of error dialogs
+     * @param status       shows a status line (called on the EDT)
+     * @param busyListener told when a task starts ({@code true}) and ends (called on the EDT)
+     */
+    TaskRunner(Component parent, Consumer<String> status, Consumer<Boolean> busyListener) {
+        this.parent = parent;
+        this.status = status;
+        this.busyListener = busyListener;
+
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(200, progressBar.getPreferredSize().height));
+        cancelBtn.addActionListener(e -> cancel());
+        panel.setOpaque(false);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(cancelBtn, BorderLayout.EAST);
+        panel.setVisible(false);
+    }
+
+    /** Progress bar and Cancel button, to be placed next to the status bar. */
+    JComponent getComponent() {
+        return panel;
+    }
+
+    boolean isBusy() {
+        return running != null;
+    }
+
+    /**
+     * Start {@code task}. Must be called on the EDT. If another task is
+     * still running nothing is started and {@code false} is returned.
+     */
+    <T> boolean start(Task<T> task) {
+        if (running != null) {
+            Toolkit.getDefaultToolkit().beep();
+            return false;
+        }
+        Worker<T> worker = new Worker<>(task);
+        running = worker;
+        progressBar.setIndeterminate(true);
+        progressBar.setString("");
+        cancelBtn.setEnabled(true);
+        panel.setVisible(true);
+        status.accept(task.title + "…");
+        busyListener.accept(true);
+        worker.execute();
+        return true;
+    }
+
+    /** Cancel the running task, if any. */
+    void cancel() {
+        Worker<?> worker = running;
+        if (worker == null || worker.cancelRequested) return;
+        worker.cancelRequested = true;
+        cancelBtn.setEnabled(false);
+        status.accept(worker.task.title + ": cancelling…");
+        if (!worker.task.stop()) {
+            worker.cancel(true);
+        }
+    }
+
+    /**
+     * Layer over editors that swallows mouse and key input and greys them
+     * out while {@link #setBlocked blocked}, e.g. while a task is saving the
+     * model they edit. Components outside the layer stay usable.
+     */
+    static final class BlockingLayerUI extends LayerUI<JComponent> {
+        private boolean blocked;
+
+        void setBlocked(boolean blocked) {
+            this.blocked = blocked;
+            firePropertyChange("blocked", !blocked, blocked);
+        }
+
+        @Override
+        public void installUI(JComponent c) {
+            super.installUI(c);
+            ((JLayer<?>) c).setLayerEventMask(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK
+                    | AWTEvent.MOUSE_WHEEL_EVENT_MASK | AWTEvent.KEY_EVENT_MASK);
+        }
+
+        @Override
+        public void uninstallUI(JComponent c) {
+            ((JLayer<?>) c).setLayerEventMask(0);
+            super.uninstallUI(c);
+        }
+
+        @Override
+        public void eventDispatched(AWTEvent e, JLayer<? extends JComponent> l) {
+            if (blocked && e instanceof InputEvent) {
+                ((InputEvent) e).consume();
+            }
+        }
+
+        @Override
+        public void applyPropertyChange(java.beans.PropertyChangeEvent evt, JLayer<? extends JComponent> l) {
+            if ("blocked".equals(evt.getPropertyName())) {
+                l.repaint();
+            }
+        }
+
+        @Override
+        public void paint(Graphics g, JComponent c) {
+            super.paint(g, c);
+            if (!blocked) return;
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.25f));
+            g2.setColor(c.getBackground());
+            g2.fillRect(0, 0, c.getWidth(), c.getHeight());
+            g2.dispose();
+        }
+    }
+
+    /** Progress as last published by a worker. */
+    private record Update(int done, int total, String detail) { }
+
+    private final class Worker<T> extends SwingWorker<T, Update> implements Progress {
+        final Task<T> task;
+        volatile boolean cancelRequested;
+
+        Worker(Task<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            return task.work(this);
+        }
+
+        @Override
+        public void update(int done, int total, String detail) {
+            publish(new Update(done, total, detail));
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return cancelRequested || isCancelled();
+        }
+
+        @Override
+        protected void process(List<Update> updates) {
+            if (running != this || cancelRequested) return;
+            Update u = updates.get(updates.size() - 1);
+            progressBar.setIndeterminate(u.total() <= 0);
+            if (u.total() > 0) {
+                progressBar.setMaximum(u.total());
+                progressBar.setValue(u.done());
+                progressBar.setString(u.done() + " / " + u.total());
+            }
+            if (u.detail() != null && !u.detail().isEmpty()) {
+                status.accept(task.title + " — " + u.detail());
+            }
+        }
+
+        @Override
+        protected void done() {
+            running = null;
+            panel.setVisible(false);
+            busyListener.accept(false);
+
+            T result;
+            try {
+                result = get();
+            } catch (CancellationException | InterruptedException e) {
+                finishCancelled();
+                return;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cancelRequested && cause instanceof InterruptedIOException) {
+                    finishCancelled();
+                } else {
+                    status.accept(task.title + " failed");
+                    task.failed(cause, parent);
+                }
+                return;
+            }
+            task.succeeded(result);
+        }
+
+        private void finishCancelled() {
+            status.accept(task.title + " cancelled");
+            task.cancelled();
+        }
+    }
+}
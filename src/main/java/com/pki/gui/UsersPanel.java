@@ -1,15 +1,35 @@
 package com.pki.gui;
 
+import com.pki.io.RevocationChecker;
+import com.pki.model.CertExpiryIndex;
+import com.pki.model.CertificateData;
+import com.pki.model.MembershipIndex;
 import com.pki.model.SkaConfigEntry;
 import com.pki.model.SkaWorkspace;
 import com.pki.model.User;
+import com.pki.model.UserPool;
+import com.pki.model.ValidityIndex;
+import com.pki.util.CrlIndex;
 
 import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.security.cert.X509CRL;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Panel for viewing and managing users in the configuration.
@@ -17,6 +37,9 @@ import java.util.function.Consumer;
  * In <b>single-file mode</b> the table shows the per-SKA user list (6 columns).
  * In <b>workspace/folder mode</b> the table shows the <em>master user pool</em>
  * with an extra leading "In SKA" checkbox column to toggle per-SKA membership.
+ * <p>
+ * After a CRL check, users whose certificate is revoked are shown in red
+ * with "REVOKED" in the Cert column, until their certificate is replaced.
  */
 public class UsersPanel extends JPanel {
 
@@ -34,7 +57,17 @@ public class UsersPanel extends JPanel {
 
     private Consumer<String> statusCallback;
     private Runnable dirtyCallback;
-    private Runnable refreshCallback;
+    private Runnable modelSyncCallback;
+    private Function<String, List<MembershipIndex.Placement>> whereUsedProvider;
+    private Supplier<ValidityIndex> validityIndexProvider;
+    private int expiringDays = 30;
+    private int keyEndingDays = 90;
+
+    /** CRLs of the last revocation check, or {@code null}. */
+    private CrlIndex crlIndex;
+    private File crlDir;
+    /** Revoked users → the certificate that was found revoked. */
+    private final Map<User, CertificateData> revoked = new IdentityHashMap<>();
 
     /**
      * Set a callback for status bar messages.
@@ -51,11 +84,26 @@ public class UsersPanel extends JPanel {
     }
 
     /**
-     * Set a callback to refresh all UI panels from the model.
-     * Called after bulk model changes (e.g. Replace User).
+     * Set a callback that pushes pending edits of the other panels into the
+     * model. Called before workspace-wide queries (Where Used, Replace User).
      */
-    public void setRefreshCallback(Runnable callback) {
-        this.refreshCallback = callback;
+    public void setModelSyncCallback(Runnable callback) {
+        this.modelSyncCallback = callback;
+    }
+
+    /**
+     * Set the lookup used by "Where Used" and removal warnings:
+     * CN → every group (across all open SKAs) listing it as a member.
+     */
+    public void setWhereUsedProvider(Function<String, List<MembershipIndex.Placement>> provider) {
+        this.whereUsedProvider = provider;
+    }
+
+    /**
+     * Set the source of the section key validity index queried by "Key Validity".
+     */
+    public void setValidityIndexProvider(Supplier<ValidityIndex> provider) {
+        this.validityIndexProvider = provider;
     }
 
     private void postStatus(String msg) {
@@ -70,6 +118,7 @@ public class UsersPanel extends JPanel {
      * Switch the environment toggle. Updates the UserID column header and data.
      */
     public void setIntegrationEnvironment(boolean integration) {
+        if (integration == integrationEnvironment) return;
         this.integrationEnvironment = integration;
         int col = workspaceMode ? 5 : 4;
         table.getColumnModel().getColumn(col).setHeaderValue(
@@ -117,6 +166,7 @@ public class UsersPanel extends JPanel {
         table = new JTable(tableModel);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         table.setRowHeight(24);
+        table.setDefaultRenderer(String.class, new RevokedRowRenderer());
         setupColumnWidths();
         add(new JScrollPane(table), BorderLayout.CENTER);
 
@@ -130,6 +180,18 @@ public class UsersPanel extends JPanel {
         removeBtn.addActionListener(e -> doRemove());
         JButton viewCertBtn = new JButton("View Certificate");
         viewCertBtn.addActionListener(e -> doViewCert());
+        JButton whereUsedBtn = new JButton("Where Used\u2026");
+        whereUsedBtn.setToolTipText("List every group that has the selected user as a member");
+        whereUsedBtn.addActionListener(e -> doWhereUsed());
+        JButton expiringBtn = new JButton("Expiring\u2026");
+        expiringBtn.setToolTipText("List users whose certificate expires within a number of days");
+        expiringBtn.addActionListener(e -> doExpiring());
+        JButton keyValidityBtn = new JButton("Key Validity\u2026");
+        keyValidityBtn.setToolTipText("List section keys valid on a date and keys whose validity ends soon");
+        keyValidityBtn.addActionListener(e -> doKeyValidity());
+        JButton crlBtn = new JButton("Check CRLs\u2026");
+        crlBtn.setToolTipText("Check user certificates against local CRL files");
+        crlBtn.addActionListener(e -> doCheckRevocation());
 
         replaceBtn = new JButton("Replace User\u2026");
         replaceBtn.setToolTipText("Replace a user across all open SKA configurations");
@@ -141,6 +203,10 @@ public class UsersPanel extends JPanel {
         buttons.add(removeBtn);
         buttons.add(Box.createHorizontalStrut(16));
         buttons.add(viewCertBtn);
+        buttons.add(whereUsedBtn);
+        buttons.add(expiringBtn);
+        buttons.add(keyValidityBtn);
+        buttons.add(crlBtn);
         buttons.add(Box.createHorizontalStrut(16));
         buttons.add(replaceBtn);
         add(buttons, BorderLayout.SOUTH);
@@ -206,6 +272,10 @@ public class UsersPanel extends JPanel {
         if (result != null) {
             // result is the same object, edited in place
             tableModel.fireTableRowsUpdated(row, row);
+            if (workspaceMode) {
+                // Every SKA listing the user must be rewritten with the edit
+                workspace.markEntriesDirtyFor(Set.of(result.getCn()));
+            }
             markDirty();
             postStatus("Updated user: " + result.getCn());
         }
@@ -225,7 +295,8 @@ public class UsersPanel extends JPanel {
             int choice = JOptionPane.showOptionDialog(this,
                     "User: " + user.getCn() + "\n\n"
                             + "• \"Remove from Pool\" removes from ALL SKAs\n"
-                            + "• \"Exclude from SKA\" un-checks this user from the current SKA only",
+                            + "• \"Exclude from SKA\" un-checks this user from the current SKA only"
+                            + groupUsageWarning(user.getCn()),
                     "Remove User", JOptionPane.DEFAULT_OPTION,
                     JOptionPane.WARNING_MESSAGE, null, options, options[1]);
             if (choice == 0) {
@@ -245,7 +316,8 @@ public class UsersPanel extends JPanel {
         } else {
             int confirm = JOptionPane.showConfirmDialog(this,
                     "Remove user \"" + user.getCn() + "\"?\n\n"
-                            + "Note: This will NOT automatically remove them from groups.",
+                            + "Note: This will NOT automatically remove them from groups."
+                            + groupUsageWarning(user.getCn()),
                     "Confirm Removal", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
             if (confirm != JOptionPane.YES_OPTION) return;
             users.remove(row);
@@ -262,7 +334,7 @@ public class UsersPanel extends JPanel {
             return;
         }
         User user = users.get(row);
-        if (user.getCertificate().isEmpty()) {
+        if (!user.hasCertificate()) {
             JOptionPane.showMessageDialog(this,
                     "No certificate for " + user.getCn(),
                     "Certificate", JOptionPane.INFORMATION_MESSAGE);
@@ -278,6 +350,244 @@ public class UsersPanel extends JPanel {
                 "Certificate — " + user.getCn(), JOptionPane.PLAIN_MESSAGE);
     }
 
+    private void doWhereUsed() {
+        int row = table.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Select a user first.");
+            return;
+        }
+        if (whereUsedProvider == null) return;
+        User user = users.get(row);
+        List<MembershipIndex.Placement> placements = findPlacements(user.getCn());
+        if (placements.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    user.getCn() + " is not a member of any group.",
+                    "Where Used", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        SkaConfigEntry current = null;
+        for (MembershipIndex.Placement p : placements) {
+            if (p.entry != current) {
+                if (current != null) text.append("\n");
+                text.append("--- ").append(p.entry.getDisplayLabel()).append(" ---\n");
+                current = p.entry;
+            }
+            text.append("  \u2022 ").append(p.describe()).append("\n");
+        }
+        text.append("\nTotal: ").append(placements.size()).append(" group(s)");
+
+        JTextArea textArea = new JTextArea(text.toString());
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textArea.setEditable(false);
+        textArea.setRows(Math.min(20, placements.size() + 4));
+        textArea.setColumns(70);
+        textArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(textArea),
+                "Where Used \u2014 " + user.getCn(), JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private void doExpiring() {
+        String input = (String) JOptionPane.showInputDialog(this,
+                "Show certificates expiring within how many days?",
+                "Expiring Certificates", JOptionPane.QUESTION_MESSAGE, null, null,
+                String.valueOf(expiringDays));
+        if (input == null) return;
+        int days;
+        try {
+            days = Integer.parseInt(input.trim());
+            if (days < 0) throw new NumberFormatException();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Enter a whole number of days.",
+                    "Expiring Certificates", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        expiringDays = days;
+
+        // The master pool keeps its index current; a single file's list is indexed on demand
+        CertExpiryIndex index = users instanceof UserPool pool
+                ? pool.getExpiryIndex() : CertExpiryIndex.of(users);
+        Instant now = Instant.now();
+        List<CertExpiryIndex.Expiry> expiring = index.expiringWithin(days, now);
+        postStatus(expiring.size() + " certificate(s) expire within " + days + " day(s)");
+        if (expiring.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "No certificate expires within " + days + " day(s).",
+                    "Expiring Certificates", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        DateTimeFormatter date = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.systemDefault());
+        StringBuilder text = new StringBuilder();
+        for (CertExpiryIndex.Expiry e : expiring) {
+            long left = e.daysLeft(now);
+            String when = e.isExpired(now) ? "EXPIRED " + (-left) + " day(s) ago" : left + " day(s) left";
+            text.append(String.format("%s  %-24s %s%n", date.format(e.notAfter), when, e.user.getCn()));
+        }
+        text.append("\nTotal: ").append(expiring.size()).append(" certificate(s)");
+
+        JTextArea textArea = new JTextArea(text.toString());
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textArea.setEditable(false);
+        textArea.setRows(Math.min(20, expiring.size() + 3));
+        textArea.setColumns(80);
+        textArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(textArea),
+                "Certificates expiring within " + days + " day(s)", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private void doKeyValidity() {
+        if (validityIndexProvider == null) return;
+        JTextField dateField = new JTextField(LocalDate.now().toString(), 10);
+        JTextField daysField = new JTextField(String.valueOf(keyEndingDays), 5);
+        JPanel form = new JPanel(new GridLayout(2, 2, 6, 6));
+        form.add(new JLabel("Valid on (YYYY-MM-DD):"));
+        form.add(dateField);
+        form.add(new JLabel("Ending within (days):"));
+        form.add(daysField);
+        if (JOptionPane.showConfirmDialog(this, form, "Key Validity",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE) != JOptionPane.OK_OPTION) return;
+        LocalDate date;
+        int days;
+        try {
+            date = LocalDate.parse(dateField.getText().trim());
+            days = Integer.parseInt(daysField.getText().trim());
+            if (days < 0) throw new NumberFormatException();
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Enter a date as YYYY-MM-DD and a whole number of days.",
+                    "Key Validity", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        keyEndingDays = days;
+
+        // Validity edits in the Global Config tab must be in the model before querying
+        if (modelSyncCallback != null) modelSyncCallback.run();
+        ValidityIndex index = validityIndexProvider.get();
+        List<ValidityIndex.Window> valid = index.validOn(date);
+        LocalDate until = date.plusDays(days);
+        List<ValidityIndex.Window> ending = index.endingBetween(date, until);
+        postStatus(valid.size() + " key(s) valid on " + date + ", " + ending.size()
+                + " ending by " + until);
+
+        StringBuilder text = new StringBuilder();
+        text.append("Valid on ").append(date).append(": ").append(valid.size()).append(" key(s)\n");
+        for (ValidityIndex.Window w : valid) appendKeyWindow(text, w);
+        text.append("\nEnding ").append(date).append(" \u2013 ").append(until).append(": ")
+                .append(ending.size()).append(" key(s)\n");
+        for (ValidityIndex.Window w : ending) appendKeyWindow(text, w);
+        if (index.invalidCount() > 0) {
+            text.append("\n").append(index.invalidCount())
+                    .append(" section(s) with an invalid validity date are not listed");
+        }
+
+        JTextArea textArea = new JTextArea(text.toString());
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textArea.setEditable(false);
+        textArea.setRows(Math.min(24, valid.size() + ending.size() + 5));
+        textArea.setColumns(90);
+        textArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(textArea),
+                "Key Validity", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static void appendKeyWindow(StringBuilder text, ValidityIndex.Window w) {
+        text.append(String.format("  %-10s \u2013 %-10s  %-12s %-28s %s%n",
+                w.start != null ? w.start : "\u2026", w.end != null ? w.end : "\u2026",
+                w.sectionName, w.keyLabel, w.entry.getDisplayLabel()));
+    }
+
+    private void doCheckRevocation() {
+        UIManager.put("FileChooser.useShellFolder", Boolean.FALSE);
+        JFileChooser chooser = new JFileChooser(crlDir);
+        chooser.setDialogTitle("Select CRL Files");
+        chooser.setMultiSelectionEnabled(true);
+        chooser.setFileFilter(new FileNameExtensionFilter("CRL files (*.crl, *.pem, *.der)", "crl", "pem", "der"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File[] files = chooser.getSelectedFiles();
+        if (files.length == 0) return;
+        crlDir = files[0].getParentFile();
+
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        CrlIndex crls;
+        RevocationChecker.Result result;
+        try {
+            crls = CrlIndex.load(Arrays.asList(files));
+            result = new RevocationChecker().check(users, crls);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Revocation check failed:\n" + ex.getMessage(),
+                    "Check CRLs", JOptionPane.ERROR_MESSAGE);
+            return;
+        } finally {
+            setCursor(Cursor.getDefaultCursor());
+        }
+
+        crlIndex = crls;
+        revoked.clear();
+        for (User u : result.revoked) revoked.put(u, u.getCertificateData());
+        tableModel.fireTableDataChanged();
+        postStatus("CRL check: " + result.summary());
+
+        StringBuilder text = new StringBuilder();
+        text.append(crls.getCrls().size()).append(" CRL(s) loaded, ")
+                .append(crls.revokedCount()).append(" revoked serial(s) from ")
+                .append(crls.issuerCount()).append(" issuer(s).\n");
+        for (X509CRL crl : crls.outdated(new Date())) {
+            text.append("Warning: CRL of ").append(crl.getIssuerX500Principal().getName())
+                    .append(" is past its next update.\n");
+        }
+        text.append("\n");
+        if (result.revoked.isEmpty()) {
+            text.append("No user certificate is revoked.\n");
+        } else {
+            text.append("Revoked:\n");
+            for (User u : result.revoked) text.append("  \u2022 ").append(u.getCn()).append("\n");
+        }
+        if (!result.unknown.isEmpty()) {
+            text.append("\nNo CRL loaded for the issuer of ").append(result.unknown.size())
+                    .append(" certificate(s).\n");
+        }
+
+        JTextArea textArea = new JTextArea(text.toString());
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textArea.setEditable(false);
+        textArea.setRows(Math.min(20, result.revoked.size() + 8));
+        textArea.setColumns(70);
+        textArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(textArea),
+                "Revocation Check", result.revoked.isEmpty()
+                        ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
+    /** True if the last CRL check found {@code u}'s current certificate revoked. */
+    private boolean isRevoked(User u) {
+        CertificateData checked = revoked.get(u);
+        return checked != null && checked == u.getCertificateData();
+    }
+
+    /**
+     * CRLs loaded by the last "Check CRLs" run, or {@code null}. Used to fill
+     * the revocation column of the user report.
+     */
+    public CrlIndex getCrlIndex() {
+        return crlIndex;
+    }
+
+    private List<MembershipIndex.Placement> findPlacements(String cn) {
+        if (whereUsedProvider == null) return List.of();
+        if (modelSyncCallback != null) modelSyncCallback.run();
+        return whereUsedProvider.apply(cn);
+    }
+
+    /** Extra line for removal confirmations if the user is still a group member. */
+    private String groupUsageWarning(String cn) {
+        List<MembershipIndex.Placement> placements = findPlacements(cn);
+        if (placements.isEmpty()) return "";
+        long skas = placements.stream().map(p -> p.entry).distinct().count();
+        return "\n\nWarning: still a member of " + placements.size() + " group(s) in "
+                + skas + " SKA(s). Use \"Where Used\u2026\" for details.";
+    }
+
     private void doReplaceUser() {
         if (!workspaceMode || workspace == null) {
             JOptionPane.showMessageDialog(this,
@@ -291,14 +601,13 @@ public class UsersPanel extends JPanel {
                     "Not Enough Users", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (modelSyncCallback != null) modelSyncCallback.run();
         ReplaceUserDialog dlg = new ReplaceUserDialog(
                 (Frame) SwingUtilities.getWindowAncestor(this), workspace, users);
         dlg.setVisible(true);
         if (dlg.isCommitted()) {
-            // Refresh all UI panels from the updated model so that
-            // section/operation panels pick up the CN changes in group memberships
-            if (refreshCallback != null) refreshCallback.run();
-            // Reload the table and update SKA CN sets from the modified entry user lists
+            // The dialog announced the group changes to the workspace listeners;
+            // reload the table and update SKA CN sets from the modified entry user lists
             SkaConfigEntry active = workspace.getActiveEntry();
             if (active != null) {
                 this.skaCns = workspace.getCnsForEntry(active);
@@ -318,8 +627,7 @@ public class UsersPanel extends JPanel {
     public void loadFrom(List<User> users) {
         this.users = users;
         this.skaCns.clear();
-        tableModel.fireTableStructureChanged();
-        setupColumnWidths();
+        reloadTable();
     }
 
     /**
@@ -332,8 +640,53 @@ public class UsersPanel extends JPanel {
         this.skaCns = ws.getCnsForEntry(entry);
         replaceBtn.setVisible(true);
         header.setText("Users — master pool  (check \"In SKA\" to include in current configuration):");
-        tableModel.fireTableStructureChanged();
-        setupColumnWidths();
+        reloadTable();
+    }
+
+    /**
+     * Show the membership of another SKA entry (workspace mode): only the
+     * "In SKA" column is repainted, the pool rows stay as they are.
+     */
+    public void showEntryCns(Set<String> cns) {
+        this.skaCns = cns;
+        if (users.isEmpty()) return;
+        tableModel.fireTableChanged(new TableModelEvent(tableModel, 0, users.size() - 1, 0));
+    }
+
+    /**
+     * Repaint the rows of {@code changed} users after in-place edits
+     * (e.g. a CSV import). Users not in the table are ignored.
+     */
+    public void usersUpdated(Collection<User> changed) {
+        Set<User> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+        wanted.addAll(changed);
+        int first = -1;
+        int last = -1;
+        for (int row = 0; row < users.size(); row++) {
+            if (wanted.contains(users.get(row))) {
+                if (first < 0) first = row;
+                last = row;
+            }
+        }
+        if (first >= 0) tableModel.fireTableRowsUpdated(first, last);
+    }
+
+    /** Users were added or removed: refresh the rows, keep the columns. */
+    public void userListChanged() {
+        tableModel.fireTableDataChanged();
+    }
+
+    /**
+     * Refresh all rows. The columns are only rebuilt when the mode (and so
+     * the column set) changed, which keeps widths and avoids a full relayout.
+     */
+    private void reloadTable() {
+        if (table.getColumnCount() != tableModel.getColumnCount()) {
+            tableModel.fireTableStructureChanged();
+            setupColumnWidths();
+        } else {
+            tableModel.fireTableDataChanged();
+        }
     }
 
     /**
@@ -426,7 +779,7 @@ public class UsersPanel extends JPanel {
                     case 3 -> u.getEmail();
                     case 4 -> u.getOrganisation();
                     case 5 -> integrationEnvironment ? u.getUserIdIntegration() : u.getUserId();
-                    case 6 -> u.getCertificate().isEmpty() ? "—" : "\u2713";
+                    case 6 -> certText(u);
                     default -> "";
                 };
             } else {
@@ -436,10 +789,32 @@ public class UsersPanel extends JPanel {
                     case 2 -> u.getEmail();
                     case 3 -> u.getOrganisation();
                     case 4 -> integrationEnvironment ? u.getUserIdIntegration() : u.getUserId();
-                    case 5 -> u.getCertificate().isEmpty() ? "—" : "\u2713";
+                    case 5 -> certText(u);
                     default -> "";
                 };
             }
         }
+
+        private String certText(User u) {
+            if (!u.hasCertificate()) return "—";
+            return isRevoked(u) ? "REVOKED" : "\u2713";
+        }
+    }
+
+    /** Shows the rows of users with a revoked certificate in red. */
+    private class RevokedRowRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            int modelRow = table.convertRowIndexToModel(row);
+            boolean flagged = modelRow < users.size() && isRevoked(users.get(modelRow));
+            if (flagged) {
+                c.setForeground(isSelected ? table.getSelectionForeground() : Color.RED.darker());
+            } else {
+                c.setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
+            }
+            return c;
+        }
     }
 }
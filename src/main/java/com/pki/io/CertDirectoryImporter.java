@@ -0,0 +1,271 @@
+package com.pki.io;
+
+import com.pki.model.CertificateData;
+import com.pki.model.User;
+import com.pki.model.UserPool;
+import com.pki.util.CertUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports user certificates from a directory of certificate files and
+ * matches them to users by subject CN.
+ * <p>
+ * Every {@code .pem}, {@code .crt}, {@code .cer}, {@code .der}, {@code .p7b}
+ * and {@code .p7c} file in the directory (not its subdirectories) is read
+ * and parsed on a bounded thread pool; a file may hold one or more PEM or
+ * DER certificates or a PKCS#7 bundle. CA certificates (e.g. the chain in
+ * a {@code .p7b}) are skipped. The end-entity certificates are indexed by
+ * subject CN; when a CN has several, the one with the latest
+ * {@code notBefore} wins. Matching against users is then one hash lookup
+ * per certificate.
+ */
+public class CertDirectoryImporter {
+
+    /** File extensions (lower case) that are scanned. */
+    public static final List<String> EXTENSIONS = List.of("pem", "crt", "cer", "der", "p7b", "p7c");
+
+    /** Minimum number of files per parsing task. */
+    private static final int MIN_FILES_PER_TASK = 8;
+
+    /** An end-entity certificate found in the directory. */
+    public static class FoundCertificate {
+        public final String cn;
+        public final X509Certificate certificate;
+        public final File file;
+
+        FoundCertificate(String cn, X509Certificate certificate, File file) {
+            this.cn = cn;
+            this.certificate = certificate;
+            this.file = file;
+        }
+
+        /** The certificate as a user certificate handle (standard PEM layout). */
+        public CertificateData toCertificateData() {
+            return CertificateData.fromDer(encoded(certificate));
+        }
+    }
+
+    /** Result of scanning a directory. */
+    public static class ScanResult {
+        /** Certificates by subject CN. */
+        public final Map<String, FoundCertificate> byCn;
+        public final int files;
+        /** End-entity certificates read (including superseded ones). */
+        public final int certificates;
+        /** CA certificates that were skipped. */
+        public final int caCertificates;
+        /** End-entity certificates without a CN in their subject. */
+        public final int withoutCn;
+        /** CNs for which an older certificate was dropped in favour of a newer one. */
+        public final List<String> superseded;
+        /** One line per file that could not be read, "name: reason". */
+        public final List<String> errors;
+        public final long millis;
+
+        ScanResult(Map<String, FoundCertificate> byCn, int files, int certificates, int caCertificates,
+                   int withoutCn, List<String> superseded, List<String> errors, long millis) {
+            this.byCn = Collections.unmodifiableMap(byCn);
+            this.files = files;
+            this.certificates = certificates;
+            this.caCertificates = caCertificates;
+            this.withoutCn = withoutCn;
+            this.superseded = Collections.unmodifiableList(superseded);
+            this.errors = Collections.unmodifiableList(errors);
+            this.millis = millis;
+        }
+
+        /**
+         * Match the certificates to {@code users} by CN. A {@link UserPool}
+         * is looked up through its CN index; other lists are indexed once.
+         */
+        public Matches match(List<User> users) {
+            Map<String, User> index = null;
+            if (!(users instanceof UserPool)) {
+                index = new HashMap<>();
+                for (User u : users) {
+                    if (!u.getCn().isEmpty()) index.putIfAbsent(u.getCn(), u);
+                }
+            }
+
+            List<Change> changed = new ArrayList<>();
+            List<FoundCertificate> unmatched = new ArrayList<>();
+            int unchanged = 0;
+            for (FoundCertificate found : byCn.values()) {
+                User user = index != null ? index.get(found.cn) : ((UserPool) users).findByCn(found.cn);
+                if (user == null) {
+                    unmatched.add(found);
+                } else if (holds(user, found.certificate)) {
+                    unchanged++;
+                } else {
+                    changed.add(new Change(user, found));
+                }
+            }
+            return new Matches(changed, unchanged, unmatched);
+        }
+
+        /** One-line summary, e.g. for the status bar. */
+        public String summary() {
+            return certificates + " certificate(s) in " + files + " file(s), " + byCn.size() + " CN(s)"
+                    + (errors.isEmpty() ? "" : ", " + errors.size() + " unreadable file(s)")
+                    + " (" + millis + " ms)";
+        }
+    }
+
+    /** A user whose certificate differs from the one found in the directory. */
+    public static class Change {
+        public final User user;
+        public final FoundCertificate found;
+
+        Change(User user, FoundCertificate found) {
+            this.user = user;
+            this.found = found;
+        }
+    }
+
+    /** Certificates matched against a user list, ordered by CN. */
+    public static class Matches {
+        public final List<Change> changed;
+        /** Users that already hold the certificate found for them. */
+        public final int unchanged;
+        /** Certificates whose CN matches no user. */
+        public final List<FoundCertificate> unmatched;
+
+        Matches(List<Change> changed, int unchanged, List<FoundCertificate> unmatched) {
+            this.changed = Collections.unmodifiableList(changed);
+            this.unchanged = unchanged;
+            this.unmatched = Collections.unmodifiableList(unmatched);
+        }
+
+        /** Give every changed user the certificate found for it. */
+        public void apply() {
+            for (Change c : changed) {
+                c.user.setCertificateData(c.found.toCertificateData());
+            }
+        }
+    }
+
+    private final int parallelism;
+
+    /** Importer using one thread per available processor. */
+    public CertDirectoryImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param parallelism number of parsing threads (1 parses on the calling thread) */
+    public CertDirectoryImporter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Read all certificate files in {@code dir}. Unreadable files are listed
+     * in {@link ScanResult#errors} rather than failing the scan.
+     *
+     * @throws IOException if {@code dir} cannot be listed or the scan is interrupted
+     */
+    public ScanResult scan(File dir) throws IOException {
+        long t0 = System.nanoTime();
+        File[] listed = dir.listFiles(f -> f.isFile() && EXTENSIONS.contains(extension(f)));
+        if (listed == null) throw new IOException("Cannot read directory " + dir);
+        Arrays.sort(listed, Comparator.comparing(File::getName));
+
+        List<X509Certificate>[] parsed = newListArray(listed.length);
+        String[] failures = new String[listed.length];
+        ParallelChunks.forEach(listed.length, parallelism, MIN_FILES_PER_TASK, "ska-cert-import", i -> {
+            try {
+                parsed[i] = readCertificates(listed[i]);
+            } catch (Exception e) {
+                failures[i] = listed[i].getName() + ": " + e.getMessage();
+            }
+        });
+
+        // Merge in file-name order so the result does not depend on thread timing
+        Map<String, FoundCertificate> byCn = new TreeMap<>();
+        Set<String> superseded = new TreeSet<>();
+        List<String> errors = new ArrayList<>();
+        int certificates = 0;
+        int caCertificates = 0;
+        int withoutCn = 0;
+        for (int i = 0; i < listed.length; i++) {
+            if (failures[i] != null) {
+                errors.add(failures[i]);
+                continue;
+            }
+            for (X509Certificate cert : parsed[i]) {
+                if (cert.getBasicConstraints() >= 0) {
+                    caCertificates++;
+                    continue;
+                }
+                certificates++;
+                String cn = CertUtils.subjectCn(cert);
+                if (cn == null || cn.isBlank()) {
+                    withoutCn++;
+                    continue;
+                }
+                FoundCertificate current = byCn.get(cn);
+                if (current == null) {
+                    byCn.put(cn, new FoundCertificate(cn, cert, listed[i]));
+                } else if (!current.certificate.equals(cert)) {
+                    superseded.add(cn);
+                    if (cert.getNotBefore().after(current.certificate.getNotBefore())) {
+                        byCn.put(cn, new FoundCertificate(cn, cert, listed[i]));
+                    }
+                }
+            }
+        }
+        return new ScanResult(new LinkedHashMap<>(byCn), listed.length, certificates, caCertificates,
+                withoutCn, new ArrayList<>(superseded), errors,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+    }
+
+    /** All certificates in one PEM, DER or PKCS#7 file. */
+    private static List<X509Certificate> readCertificates(File file) throws Exception {
+        byte[] content = Files.readAllBytes(file.toPath());
+        Collection<? extends Certificate> certs = CertificateFactory.getInstance("X.509")
+                .generateCertificates(new ByteArrayInputStream(content));
+        if (certs.isEmpty()) throw new IOException("no certificate found");
+        List<X509Certificate> out = new ArrayList<>(certs.size());
+        for (Certificate c : certs) out.add((X509Certificate) c);
+        return out;
+    }
+
+    /** True if {@code user} already holds {@code cert} (in any PEM layout). */
+    private static boolean holds(User user, X509Certificate cert) {
+        if (!user.hasCertificate()) return false;
+        byte[] der = user.getCertificateData().getDer();
+        if (der == null) {
+            X509Certificate current = CertUtils.parseCertificate(user.getCertificate());
+            if (current == null) return false;
+            der = encoded(current);
+        }
+        return Arrays.equals(der, encoded(cert));
+    }
+
+    private static byte[] encoded(X509Certificate cert) {
+        try {
+            return cert.getEncoded();
+        } catch (CertificateEncodingException e) {
+            throw new IllegalStateException("Cannot encode certificate " + cert.getSubjectX500Principal(), e);
+        }
+    }
+
+    private static String extension(File f) {
+        String name = f.getName();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<X509Certificate>[] newListArray(int n) {
+        return (List<X509Certificate>[]) new List<?>[n];
+    }
+}
@@ -0,0 +1,191 @@
+package com.pki.io;
+
+import com.pki.model.User;
+import com.pki.model.UserPool;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Sidecar of the last CSV import into one workspace folder, so a weekly
+ * re-import of the same Jira export only applies the users that changed.
+ * <p>
+ * For every CN of the last import it keeps two 64-bit hashes: the hash of
+ * the CN's rows ({@link CsvImporter#hashRows}) and the hash of the pool
+ * user as the import left it ({@link #userHash}). On the next import a CN
+ * is skipped only if both still match; a changed row, a CN missing from the
+ * pool, or a pool user edited (or reloaded from disk) since the last import
+ * makes it count as changed, and it is applied again.
+ * <p>
+ * Like {@link WorkspaceCache}, the sidecar lives in the user cache directory
+ * in one file per workspace folder and is strictly best-effort: an
+ * unreadable or outdated file is treated as "no previous import".
+ */
+public class CsvImportState {
+
+    private static final int MAGIC = 0x534B4349; // "SKCI"
+    private static final int FORMAT_VERSION = 1;
+
+    /** What the last import saw and left behind for one CN. */
+    private static final class Imported {
+        final long rowHash;
+        final long userHash;
+
+        Imported(long rowHash, long userHash) {
+            this.rowHash = rowHash;
+            this.userHash = userHash;
+        }
+    }
+
+    private final Path stateFile;
+    private Map<String, Imported> imported;
+
+    /**
+     * Open the import state of a workspace folder in the default cache directory.
+     */
+    public static CsvImportState forFolder(File folder) {
+        return new CsvImportState(WorkspaceCache.defaultCacheDir(), folder);
+    }
+
+    /**
+     * @param cacheDir directory holding state files (created on save)
+     * @param folder   the workspace folder this state belongs to
+     */
+    public CsvImportState(Path cacheDir, File folder) {
+        this.stateFile = cacheDir.resolve(WorkspaceCache.folderKey(folder) + ".csvstate");
+        this.imported = readState(stateFile);
+    }
+
+    public Path getStateFile() { return stateFile; }
+
+    /** Number of CNs recorded by the last import. */
+    public int size() { return imported.size(); }
+
+    /**
+     * Snapshot of {@link #userHash} for every user of {@code pool} with a CN.
+     * Take it on the thread that owns the pool, so {@link #changedCns} can
+     * run in the background while the pool keeps changing.
+     */
+    public static Map<String, Long> userHashes(UserPool pool) {
+        Map<String, Long> hashes = new HashMap<>(pool.size() * 2);
+        for (User user : pool) {
+            if (!user.getCn().isEmpty()) hashes.putIfAbsent(user.getCn(), userHash(user));
+        }
+        return hashes;
+    }
+
+    /**
+     * The CNs of {@code rowHashes} that have to be applied to the pool:
+     * new CNs, CNs whose rows changed, and CNs whose pool user no longer
+     * matches what the last import left. Keeps the order of {@code rowHashes}.
+     *
+     * @param poolHashes the pool as taken by {@link #userHashes}
+     */
+    public Set<String> changedCns(Map<String, Long> rowHashes, Map<String, Long> poolHashes) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, Long> e : rowHashes.entrySet()) {
+            String cn = e.getKey();
+            Imported last = imported.get(cn);
+            Long userHash = poolHashes.get(cn);
+            if (last == null || userHash == null
+                    || last.rowHash != e.getValue()
+                    || last.userHash != userHash) {
+                changed.add(cn);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Replace the state with the rows of the import just applied and the
+     * pool users as they are now. CNs no longer in the export are dropped.
+     */
+    public void record(Map<String, Long> rowHashes, UserPool pool) {
+        Map<String, Imported> next = new HashMap<>(rowHashes.size() * 2);
+        for (Map.Entry<String, Long> e : rowHashes.entrySet()) {
+            User user = pool.findByCn(e.getKey());
+            if (user != null) {
+                next.put(e.getKey(), new Imported(e.getValue(), userHash(user)));
+            }
+        }
+        imported = next;
+    }
+
+    /**
+     * Write the recorded state, replacing the old file atomically.
+     *
+     * @return {@code true} if the state was written
+     */
+    public boolean save() {
+        try {
+            Files.createDirectories(stateFile.getParent());
+            Path tmp = Files.createTempFile(stateFile.getParent(), stateFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeInt(imported.size());
+                    for (Map.Entry<String, Imported> e : new TreeMap<>(imported).entrySet()) {
+                        SkaConfigCodec.writeString(out, e.getKey());
+                        out.writeLong(e.getValue().rowHash);
+                        out.writeLong(e.getValue().userHash);
+                    }
+                }
+                try {
+                    Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            return false; // best-effort: the next import simply applies every user
+        }
+    }
+
+    /**
+     * Hash of the user fields a CSV import can change. Certificates are
+     * compared through their interned handle, without rendering any PEM.
+     */
+    static long userHash(User user) {
+        long h = 17;
+        h = h * 31 + Objects.hashCode(user.getCn());
+        h = h * 31 + Objects.hashCode(user.getName());
+        h = h * 31 + Objects.hashCode(user.getEmail());
+        h = h * 31 + Objects.hashCode(user.getOrganisation());
+        h = h * 31 + Objects.hashCode(user.getUserId());
+        h = h * 31 + Objects.hashCode(user.getUserIdIntegration());
+        h = h * 31 + user.getCertificateData().hashCode();
+        h = h * 31 + user.getOrgOwnerOf().hashCode();
+        h = h * 31 + user.getOrgSecOffOf().hashCode();
+        h = h * 31 + user.getOrgOpOf().hashCode();
+        return h;
+    }
+
+    // --- internals ---
+
+    private static Map<String, Imported> readState(Path stateFile) {
+        if (!Files.isRegularFile(stateFile)) return new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(stateFile), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return new HashMap<>();
+            }
+            int count = in.readInt();
+            if (count < 0 || count > Files.size(stateFile)) return new HashMap<>();
+            Map<String, Imported> map = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String cn = SkaConfigCodec.readString(in);
+                if (cn == null) return new HashMap<>();
+                map.put(cn, new Imported(in.readLong(), in.readLong()));
+            }
+            return map;
+        } catch (IOException ex) {
+            return new HashMap<>();
+        }
+    }
+}
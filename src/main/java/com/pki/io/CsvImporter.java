@@ -3,16 +3,34 @@ package com.pki.io;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.RFC4180ParserBuilder;
+import com.opencsv.exceptions.CsvValidationException;
 import com.pki.model.User;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Imports users from a Jira CSV asset export.
  * Handles multiline PEM certificate fields, {@code &nbsp;} artifacts,
  * and deduplicates records by CN (keeping the most complete entry).
+ * <p>
+ * The export is read one row at a time: {@link #importUsers(File)} merges
+ * each row into the CN map as soon as it is read, so memory grows with the
+ * number of distinct users rather than the number of rows.
+ * <p>
+ * The header is resolved once into a {@code ColumnPlan} of fixed column
+ * indexes. With more than one thread, the CSV is parsed on the calling
+ * thread while worker threads turn batches of rows into users; the users
+ * are still merged in row order.
+ * <p>
+ * For re-imports, {@link #hashRows} fingerprints the rows of each CN without
+ * decoding them, and {@link #importUsers(File, Set)} decodes only the rows of
+ * the given CNs (see {@link CsvImportState}).
  */
 public class CsvImporter {
 
@@ -28,6 +46,29 @@ public class CsvImporter {
     private static final String COL_ORG_SECOFF = "Org SecOff";
     private static final String COL_ORG_OP = "Org Op";
 
+    private static final String BEGIN = "-----BEGIN CERTIFICATE-----";
+    private static final String END = "-----END CERTIFICATE-----";
+    private static final String NBSP_ENTITY = "&nbsp;";
+    private static final Pattern MULTI_VALUE_SEPARATOR = Pattern.compile("\\|\\|");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Rows decoded by one worker task. */
+    private static final int ROWS_PER_TASK = 256;
+
+    private final int parallelism;
+
+    /** Importer decoding rows on one thread per available processor. */
+    public CsvImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param parallelism number of row decoding threads (1 decodes on the calling thread) */
+    public CsvImporter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     /**
      * Parse a Jira CSV export file and return a list of unique users.
      * Rows with an empty {@code cn} column are skipped.
@@ -38,71 +79,302 @@ public class CsvImporter {
      * @throws IOException if the file cannot be read or parsed
      */
     public List<User> importUsers(File file) throws IOException {
-        Map<String, Integer> headerMap;
-        List<String[]> rows;
+        // Build users, keyed by CN for deduplication
+        Map<String, User> usersByCn = new LinkedHashMap<>();
+        forEachUser(file, cn -> true, user -> {
+            User existing = usersByCn.putIfAbsent(user.getCn(), user);
+            if (existing != null) merge(existing, user);
+        });
+        return new ArrayList<>(usersByCn.values());
+    }
+
+    /**
+     * Like {@link #importUsers(File)}, but only rows whose CN is in
+     * {@code cns} are decoded; all other rows are parsed but not
+     * turned into users.
+     *
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public List<User> importUsers(File file, Set<String> cns) throws IOException {
+        if (cns.isEmpty()) return new ArrayList<>();
+        Map<String, User> usersByCn = new LinkedHashMap<>();
+        forEachUser(file, cns::contains, user -> {
+            User existing = usersByCn.putIfAbsent(user.getCn(), user);
+            if (existing != null) merge(existing, user);
+        });
+        return new ArrayList<>(usersByCn.values());
+    }
+
+    /**
+     * A 64-bit hash of the rows of each CN, in row order, without decoding
+     * any row. Two exports give the same hash for a CN when its rows (all
+     * columns, including ones not imported) and their order are unchanged.
+     * Rows without a CN are ignored.
+     *
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public Map<String, Long> hashRows(File file) throws IOException {
+        Map<String, Long> hashes = new LinkedHashMap<>();
+        try (RowReader rows = new RowReader(file, cn -> true)) {
+            String[] row;
+            while ((row = rows.nextRow()) != null) {
+                String cn = rows.plan.cnOf(row);
+                if (cn.isEmpty()) continue;
+                hashes.merge(cn, rowHash(row), (a, b) -> a * FNV_PRIME + b);
+            }
+        }
+        return hashes;
+    }
+
+    /** FNV-1a over all fields; field boundaries are hashed as well. */
+    static long rowHash(String[] row) {
+        long h = FNV_OFFSET;
+        for (String field : row) {
+            String f = field != null ? field : "";
+            for (int i = 0; i < f.length(); i++) {
+                h = (h ^ f.charAt(i)) * FNV_PRIME;
+            }
+            h = (h ^ 0xFFFF) * FNV_PRIME; // not a valid character, so "a","b" differs from "ab",""
+        }
+        return h;
+    }
+
+    /**
+     * Read the export row by row and pass one user per row whose CN passes
+     * {@code wanted} to {@code consumer}, in row order and on the calling
+     * thread. Users are not deduplicated; only the rows currently being
+     * decoded are held in memory.
+     *
+     * @return number of users passed to {@code consumer}
+     * @throws IOException if the file cannot be read or parsed, or the import is interrupted
+     */
+    int forEachUser(File file, Predicate<String> wanted, Consumer<? super User> consumer)
+            throws IOException {
+        try (RowReader rows = new RowReader(file, wanted)) {
+            if (parallelism <= 1) {
+                int count = 0;
+                for (User user = rows.next(); user != null; user = rows.next()) {
+                    consumer.accept(user);
+                    count++;
+                }
+                return count;
+            }
+            return forEachUserParallel(rows, consumer);
+        }
+    }
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(
-                new FileInputStream(file), StandardCharsets.UTF_8))) {
+    /**
+     * Parse rows on the calling thread and decode them in batches on a
+     * worker pool. At most a few batches per thread are in flight; the oldest
+     * batch is always handed out first, so the order matches the file.
+     */
+    private int forEachUserParallel(RowReader rows, Consumer<? super User> consumer) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "ska-csv-import");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Deque<Future<User[]>> pending = new ArrayDeque<>();
+            int maxPending = parallelism * 2;
+            int count = 0;
+            List<String[]> batch;
+            while (!(batch = rows.nextBatch(ROWS_PER_TASK)).isEmpty()) {
+                final List<String[]> task = batch;
+                pending.add(pool.submit(() -> rows.decodeAll(task)));
+                if (pending.size() >= maxPending) {
+                    count += deliver(pending.poll(), consumer);
+                }
+            }
+            while (!pending.isEmpty()) {
+                count += deliver(pending.poll(), consumer);
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV import interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to decode CSV row: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int deliver(Future<User[]> decoded, Consumer<? super User> consumer)
+            throws InterruptedException, ExecutionException {
+        int count = 0;
+        for (User user : decoded.get()) {
+            if (user != null) {
+                consumer.accept(user);
+                count++;
+            }
+        }
+        return count;
+    }
 
-            CSVReader csvReader = new CSVReaderBuilder(reader)
+    /**
+     * Reads the data rows of one export; {@link #plan} turns the rows whose
+     * CN passes {@code wanted} into users.
+     */
+    private static final class RowReader implements Closeable {
+        private final Reader reader;
+        private final CSVReader csvReader;
+        private final Predicate<String> wanted;
+        final ColumnPlan plan;
+
+        RowReader(File file, Predicate<String> wanted) throws IOException {
+            this.wanted = wanted;
+            try {
+                reader = new BufferedReader(new InputStreamReader(
+                        new FileInputStream(file), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+            }
+            csvReader = new CSVReaderBuilder(reader)
                     .withCSVParser(new RFC4180ParserBuilder().build())
                     .build();
+            try {
+                String[] headerRow = csvReader.readNext();
+                if (headerRow == null) {
+                    throw new IOException("CSV file is empty");
+                }
+                plan = new ColumnPlan(headerRow);
+            } catch (Exception e) {
+                closeQuietly();
+                throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+            }
+        }
 
-            String[] headerRow = csvReader.readNext();
-            if (headerRow == null) {
-                throw new IOException("CSV file is empty");
+        /** The next raw row, or {@code null} at the end of the file. */
+        String[] nextRow() throws IOException {
+            try {
+                return csvReader.readNext();
+            } catch (CsvValidationException | IOException e) {
+                throw new IOException("Failed to parse CSV near line " + csvReader.getLinesRead()
+                        + ": " + e.getMessage(), e);
             }
-            headerMap = buildHeaderMap(headerRow);
+        }
 
-            rows = csvReader.readAll();
-        } catch (Exception e) {
-            throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+        /** Up to {@code max} raw rows; empty at the end of the file. */
+        List<String[]> nextBatch(int max) throws IOException {
+            List<String[]> batch = new ArrayList<>(max);
+            String[] row;
+            while (batch.size() < max && (row = nextRow()) != null) {
+                batch.add(row);
+            }
+            return batch;
         }
 
-        // Build users, keyed by CN for deduplication
-        Map<String, User> usersByCn = new LinkedHashMap<>();
+        /** The user of the next row with a CN, or {@code null} at the end of the file. */
+        User next() throws IOException {
+            String[] row;
+            while ((row = nextRow()) != null) {
+                User user = plan.decode(row, wanted);
+                if (user != null) return user;
+            }
+            return null;
+        }
 
-        for (String[] row : rows) {
-            String cn = getField(row, headerMap, COL_CN).trim();
-            if (cn.isEmpty()) {
-                continue; // skip rows without CN
+        /** The users of {@code rows}, {@code null} where a row is skipped. */
+        User[] decodeAll(List<String[]> rows) {
+            User[] users = new User[rows.size()];
+            for (int i = 0; i < users.length; i++) {
+                users[i] = plan.decode(rows.get(i), wanted);
+            }
+            return users;
+        }
+
+        @Override
+        public void close() throws IOException {
+            csvReader.close();
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException ignored) {
+                // nothing useful to do for a read-only file
+            }
+        }
+    }
+
+    /**
+     * Column indexes resolved once from the header row; -1 for a missing
+     * column. Immutable, so worker threads share one plan.
+     */
+    private static final class ColumnPlan {
+        private final int cn, name, email, org, userId, userIdIntegration, cert;
+        private final int orgOwner, orgSecOff, orgOp;
+
+        ColumnPlan(String[] headerRow) {
+            Map<String, Integer> headerMap = buildHeaderMap(headerRow);
+            cn = index(headerMap, COL_CN);
+            name = index(headerMap, COL_NAME);
+            email = index(headerMap, COL_EMAIL);
+            org = index(headerMap, COL_ORG);
+            userId = index(headerMap, COL_USER_ID);
+            userIdIntegration = index(headerMap, COL_USER_ID_INTEGRATION);
+            cert = index(headerMap, COL_CERT);
+            orgOwner = index(headerMap, COL_ORG_OWNER);
+            orgSecOff = index(headerMap, COL_ORG_SECOFF);
+            orgOp = index(headerMap, COL_ORG_OP);
+        }
+
+        private static int index(Map<String, Integer> headerMap, String column) {
+            Integer idx = headerMap.get(column);
+            return idx != null ? idx : -1;
+        }
+
+        /** The trimmed CN of {@code row}, empty if it has none. */
+        String cnOf(String[] row) {
+            return field(row, cn).trim();
+        }
+
+        /**
+         * The user described by {@code row}, or {@code null} if its CN is
+         * empty or does not pass {@code wanted}.
+         */
+        User decode(String[] row, Predicate<String> wanted) {
+            String cnValue = cnOf(row);
+            if (cnValue.isEmpty() || !wanted.test(cnValue)) {
+                return null; // no CN, or not asked for
             }
 
             User user = new User();
-            user.setCn(cn);
-            user.setName(getField(row, headerMap, COL_NAME).trim());
-            user.setEmail(getField(row, headerMap, COL_EMAIL).trim());
-            user.setOrganisation(getField(row, headerMap, COL_ORG).trim());
-            user.setUserId(getField(row, headerMap, COL_USER_ID).trim());
-            user.setUserIdIntegration(getField(row, headerMap, COL_USER_ID_INTEGRATION).trim());
+            user.setCn(cnValue);
+            user.setName(field(row, name).trim());
+            user.setEmail(field(row, email).trim());
+            user.setOrganisation(field(row, org).trim());
+            user.setUserId(field(row, userId).trim());
+            user.setUserIdIntegration(field(row, userIdIntegration).trim());
 
-            // Certificate: try the cert column first, then scan all columns for PEM block
-            String cert = cleanCertificate(getField(row, headerMap, COL_CERT));
-            if (cert.isEmpty()) {
-                cert = findCertInRow(row);
+            // Certificate: try the cert column first, then scan the other columns for a PEM block
+            String certValue = cleanCertificate(field(row, cert));
+            if (certValue.isEmpty()) {
+                certValue = findCertInRow(row, cert);
             }
-            user.setCertificate(cert);
+            user.setCertificate(certValue);
 
             // Role assignments (|| separated)
-            user.setOrgOwnerOf(parseMultiValue(getField(row, headerMap, COL_ORG_OWNER)));
-            user.setOrgSecOffOf(parseMultiValue(getField(row, headerMap, COL_ORG_SECOFF)));
-            user.setOrgOpOf(parseMultiValue(getField(row, headerMap, COL_ORG_OP)));
+            user.setOrgOwnerOf(parseMultiValue(field(row, orgOwner)));
+            user.setOrgSecOffOf(parseMultiValue(field(row, orgSecOff)));
+            user.setOrgOpOf(parseMultiValue(field(row, orgOp)));
+            return user;
+        }
 
-            // Deduplication: merge with existing if CN already seen
-            if (usersByCn.containsKey(cn)) {
-                merge(usersByCn.get(cn), user);
-            } else {
-                usersByCn.put(cn, user);
+        /** The value at {@code idx}, or {@code ""} for a missing column or short row. */
+        private static String field(String[] row, int idx) {
+            if (idx < 0 || idx >= row.length || row[idx] == null) {
+                return "";
             }
+            return row[idx];
         }
-
-        return new ArrayList<>(usersByCn.values());
     }
 
     /**
      * Build a case-insensitive header → column-index map.
      */
-    private Map<String, Integer> buildHeaderMap(String[] headerRow) {
+    private static Map<String, Integer> buildHeaderMap(String[] headerRow) {
         Map<String, Integer> map = new LinkedHashMap<>();
         for (int i = 0; i < headerRow.length; i++) {
             map.put(headerRow[i].trim(), i);
@@ -110,55 +382,66 @@ public class CsvImporter {
         return map;
     }
 
-    /**
-     * Safely get a field value by header name.
-     */
-    private String getField(String[] row, Map<String, Integer> headerMap, String column) {
-        Integer idx = headerMap.get(column);
-        if (idx == null || idx >= row.length) {
-            return "";
-        }
-        return row[idx];
-    }
-
     /**
      * Clean a PEM certificate string: remove {@code &nbsp;}, trim whitespace,
      * and normalize line endings.
+     * <p>
+     * Done in one pass over {@code raw}: characters before the BEGIN marker
+     * are only matched against it, and the PEM block is copied, cleaned, up
+     * to the first END marker after it.
      */
     static String cleanCertificate(String raw) {
         if (raw == null) return "";
-        String cleaned = raw
-                .replace("&nbsp;", "")
-                .replace("\u00A0", "") // non-breaking space
-                .replace("\r\n", "\n")
-                .replace("\r", "\n")
-                .trim();
+        int len = raw.length();
+        StringBuilder pem = null;
+        int matched = 0; // characters of the marker being looked for matched so far
+        for (int i = 0; i < len; i++) {
+            char c = raw.charAt(i);
+            if (c == '\u00A0') continue; // non-breaking space
+            if (c == '&' && raw.startsWith(NBSP_ENTITY, i)) {
+                i += NBSP_ENTITY.length() - 1;
+                continue;
+            }
+            if (c == '\r') {
+                if (i + 1 < len && raw.charAt(i + 1) == '\n') continue;
+                c = '\n';
+            }
 
-        // Validate it looks like a PEM certificate
-        if (!cleaned.contains("-----BEGIN CERTIFICATE-----")) {
-            return "";
-        }
+            String marker = pem == null ? BEGIN : END;
+            if (c == marker.charAt(matched)) {
+                matched++;
+            } else if (c == '-') {
+                // Both markers start with five dashes; a longer run keeps the last five
+                matched = matched == 5 ? 5 : 1;
+            } else {
+                matched = 0;
+            }
 
-        // Extract just the PEM block
-        int start = cleaned.indexOf("-----BEGIN CERTIFICATE-----");
-        int end = cleaned.indexOf("-----END CERTIFICATE-----");
-        if (start < 0 || end < 0) {
-            return "";
+            if (pem == null) {
+                if (matched == BEGIN.length()) {
+                    pem = new StringBuilder(Math.min(len, 4096)).append(BEGIN);
+                    matched = 0;
+                }
+            } else {
+                pem.append(c);
+                if (matched == END.length()) {
+                    return pem.toString();
+                }
+            }
         }
-        return cleaned.substring(start, end + "-----END CERTIFICATE-----".length()).trim();
+        return ""; // no BEGIN marker, or no END marker after it
     }
 
     /**
-     * Scan all columns in a row for a PEM certificate block.
+     * Scan the other columns of a row for a PEM certificate block.
      * Handles cases where the cert ended up in the wrong CSV column.
      */
-    private String findCertInRow(String[] row) {
-        for (String field : row) {
-            if (field != null && field.contains("-----BEGIN CERTIFICATE-----")) {
-                String cert = cleanCertificate(field);
-                if (!cert.isEmpty()) {
-                    return cert;
-                }
+    private static String findCertInRow(String[] row, int skip) {
+        for (int i = 0; i < row.length; i++) {
+            if (i == skip || row[i] == null) continue;
+            String cert = cleanCertificate(row[i]);
+            if (!cert.isEmpty()) {
+                return cert;
             }
         }
         return "";
@@ -172,7 +455,7 @@ public class CsvImporter {
         if (raw == null || raw.trim().isEmpty()) {
             return result;
         }
-        for (String part : raw.split("\\|\\|")) {
+        for (String part : MULTI_VALUE_SEPARATOR.split(raw)) {
             String trimmed = part.trim();
             if (!trimmed.isEmpty()) {
                 result.add(trimmed);
@@ -198,8 +481,8 @@ public class CsvImporter {
         if (target.getUserIdIntegration().isEmpty() && !source.getUserIdIntegration().isEmpty())
             target.setUserIdIntegration(source.getUserIdIntegration());
         // Prefer the most recent (last seen) non-empty certificate
-        if (!source.getCertificate().isEmpty())
-            target.setCertificate(source.getCertificate());
+        if (source.hasCertificate())
+            target.setCertificateData(source.getCertificateData());
         // Merge role sets
         target.getOrgOwnerOf().addAll(source.getOrgOwnerOf());
         target.getOrgSecOffOf().addAll(source.getOrgSecOffOf());
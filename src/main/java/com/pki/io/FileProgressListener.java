@@ -0,0 +1,11 @@
+package com.pki.io;
+
+import java.io.File;
+
+/**
+ * Progress callback of a folder load or save ({@link SkaFolderLoader},
+ * {@link SkaFolderSaver}), invoked from worker threads after each file.
+ */
+public interface FileProgressListener {
+    void fileDone(int completed, int total, File file);
+}
@@ -0,0 +1,64 @@
+package com.pki.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a per-index task over {@code [0, total)} on a short-lived pool of
+ * daemon threads, split into a few chunks per thread. Small inputs run on
+ * the calling thread.
+ */
+final class ParallelChunks {
+
+    private ParallelChunks() {}
+
+    /**
+     * Call {@code body} once for every index in {@code [0, total)}.
+     *
+     * @param parallelism  maximum number of threads
+     * @param minPerTask   minimum number of indexes per task, so tiny inputs are not split up
+     * @param threadName   name of the worker threads
+     * @throws IOException if interrupted, or wrapping the first failure of {@code body}
+     */
+    static void forEach(int total, int parallelism, int minPerTask, String threadName,
+                        IntConsumer body) throws IOException {
+        int threads = Math.min(parallelism, Math.max(1, total / minPerTask));
+        if (threads <= 1) {
+            for (int i = 0; i < total; i++) body.accept(i);
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            // A few chunks per thread keeps the threads busy when task times vary
+            int chunk = Math.max(minPerTask, (total + threads * 4 - 1) / (threads * 4));
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int start = 0; start < total; start += chunk) {
+                final int from = start;
+                final int to = Math.min(total, start + chunk);
+                tasks.add(() -> {
+                    for (int i = from; i < to; i++) body.accept(i);
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(threadName + " interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException(threadName + " failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pki.io;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one task per file on a bounded pool of daemon threads, shared by
+ * {@link SkaFolderLoader} and {@link SkaFolderSaver}. A failing file is
+ * recorded and never aborts the others; after cancellation, files not
+ * started yet are skipped.
+ */
+final class PerFileTasks {
+
+    /** The work for one file; an exception becomes that file's error. */
+    interface FileTask {
+        void run(int index, File file) throws Exception;
+    }
+
+    private PerFileTasks() {}
+
+    /**
+     * Run {@code task} for every file, blocking until each one is done or skipped.
+     * Writes made by the tasks are visible to the caller once this returns.
+     *
+     * @param cancelled set by the caller to skip the remaining files; set here if interrupted
+     * @param listener  optional progress callback (may be {@code null})
+     * @return the error message of each file, in input order; {@code null}
+     *         where the task succeeded or was skipped
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    static String[] run(List<File> files, int parallelism, String threadName, AtomicBoolean cancelled,
+                        FileProgressListener listener, FileTask task) throws InterruptedException {
+        int total = files.size();
+        String[] errors = new String[total];
+        AtomicInteger completed = new AtomicInteger();
+
+        int threads = Math.min(parallelism, Math.max(1, total));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                final int idx = i;
+                futures.add(pool.submit(() -> {
+                    if (cancelled.get()) return;
+                    File f = files.get(idx);
+                    try {
+                        task.run(idx, f);
+                    } catch (Exception ex) {
+                        errors[idx] = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+                    }
+                    if (listener != null) {
+                        listener.fileDone(completed.incrementAndGet(), total, f);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    // Task errors are caught above; only a failing listener ends up here
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+        } catch (InterruptedException ex) {
+            cancelled.set(true);
+            throw ex;
+        } finally {
+            pool.shutdownNow();
+        }
+        return errors;
+    }
+}
@@ -3,12 +3,15 @@ package com.pki.io;
 import com.opencsv.CSVWriter;
 import com.pki.model.*;
 import com.pki.util.CertUtils;
+import com.pki.util.CrlIndex;
 import com.pki.util.CurveUtils;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.security.cert.X509Certificate;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Generates two CSV report files from loaded SKA configurations:
@@ -18,6 +21,10 @@ import java.util.*;
  *   <li><b>User / certificate report</b> — list of all users with parsed X.509
  *       certificate details (subject, validity, key usage, fingerprint).</li>
  * </ol>
+ * Certificates for the user report are parsed on a bounded thread pool;
+ * rows are still written in CN order, so the output does not depend on
+ * the degree of parallelism. With a {@link #setCrlIndex CRL index} set, the
+ * same pass also fills the user report's revocation column.
  */
 public class ReportGenerator {
 
@@ -29,15 +36,56 @@ public class ReportGenerator {
         public final File userFile;
         public final int membershipRows;
         public final int userRows;
+        /** Wall-clock time spent writing the membership report. */
+        public final long membershipMillis;
+        /** Wall-clock time spent parsing user certificates. */
+        public final long certParseMillis;
+        /** Wall-clock time spent writing the user report (excluding parsing). */
+        public final long userWriteMillis;
 
         public ReportResult(File membershipFile, File userFile, int membershipRows, int userRows) {
+            this(membershipFile, userFile, membershipRows, userRows, 0, 0, 0);
+        }
+
+        public ReportResult(File membershipFile, File userFile, int membershipRows, int userRows,
+                            long membershipMillis, long certParseMillis, long userWriteMillis) {
             this.membershipFile = membershipFile;
             this.userFile = userFile;
             this.membershipRows = membershipRows;
             this.userRows = userRows;
+            this.membershipMillis = membershipMillis;
+            this.certParseMillis = certParseMillis;
+            this.userWriteMillis = userWriteMillis;
+        }
+
+        /** One-line timing summary, e.g. for the status bar. */
+        public String timingSummary() {
+            return "memberships " + membershipMillis + " ms, certificates " + certParseMillis
+                    + " ms, users " + userWriteMillis + " ms";
         }
     }
 
+    private final int parallelism;
+    private CrlIndex crlIndex;
+
+    /** Generator parsing certificates on one thread per available processor. */
+    public ReportGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param parallelism number of certificate parsing threads (1 parses on the calling thread) */
+    public ReportGenerator(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * CRLs to check user certificates against; {@code null} (the default)
+     * leaves the revocation column empty.
+     */
+    public void setCrlIndex(CrlIndex crlIndex) {
+        this.crlIndex = crlIndex;
+    }
+
     /**
      * Generate both report CSV files.
      *
@@ -52,10 +100,22 @@ public class ReportGenerator {
         File membershipFile = new File(outputDir, "report_memberships.csv");
         File userFile = new File(outputDir, "report_users.csv");
 
+        long t0 = System.nanoTime();
         int membershipRows = writeMembershipReport(entries, users, membershipFile);
-        int userRows = writeUserReport(users, userFile);
+        long t1 = System.nanoTime();
 
-        return new ReportResult(membershipFile, userFile, membershipRows, userRows);
+        // Sort by CN for a clean report
+        List<User> sorted = new ArrayList<>(users);
+        sorted.sort(Comparator.comparing(User::getCn, String.CASE_INSENSITIVE_ORDER));
+        CertUtils.CertInfo[] certs = new CertUtils.CertInfo[sorted.size()];
+        CrlIndex.Status[] revocation = new CrlIndex.Status[sorted.size()];
+        parseCertificates(sorted, certs, revocation);
+        long t2 = System.nanoTime();
+        int userRows = writeUserReport(sorted, certs, revocation, userFile);
+        long t3 = System.nanoTime();
+
+        return new ReportResult(membershipFile, userFile, membershipRows, userRows,
+                toMillis(t1 - t0), toMillis(t2 - t1), toMillis(t3 - t2));
     }
 
     // ─────────────────────────────────────────────────────────
@@ -221,39 +281,73 @@ public class ReportGenerator {
             "Has Certificate",
             "Subject", "Issuer",
             "Not Before", "Not After",
-            "Key Usage", "Serial Number", "SHA-256 Fingerprint"
+            "Key Usage", "Serial Number", "SHA-256 Fingerprint",
+            "Revocation"
     };
 
-    private int writeUserReport(List<User> users, File outFile) throws IOException {
-        // Sort by CN for a clean report
-        List<User> sorted = new ArrayList<>(users);
-        sorted.sort(Comparator.comparing(User::getCn, String.CASE_INSENSITIVE_ORDER));
+    /** Minimum number of users per parsing task, so tiny pools are not split up. */
+    private static final int MIN_USERS_PER_TASK = 16;
+
+    /**
+     * Parse the certificates of {@code users}; slot {@code i} of {@code infos}
+     * receives the result for user {@code i} ({@code null} if absent or
+     * unparseable), and slot {@code i} of {@code revocation} its status
+     * ({@code null} without a CRL index or certificate).
+     */
+    private void parseCertificates(List<User> users, CertUtils.CertInfo[] infos,
+                                   CrlIndex.Status[] revocation) throws IOException {
+        CrlIndex crls = crlIndex;
+        ParallelChunks.forEach(users.size(), parallelism, MIN_USERS_PER_TASK, "ska-report-certs", i -> {
+            String pem = users.get(i).getCertificate();
+            infos[i] = CertUtils.parse(pem);
+            if (crls != null && infos[i] != null) {
+                X509Certificate cert = CertUtils.parseCertificate(pem); // normally a cache hit
+                revocation[i] = crls.status(cert);
+            }
+        });
+    }
 
+    private int writeUserReport(List<User> sorted, CertUtils.CertInfo[] certs,
+                                CrlIndex.Status[] revocation, File outFile) throws IOException {
         try (CSVWriter w = new CSVWriter(new FileWriter(outFile))) {
             w.writeNext(USER_HEADER);
 
-            for (User u : sorted) {
-                String hasCert = (u.getCertificate() != null && !u.getCertificate().isBlank())
-                        ? "Yes" : "No";
+            for (int i = 0; i < sorted.size(); i++) {
+                User u = sorted.get(i);
+                String hasCert = u.hasCertificate() && !u.getCertificate().isBlank() ? "Yes" : "No";
 
-                CertUtils.CertInfo ci = CertUtils.parse(u.getCertificate());
+                CertUtils.CertInfo ci = certs[i];
                 if (ci != null) {
                     w.writeNext(new String[]{
                             u.getCn(), u.getName(), u.getEmail(), u.getOrganisation(),
                             hasCert,
                             ci.subject, ci.issuer,
                             ci.notBefore, ci.notAfter,
-                            ci.keyUsage, ci.serialNumber, ci.sha256Fingerprint
+                            ci.keyUsage, ci.serialNumber, ci.sha256Fingerprint,
+                            revocationText(revocation[i])
                     });
                 } else {
                     w.writeNext(new String[]{
                             u.getCn(), u.getName(), u.getEmail(), u.getOrganisation(),
                             hasCert,
-                            "", "", "", "", "", "", ""
+                            "", "", "", "", "", "", "", ""
                     });
                 }
             }
         }
         return sorted.size();
     }
+
+    private static String revocationText(CrlIndex.Status status) {
+        if (status == null) return "";
+        return switch (status) {
+            case REVOKED -> "Revoked";
+            case GOOD -> "Not revoked";
+            case UNKNOWN -> "No CRL for issuer";
+        };
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
 }
@@ -0,0 +1,97 @@
+package com.pki.io;
+
+import com.pki.model.User;
+import com.pki.util.CertUtils;
+import com.pki.util.CrlIndex;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks user certificates against a {@link CrlIndex} in one parallel pass.
+ * Certificates are parsed through the {@link CertUtils} cache, so a check
+ * right after a report (or a second check) costs little more than the
+ * hash lookups.
+ */
+public class RevocationChecker {
+
+    /** Outcome of one check, in the order of the checked user list. */
+    public static class Result {
+        /** Users whose certificate is listed on a CRL of its issuer. */
+        public final List<User> revoked;
+        /** Users whose certificate issuer has no loaded CRL. */
+        public final List<User> unknown;
+        /** Users whose certificate was checked and found not revoked. */
+        public final int good;
+        /** Users without a certificate, or with one that cannot be parsed. */
+        public final int unchecked;
+        public final long millis;
+
+        Result(List<User> revoked, List<User> unknown, int good, int unchecked, long millis) {
+            this.revoked = Collections.unmodifiableList(revoked);
+            this.unknown = Collections.unmodifiableList(unknown);
+            this.good = good;
+            this.unchecked = unchecked;
+            this.millis = millis;
+        }
+
+        /** One-line summary, e.g. for the status bar. */
+        public String summary() {
+            return revoked.size() + " revoked, " + good + " good, " + unknown.size()
+                    + " without a CRL for their issuer, " + unchecked + " without a certificate ("
+                    + millis + " ms)";
+        }
+    }
+
+    /** Minimum number of users per checking task. */
+    private static final int MIN_USERS_PER_TASK = 16;
+
+    private final int parallelism;
+
+    /** Checker using one thread per available processor. */
+    public RevocationChecker() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param parallelism number of checking threads (1 checks on the calling thread) */
+    public RevocationChecker(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Check the certificate of every user in {@code users}.
+     *
+     * @throws IOException if the check is interrupted
+     */
+    public Result check(List<User> users, CrlIndex crls) throws IOException {
+        long t0 = System.nanoTime();
+        List<User> snapshot = new ArrayList<>(users);
+        CrlIndex.Status[] statuses = new CrlIndex.Status[snapshot.size()];
+        ParallelChunks.forEach(snapshot.size(), parallelism, MIN_USERS_PER_TASK, "ska-revocation", i -> {
+            X509Certificate cert = CertUtils.parseCertificate(snapshot.get(i).getCertificate());
+            if (cert != null) statuses[i] = crls.status(cert);
+        });
+
+        List<User> revoked = new ArrayList<>();
+        List<User> unknown = new ArrayList<>();
+        int good = 0;
+        int unchecked = 0;
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] == null) {
+                unchecked++;
+                continue;
+            }
+            switch (statuses[i]) {
+                case REVOKED -> revoked.add(snapshot.get(i));
+                case UNKNOWN -> unknown.add(snapshot.get(i));
+                case GOOD -> good++;
+            }
+        }
+        return new Result(revoked, unknown, good, unchecked,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+    }
+}
@@ -0,0 +1,259 @@
+package com.pki.io;
+
+import com.pki.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link SkaConfig}, used by {@link WorkspaceCache}.
+ * <p>
+ * Strings are written as a length-prefixed UTF-8 byte array ({@code -1} for
+ * {@code null}) so certificates and PEM blocks are not limited to the 64 KiB
+ * of {@link DataOutput#writeUTF}. Any change to the layout below must bump
+ * {@link #FORMAT_VERSION}; stale snapshots are then simply ignored.
+ */
+final class SkaConfigCodec {
+
+    /**
+     * Bump whenever the encoding, the model, the {@link WorkspaceCache} record
+     * or the canonical form of {@link SkaXmlWriter#contentHash} changes.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    private SkaConfigCodec() { }
+
+    static byte[] encode(SkaConfig config) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, config.getModuleName());
+        out.writeInt(config.getVersion());
+        writeString(out, config.getXsiNoNamespaceSchemaLocation());
+        out.writeBoolean(config.isIntegrationEnvironment());
+        writeSection(out, config.getOrganization());
+        writeSection(out, config.getSkaPlus());
+        writeSection(out, config.getSkaModify());
+
+        KeysProto kp = config.getKeysProto();
+        writeString(out, kp.getChildName());
+        writeOperations(out, kp.getOperations());
+        writeEc(out, kp.getEcParameters());
+
+        Personalization p = config.getPersonalization();
+        out.writeBoolean(p.isEnabled());
+        out.writeBoolean(p.isUseKek());
+        writeString(out, p.getKekLabel());
+        writeEc(out, p.getEcParameters());
+
+        out.writeInt(config.getUsers().size());
+        for (User u : config.getUsers()) {
+            writeUser(out, u);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static SkaConfig decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        SkaConfig config = new SkaConfig();
+        config.setModuleName(readString(in));
+        config.setVersion(in.readInt());
+        config.setXsiNoNamespaceSchemaLocation(readString(in));
+        config.setIntegrationEnvironment(in.readBoolean());
+        config.setOrganization(readSection(in));
+        config.setSkaPlus(readSection(in));
+        config.setSkaModify(readSection(in));
+
+        KeysProto kp = new KeysProto();
+        kp.setChildName(readString(in));
+        kp.setOperations(readOperations(in));
+        kp.setEcParameters(readEc(in));
+        config.setKeysProto(kp);
+
+        Personalization p = new Personalization();
+        p.setEnabled(in.readBoolean());
+        p.setUseKek(in.readBoolean());
+        p.setKekLabel(readString(in));
+        p.setEcParameters(readEc(in));
+        config.setPersonalization(p);
+
+        int userCount = readCount(in);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(readUser(in));
+        }
+        config.setUsers(users);
+        if (in.read() != -1) throw new IOException("Trailing data in cached configuration");
+        return config;
+    }
+
+    // --- Sections ---
+
+    private static void writeSection(DataOutputStream out, SkaSection s) throws IOException {
+        out.writeBoolean(s.isBlockedOnInitialize());
+        writeString(out, s.getKeyLabel());
+        writeString(out, s.getStartValidity());
+        writeString(out, s.getEndValidity());
+        writeEc(out, s.getEcParameters());
+        writeOperations(out, s.getOperations());
+    }
+
+    private static SkaSection readSection(DataInputStream in) throws IOException {
+        SkaSection s = new SkaSection();
+        s.setBlockedOnInitialize(in.readBoolean());
+        s.setKeyLabel(readString(in));
+        s.setStartValidity(readString(in));
+        s.setEndValidity(readString(in));
+        s.setEcParameters(readEc(in));
+        s.setOperations(readOperations(in));
+        return s;
+    }
+
+    private static void writeEc(DataOutputStream out, EcParameters ec) throws IOException {
+        writeString(out, ec.getCurveName());
+        writeString(out, ec.getPemText());
+    }
+
+    private static EcParameters readEc(DataInputStream in) throws IOException {
+        EcParameters ec = new EcParameters();
+        ec.setCurveName(readString(in));
+        ec.setPemText(readString(in));
+        return ec;
+    }
+
+    // --- Operations ---
+
+    private static void writeOperations(DataOutputStream out, Operations ops) throws IOException {
+        writeOperation(out, ops.getUse());
+        writeOperation(out, ops.getModify());
+        writeOperation(out, ops.getBlock());
+        writeOperation(out, ops.getUnblock());
+    }
+
+    private static Operations readOperations(DataInputStream in) throws IOException {
+        Operations ops = new Operations();
+        ops.setUse(readOperation(in));
+        ops.setModify(readOperation(in));
+        ops.setBlock(readOperation(in));
+        ops.setUnblock(readOperation(in));
+        return ops;
+    }
+
+    private static void writeOperation(DataOutputStream out, Operation op) throws IOException {
+        out.writeLong(op.getDelayMillis());
+        out.writeLong(op.getTimeLimitMillis());
+        out.writeInt(op.getBoundaries().size());
+        for (Boundary b : op.getBoundaries()) {
+            out.writeInt(b.getGroups().size());
+            for (Group g : b.getGroups()) {
+                out.writeInt(g.getQuorum());
+                writeString(out, g.getName());
+                writeStrings(out, g.getMemberCns());
+                writeStrings(out, g.getKeyLabels());
+            }
+        }
+    }
+
+    private static Operation readOperation(DataInputStream in) throws IOException {
+        Operation op = new Operation();
+        op.setDelayMillis(in.readLong());
+        op.setTimeLimitMillis(in.readLong());
+        int boundaryCount = readCount(in);
+        List<Boundary> boundaries = new ArrayList<>(boundaryCount);
+        for (int i = 0; i < boundaryCount; i++) {
+            Boundary b = new Boundary();
+            int groupCount = readCount(in);
+            List<Group> groups = new ArrayList<>(groupCount);
+            for (int j = 0; j < groupCount; j++) {
+                Group g = new Group();
+                g.setQuorum(in.readInt());
+                g.setName(readString(in));
+                g.setMemberCns(readStrings(in));
+                g.setKeyLabels(readStrings(in));
+                groups.add(g);
+            }
+            b.setGroups(groups);
+            boundaries.add(b);
+        }
+        op.setBoundaries(boundaries);
+        return op;
+    }
+
+    // --- Users ---
+
+    private static void writeUser(DataOutputStream out, User u) throws IOException {
+        writeString(out, u.getEmail());
+        writeString(out, u.getUserId());
+        writeString(out, u.getUserIdIntegration());
+        writeString(out, u.getCn());
+        writeString(out, u.getName());
+        writeString(out, u.getOrganisation());
+        writeString(out, u.getCertificate());
+        writeStrings(out, u.getOrgOwnerOf());
+        writeStrings(out, u.getOrgSecOffOf());
+        writeStrings(out, u.getOrgOpOf());
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        User u = new User();
+        u.setEmail(readString(in));
+        u.setUserId(readString(in));
+        u.setUserIdIntegration(readString(in));
+        u.setCn(readString(in));
+        u.setName(readString(in));
+        u.setOrganisation(readString(in));
+        u.setCertificate(readString(in));
+        u.setOrgOwnerOf(new LinkedHashSet<>(readStrings(in)));
+        u.setOrgSecOffOf(new LinkedHashSet<>(readStrings(in)));
+        u.setOrgOpOf(new LinkedHashSet<>(readStrings(in)));
+        return u;
+    }
+
+    // --- Primitives ---
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        if (len > in.available()) throw new IOException("Corrupt string length: " + len);
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** Element count, sanity-checked so a corrupt snapshot cannot trigger a huge allocation. */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available()) throw new IOException("Corrupt element count: " + count);
+        return count;
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String v : values) {
+            writeString(out, v);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = readCount(in);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
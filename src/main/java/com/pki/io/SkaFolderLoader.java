@@ -0,0 +1,157 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parses a folder of SKA XML files in parallel on a bounded thread pool.
+ * <p>
+ * Files are parsed concurrently, but results are always returned in the
+ * order of the input list (sorted by filename when using
+ * {@link #listXmlFiles(File)}), so the workspace is populated
+ * deterministically regardless of which file finishes first.
+ * Parse failures are collected per file and never abort the whole load.
+ */
+public class SkaFolderLoader {
+
+    /** A successfully parsed file. */
+    public static class LoadedFile {
+        public final File file;
+        public final SkaConfig config;
+        /** Canonical content hash kept by the {@link WorkspaceCache}, or {@code null} without a cache. */
+        public final byte[] contentHash;
+
+        public LoadedFile(File file, SkaConfig config) {
+            this(file, config, null);
+        }
+
+        public LoadedFile(File file, SkaConfig config, byte[] contentHash) {
+            this.file = file;
+            this.config = config;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Result of a folder load: parsed files and per-file errors, both in
+     * input order. When {@link #cancelled} is set, files that had not been
+     * parsed yet appear in neither list.
+     */
+    public static class LoadResult {
+        public final List<LoadedFile> loaded;
+        public final Map<File, String> errors;
+        public final boolean cancelled;
+        /** Files served from the {@link WorkspaceCache} instead of being parsed. */
+        public final int cacheHits;
+
+        public LoadResult(List<LoadedFile> loaded, Map<File, String> errors, boolean cancelled) {
+            this(loaded, errors, cancelled, 0);
+        }
+
+        public LoadResult(List<LoadedFile> loaded, Map<File, String> errors, boolean cancelled, int cacheHits) {
+            this.loaded = loaded;
+            this.errors = errors;
+            this.cancelled = cancelled;
+            this.cacheHits = cacheHits;
+        }
+    }
+
+    private final int parallelism;
+    private final SkaXmlReader.Engine engine;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private WorkspaceCache cache;
+
+    /** Loader using one thread per available processor and the default XML engine. */
+    public SkaFolderLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SkaFolderLoader(int parallelism) {
+        this(parallelism, SkaXmlReader.defaultEngine());
+    }
+
+    public SkaFolderLoader(int parallelism, SkaXmlReader.Engine engine) {
+        this.parallelism = Math.max(1, parallelism);
+        this.engine = engine;
+    }
+
+    /**
+     * List the {@code *.xml} files of a folder (case-insensitive), sorted by filename.
+     *
+     * @return the sorted files; empty if the folder has none or cannot be read
+     */
+    public static List<File> listXmlFiles(File folder) {
+        File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".xml"));
+        if (files == null) return new ArrayList<>();
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Serve unchanged files from {@code cache} and refresh it after a complete
+     * (not cancelled) load. {@code null} disables caching.
+     */
+    public void setCache(WorkspaceCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Request cancellation. Files already being parsed finish; queued files are skipped.
+     * Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Parse all files, blocking until done or cancelled.
+     *
+     * @param files    files to parse; result order follows this list
+     * @param listener optional progress callback (may be {@code null})
+     * @return parsed configs and per-file errors, in input order
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public LoadResult load(List<File> files, FileProgressListener listener) throws InterruptedException {
+        int total = files.size();
+        SkaConfig[] configs = new SkaConfig[total];
+        byte[][] hashes = new byte[total][];
+        WorkspaceCache cache = this.cache;
+        int hitsBefore = cache != null ? cache.getHits() : 0;
+
+        String[] errors = PerFileTasks.run(files, parallelism, "ska-folder-loader", cancelled, listener,
+                (idx, f) -> {
+                    SkaXmlReader reader = new SkaXmlReader(engine);
+                    if (cache != null) {
+                        configs[idx] = cache.load(f, reader);
+                        hashes[idx] = cache.getContentHash(f);
+                    } else {
+                        configs[idx] = reader.read(f);
+                    }
+                });
+
+        // Assemble in input order
+        List<LoadedFile> loaded = new ArrayList<>();
+        Map<File, String> errorMap = new LinkedHashMap<>();
+        for (int i = 0; i < total; i++) {
+            if (configs[i] != null) {
+                loaded.add(new LoadedFile(files.get(i), configs[i], hashes[i]));
+            } else if (errors[i] != null) {
+                errorMap.put(files.get(i), errors[i]);
+            }
+        }
+        boolean wasCancelled = cancelled.get();
+        int cacheHits = 0;
+        if (cache != null) {
+            cacheHits = cache.getHits() - hitsBefore;
+            if (!wasCancelled) cache.save();
+        }
+        return new LoadResult(loaded, errorMap, wasCancelled, cacheHits);
+    }
+}
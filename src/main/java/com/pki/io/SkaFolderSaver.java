@@ -0,0 +1,106 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes several SKA configurations in parallel on a bounded thread pool
+ * (the counterpart of {@link SkaFolderLoader} for Save All).
+ * <p>
+ * Every file goes through {@link SkaXmlWriter#write(SkaConfig, File)}, i.e.
+ * temp file, fsync, atomic rename, so a failing or cancelled save leaves
+ * each target either fully written or untouched. Failures are collected per
+ * file and never abort the other writes.
+ * <p>
+ * The configurations are only read while saving; callers must not modify
+ * them until {@link #save} returns.
+ */
+public class SkaFolderSaver {
+
+    /** One configuration to write to one file. */
+    public static class SaveJob {
+        public final SkaConfig config;
+        public final File file;
+
+        public SaveJob(SkaConfig config, File file) {
+            this.config = config;
+            this.file = file;
+        }
+    }
+
+    /**
+     * Result of a save: written files and per-file errors, both in input
+     * order. When {@link #cancelled} is set, files that had not been written
+     * yet appear in neither list and are unchanged on disk.
+     */
+    public static class SaveResult {
+        public final List<File> saved;
+        public final Map<File, String> errors;
+        public final boolean cancelled;
+
+        public SaveResult(List<File> saved, Map<File, String> errors, boolean cancelled) {
+            this.saved = saved;
+            this.errors = errors;
+            this.cancelled = cancelled;
+        }
+    }
+
+    private final int parallelism;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /** Saver using one thread per available processor. */
+    public SkaFolderSaver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SkaFolderSaver(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Request cancellation. Files already being written finish; queued files are skipped.
+     * Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Write all jobs, blocking until done or cancelled.
+     *
+     * @param jobs     configurations and target files; result order follows this list
+     * @param listener optional progress callback (may be {@code null})
+     * @return written files and per-file errors, in input order
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public SaveResult save(List<SaveJob> jobs, FileProgressListener listener) throws InterruptedException {
+        int total = jobs.size();
+        boolean[] done = new boolean[total];
+        List<File> files = new ArrayList<>(total);
+        for (SaveJob job : jobs) files.add(job.file);
+
+        String[] errors = PerFileTasks.run(files, parallelism, "ska-folder-saver", cancelled, listener,
+                (idx, file) -> {
+                    new SkaXmlWriter().write(jobs.get(idx).config, file);
+                    done[idx] = true;
+                });
+
+        List<File> saved = new ArrayList<>();
+        Map<File, String> errorMap = new LinkedHashMap<>();
+        for (int i = 0; i < total; i++) {
+            if (done[i]) {
+                saved.add(jobs.get(i).file);
+            } else if (errors[i] != null) {
+                errorMap.put(jobs.get(i).file, errors[i]);
+            }
+        }
+        return new SaveResult(saved, errorMap, cancelled.get());
+    }
+}
@@ -6,15 +6,54 @@ import org.w3c.dom.*;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Reads an SKA configuration XML file into the in-memory model.
- * Uses DOM parsing (no external dependencies).
+ * <p>
+ * Two parsing engines are available (no external dependencies for either):
+ * <ul>
+ *   <li>{@link Engine#STAX} (default) – single forward pass with a pull parser,
+ *       no intermediate tree; best for large files with many users/certificates</li>
+ *   <li>{@link Engine#DOM} – builds a full DOM tree first; kept as a reference
+ *       implementation and fallback</li>
+ * </ul>
+ * Both engines produce identical models and reject DOCTYPE declarations.
+ * The default can be overridden with the system property
+ * {@code -Dska.xml.engine=dom|stax}.
  */
 public class SkaXmlReader {
 
+    /** System property used to select the default engine. */
+    public static final String ENGINE_PROPERTY = "ska.xml.engine";
+
+    /** XML parsing engine used by {@link #read(File)}. */
+    public enum Engine { DOM, STAX }
+
+    private final Engine engine;
+
+    /** Creates a reader using the engine from {@value #ENGINE_PROPERTY} (STAX if unset). */
+    public SkaXmlReader() {
+        this(defaultEngine());
+    }
+
+    public SkaXmlReader(Engine engine) {
+        this.engine = engine != null ? engine : Engine.STAX;
+    }
+
+    public Engine getEngine() { return engine; }
+
+    /**
+     * Resolve the default engine from {@value #ENGINE_PROPERTY}.
+     * Unknown values fall back to STAX.
+     */
+    static Engine defaultEngine() {
+        String prop = System.getProperty(ENGINE_PROPERTY, "");
+        return "dom".equalsIgnoreCase(prop.trim()) ? Engine.DOM : Engine.STAX;
+    }
+
     /**
      * Parse an SKA XML file and return the populated model.
      *
@@ -23,12 +62,34 @@ public class SkaXmlReader {
      * @throws Exception if parsing fails
      */
     public SkaConfig read(File file) throws Exception {
+        return engine == Engine.DOM ? readDom(newDocumentBuilder().parse(file))
+                : new SkaXmlStreamReader().read(file);
+    }
+
+    /**
+     * Parse SKA XML from a stream (e.g. bytes already read for hashing).
+     * The caller remains responsible for closing the stream.
+     *
+     * @param in the XML content
+     * @return populated SkaConfig
+     * @throws Exception if parsing fails
+     */
+    public SkaConfig read(InputStream in) throws Exception {
+        return engine == Engine.DOM ? readDom(newDocumentBuilder().parse(in))
+                : new SkaXmlStreamReader().read(in, null);
+    }
+
+    // --- DOM engine ---
+
+    private static DocumentBuilder newDocumentBuilder() throws Exception {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         // Security: disable external entities
         factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(file);
+        return factory.newDocumentBuilder();
+    }
+
+    private SkaConfig readDom(Document doc) {
         doc.getDocumentElement().normalize();
 
         Element root = doc.getDocumentElement();
@@ -0,0 +1,469 @@
+package com.pki.io;
+
+import com.pki.model.*;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StAX (pull-parser) engine behind {@link SkaXmlReader}.
+ * <p>
+ * Fills the model in a single forward pass without building a DOM tree.
+ * The element-selection rules mirror the DOM engine exactly: for singular
+ * children (sections, {@code <operations>}, {@code <ecParameters>}, …) the
+ * first occurrence wins and later ones are skipped; {@code <membercn>} and
+ * {@code <keylabel>} are collected at any depth below the first
+ * {@code <members>} / {@code <keys>} element, like
+ * {@code getElementsByTagName} does.
+ * <p>
+ * Security: DOCTYPE declarations are rejected, matching the
+ * {@code disallow-doctype-decl} feature set on the DOM engine.
+ */
+final class SkaXmlStreamReader {
+
+    private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance";
+
+    /** Factories are cheap to keep but not guaranteed thread-safe, so one per thread. */
+    private static final ThreadLocal<XMLInputFactory> FACTORY =
+            ThreadLocal.withInitial(SkaXmlStreamReader::createFactory);
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        // Security: no DTD processing, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        return factory;
+    }
+
+    SkaConfig read(File file) throws Exception {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in, file.toURI().toString());
+        }
+    }
+
+    /** Parse from a stream; {@code systemId} (may be null) only serves error locations. */
+    SkaConfig read(InputStream in, String systemId) throws Exception {
+        XMLStreamReader r = systemId != null
+                ? FACTORY.get().createXMLStreamReader(systemId, in)
+                : FACTORY.get().createXMLStreamReader(in);
+        try {
+            return readDocument(r);
+        } finally {
+            r.close();
+        }
+    }
+
+    private SkaConfig readDocument(XMLStreamReader r) throws XMLStreamException {
+        // Advance to the root element
+        while (true) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) break;
+            if (event == XMLStreamConstants.DTD) throw doctypeDisallowed(r);
+            if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Document has no root element");
+            }
+        }
+
+        SkaConfig config = new SkaConfig();
+        config.setModuleName(attr(r, "moduleName"));
+        config.setVersion(intAttr(r, "version", 1));
+
+        // XSD schema location (xsi:noNamespaceSchemaLocation)
+        String schemaLoc = r.getAttributeValue(XSI_NS, "noNamespaceSchemaLocation");
+        if (schemaLoc == null || schemaLoc.isEmpty()) {
+            schemaLoc = attr(r, "xsi:noNamespaceSchemaLocation");
+        }
+        config.setXsiNoNamespaceSchemaLocation(schemaLoc != null ? schemaLoc : "");
+
+        boolean seenOrg = false, seenPlus = false, seenMod = false, seenKeys = false, seenUsers = false;
+        while (nextChild(r)) {
+            switch (name(r)) {
+                case "organization" -> {
+                    if (seenOrg) { skip(r); break; }
+                    seenOrg = true;
+                    config.setOrganization(readSection(r));
+                }
+                case "skaplus" -> {
+                    if (seenPlus) { skip(r); break; }
+                    seenPlus = true;
+                    config.setSkaPlus(readSection(r));
+                }
+                case "skamodify" -> {
+                    if (seenMod) { skip(r); break; }
+                    seenMod = true;
+                    config.setSkaModify(readSection(r));
+                }
+                case "keys" -> {
+                    if (seenKeys) { skip(r); break; }
+                    seenKeys = true;
+                    readKeys(r, config);
+                }
+                case "users" -> {
+                    if (seenUsers) { skip(r); break; }
+                    seenUsers = true;
+                    config.setUsers(readUsers(r));
+                }
+                default -> skip(r);
+            }
+        }
+
+        // Drain the epilog so trailing garbage is reported, as the DOM engine does
+        while (r.hasNext()) {
+            if (r.next() == XMLStreamConstants.DTD) throw doctypeDisallowed(r);
+        }
+        return config;
+    }
+
+    // --- Section parsing ---
+
+    private SkaSection readSection(XMLStreamReader r) throws XMLStreamException {
+        SkaSection section = new SkaSection();
+        section.setBlockedOnInitialize(Boolean.parseBoolean(attr(r, "blockedOnInitialize")));
+        section.setKeyLabel(attr(r, "keyLabel"));
+        section.setStartValidity(attr(r, "startValidity"));
+        section.setEndValidity(attr(r, "endValidity"));
+
+        EcParameters ec = null;
+        Operations ops = null;
+        while (nextChild(r)) {
+            String tag = name(r);
+            if (ec == null && "ecParameters".equals(tag)) {
+                ec = readEcParameters(r);
+            } else if (ops == null && "operations".equals(tag)) {
+                ops = readOperations(r);
+            } else {
+                skip(r);
+            }
+        }
+        section.setEcParameters(ec != null ? ec : new EcParameters());
+        if (ops != null) section.setOperations(ops);
+        return section;
+    }
+
+    /**
+     * Reads {@code <keys>}: its first element child (whatever the tag name) is the
+     * keys/proto section, and the first {@code <personalization>} child is the
+     * personalization block. Both can be the same element, as with the DOM engine.
+     */
+    private void readKeys(XMLStreamReader r, SkaConfig config) throws XMLStreamException {
+        boolean first = true;
+        boolean seenPerso = false;
+        while (nextChild(r)) {
+            String tag = name(r);
+            boolean isPerso = !seenPerso && "personalization".equals(tag);
+            if (!first && !isPerso) {
+                skip(r);
+                continue;
+            }
+
+            // Capture everything either interpretation needs in one pass
+            boolean useKek = Boolean.parseBoolean(attr(r, "useKek"));
+            String kekLabel = attr(r, "kekLabel");
+            EcParameters ec = null;
+            Operations ops = null;
+            while (nextChild(r)) {
+                String childTag = name(r);
+                if (ec == null && "ecParameters".equals(childTag)) {
+                    ec = readEcParameters(r);
+                } else if (first && ops == null && "operations".equals(childTag)) {
+                    ops = readOperations(r);
+                } else {
+                    skip(r);
+                }
+            }
+
+            if (first) {
+                KeysProto kp = new KeysProto();
+                kp.setEcParameters(ec != null ? ec : new EcParameters());
+                if (ops != null) kp.setOperations(ops);
+                kp.setChildName(tag);
+                config.setKeysProto(kp);
+                first = false;
+            }
+            if (isPerso) {
+                Personalization p = new Personalization();
+                p.setEnabled(true); // tag is present → enabled
+                p.setUseKek(useKek);
+                p.setKekLabel(kekLabel);
+                p.setEcParameters(copyOf(ec));
+                config.setPersonalization(p);
+                seenPerso = true;
+            }
+        }
+    }
+
+    // --- EC Parameters ---
+
+    private EcParameters readEcParameters(XMLStreamReader r) throws XMLStreamException {
+        EcParameters ec = new EcParameters();
+        ec.setCurveName(attr(r, "curveName"));
+        ec.setPemText(textContent(r).trim());
+        return ec;
+    }
+
+    private static EcParameters copyOf(EcParameters src) {
+        EcParameters ec = new EcParameters();
+        if (src != null) {
+            ec.setCurveName(src.getCurveName());
+            ec.setPemText(src.getPemText());
+        }
+        return ec;
+    }
+
+    // --- Operations ---
+
+    private Operations readOperations(XMLStreamReader r) throws XMLStreamException {
+        Operations ops = new Operations();
+        boolean seenUse = false, seenModify = false, seenBlock = false, seenUnblock = false;
+        while (nextChild(r)) {
+            switch (name(r)) {
+                case "use" -> {
+                    if (seenUse) { skip(r); break; }
+                    seenUse = true;
+                    ops.setUse(readOperation(r));
+                }
+                case "modify" -> {
+                    if (seenModify) { skip(r); break; }
+                    seenModify = true;
+                    ops.setModify(readOperation(r));
+                }
+                case "block" -> {
+                    if (seenBlock) { skip(r); break; }
+                    seenBlock = true;
+                    ops.setBlock(readOperation(r));
+                }
+                case "unblock" -> {
+                    if (seenUnblock) { skip(r); break; }
+                    seenUnblock = true;
+                    ops.setUnblock(readOperation(r));
+                }
+                default -> skip(r);
+            }
+        }
+        return ops;
+    }
+
+    private Operation readOperation(XMLStreamReader r) throws XMLStreamException {
+        Operation op = new Operation();
+        op.setDelayMillis(longAttr(r, "delayMillis", 0));
+        op.setTimeLimitMillis(longAttr(r, "timeLimitMillis", 0));
+        List<Boundary> boundaries = new ArrayList<>();
+        while (nextChild(r)) {
+            if ("boundary".equals(name(r))) {
+                boundaries.add(readBoundary(r));
+            } else {
+                skip(r);
+            }
+        }
+        op.setBoundaries(boundaries);
+        return op;
+    }
+
+    // --- Boundaries & Groups ---
+
+    private Boundary readBoundary(XMLStreamReader r) throws XMLStreamException {
+        Boundary boundary = new Boundary();
+        List<Group> groups = new ArrayList<>();
+        while (nextChild(r)) {
+            if ("group".equals(name(r))) {
+                groups.add(readGroup(r));
+            } else {
+                skip(r);
+            }
+        }
+        boundary.setGroups(groups);
+        return boundary;
+    }
+
+    private Group readGroup(XMLStreamReader r) throws XMLStreamException {
+        Group group = new Group();
+        group.setQuorum(intAttr(r, "quorum", 0));
+        group.setName(attr(r, "name"));
+
+        boolean seenMembers = false, seenKeys = false;
+        while (nextChild(r)) {
+            String tag = name(r);
+            if (!seenMembers && "members".equals(tag)) {
+                seenMembers = true;
+                group.setMemberCns(readDescendantTexts(r, "membercn"));
+            } else if (!seenKeys && "keys".equals(tag)) {
+                seenKeys = true;
+                group.setKeyLabels(readDescendantTexts(r, "keylabel"));
+            } else {
+                skip(r);
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Collects the trimmed text of every descendant element named {@code tag},
+     * in document order, then leaves the reader on the parent's end tag.
+     */
+    private List<String> readDescendantTexts(XMLStreamReader r, String tag) throws XMLStreamException {
+        List<String> values = new ArrayList<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (tag.equals(name(r))) {
+                    values.add(textContent(r).trim());
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return values;
+    }
+
+    // --- Users ---
+
+    private List<User> readUsers(XMLStreamReader r) throws XMLStreamException {
+        List<User> users = new ArrayList<>();
+        while (nextChild(r)) {
+            if ("user".equals(name(r))) {
+                users.add(readUser(r));
+            } else {
+                skip(r);
+            }
+        }
+        return users;
+    }
+
+    private User readUser(XMLStreamReader r) throws XMLStreamException {
+        User user = new User();
+        user.setEmail(attr(r, "email"));
+        user.setUserId(attr(r, "userId"));
+        user.setCn(attr(r, "cn"));
+        user.setName(attr(r, "name"));
+        user.setOrganisation(attr(r, "organisation"));
+        boolean seenCert = false;
+        while (nextChild(r)) {
+            if (!seenCert && "cert".equals(name(r))) {
+                seenCert = true;
+                user.setCertificate(textContent(r).trim());
+            } else {
+                skip(r);
+            }
+        }
+        return user;
+    }
+
+    // --- StAX helpers ---
+
+    /**
+     * Advance to the next child element of the current element.
+     *
+     * @return {@code true} when positioned on a child's start tag,
+     *         {@code false} when the parent's end tag was reached
+     */
+    private static boolean nextChild(XMLStreamReader r) throws XMLStreamException {
+        while (true) {
+            int event = r.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT: return true;
+                case XMLStreamConstants.END_ELEMENT: return false;
+                case XMLStreamConstants.DTD: throw doctypeDisallowed(r);
+                default: // text, comments, processing instructions between children
+            }
+        }
+    }
+
+    /** Skip the current element and its whole subtree, ending on its end tag. */
+    private static void skip(XMLStreamReader r) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    /**
+     * Equivalent of DOM {@code getTextContent()}: concatenates all character data
+     * (including CDATA and nested elements' text) up to the matching end tag.
+     * Comments and processing instructions are ignored.
+     */
+    private static String textContent(XMLStreamReader r) throws XMLStreamException {
+        StringBuilder sb = null;
+        String single = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = r.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA,
+                     XMLStreamConstants.SPACE, XMLStreamConstants.ENTITY_REFERENCE -> {
+                    // Avoid a builder for the common single-chunk case
+                    if (single == null && sb == null) {
+                        single = r.getText();
+                    } else {
+                        if (sb == null) sb = new StringBuilder(single);
+                        sb.append(r.getTextCharacters(), r.getTextStart(), r.getTextLength());
+                    }
+                }
+                default -> { }
+            }
+        }
+        if (sb != null) return sb.toString();
+        return single != null ? single : "";
+    }
+
+    /** Qualified element name, as DOM's {@code getTagName()} reports it. */
+    private static String name(XMLStreamReader r) {
+        String prefix = r.getPrefix();
+        String local = r.getLocalName();
+        return prefix == null || prefix.isEmpty() ? local : prefix + ":" + local;
+    }
+
+    /** Attribute lookup by qualified name; missing attributes yield "" like DOM. */
+    private static String attr(XMLStreamReader r, String qualifiedName) {
+        for (int i = 0, n = r.getAttributeCount(); i < n; i++) {
+            String prefix = r.getAttributePrefix(i);
+            String local = r.getAttributeLocalName(i);
+            boolean match = prefix == null || prefix.isEmpty()
+                    ? qualifiedName.equals(local)
+                    : qualifiedName.length() == prefix.length() + 1 + local.length()
+                        && qualifiedName.startsWith(prefix)
+                        && qualifiedName.charAt(prefix.length()) == ':'
+                        && qualifiedName.endsWith(local);
+            if (match) {
+                String val = r.getAttributeValue(i);
+                return val != null ? val : "";
+            }
+        }
+        return "";
+    }
+
+    private static int intAttr(XMLStreamReader r, String name, int defaultValue) {
+        String val = attr(r, name);
+        if (val.isEmpty()) return defaultValue;
+        try { return Integer.parseInt(val); } catch (NumberFormatException e) { return defaultValue; }
+    }
+
+    private static long longAttr(XMLStreamReader r, String name, long defaultValue) {
+        String val = attr(r, name);
+        if (val.isEmpty()) return defaultValue;
+        try { return Long.parseLong(val); } catch (NumberFormatException e) { return defaultValue; }
+    }
+
+    private static XMLStreamException doctypeDisallowed(XMLStreamReader r) {
+        return new XMLStreamException("DOCTYPE is disallowed when reading SKA configurations",
+                r.getLocation());
+    }
+}
@@ -1,223 +1,309 @@
 package com.pki.io;
 
 import com.pki.model.*;
-import org.w3c.dom.*;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * Writes an SkaConfig model to a well-formatted SKA XML file.
  * Produces human-readable, properly indented output.
  * Certificates are wrapped in CDATA sections.
+ * <p>
+ * Output is streamed straight to a buffered writer (no intermediate DOM)
+ * and is byte-for-byte identical to the former DOM + Transformer output.
  */
 public class SkaXmlWriter {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Comparator<User> BY_CN = Comparator.comparing(User::getCn);
+
     /**
      * Serialize the model to an XML file.
+     * <p>
+     * The file is replaced atomically: the XML is written to a temp file in
+     * the same directory, forced to disk and then renamed over {@code file}.
+     * If anything fails, the previous file is left untouched and the temp
+     * file is removed, so a truncated XML is never left behind.
      *
      * @param config the model to serialize
      * @param file   the output file
      * @throws Exception if writing fails
      */
     public void write(SkaConfig config, File file) throws Exception {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.newDocument();
-        doc.setXmlStandalone(true);  // suppress standalone attribute in XML declaration
+        Path target = file.toPath().toAbsolutePath();
+        // Not Files.createTempFile: that would give the saved file owner-only permissions
+        Path tmp = target.resolveSibling("." + target.getFileName() + "."
+                + Long.toHexString(Thread.currentThread().threadId()) + Long.toHexString(System.nanoTime()) + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                write(config, Channels.newOutputStream(channel));
+                channel.force(true);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
 
-        // Root: <skaconfig>
-        Element root = doc.createElement("skaconfig");
-        root.setAttribute("moduleName", config.getModuleName());
-        root.setAttribute("version", String.valueOf(config.getVersion()));
+    /**
+     * Serialize the model to a stream. The stream is flushed but not closed.
+     *
+     * @param config the model to serialize
+     * @param out    the output stream (UTF-8 is written)
+     * @throws Exception if writing fails
+     */
+    public void write(SkaConfig config, OutputStream out) throws Exception {
+        writeDocument(config, out, true);
+    }
+
+    /**
+     * Canonical content hash of a configuration: the SHA-256 of exactly what
+     * {@link #write(SkaConfig, OutputStream)} produces, minus the version
+     * attribute. Users and group members are hashed in their sorted output
+     * order, so two configs with equal hashes only differ in their version
+     * and need not be rewritten.
+     */
+    public static byte[] contentHash(SkaConfig config) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            new SkaXmlWriter().writeDocument(config, out, false);
+        }
+        return digest.digest();
+    }
+
+    private void writeDocument(SkaConfig config, OutputStream out, boolean includeVersion) throws Exception {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new NonClosingStream(out), StandardCharsets.UTF_8), BUFFER_SIZE);
+        XmlEmitter xml = new XmlEmitter(writer);
+        xml.startDocument();
 
-        // XSD schema location attributes
+        // Root: <skaconfig>
+        xml.startElement("skaconfig");
         String schemaLoc = config.getXsiNoNamespaceSchemaLocation();
-        if (schemaLoc != null && !schemaLoc.isEmpty()) {
-            root.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-            root.setAttribute("xsi:noNamespaceSchemaLocation", schemaLoc);
+        boolean hasSchema = schemaLoc != null && !schemaLoc.isEmpty();
+        if (hasSchema) {
+            xml.attribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        }
+        xml.attribute("moduleName", config.getModuleName());
+        if (includeVersion) {
+            xml.attribute("version", String.valueOf(config.getVersion()));
+        }
+        if (hasSchema) {
+            xml.attribute("xsi:noNamespaceSchemaLocation", schemaLoc);
         }
-        doc.appendChild(root);
 
         // <organization>
-        writeSection(doc, root, "organization", config.getOrganization());
+        writeSection(xml, "organization", config.getOrganization());
 
         // <skaplus>
-        writeSection(doc, root, "skaplus", config.getSkaPlus());
+        writeSection(xml, "skaplus", config.getSkaPlus());
 
         // <skamodify>
-        writeSection(doc, root, "skamodify", config.getSkaModify());
+        writeSection(xml, "skamodify", config.getSkaModify());
 
         // <keys><proto> + optional <personalization>
-        writeKeysProto(doc, root, config.getKeysProto(), config.getPersonalization());
+        writeKeysProto(xml, config.getKeysProto(), config.getPersonalization());
 
         // <users>
-        writeUsers(doc, root, config.getUsers(), config.isIntegrationEnvironment());
+        writeUsers(xml, config.getUsers(), config.isIntegrationEnvironment());
 
-        // Write to file with indentation
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-
-        transformer.transform(new DOMSource(doc), new StreamResult(file));
+        xml.endElement();
+        xml.endDocument();
+        writer.close(); // flushes; the caller's stream stays open
     }
 
     // --- Section writing ---
 
-    private void writeSection(Document doc, Element parent, String tagName, SkaSection section) {
-        Element el = doc.createElement(tagName);
-        el.setAttribute("blockedOnInitialize", String.valueOf(section.isBlockedOnInitialize()));
-        el.setAttribute("keyLabel", section.getKeyLabel());
-        el.setAttribute("startValidity", section.getStartValidity());
-        el.setAttribute("endValidity", section.getEndValidity());
-        parent.appendChild(el);
+    private void writeSection(XmlEmitter xml, String tagName, SkaSection section) throws Exception {
+        xml.startElement(tagName);
+        xml.attribute("blockedOnInitialize", String.valueOf(section.isBlockedOnInitialize()));
+        xml.attribute("endValidity", section.getEndValidity());
+        xml.attribute("keyLabel", section.getKeyLabel());
+        xml.attribute("startValidity", section.getStartValidity());
 
-        writeEcParameters(doc, el, section.getEcParameters());
-        writeOperations(doc, el, section.getOperations());
+        writeEcParameters(xml, section.getEcParameters());
+        writeOperations(xml, section.getOperations());
+        xml.endElement();
     }
 
-    private void writeKeysProto(Document doc, Element parent, KeysProto keysProto, Personalization perso) {
+    private void writeKeysProto(XmlEmitter xml, KeysProto keysProto, Personalization perso) throws Exception {
         String childTag = keysProto.getChildName();
         boolean hasChild = childTag != null && !childTag.isEmpty();
         boolean hasPerso = perso != null && perso.isEnabled();
         if (!hasChild && !hasPerso) return; // nothing to write
 
-        Element keysEl = doc.createElement("keys");
-        parent.appendChild(keysEl);
+        xml.startElement("keys");
 
         if (hasChild) {
-            Element childEl = doc.createElement(childTag);
-            keysEl.appendChild(childEl);
-            writeOperations(doc, childEl, keysProto.getOperations());
-            writeEcParameters(doc, childEl, keysProto.getEcParameters());
+            xml.startElement(childTag);
+            writeOperations(xml, keysProto.getOperations());
+            writeEcParameters(xml, keysProto.getEcParameters());
+            xml.endElement();
         }
 
         if (hasPerso) {
-            writePersonalization(doc, keysEl, perso);
+            writePersonalization(xml, perso);
         }
+        xml.endElement();
     }
 
-    private void writePersonalization(Document doc, Element parent, Personalization perso) {
-        Element el = doc.createElement("personalization");
-        el.setAttribute("useKek", String.valueOf(perso.isUseKek()));
-        el.setAttribute("kekLabel", perso.getKekLabel());
-        parent.appendChild(el);
-        writeEcParameters(doc, el, perso.getEcParameters());
+    private void writePersonalization(XmlEmitter xml, Personalization perso) throws Exception {
+        xml.startElement("personalization");
+        xml.attribute("kekLabel", perso.getKekLabel());
+        xml.attribute("useKek", String.valueOf(perso.isUseKek()));
+        writeEcParameters(xml, perso.getEcParameters());
+        xml.endElement();
     }
 
     // --- EC Parameters ---
 
-    private void writeEcParameters(Document doc, Element parent, EcParameters ec) {
-        Element ecEl = doc.createElement("ecParameters");
+    private void writeEcParameters(XmlEmitter xml, EcParameters ec) throws Exception {
+        xml.startElement("ecParameters");
         if (ec.getCurveName() != null && !ec.getCurveName().isEmpty()) {
-            ecEl.setAttribute("curveName", ec.getCurveName());
-        }
-        if (ec.getPemText() != null && !ec.getPemText().isEmpty()) {
-            ecEl.setTextContent(ec.getPemText());
+            xml.attribute("curveName", ec.getCurveName());
         }
-        parent.appendChild(ecEl);
+        xml.text(ec.getPemText());
+        xml.endElement();
     }
 
     // --- Operations ---
 
-    private void writeOperations(Document doc, Element parent, Operations ops) {
-        Element opsEl = doc.createElement("operations");
-        parent.appendChild(opsEl);
-
-        writeOperation(doc, opsEl, "use", ops.getUse());
-        writeOperation(doc, opsEl, "modify", ops.getModify());
-        writeOperation(doc, opsEl, "block", ops.getBlock());
-        writeOperation(doc, opsEl, "unblock", ops.getUnblock());
+    private void writeOperations(XmlEmitter xml, Operations ops) throws Exception {
+        xml.startElement("operations");
+        writeOperation(xml, "use", ops.getUse());
+        writeOperation(xml, "modify", ops.getModify());
+        writeOperation(xml, "block", ops.getBlock());
+        writeOperation(xml, "unblock", ops.getUnblock());
+        xml.endElement();
     }
 
-    private void writeOperation(Document doc, Element parent, String tagName, Operation op) {
-        Element opEl = doc.createElement(tagName);
-        opEl.setAttribute("delayMillis", String.valueOf(op.getDelayMillis()));
-        opEl.setAttribute("timeLimitMillis", String.valueOf(op.getTimeLimitMillis()));
-        parent.appendChild(opEl);
+    private void writeOperation(XmlEmitter xml, String tagName, Operation op) throws Exception {
+        xml.startElement(tagName);
+        xml.attribute("delayMillis", String.valueOf(op.getDelayMillis()));
+        xml.attribute("timeLimitMillis", String.valueOf(op.getTimeLimitMillis()));
 
         for (Boundary boundary : op.getBoundaries()) {
-            writeBoundary(doc, opEl, boundary);
+            writeBoundary(xml, boundary);
         }
+        xml.endElement();
     }
 
     // --- Boundaries & Groups ---
 
-    private void writeBoundary(Document doc, Element parent, Boundary boundary) {
-        Element bEl = doc.createElement("boundary");
-        parent.appendChild(bEl);
-
+    private void writeBoundary(XmlEmitter xml, Boundary boundary) throws Exception {
+        xml.startElement("boundary");
         for (Group group : boundary.getGroups()) {
-            writeGroup(doc, bEl, group);
+            writeGroup(xml, group);
         }
+        xml.endElement();
     }
 
-    private void writeGroup(Document doc, Element parent, Group group) {
-        Element gEl = doc.createElement("group");
-        gEl.setAttribute("quorum", String.valueOf(group.getQuorum()));
-        gEl.setAttribute("name", group.getName());
-        parent.appendChild(gEl);
+    private void writeGroup(XmlEmitter xml, Group group) throws Exception {
+        xml.startElement("group");
+        xml.attribute("name", group.getName());
+        xml.attribute("quorum", String.valueOf(group.getQuorum()));
 
         // Members (sorted alphabetically)
         if (!group.getMemberCns().isEmpty()) {
-            Element membersEl = doc.createElement("members");
-            gEl.appendChild(membersEl);
-            java.util.List<String> sortedCns = new java.util.ArrayList<>(group.getMemberCns());
-            java.util.Collections.sort(sortedCns);
-            for (String cn : sortedCns) {
-                Element mcn = doc.createElement("membercn");
-                mcn.setTextContent(cn);
-                membersEl.appendChild(mcn);
+            xml.startElement("members");
+            for (String cn : sortedIfNeeded(group.getMemberCns(), Comparator.naturalOrder())) {
+                xml.startElement("membercn");
+                xml.text(cn);
+                xml.endElement();
             }
+            xml.endElement();
         }
 
         // Keys
         if (!group.getKeyLabels().isEmpty()) {
-            Element keysEl = doc.createElement("keys");
-            gEl.appendChild(keysEl);
+            xml.startElement("keys");
             for (String label : group.getKeyLabels()) {
-                Element kl = doc.createElement("keylabel");
-                kl.setTextContent(label);
-                keysEl.appendChild(kl);
+                xml.startElement("keylabel");
+                xml.text(label);
+                xml.endElement();
             }
+            xml.endElement();
         }
+        xml.endElement();
     }
 
     // --- Users ---
 
-    private void writeUsers(Document doc, Element parent, List<User> users, boolean useIntegration) {
-        Element usersEl = doc.createElement("users");
-        parent.appendChild(usersEl);
-
-        java.util.List<User> sorted = new java.util.ArrayList<>(users);
-        sorted.sort(java.util.Comparator.comparing(User::getCn));
-        for (User user : sorted) {
-            writeUser(doc, usersEl, user, useIntegration);
+    private void writeUsers(XmlEmitter xml, List<User> users, boolean useIntegration) throws Exception {
+        xml.startElement("users");
+        for (User user : sortedIfNeeded(users, BY_CN)) {
+            writeUser(xml, user, useIntegration);
         }
+        xml.endElement();
     }
 
-    private void writeUser(Document doc, Element parent, User user, boolean useIntegration) {
-        Element uEl = doc.createElement("user");
-        uEl.setAttribute("email", user.getEmail());
+    private void writeUser(XmlEmitter xml, User user, boolean useIntegration) throws Exception {
+        xml.startElement("user");
+        xml.attribute("cn", user.getCn());
+        xml.attribute("email", user.getEmail());
+        xml.attribute("name", user.getName());
+        xml.attribute("organisation", user.getOrganisation());
         String activeUserId = useIntegration ? user.getUserIdIntegration() : user.getUserId();
-        uEl.setAttribute("userId", activeUserId != null ? activeUserId : "");
-        uEl.setAttribute("cn", user.getCn());
-        uEl.setAttribute("name", user.getName());
-        uEl.setAttribute("organisation", user.getOrganisation());
-        parent.appendChild(uEl);
+        xml.attribute("userId", activeUserId != null ? activeUserId : "");
 
         if (user.getCertificate() != null && !user.getCertificate().isEmpty()) {
-            Element certEl = doc.createElement("cert");
-            CDATASection cdata = doc.createCDATASection("\n" + user.getCertificate() + "\n");
-            certEl.appendChild(cdata);
-            uEl.appendChild(certEl);
+            xml.startElement("cert");
+            xml.cdata("\n" + user.getCertificate() + "\n");
+            xml.endElement();
         }
+        xml.endElement();
+    }
+
+    // --- helpers ---
+
+    /**
+     * Returns the list itself when it is already in order (the common case once a
+     * file has been saved once), otherwise a sorted copy. The model is never reordered.
+     */
+    static <T> List<T> sortedIfNeeded(List<T> list, Comparator<? super T> order) {
+        for (int i = 1, n = list.size(); i < n; i++) {
+            if (order.compare(list.get(i - 1), list.get(i)) > 0) {
+                List<T> sorted = new ArrayList<>(list);
+                sorted.sort(order);
+                return sorted;
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /** Lets the buffered writer be closed (and thus flushed) without closing the caller's stream. */
+    private static final class NonClosingStream extends FilterOutputStream {
+        NonClosingStream(OutputStream out) { super(out); }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException { out.write(b, off, len); }
+
+        @Override
+        public void close() throws IOException { flush(); }
     }
 }
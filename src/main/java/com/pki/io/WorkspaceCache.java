@@ -0,0 +1,266 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of parsed SKA configurations for one workspace folder.
+ * <p>
+ * Each XML file is stored as a compact binary snapshot ({@link SkaConfigCodec})
+ * together with its size, modification time, SHA-256 file hash and canonical
+ * model hash ({@link SkaXmlWriter#contentHash}), so a cache hit needs neither
+ * parsing nor re-serializing.
+ * On the next open a file is reused from the cache when size and mtime are
+ * unchanged; if only the mtime changed (e.g. the file was copied or touched)
+ * the content hash decides. Anything else is reparsed.
+ * <p>
+ * The cache lives in the user cache directory
+ * ({@code ~/.ska-configurator/cache}, overridable with {@code -Dska.cache.dir})
+ * in one file per workspace folder, so shared folders are never written to.
+ * It is strictly best-effort: unreadable, corrupt or outdated caches are
+ * ignored and rebuilt.
+ * <p>
+ * {@link #load(File, SkaXmlReader)} is safe to call from several threads.
+ */
+public class WorkspaceCache {
+
+    /** System property overriding the cache directory. */
+    public static final String CACHE_DIR_PROPERTY = "ska.cache.dir";
+
+    private static final int MAGIC = 0x534B4143; // "SKAC"
+
+    private static final int HASH_LENGTH = 32;
+
+    /** A cached file: metadata plus the encoded configuration. */
+    private static final class CachedFile {
+        final long size;
+        final long modified;
+        final byte[] sha256;
+        final byte[] contentHash; // canonical model hash, null if it could not be computed
+        final byte[] data;
+
+        CachedFile(long size, long modified, byte[] sha256, byte[] contentHash, byte[] data) {
+            this.size = size;
+            this.modified = modified;
+            this.sha256 = sha256;
+            this.contentHash = contentHash;
+            this.data = data;
+        }
+    }
+
+    private final Path cacheFile;
+    private final Map<String, CachedFile> previous;
+    private final Map<String, CachedFile> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Open (or start) the cache for a workspace folder in the default cache directory.
+     */
+    public static WorkspaceCache forFolder(File folder) {
+        return new WorkspaceCache(defaultCacheDir(), folder);
+    }
+
+    /**
+     * @param cacheDir directory holding cache files (created on save)
+     * @param folder   the workspace folder this cache belongs to
+     */
+    public WorkspaceCache(Path cacheDir, File folder) {
+        this.cacheFile = cacheDir.resolve(cacheName(folder));
+        this.previous = readSnapshot(cacheFile);
+    }
+
+    static Path defaultCacheDir() {
+        String override = System.getProperty(CACHE_DIR_PROPERTY, "");
+        if (!override.isBlank()) return Paths.get(override);
+        return Paths.get(System.getProperty("user.home"), ".ska-configurator", "cache");
+    }
+
+    public Path getCacheFile() { return cacheFile; }
+
+    /** Files served from the cache since this instance was created. */
+    public int getHits() { return hits.get(); }
+
+    /** Files that had to be parsed since this instance was created. */
+    public int getMisses() { return misses.get(); }
+
+    /**
+     * Return the configuration for {@code file}, from the cache when the file
+     * is unchanged, otherwise by parsing it with {@code reader}. Either way the
+     * result is recorded for the next {@link #save()}.
+     *
+     * @throws Exception if the file has to be parsed and parsing fails
+     */
+    public SkaConfig load(File file, SkaXmlReader reader) throws Exception {
+        Path path = file.toPath();
+        String key = file.getName();
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+
+        CachedFile cached = previous.get(key);
+        byte[] content = null;
+        if (cached != null && cached.size == size) {
+            byte[] hash = null;
+            if (cached.modified != modified) {
+                // Touched or copied: only the content hash can tell
+                content = Files.readAllBytes(path);
+                hash = sha256(content);
+            }
+            if (hash == null || Arrays.equals(hash, cached.sha256)) {
+                SkaConfig config = decodeOrNull(cached.data);
+                if (config != null) {
+                    current.put(key, new CachedFile(size, modified, cached.sha256, cached.contentHash, cached.data));
+                    hits.incrementAndGet();
+                    return config;
+                }
+            }
+        }
+
+        misses.incrementAndGet();
+        if (content == null) content = Files.readAllBytes(path);
+        SkaConfig config = reader.read(new ByteArrayInputStream(content));
+        // Hash and encode right away, before callers start editing the model
+        current.put(key, new CachedFile(size, modified, sha256(content),
+                contentHashOrNull(config), SkaConfigCodec.encode(config)));
+        return config;
+    }
+
+    /**
+     * Canonical content hash ({@link SkaXmlWriter#contentHash}) of the
+     * configuration last returned by {@link #load} for {@code file}, as it
+     * was before any edits; {@code null} if the file was not loaded through
+     * this cache or could not be hashed.
+     */
+    public byte[] getContentHash(File file) {
+        CachedFile cf = current.get(file.getName());
+        return cf != null && cf.contentHash != null ? cf.contentHash.clone() : null;
+    }
+
+    /**
+     * Write the files seen through {@link #load} as the new snapshot, replacing
+     * the old one atomically. Entries of files that no longer exist are dropped.
+     *
+     * @return {@code true} if the cache was written
+     */
+    public boolean save() {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tmp = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(SkaConfigCodec.FORMAT_VERSION);
+                    TreeMap<String, CachedFile> sorted = new TreeMap<>(current);
+                    out.writeInt(sorted.size());
+                    for (Map.Entry<String, CachedFile> e : sorted.entrySet()) {
+                        CachedFile cf = e.getValue();
+                        SkaConfigCodec.writeString(out, e.getKey());
+                        out.writeLong(cf.size);
+                        out.writeLong(cf.modified);
+                        out.write(cf.sha256);
+                        out.writeBoolean(cf.contentHash != null);
+                        if (cf.contentHash != null) out.write(cf.contentHash);
+                        out.writeInt(cf.data.length);
+                        out.write(cf.data);
+                    }
+                }
+                try {
+                    Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            return false; // best-effort: the next open simply parses again
+        }
+    }
+
+    // --- internals ---
+
+    private static Map<String, CachedFile> readSnapshot(Path cacheFile) {
+        if (!Files.isRegularFile(cacheFile)) return Collections.emptyMap();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != SkaConfigCodec.FORMAT_VERSION) {
+                return Collections.emptyMap();
+            }
+            long remaining = Files.size(cacheFile);
+            int count = in.readInt();
+            if (count < 0 || count > remaining) return Collections.emptyMap();
+            Map<String, CachedFile> map = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int nameLen = in.readInt();
+                if (nameLen < 0 || nameLen > remaining) return Collections.emptyMap();
+                byte[] name = new byte[nameLen];
+                in.readFully(name);
+                long size = in.readLong();
+                long modified = in.readLong();
+                byte[] sha = new byte[HASH_LENGTH];
+                in.readFully(sha);
+                byte[] contentHash = null;
+                if (in.readBoolean()) {
+                    contentHash = new byte[HASH_LENGTH];
+                    in.readFully(contentHash);
+                }
+                int dataLen = in.readInt();
+                if (dataLen < 0 || dataLen > remaining) return Collections.emptyMap();
+                byte[] data = new byte[dataLen];
+                in.readFully(data);
+                map.put(new String(name, StandardCharsets.UTF_8), new CachedFile(size, modified, sha, contentHash, data));
+            }
+            return map;
+        } catch (IOException ex) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private static SkaConfig decodeOrNull(byte[] data) {
+        try {
+            return SkaConfigCodec.decode(data);
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /** {@link SkaXmlWriter#contentHash} of {@code config}, or {@code null} if it fails. */
+    static byte[] contentHashOrNull(SkaConfig config) {
+        try {
+            return SkaXmlWriter.contentHash(config);
+        } catch (Exception ex) {
+            return null; // unknown: the entry is simply always written
+        }
+    }
+
+    /** Cache file name derived from the folder's absolute path. */
+    private static String cacheName(File folder) {
+        return folderKey(folder) + ".cache";
+    }
+
+    /** Stable key for a workspace folder, used to name its files in the cache directory. */
+    static String folderKey(File folder) {
+        String path = folder.toPath().toAbsolutePath().normalize().toString();
+        return HexFormat.of().formatHex(sha256(path.getBytes(StandardCharsets.UTF_8)), 0, 16);
+    }
+
+    static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches an open workspace folder for SKA XML files that are created,
+ * modified or deleted by someone else, and reports them in batches.
+ * <p>
+ * Events are debounced: a batch is delivered once the folder has been quiet
+ * for {@link #DEFAULT_QUIET_MILLIS}, so a file copied in several writes is
+ * reported (and parsed) once. Changed files are parsed and hashed on the
+ * watcher thread; the listener receives either the parsed config or the
+ * parse error.
+ * <p>
+ * Only {@code *.xml} files are considered, so temp files from atomic saves
+ * are ignored. Files written by this application can be registered with
+ * {@link #markOwnWrite(File)}; as long as their size and mtime are unchanged
+ * they are not reported back.
+ */
+public class WorkspaceWatcher implements Closeable {
+
+    /** Quiet period before a batch of changes is delivered. */
+    public static final long DEFAULT_QUIET_MILLIS = 500;
+
+    /** Kind of on-disk change. */
+    public enum Kind { CHANGED, DELETED }
+
+    /** One changed file. For {@link Kind#CHANGED}, exactly one of config / error is set. */
+    public static class FileChange {
+        public final Kind kind;
+        public final File file;
+        public final SkaConfig config;
+        public final String error;
+        /** {@link SkaXmlWriter#contentHash} of {@link #config}, or {@code null} if unknown. */
+        public final byte[] contentHash;
+
+        public FileChange(Kind kind, File file, SkaConfig config, String error, byte[] contentHash) {
+            this.kind = kind;
+            this.file = file;
+            this.config = config;
+            this.error = error;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /** Receives batches of changes on the watcher thread. */
+    public interface Listener {
+        void filesChanged(List<FileChange> changes);
+    }
+
+    private final Path folder;
+    private final Listener listener;
+    private final long quietMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final Map<Path, long[]> ownWrites = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public WorkspaceWatcher(File folder, Listener listener) throws IOException {
+        this(folder, listener, DEFAULT_QUIET_MILLIS);
+    }
+
+    public WorkspaceWatcher(File folder, Listener listener, long quietMillis) throws IOException {
+        this.folder = folder.toPath().toAbsolutePath();
+        this.listener = listener;
+        this.quietMillis = quietMillis;
+        this.watchService = this.folder.getFileSystem().newWatchService();
+        this.folder.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::run, "ska-workspace-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Remember a file this application has just written so the resulting
+     * watch events are not reported as external changes.
+     */
+    public void markOwnWrite(File file) {
+        Path path = file.toPath().toAbsolutePath();
+        long[] stamp = stamp(path);
+        if (stamp != null) ownWrites.put(path, stamp);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // shutting down anyway
+        }
+    }
+
+    // --- watcher thread ---
+
+    private void run() {
+        Set<Path> pending = new TreeSet<>();
+        boolean rescan = false;
+        try {
+            while (!closed) {
+                WatchKey key = pending.isEmpty() && !rescan
+                        ? watchService.take()
+                        : watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    // Quiet period elapsed: deliver the batch
+                    if (rescan) pending.addAll(listXml());
+                    deliver(pending);
+                    pending = new TreeSet<>();
+                    rescan = false;
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan = true; // events were lost: re-check every XML file
+                    } else if (event.context() instanceof Path name && isXml(name)) {
+                        pending.add(folder.resolve(name));
+                    }
+                }
+                if (!key.reset()) return; // folder deleted or inaccessible
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // closed
+        }
+    }
+
+    private void deliver(Set<Path> paths) {
+        List<FileChange> changes = new ArrayList<>();
+        SkaXmlReader reader = new SkaXmlReader();
+        for (Path path : paths) {
+            if (closed) return;
+            long[] stamp = stamp(path);
+            if (stamp == null) {
+                ownWrites.remove(path);
+                changes.add(new FileChange(Kind.DELETED, path.toFile(), null, null, null));
+                continue;
+            }
+            long[] own = ownWrites.get(path);
+            if (own != null && Arrays.equals(own, stamp)) continue; // our own save
+            ownWrites.remove(path);
+            try {
+                SkaConfig config = reader.read(path.toFile());
+                changes.add(new FileChange(Kind.CHANGED, path.toFile(), config, null,
+                        WorkspaceCache.contentHashOrNull(config)));
+            } catch (Exception ex) {
+                String msg = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+                changes.add(new FileChange(Kind.CHANGED, path.toFile(), null, msg, null));
+            }
+        }
+        if (!changes.isEmpty() && !closed) {
+            listener.filesChanged(changes);
+        }
+    }
+
+    private List<Path> listXml() {
+        List<Path> result = new ArrayList<>();
+        for (File f : SkaFolderLoader.listXmlFiles(folder.toFile())) {
+            result.add(f.toPath().toAbsolutePath());
+        }
+        return result;
+    }
+
+    private static boolean isXml(Path name) {
+        return name.getFileName().toString().toLowerCase().endsWith(".xml");
+    }
+
+    /** Size and mtime of a file, or {@code null} if it does not exist. */
+    private static long[] stamp(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) return null;
+            return new long[]{attrs.size(), attrs.lastModifiedTime().toMillis()};
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.pki.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming XML emitter used by {@link SkaXmlWriter}.
+ * <p>
+ * Reproduces the exact layout and escaping of the JDK's built-in
+ * {@code Transformer} with {@code indent="yes"} and an indent amount of 4,
+ * so files written before and after the switch to streaming are identical:
+ * <ul>
+ *   <li>no line break between the XML declaration and the root element</li>
+ *   <li>elements without content are self-closed ({@code <boundary/>})</li>
+ *   <li>text-only elements stay on one line ({@code <membercn>x</membercn>})</li>
+ *   <li>attributes are written in the order given – callers pass them in
+ *       alphabetical order, as the Transformer sorts them</li>
+ * </ul>
+ * {@code XMLStreamWriter} is not used because it neither indents nor matches
+ * the Transformer's character-reference rules.
+ */
+final class XmlEmitter {
+
+    private static final String NEWLINE = System.lineSeparator();
+    private static final int INDENT = 4;
+
+    private final Writer out;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+
+    /** Start tag written up to its attributes, awaiting {@code >} or {@code />}. */
+    private boolean startTagOpen;
+
+    private static final class Frame {
+        final String name;
+        boolean hasChildElements;
+        boolean hasContent;
+
+        Frame(String name) { this.name = name; }
+    }
+
+    XmlEmitter(Writer out) {
+        this.out = out;
+    }
+
+    void startDocument() throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    }
+
+    void endDocument() throws IOException {
+        if (!stack.isEmpty()) {
+            throw new IllegalStateException("Unclosed element <" + stack.peek().name + ">");
+        }
+        out.write(NEWLINE);
+        out.flush();
+    }
+
+    void startElement(String name) throws IOException {
+        checkName(name);
+        Frame parent = stack.peek();
+        if (parent != null) {
+            closeStartTag();
+            parent.hasChildElements = true;
+            parent.hasContent = true;
+            out.write(NEWLINE);
+            indent(stack.size());
+        }
+        out.write('<');
+        out.write(name);
+        stack.push(new Frame(name));
+        startTagOpen = true;
+    }
+
+    void attribute(String name, String value) throws IOException {
+        if (!startTagOpen) throw new IllegalStateException("Attribute outside of a start tag: " + name);
+        out.write(' ');
+        out.write(name);
+        out.write("=\"");
+        escapeAttribute(value != null ? value : "");
+        out.write('"');
+    }
+
+    /** Character content; empty strings produce no content (the element self-closes). */
+    void text(String text) throws IOException {
+        if (text == null || text.isEmpty()) return;
+        closeStartTag();
+        stack.peek().hasContent = true;
+        escapeText(text);
+    }
+
+    /** A CDATA section; {@code ]]>} inside the data is split across two sections. */
+    void cdata(String data) throws IOException {
+        closeStartTag();
+        stack.peek().hasContent = true;
+        out.write("<![CDATA[");
+        int from = 0;
+        int idx;
+        while ((idx = data.indexOf("]]>", from)) >= 0) {
+            writeCdataChars(data, from, idx + 2);
+            out.write("]]><![CDATA[");
+            from = idx + 2;
+        }
+        writeCdataChars(data, from, data.length());
+        out.write("]]>");
+    }
+
+    void endElement() throws IOException {
+        Frame frame = stack.pop();
+        if (!frame.hasContent) {
+            out.write("/>");
+            startTagOpen = false;
+            return;
+        }
+        if (frame.hasChildElements) {
+            out.write(NEWLINE);
+            indent(stack.size());
+        }
+        out.write("</");
+        out.write(frame.name);
+        out.write('>');
+    }
+
+    // --- internals ---
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            out.write('>');
+            startTagOpen = false;
+        }
+    }
+
+    private void indent(int depth) throws IOException {
+        for (int i = depth * INDENT; i > 0; i--) {
+            out.write(' ');
+        }
+    }
+
+    private void escapeAttribute(String s) throws IOException {
+        int len = s.length();
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String ref;
+            switch (c) {
+                case '&' -> ref = "&amp;";
+                case '<' -> ref = "&lt;";
+                case '>' -> ref = "&gt;";
+                case '"' -> ref = "&quot;";
+                case '\t' -> ref = "&#9;";
+                case '\n' -> ref = "&#10;";
+                case '\r' -> ref = "&#13;";
+                default -> {
+                    if (c < 0x20 || c == 0xFFFE || c == 0xFFFF) throw invalidChar(c);
+                    if (!Character.isSurrogate(c)) continue;
+                    ref = surrogateRef(s, i);
+                }
+            }
+            out.write(s, start, i - start);
+            out.write(ref);
+            if (Character.isHighSurrogate(c)) i++;
+            start = i + 1;
+        }
+        out.write(s, start, len - start);
+    }
+
+    private void escapeText(String s) throws IOException {
+        int len = s.length();
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String ref;
+            switch (c) {
+                case '&' -> ref = "&amp;";
+                case '<' -> ref = "&lt;";
+                case '>' -> ref = "&gt;";
+                case '\r' -> ref = "&#13;";
+                case '\t', '\n' -> { continue; }
+                default -> {
+                    if (c < 0x20 || c == 0xFFFE || c == 0xFFFF) throw invalidChar(c);
+                    if (c >= 0x7F && c <= 0x9F) {
+                        ref = "&#" + (int) c + ";";
+                    } else if (Character.isSurrogate(c)) {
+                        ref = surrogateRef(s, i);
+                    } else {
+                        continue;
+                    }
+                }
+            }
+            out.write(s, start, i - start);
+            out.write(ref);
+            if (Character.isHighSurrogate(c)) i++;
+            start = i + 1;
+        }
+        out.write(s, start, len - start);
+    }
+
+    private void writeCdataChars(String s, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c == 0xFFFE || c == 0xFFFF) {
+                throw invalidChar(c);
+            }
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 >= to || !Character.isLowSurrogate(s.charAt(i + 1))) throw invalidChar(c);
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                throw invalidChar(c);
+            }
+        }
+        out.write(s, from, to - from);
+    }
+
+    /** Numeric reference for the surrogate pair starting at {@code i}; lone surrogates are rejected. */
+    private static String surrogateRef(String s, int i) throws IOException {
+        char c = s.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            return "&#" + Character.toCodePoint(c, s.charAt(i + 1)) + ";";
+        }
+        throw invalidChar(c);
+    }
+
+    private static IOException invalidChar(char c) {
+        return new IOException(String.format("Invalid XML character (Unicode: 0x%X)", (int) c));
+    }
+
+    private static void checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Element name must not be empty");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c) || "<>&\"'/=".indexOf(c) >= 0) {
+                throw new IllegalArgumentException("Invalid XML element name: " + name);
+            }
+        }
+    }
+}
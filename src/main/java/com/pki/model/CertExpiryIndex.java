@@ -0,0 +1,139 @@
+package com.pki.model;
+
+import com.pki.util.CertUtils;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Certificate validity of a set of users, sorted by expiry (notAfter) for
+ * range queries such as "expiring within 30 days".
+ * <p>
+ * A {@link UserPool} keeps its index current: users that are added, removed
+ * or get a new certificate (CSV import, user editor) are queued, and queued
+ * users are parsed on the next query, so loading a folder costs nothing
+ * until the index is used. Certificates are parsed through the
+ * {@link CertUtils} cache. Users without a parseable certificate are not
+ * indexed.
+ * <p>
+ * Not thread-safe; used on the EDT or by a single headless caller.
+ */
+public class CertExpiryIndex {
+
+    /** Validity of one user's certificate. */
+    public static final class Expiry {
+        public final User user;
+        public final Instant notBefore;
+        public final Instant notAfter;
+        private final long seq; // tie-breaker for equal notAfter
+
+        Expiry(User user, Instant notBefore, Instant notAfter, long seq) {
+            this.user = user;
+            this.notBefore = notBefore;
+            this.notAfter = notAfter;
+            this.seq = seq;
+        }
+
+        /** Whole days from {@code now} until expiry; negative once expired. */
+        public long daysLeft(Instant now) {
+            return Duration.between(now, notAfter).toDays();
+        }
+
+        public boolean isExpired(Instant now) {
+            return notAfter.isBefore(now);
+        }
+
+        public boolean isNotYetValid(Instant now) {
+            return notBefore.isAfter(now);
+        }
+
+        @Override
+        public String toString() {
+            return user.getCn() + " (" + notAfter + ")";
+        }
+    }
+
+    private final NavigableSet<Expiry> byNotAfter = new TreeSet<>(
+            Comparator.comparing((Expiry e) -> e.notAfter).thenComparingLong(e -> e.seq));
+    private final Map<User, Expiry> byUser = new IdentityHashMap<>();
+    private final Set<User> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long nextSeq;
+
+    /** A snapshot index over {@code users}; it does not follow later changes. */
+    public static CertExpiryIndex of(Collection<User> users) {
+        CertExpiryIndex index = new CertExpiryIndex();
+        for (User u : users) index.userChanged(u);
+        return index;
+    }
+
+    /** Certificates expiring before {@code until} (already expired ones included), soonest first. */
+    public List<Expiry> expiringBefore(Instant until) {
+        flush();
+        return new ArrayList<>(byNotAfter.headSet(probe(until), false));
+    }
+
+    /** Certificates expiring in {@code [from, until)}, soonest first. */
+    public List<Expiry> expiringBetween(Instant from, Instant until) {
+        flush();
+        if (!from.isBefore(until)) return new ArrayList<>();
+        return new ArrayList<>(byNotAfter.subSet(probe(from), true, probe(until), false));
+    }
+
+    /** Certificates that expire within {@code days} days of {@code now}, or have already expired. */
+    public List<Expiry> expiringWithin(int days, Instant now) {
+        return expiringBefore(now.plus(Duration.ofDays(days)));
+    }
+
+    /** Validity of {@code user}'s certificate, or {@code null} if it has none that parses. */
+    public Expiry get(User user) {
+        flush();
+        return byUser.get(user);
+    }
+
+    /** Number of users with a parseable certificate. */
+    public int size() {
+        flush();
+        return byUser.size();
+    }
+
+    // --- maintenance (driven by UserPool) ---
+
+    /** Queue {@code user} for (re)indexing. */
+    void userChanged(User user) {
+        pending.add(user);
+    }
+
+    void userRemoved(User user) {
+        pending.remove(user);
+        Expiry old = byUser.remove(user);
+        if (old != null) byNotAfter.remove(old);
+    }
+
+    void clear() {
+        pending.clear();
+        byUser.clear();
+        byNotAfter.clear();
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) return;
+        for (User u : pending) {
+            Expiry old = byUser.remove(u);
+            if (old != null) byNotAfter.remove(old);
+            X509Certificate cert = u.hasCertificate() ? CertUtils.parseCertificate(u.getCertificate()) : null;
+            if (cert != null) {
+                Expiry e = new Expiry(u, cert.getNotBefore().toInstant(), cert.getNotAfter().toInstant(), nextSeq++);
+                byUser.put(u, e);
+                byNotAfter.add(e);
+            }
+        }
+        pending.clear();
+    }
+
+    /** Search key sorting before every entry with the same notAfter. */
+    private static Expiry probe(Instant notAfter) {
+        return new Expiry(null, notAfter, notAfter, Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,218 @@
+package com.pki.model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, shareable handle for the certificate text of a {@link User}.
+ * <p>
+ * A well-formed single certificate in standard PEM layout (BEGIN/END
+ * markers, Base64 lines of 64 or 76 characters, LF or CRLF line breaks) is
+ * stored as its DER bytes plus the layout, and the PEM text is rendered on
+ * demand (and kept softly reachable for repeated reads). Any other text,
+ * such as a certificate without markers, is stored as-is, so
+ * {@link #toPem()} always returns exactly the text the handle was created
+ * from.
+ * <p>
+ * Handles are interned: equal certificates share one instance across all
+ * users and entries for as long as any of them is referenced. The intern
+ * table is a concurrent map of weak references, so threads decoding CSV
+ * rows or reports in parallel do not serialize on a lock.
+ */
+public final class CertificateData {
+
+    /** No certificate. */
+    public static final CertificateData EMPTY = new CertificateData(null, 0, false, "");
+
+    private static final String BEGIN = "-----BEGIN CERTIFICATE-----";
+    private static final String END = "-----END CERTIFICATE-----";
+
+    private static final ConcurrentHashMap<Key, Ref> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<CertificateData> COLLECTED = new ReferenceQueue<>();
+
+    private final byte[] der;         // compact form, or null
+    private final int lineWidth;      // Base64 characters per line (compact form)
+    private final boolean crlf;       // CRLF line breaks (compact form)
+    private final String text;        // verbatim text when not compact, else null
+    private final int hash;
+    private SoftReference<String> rendered;
+
+    private CertificateData(byte[] der, int lineWidth, boolean crlf, String text) {
+        this.der = der;
+        this.lineWidth = lineWidth;
+        this.crlf = crlf;
+        this.text = text;
+        this.hash = der != null
+                ? (Arrays.hashCode(der) * 31 + lineWidth) * 31 + Boolean.hashCode(crlf)
+                : text.hashCode();
+    }
+
+    /** The shared handle for {@code pem} ({@link #EMPTY} for {@code null} or empty text). */
+    public static CertificateData of(String pem) {
+        if (pem == null || pem.isEmpty()) return EMPTY;
+        CertificateData data = compact(pem);
+        return intern(data != null ? data : new CertificateData(null, 0, false, pem));
+    }
+
+    /**
+     * The shared handle for a DER-encoded certificate, rendered as standard
+     * PEM (64-character lines, LF line breaks).
+     */
+    public static CertificateData fromDer(byte[] der) {
+        if (der == null || der.length == 0) return EMPTY;
+        return intern(new CertificateData(der.clone(), 64, false, null));
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /** True if the certificate is held as DER rather than as text. */
+    public boolean isCompact() {
+        return der != null;
+    }
+
+    /** A copy of the DER encoding, or {@code null} if the text is not stored as DER. */
+    public byte[] getDer() {
+        return der != null ? der.clone() : null;
+    }
+
+    /** The certificate text, identical to the text this handle was created from. */
+    public String toPem() {
+        if (der == null) return text;
+        SoftReference<String> ref = rendered;
+        String pem = ref != null ? ref.get() : null;
+        if (pem == null) {
+            pem = render(der, lineWidth, crlf);
+            rendered = new SoftReference<>(pem);
+        }
+        return pem;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CertificateData other) || hash != other.hash) return false;
+        return lineWidth == other.lineWidth && crlf == other.crlf
+                && Arrays.equals(der, other.der) && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toPem();
+    }
+
+    // --- helpers ---
+
+    private static CertificateData intern(CertificateData data) {
+        purgeCollected();
+        Key key = new Key(data);
+        while (true) {
+            Ref ref = INTERNED.get(key);
+            CertificateData existing = ref != null ? ref.get() : null;
+            if (existing != null) return existing;
+            Ref mine = new Ref(data, key);
+            // Another thread may have interned an equal handle meanwhile: retry then
+            if (ref == null ? INTERNED.putIfAbsent(key, mine) == null : INTERNED.replace(key, ref, mine)) {
+                return data;
+            }
+        }
+    }
+
+    /** Drop the table entries of handles that were garbage collected. */
+    private static void purgeCollected() {
+        Reference<? extends CertificateData> r;
+        while ((r = COLLECTED.poll()) != null) {
+            Ref ref = (Ref) r;
+            INTERNED.remove(ref.key, ref);
+        }
+    }
+
+    /** Weak reference to an interned handle, remembering its table key. */
+    private static final class Ref extends WeakReference<CertificateData> {
+        final Key key;
+
+        Ref(CertificateData data, Key key) {
+            super(data, COLLECTED);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Content of a handle, sharing its DER array and text, so the table can
+     * match equal certificates without keeping the handle itself reachable.
+     */
+    private static final class Key {
+        private final byte[] der;
+        private final int lineWidth;
+        private final boolean crlf;
+        private final String text;
+        private final int hash;
+
+        Key(CertificateData data) {
+            this.der = data.der;
+            this.lineWidth = data.lineWidth;
+            this.crlf = data.crlf;
+            this.text = data.text;
+            this.hash = data.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other) || hash != other.hash) return false;
+            return lineWidth == other.lineWidth && crlf == other.crlf
+                    && Arrays.equals(der, other.der) && Objects.equals(text, other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** The compact form of {@code pem}, or {@code null} if it would not render back identically. */
+    private static CertificateData compact(String pem) {
+        if (!pem.startsWith(BEGIN) || !pem.endsWith(END)) return null;
+        boolean crlf = pem.startsWith("\r\n", BEGIN.length());
+        String sep = crlf ? "\r\n" : "\n";
+        int bodyStart = BEGIN.length() + sep.length();
+        int firstBreak = pem.indexOf(sep, bodyStart);
+        if (firstBreak < 0) return null;
+        int lineWidth = firstBreak - bodyStart;
+        if (lineWidth < 64) lineWidth = 64; // a single short line renders the same at any width
+        if (lineWidth != 64 && lineWidth != 76) return null;
+
+        String body = pem.substring(bodyStart, pem.length() - END.length()).replace(sep, "");
+        byte[] der;
+        try {
+            der = Base64.getDecoder().decode(body);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (der.length == 0 || !render(der, lineWidth, crlf).equals(pem)) return null;
+        return new CertificateData(der, lineWidth, crlf, null);
+    }
+
+    private static String render(byte[] der, int lineWidth, boolean crlf) {
+        String sep = crlf ? "\r\n" : "\n";
+        String base64 = Base64.getEncoder().encodeToString(der);
+        StringBuilder sb = new StringBuilder(base64.length() + 64 + (base64.length() / lineWidth + 2) * 2);
+        sb.append(BEGIN).append(sep);
+        for (int i = 0; i < base64.length(); i += lineWidth) {
+            sb.append(base64, i, Math.min(base64.length(), i + lineWidth)).append(sep);
+        }
+        return sb.append(END).toString();
+    }
+}
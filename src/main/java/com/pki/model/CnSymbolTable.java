@@ -0,0 +1,70 @@
+package com.pki.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Interns user CNs to compact, stable {@code int} IDs.
+ * <p>
+ * Each {@link SkaWorkspace} owns one table; the groups of its entries store
+ * their members as IDs from it (see {@link Group}), so the same CN repeated
+ * across every group of every SKA file is held once, and the
+ * {@link MembershipIndex} can key memberships by ID. IDs are never reused
+ * while the table lives; clearing the workspace starts a new table, so
+ * closing a folder releases its CNs.
+ * <p>
+ * A group that is not (yet) part of a workspace, e.g. one just parsed or
+ * created in the editor, keeps a small table of its own until the workspace
+ * indexes it. Not thread-safe: a table is filled either by one parsing
+ * thread or on the EDT, and only read concurrently.
+ */
+public final class CnSymbolTable {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] cns = new String[8];
+    private int size;
+
+    /**
+     * ID of {@code cn}, assigning the next free ID on first use.
+     *
+     * @throws NullPointerException if {@code cn} is null
+     */
+    public int intern(String cn) {
+        Integer id = ids.get(Objects.requireNonNull(cn, "cn"));
+        if (id != null) return id;
+        int next = size;
+        if (next == cns.length) {
+            cns = Arrays.copyOf(cns, next * 2);
+        }
+        cns[next] = cn;
+        size = next + 1;
+        ids.put(cn, next);
+        return next;
+    }
+
+    /** ID of {@code cn}, or {@code -1} if it was never interned. */
+    public int idOf(String cn) {
+        if (cn == null) return -1;
+        Integer id = ids.get(cn);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * CN for an ID returned by {@link #intern(String)}.
+     *
+     * @throws IndexOutOfBoundsException for unknown IDs
+     */
+    public String cnOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown CN id: " + id);
+        }
+        return cns[id];
+    }
+
+    /** Number of distinct CNs interned so far. */
+    public int size() {
+        return size;
+    }
+}
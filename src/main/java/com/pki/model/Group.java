@@ -1,28 +1,307 @@
 package com.pki.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * A group of members (people) or keys that must satisfy a quorum.
  * A group contains either member CNs or key labels (not both in practice).
+ * <p>
+ * Member CNs are stored as IDs from a {@link CnSymbolTable}: the table of
+ * the workspace once the group is indexed by one, a small table of its own
+ * before that. Next to the IDs in document order the group keeps a small
+ * hash table counting the slots that hold each ID, so
+ * {@link #containsMember(String)} and every member edit are O(1) and
+ * storage stays proportional to the number of members.
+ * {@link #getMemberCns()} is a live, modifiable {@code List<String>} view.
  */
 public class Group {
 
+    private static final int[] NO_IDS = new int[0];
+
     private int quorum = 1;
     private String name = "";
-    private List<String> memberCns = new ArrayList<>();
+    private CnSymbolTable symbols; // table the IDs refer to; created on first use
+    private int[] memberIds = NO_IDS;
+    private int memberCount;
+    private final IdCounts counts = new IdCounts(); // slots per distinct member ID
+    private final List<String> memberView = new MemberView();
     private List<String> keyLabels = new ArrayList<>();
 
+    MembershipIndex index; // index notified of member changes, if any
+
     public int getQuorum() { return quorum; }
     public void setQuorum(int quorum) { this.quorum = quorum; }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
-    public List<String> getMemberCns() { return memberCns; }
-    public void setMemberCns(List<String> memberCns) { this.memberCns = memberCns; }
+    /** Member CNs in document order; changes write through to the group. */
+    public List<String> getMemberCns() { return memberView; }
+
+    /** Replace the members with a copy of {@code memberCns} ({@code null} clears them). */
+    public void setMemberCns(List<String> memberCns) {
+        int n = memberCns != null ? memberCns.size() : 0;
+        int[] ids = n == 0 ? NO_IDS : new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = intern(Objects.requireNonNull(memberCns.get(i), "member CN"));
+        }
+        clearMembership();
+        memberIds = ids;
+        memberCount = n;
+        for (int i = 0; i < n; i++) addMembership(ids[i]);
+    }
+
+    /** True if {@code cn} is a member of this group. */
+    public boolean containsMember(String cn) {
+        return symbols != null && containsMemberId(symbols.idOf(cn));
+    }
+
+    /** True if the CN with the given ID (from {@link #getSymbols()}) is a member. */
+    public boolean containsMemberId(int id) {
+        return id >= 0 && counts.contains(id);
+    }
+
+    /** Member IDs in document order (a copy). */
+    public int[] getMemberIds() {
+        return Arrays.copyOf(memberIds, memberCount);
+    }
+
+    /** The table the member IDs refer to, or {@code null} if the group never had members. */
+    public CnSymbolTable getSymbols() {
+        return symbols;
+    }
 
     public List<String> getKeyLabels() { return keyLabels; }
     public void setKeyLabels(List<String> keyLabels) { this.keyLabels = keyLabels; }
+
+    // --- member storage ---
+
+    /**
+     * Move the member IDs to {@code table} (the workspace's), re-interning
+     * each member. Called by the {@link MembershipIndex} before indexing.
+     */
+    void bindSymbols(CnSymbolTable table) {
+        if (symbols == table) return;
+        if (symbols != null) {
+            counts.clear();
+            for (int i = 0; i < memberCount; i++) {
+                memberIds[i] = table.intern(symbols.cnOf(memberIds[i]));
+                counts.increment(memberIds[i]);
+            }
+        }
+        symbols = table;
+    }
+
+    private int intern(String cn) {
+        if (symbols == null) symbols = new CnSymbolTable();
+        return symbols.intern(cn);
+    }
+
+    private String cnOf(int id) {
+        return symbols.cnOf(id);
+    }
+
+    private void addMembership(int id) {
+        if (counts.increment(id) && index != null) index.memberAdded(this, id);
+    }
+
+    /** Drop one slot of {@code id}; the membership ends with its last slot. */
+    private void releaseMembership(int id) {
+        if (counts.decrement(id) && index != null) index.memberRemoved(this, id);
+    }
+
+    private void clearMembership() {
+        if (index != null) {
+            for (int id : counts.ids()) index.memberRemoved(this, id);
+        }
+        counts.clear();
+    }
+
+    /** {@code List<String>} view over the member IDs. */
+    private final class MemberView extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, memberCount);
+            return cnOf(memberIds[index]);
+        }
+
+        @Override
+        public int size() {
+            return memberCount;
+        }
+
+        @Override
+        public String set(int index, String cn) {
+            Objects.checkIndex(index, memberCount);
+            int id = intern(Objects.requireNonNull(cn, "member CN"));
+            int old = memberIds[index];
+            memberIds[index] = id;
+            if (old != id) {
+                addMembership(id);
+                releaseMembership(old);
+            }
+            return cnOf(old);
+        }
+
+        @Override
+        public void add(int index, String cn) {
+            Objects.checkIndex(index, memberCount + 1);
+            int id = intern(Objects.requireNonNull(cn, "member CN"));
+            if (memberCount == memberIds.length) {
+                memberIds = Arrays.copyOf(memberIds, Math.max(4, memberCount * 2));
+            }
+            System.arraycopy(memberIds, index, memberIds, index + 1, memberCount - index);
+            memberIds[index] = id;
+            memberCount++;
+            addMembership(id);
+            modCount++;
+        }
+
+        @Override
+        public String remove(int index) {
+            Objects.checkIndex(index, memberCount);
+            int old = memberIds[index];
+            System.arraycopy(memberIds, index + 1, memberIds, index, memberCount - index - 1);
+            memberCount--;
+            releaseMembership(old);
+            modCount++;
+            return cnOf(old);
+        }
+
+        @Override
+        public void clear() {
+            memberCount = 0;
+            clearMembership();
+            modCount++;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String cn && containsMember(cn);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (!(o instanceof String cn) || !containsMember(cn)) return -1;
+            int id = symbols.idOf(cn);
+            for (int i = 0; i < memberCount; i++) {
+                if (memberIds[i] == id) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            if (!(o instanceof String cn) || !containsMember(cn)) return -1;
+            int id = symbols.idOf(cn);
+            for (int i = memberCount - 1; i >= 0; i--) {
+                if (memberIds[i] == id) return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Open-addressing map from member ID to the number of slots holding it
+     * (linear probing, deletion by backward shift).
+     */
+    private static final class IdCounts {
+        private static final int FREE = -1;
+
+        private int[] keys = newKeys(8);
+        private int[] values = new int[8];
+        private int size;
+
+        private static int[] newKeys(int capacity) {
+            int[] k = new int[capacity];
+            Arrays.fill(k, FREE);
+            return k;
+        }
+
+        private int home(int id) {
+            int h = id * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (keys.length - 1);
+        }
+
+        private int slotOf(int id) {
+            int mask = keys.length - 1;
+            for (int i = home(id); ; i = (i + 1) & mask) {
+                if (keys[i] == id || keys[i] == FREE) return i;
+            }
+        }
+
+        boolean contains(int id) {
+            return keys[slotOf(id)] == id;
+        }
+
+        /** Count one more slot for {@code id}; true if it was not a member yet. */
+        boolean increment(int id) {
+            int i = slotOf(id);
+            if (keys[i] == id) {
+                values[i]++;
+                return false;
+            }
+            keys[i] = id;
+            values[i] = 1;
+            if (++size * 2 > keys.length) grow();
+            return true;
+        }
+
+        /** Count one slot less for {@code id}; true if that was its last slot. */
+        boolean decrement(int id) {
+            int i = slotOf(id);
+            if (keys[i] != id) return false;
+            if (--values[i] > 0) return false;
+            int mask = keys.length - 1;
+            for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+                int h = home(keys[j]);
+                // keys[j] may move into the hole at i unless its home lies in (i, j]
+                if (i <= j ? (h <= i || h > j) : (h <= i && h > j)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = FREE;
+            values[i] = 0;
+            size--;
+            return true;
+        }
+
+        /** The distinct IDs (a copy, in table order). */
+        int[] ids() {
+            int[] out = new int[size];
+            int n = 0;
+            for (int k : keys) {
+                if (k != FREE) out[n++] = k;
+            }
+            return out;
+        }
+
+        void clear() {
+            if (size == 0) return;
+            keys = newKeys(8);
+            values = new int[8];
+            size = 0;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == FREE) continue;
+                int j = slotOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
 }
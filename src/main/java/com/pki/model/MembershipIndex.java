@@ -0,0 +1,214 @@
+package com.pki.model;
+
+import java.util.*;
+
+/**
+ * Inverted index of group memberships: for each CN, every group (with its
+ * entry, section, operation and boundary) that lists it as a member.
+ * <p>
+ * {@link SkaWorkspace} keeps the index up to date when entries are added,
+ * removed or replaced. Member edits of indexed groups (through
+ * {@link Group#getMemberCns()} or {@link Group#setMemberCns}) are applied
+ * incrementally by the group itself. When the group <em>structure</em> of
+ * an entry is replaced (new boundaries or groups, e.g. from the operation
+ * editor), call {@link SkaWorkspace#reindexEntry(SkaConfigEntry)}.
+ * <p>
+ * Memberships are keyed by the IDs of the workspace's {@link CnSymbolTable};
+ * indexing a group moves its members to that table.
+ * <p>
+ * A lookup sorts only the placements of the CN (O(k log k) for k
+ * placements) instead of walking every group of every entry; entry
+ * positions are cached until an entry is added or removed. Not
+ * thread-safe; used on the EDT.
+ */
+public class MembershipIndex {
+
+    /** Where a CN is used: one group of one operation of one entry. */
+    public static final class Placement {
+        public final SkaConfigEntry entry;
+        /** "Organization", "SkaPlus", "SkaModify" or "Keys(&lt;child&gt;)". */
+        public final String section;
+        /** "use", "modify", "block" or "unblock". */
+        public final String operationName;
+        public final Operation operation;
+        public final Boundary boundary;
+        public final int boundaryIndex;
+        public final Group group;
+        public final int groupIndex;
+        private final int order; // document order within the entry
+
+        Placement(SkaConfigEntry entry, String section, String operationName, Operation operation,
+                  Boundary boundary, int boundaryIndex, Group group, int groupIndex, int order) {
+            this.entry = entry;
+            this.section = section;
+            this.operationName = operationName;
+            this.operation = operation;
+            this.boundary = boundary;
+            this.boundaryIndex = boundaryIndex;
+            this.group = group;
+            this.groupIndex = groupIndex;
+            this.order = order;
+        }
+
+        /** Human-readable path, e.g. {@code Organization > use > boundary 1 > group "Owners"}. */
+        public String describe() {
+            return section + " > " + operationName
+                    + " > boundary " + (boundaryIndex + 1)
+                    + " > group" + (group.getName().isEmpty()
+                            ? " " + (groupIndex + 1) : " \"" + group.getName() + "\"");
+        }
+
+        @Override
+        public String toString() {
+            return entry.getDisplayLabel() + ": " + describe();
+        }
+    }
+
+    private final Map<SkaConfigEntry, List<Placement>> byEntry = new IdentityHashMap<>();
+    private final Map<Group, Placement> byGroup = new IdentityHashMap<>();
+    private final Map<Integer, Set<Placement>> byCn = new HashMap<>();
+    private CnSymbolTable symbols;
+    private final List<SkaConfigEntry> entryOrder;
+    private Map<SkaConfigEntry, Integer> positions; // index in entryOrder; null when stale
+
+    /**
+     * @param entryOrder the workspace's entries (a live view); placements
+     *                   are reported in this order
+     */
+    MembershipIndex(CnSymbolTable symbols, List<SkaConfigEntry> entryOrder) {
+        this.symbols = symbols;
+        this.entryOrder = entryOrder;
+    }
+
+    /**
+     * All placements of {@code cn}, grouped by entry in workspace order and
+     * in document order within each entry.
+     */
+    public List<Placement> placementsOf(String cn) {
+        Set<Placement> hits = byCn.get(symbols.idOf(cn));
+        if (hits == null || hits.isEmpty()) return new ArrayList<>();
+        Map<SkaConfigEntry, Integer> position = positions();
+        List<Placement> result = new ArrayList<>(hits);
+        result.sort(Comparator.<Placement>comparingInt(p -> position.getOrDefault(p.entry, Integer.MAX_VALUE))
+                .thenComparingInt(p -> p.order));
+        return result;
+    }
+
+    /** Number of groups that list {@code cn} as a member. */
+    public int countPlacements(String cn) {
+        Set<Placement> hits = byCn.get(symbols.idOf(cn));
+        return hits != null ? hits.size() : 0;
+    }
+
+    /** True if {@code cn} is a member of any indexed group. */
+    public boolean isUsed(String cn) {
+        return countPlacements(cn) > 0;
+    }
+
+    // --- maintenance (driven by SkaWorkspace and Group) ---
+
+    /** (Re)index all groups of {@code entry}. */
+    void indexEntry(SkaConfigEntry entry) {
+        if (!dropPlacements(entry)) positions = null; // a new entry
+        List<Placement> placements = new ArrayList<>();
+        SkaConfig cfg = entry.getConfig();
+        indexSection(entry, cfg.getOrganization(), "Organization", placements);
+        indexSection(entry, cfg.getSkaPlus(), "SkaPlus", placements);
+        indexSection(entry, cfg.getSkaModify(), "SkaModify", placements);
+        KeysProto kp = cfg.getKeysProto();
+        if (kp != null) {
+            indexOperations(entry, kp.getOperations(), "Keys(" + kp.getChildName() + ")", placements);
+        }
+        byEntry.put(entry, placements);
+    }
+
+    /** Drop all placements of {@code entry}, which left the workspace. */
+    void unindexEntry(SkaConfigEntry entry) {
+        dropPlacements(entry);
+        positions = null;
+    }
+
+    /** Drop the placements of {@code entry}; false if it was not indexed. */
+    private boolean dropPlacements(SkaConfigEntry entry) {
+        List<Placement> placements = byEntry.remove(entry);
+        if (placements == null) return false;
+        for (Placement p : placements) {
+            if (byGroup.get(p.group) == p) {
+                byGroup.remove(p.group);
+                if (p.group.index == this) p.group.index = null;
+            }
+            for (int id : p.group.getMemberIds()) {
+                removeHit(id, p);
+            }
+        }
+        return true;
+    }
+
+    /** Drop everything and key future memberships by {@code symbols}. */
+    void clear(CnSymbolTable symbols) {
+        for (Group g : byGroup.keySet()) {
+            if (g.index == this) g.index = null;
+        }
+        byEntry.clear();
+        byGroup.clear();
+        byCn.clear();
+        positions = null;
+        this.symbols = symbols;
+    }
+
+    /** Called by an indexed group when {@code id} became a member. */
+    void memberAdded(Group group, int id) {
+        Placement p = byGroup.get(group);
+        if (p != null) byCn.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(p);
+    }
+
+    /** Called by an indexed group when {@code id} is no longer a member. */
+    void memberRemoved(Group group, int id) {
+        Placement p = byGroup.get(group);
+        if (p != null) removeHit(id, p);
+    }
+
+    private Map<SkaConfigEntry, Integer> positions() {
+        if (positions == null) {
+            positions = new IdentityHashMap<>();
+            for (int i = 0; i < entryOrder.size(); i++) positions.put(entryOrder.get(i), i);
+        }
+        return positions;
+    }
+
+    private void removeHit(int id, Placement p) {
+        Set<Placement> hits = byCn.get(id);
+        if (hits != null && hits.remove(p) && hits.isEmpty()) byCn.remove(id);
+    }
+
+    private void indexSection(SkaConfigEntry entry, SkaSection section, String name, List<Placement> out) {
+        if (section != null) indexOperations(entry, section.getOperations(), name, out);
+    }
+
+    private void indexOperations(SkaConfigEntry entry, Operations ops, String section, List<Placement> out) {
+        if (ops == null) return;
+        indexOperation(entry, section, "use", ops.getUse(), out);
+        indexOperation(entry, section, "modify", ops.getModify(), out);
+        indexOperation(entry, section, "block", ops.getBlock(), out);
+        indexOperation(entry, section, "unblock", ops.getUnblock(), out);
+    }
+
+    private void indexOperation(SkaConfigEntry entry, String section, String opName, Operation op,
+                                List<Placement> out) {
+        if (op == null) return;
+        for (int bi = 0; bi < op.getBoundaries().size(); bi++) {
+            Boundary b = op.getBoundaries().get(bi);
+            for (int gi = 0; gi < b.getGroups().size(); gi++) {
+                Group g = b.getGroups().get(gi);
+                Placement p = new Placement(entry, section, opName, op, b, bi, g, gi, out.size());
+                out.add(p);
+                byGroup.put(g, p);
+                g.bindSymbols(symbols);
+                g.index = this;
+                for (int id : g.getMemberIds()) {
+                    byCn.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(p);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.pki.model;
 
 import java.io.File;
+import java.util.Arrays;
 
 /**
  * Wraps an {@link SkaConfig} together with its source file and per-file state
@@ -13,6 +14,8 @@ public class SkaConfigEntry {
     private File sourceFile;
     private int loadedVersion;
     private boolean dirty;
+    private boolean externalConflict; // file changed/deleted on disk while dirty
+    private byte[] contentHash;       // canonical hash as last loaded/saved, null if unknown
 
     public SkaConfigEntry(SkaConfig config, File sourceFile) {
         this.config = config;
@@ -32,6 +35,34 @@ public class SkaConfigEntry {
     public boolean isDirty() { return dirty; }
     public void setDirty(boolean dirty) { this.dirty = dirty; }
 
+    /**
+     * True when the source file was modified or deleted by someone else while
+     * this entry had unsaved changes. The in-memory edits are kept; saving
+     * overwrites the external change.
+     */
+    public boolean hasExternalConflict() { return externalConflict; }
+    public void setExternalConflict(boolean externalConflict) { this.externalConflict = externalConflict; }
+
+    /**
+     * Canonical content hash of the config as last loaded from or saved to
+     * {@link #getSourceFile()} (see {@code SkaXmlWriter.contentHash}), or
+     * {@code null} if unknown. Used to skip rewriting entries that were
+     * marked dirty but did not actually change.
+     */
+    public byte[] getContentHash() { return contentHash; }
+    public void setContentHash(byte[] contentHash) { this.contentHash = contentHash; }
+
+    /**
+     * True if {@code currentHash} matches the last loaded/saved content and
+     * the version was not changed either, i.e. saving would rewrite the file
+     * with identical content.
+     */
+    public boolean isUnchanged(byte[] currentHash) {
+        return contentHash != null && currentHash != null
+                && Arrays.equals(contentHash, currentHash)
+                && config.getVersion() == loadedVersion;
+    }
+
     /**
      * Display label for UI selectors: "moduleName (filename)" or just filename.
      */
@@ -48,7 +79,8 @@ public class SkaConfigEntry {
      * Display label with dirty indicator.
      */
     public String getDisplayLabelWithDirty() {
-        return dirty ? getDisplayLabel() + " *" : getDisplayLabel();
+        String label = dirty ? getDisplayLabel() + " *" : getDisplayLabel();
+        return externalConflict ? label + " [changed on disk]" : label;
     }
 
     @Override
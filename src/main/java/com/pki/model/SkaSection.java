@@ -1,8 +1,16 @@
 package com.pki.model;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
 /**
  * Shared model for the organization, skaplus, and skamodify sections.
  * Each has key metadata, EC parameters, and a set of operations.
+ * <p>
+ * The validity strings are parsed once when set; {@link #getStartDate()}
+ * and {@link #getEndDate()} return the cached {@link LocalDate}s.
  */
 public class SkaSection {
 
@@ -10,24 +18,66 @@ public class SkaSection {
     private String keyLabel = "";
     private String startValidity = "";   // format: YYYY-MM-DD
     private String endValidity = "";     // format: YYYY-MM-DD
+    private LocalDate startDate;         // parsed startValidity, null if blank or invalid
+    private LocalDate endDate;           // parsed endValidity, null if blank or invalid
     private EcParameters ecParameters = new EcParameters();
     private Operations operations = new Operations();
 
+    ValidityIndex validityIndex; // index notified of key label / validity changes, if any
+
     public boolean isBlockedOnInitialize() { return blockedOnInitialize; }
     public void setBlockedOnInitialize(boolean blockedOnInitialize) { this.blockedOnInitialize = blockedOnInitialize; }
 
     public String getKeyLabel() { return keyLabel; }
-    public void setKeyLabel(String keyLabel) { this.keyLabel = keyLabel; }
+    public void setKeyLabel(String keyLabel) {
+        boolean changed = !Objects.equals(this.keyLabel, keyLabel);
+        this.keyLabel = keyLabel;
+        if (changed) validityChanged();
+    }
 
     public String getStartValidity() { return startValidity; }
-    public void setStartValidity(String startValidity) { this.startValidity = startValidity; }
+    public void setStartValidity(String startValidity) {
+        if (Objects.equals(this.startValidity, startValidity)) return;
+        this.startValidity = startValidity;
+        this.startDate = parseDate(startValidity);
+        validityChanged();
+    }
 
     public String getEndValidity() { return endValidity; }
-    public void setEndValidity(String endValidity) { this.endValidity = endValidity; }
+    public void setEndValidity(String endValidity) {
+        if (Objects.equals(this.endValidity, endValidity)) return;
+        this.endValidity = endValidity;
+        this.endDate = parseDate(endValidity);
+        validityChanged();
+    }
+
+    /** Parsed start validity, or {@code null} if blank or not a valid YYYY-MM-DD date. */
+    public LocalDate getStartDate() { return startDate; }
+
+    /** Parsed end validity, or {@code null} if blank or not a valid YYYY-MM-DD date. */
+    public LocalDate getEndDate() { return endDate; }
 
     public EcParameters getEcParameters() { return ecParameters; }
     public void setEcParameters(EcParameters ecParameters) { this.ecParameters = ecParameters; }
 
     public Operations getOperations() { return operations; }
     public void setOperations(Operations operations) { this.operations = operations; }
+
+    /**
+     * Parse a {@code YYYY-MM-DD} validity date.
+     *
+     * @return the date, or {@code null} if {@code value} is blank or not a valid date
+     */
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDate.parse(value.trim(), DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void validityChanged() {
+        if (validityIndex != null) validityIndex.invalidate();
+    }
 }
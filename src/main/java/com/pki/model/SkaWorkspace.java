@@ -1,7 +1,9 @@
 package com.pki.model;
 
 import java.io.File;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Manages multiple {@link SkaConfigEntry} instances that belong to the same
@@ -12,12 +14,48 @@ import java.util.*;
  * (name, email, certificate, …). Individual SKA entries hold only the set of
  * CNs that participate in that configuration; the actual {@link User} data is
  * looked up from the pool.</p>
+ *
+ * <p>Views register a {@link Listener} to be told what changed, instead of
+ * reloading everything after each edit.</p>
  */
 public class SkaWorkspace {
 
+    /**
+     * Targeted change notifications, delivered synchronously on the thread
+     * that made the change. Switching the active entry and merging users into
+     * the pool are announced by the workspace itself; code that edits users,
+     * groups or section metadata in place announces it through the
+     * {@code fire…} methods. Loading, rebuilding and clearing the workspace
+     * are not announced: views reload completely after those.
+     */
+    public interface Listener {
+        /** Another entry became the active one. */
+        default void activeEntryChanged(SkaConfigEntry previous, SkaConfigEntry active) { }
+
+        /** Fields of these users were edited in place; no user was added or removed. */
+        default void usersUpdated(Collection<User> users) { }
+
+        /** Users were added to or removed from the pool or from a user list. */
+        default void userListChanged() { }
+
+        /**
+         * Groups of one section of {@code config} changed.
+         *
+         * @param section as in {@link MembershipIndex.Placement#section}
+         */
+        default void groupsChanged(SkaConfig config, String section) { }
+
+        /** Module name, version or section key metadata of {@code config} changed. */
+        default void metadataChanged(SkaConfig config) { }
+    }
+
     private final List<SkaConfigEntry> entries = new ArrayList<>();
-    private final List<User> masterUserPool = new ArrayList<>();
+    private final UserPool masterUserPool = new UserPool();
+    private CnSymbolTable cnSymbols = new CnSymbolTable();
+    private final MembershipIndex membershipIndex = new MembershipIndex(cnSymbols, Collections.unmodifiableList(entries));
+    private final ValidityIndex validityIndex = new ValidityIndex(Collections.unmodifiableList(entries));
     private int activeIndex = -1;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
     // ---- entries management ------------------------------------------------
 
@@ -27,6 +65,8 @@ public class SkaWorkspace {
 
     public void addEntry(SkaConfigEntry entry) {
         entries.add(entry);
+        membershipIndex.indexEntry(entry);
+        validityIndex.invalidate();
         if (activeIndex < 0) {
             activeIndex = 0;
         }
@@ -35,6 +75,8 @@ public class SkaWorkspace {
     public void removeEntry(SkaConfigEntry entry) {
         int idx = entries.indexOf(entry);
         entries.remove(entry);
+        membershipIndex.unindexEntry(entry);
+        validityIndex.invalidate();
         if (entries.isEmpty()) {
             activeIndex = -1;
         } else if (idx <= activeIndex) {
@@ -53,29 +95,185 @@ public class SkaWorkspace {
         if (activeIndex < -1 || activeIndex >= entries.size()) {
             throw new IndexOutOfBoundsException("Invalid active index: " + activeIndex);
         }
+        SkaConfigEntry previous = getActiveEntry();
         this.activeIndex = activeIndex;
+        SkaConfigEntry active = getActiveEntry();
+        if (active != previous) {
+            for (Listener l : listeners) l.activeEntryChanged(previous, active);
+        }
     }
 
     public boolean isEmpty() { return entries.isEmpty(); }
 
+    /**
+     * Find the entry loaded from {@code file}, or {@code null}.
+     */
+    public SkaConfigEntry findEntryByFile(File file) {
+        File target = file.getAbsoluteFile();
+        for (SkaConfigEntry e : entries) {
+            if (e.getSourceFile() != null && target.equals(e.getSourceFile().getAbsoluteFile())) return e;
+        }
+        return null;
+    }
+
+    // ---- incremental reload -------------------------------------------------
+
+    /** Outcome of applying an on-disk change to the workspace. */
+    public enum ExternalChange { ADDED, RELOADED, REMOVED, CONFLICT, IGNORED }
+
+    /**
+     * Apply a file that was created or modified on disk.
+     * <ul>
+     *   <li>Unknown file: a new entry is inserted in filename order.</li>
+     *   <li>Known, clean entry: it is replaced by the freshly parsed config.</li>
+     *   <li>Known, dirty entry: nothing is overwritten; the entry is flagged
+     *       with {@link SkaConfigEntry#hasExternalConflict()}.</li>
+     * </ul>
+     * Users of the new config are merged into the master pool incrementally;
+     * the pool is not rebuilt. For a reloaded file, pool users without local
+     * edits take the file's values, like a full reopen would give them; an
+     * added file only fills blanks (see {@link #mergeUsersIntoPool(List)}).
+     */
+    public ExternalChange applyFileChanged(File file, SkaConfig config) {
+        SkaConfigEntry existing = findEntryByFile(file);
+        if (existing != null && existing.isDirty()) {
+            existing.setExternalConflict(true);
+            return ExternalChange.CONFLICT;
+        }
+        Set<String> locallyEdited = existing != null ? locallyEditedCns() : null;
+
+        SkaConfigEntry fresh = new SkaConfigEntry(config, file);
+        if (existing != null) {
+            entries.set(entries.indexOf(existing), fresh);
+            membershipIndex.unindexEntry(existing);
+        } else {
+            int pos = 0;
+            while (pos < entries.size() && compareByFileName(entries.get(pos), file) <= 0) pos++;
+            entries.add(pos, fresh);
+            if (activeIndex < 0) {
+                activeIndex = 0;
+            } else if (pos <= activeIndex) {
+                activeIndex++;
+            }
+        }
+        membershipIndex.indexEntry(fresh);
+        validityIndex.invalidate();
+        if (existing != null) {
+            reloadUsersIntoPool(config.getUsers(), locallyEdited);
+            return ExternalChange.RELOADED;
+        }
+        mergeUsersIntoPool(config.getUsers());
+        return ExternalChange.ADDED;
+    }
+
+    /**
+     * CNs of pool users that may hold edits not yet saved: the users listed
+     * by a dirty entry, since pool edits mark the entries listing the user
+     * dirty. Only dirty entries are walked, so a reload costs nothing extra
+     * while the workspace is clean. Pool users no file lists (e.g. fresh from
+     * a CSV import) have nothing to save yet and take the file's values.
+     */
+    private Set<String> locallyEditedCns() {
+        Set<String> edited = new HashSet<>();
+        for (SkaConfigEntry entry : entries) {
+            if (!entry.isDirty()) continue;
+            for (User u : entry.getConfig().getUsers()) edited.add(u.getCn());
+        }
+        return edited;
+    }
+
+    /**
+     * Apply a file that was deleted on disk. Clean entries are removed; dirty
+     * entries are kept and flagged so their edits can still be saved.
+     * Pool users are kept, since other entries (or the user) may still need them.
+     */
+    public ExternalChange applyFileDeleted(File file) {
+        SkaConfigEntry existing = findEntryByFile(file);
+        if (existing == null) return ExternalChange.IGNORED;
+        if (existing.isDirty()) {
+            existing.setExternalConflict(true);
+            return ExternalChange.CONFLICT;
+        }
+        removeEntry(existing);
+        return ExternalChange.REMOVED;
+    }
+
+    private static int compareByFileName(SkaConfigEntry entry, File file) {
+        File f = entry.getSourceFile();
+        return f == null ? -1 : f.getName().compareTo(file.getName());
+    }
+
+    // ---- membership index ---------------------------------------------------
+
+    /**
+     * The inverted CN → group index over all entries (see {@link MembershipIndex}).
+     */
+    public MembershipIndex getMembershipIndex() {
+        return membershipIndex;
+    }
+
+    /**
+     * The CN table the groups of all entries share once indexed (see {@link Group}).
+     */
+    public CnSymbolTable getCnSymbols() {
+        return cnSymbols;
+    }
+
+    /**
+     * Every group, across all entries, that lists {@code cn} as a member,
+     * in entry order and document order.
+     */
+    public List<MembershipIndex.Placement> whereUsed(String cn) {
+        return membershipIndex.placementsOf(cn);
+    }
+
+    /**
+     * Re-index the groups of {@code entry} after its group structure
+     * (sections, operations, boundaries or group objects) was replaced.
+     * Member edits of existing groups are tracked automatically.
+     */
+    public void reindexEntry(SkaConfigEntry entry) {
+        if (entries.contains(entry)) {
+            membershipIndex.indexEntry(entry);
+            validityIndex.invalidate();
+        }
+    }
+
+    // ---- key validity index -------------------------------------------------
+
+    /**
+     * Key validity windows of all entries' sections (see {@link ValidityIndex}).
+     */
+    public ValidityIndex getValidityIndex() {
+        return validityIndex;
+    }
+
     public boolean hasAnyDirty() {
         return entries.stream().anyMatch(SkaConfigEntry::isDirty);
     }
 
     // ---- master user pool --------------------------------------------------
 
-    public List<User> getMasterUserPool() {
+    /**
+     * The master pool as a modifiable list, indexed by CN (see {@link UserPool}).
+     */
+    public UserPool getMasterUserPool() {
         return masterUserPool;
     }
 
     /**
-     * Find a user in the master pool by CN.
+     * Pool users whose certificate expires within {@code days} days from now
+     * (or has already expired), soonest first.
+     */
+    public List<CertExpiryIndex.Expiry> expiringWithin(int days) {
+        return masterUserPool.getExpiryIndex().expiringWithin(days, Instant.now());
+    }
+
+    /**
+     * Find a user in the master pool by CN (hash lookup).
      */
     public User findUserByCn(String cn) {
-        for (User u : masterUserPool) {
-            if (u.getCn().equals(cn)) return u;
-        }
-        return null;
+        return masterUserPool.findByCn(cn);
     }
 
     /**
@@ -107,6 +305,57 @@ public class SkaWorkspace {
         masterUserPool.addAll(byCn.values());
     }
 
+    /**
+     * Merge users into the existing master pool without rebuilding it:
+     * unknown CNs are appended (as copies), known CNs only get blank fields
+     * filled, exactly like {@link #rebuildMasterUserPool()} does for later
+     * occurrences. Pool edits are never overwritten and nobody is removed.
+     * Filled-in and added users are announced to the listeners.
+     *
+     * @return number of users added to the pool
+     */
+    public int mergeUsersIntoPool(List<User> users) {
+        return mergeUsersIntoPool(users, Set.of());
+    }
+
+    /**
+     * Merge the users of a reloaded file into the pool: pool users whose CN is
+     * not in {@code locallyEdited} take the file's values, so a colleague's
+     * new certificate, email or user ID shows up here (and is what later saves
+     * write back). Blank fields in the file keep the pool value, since another
+     * file, or the other environment's user ID, may still supply it. Users in
+     * {@code locallyEdited} only get blank fields filled, as in
+     * {@link #mergeUsersIntoPool(List)}, so local edits are never overwritten.
+     *
+     * @return number of users added to the pool
+     */
+    private int reloadUsersIntoPool(List<User> users, Set<String> locallyEdited) {
+        Set<String> fromFile = new HashSet<>();
+        for (User u : users) {
+            if (!locallyEdited.contains(u.getCn())) fromFile.add(u.getCn());
+        }
+        return mergeUsersIntoPool(users, fromFile);
+    }
+
+    private int mergeUsersIntoPool(List<User> users, Set<String> takeFromFile) {
+        int added = 0;
+        List<User> updated = new ArrayList<>();
+        for (User u : users) {
+            String cn = u.getCn();
+            if (cn == null || cn.isEmpty()) continue;
+            User existing = masterUserPool.findByCn(cn);
+            if (existing == null) {
+                masterUserPool.add(deepCopyUser(u));
+                added++;
+            } else if (takeFromFile.contains(cn) ? refreshUser(existing, u) : mergeUser(existing, u)) {
+                updated.add(existing);
+            }
+        }
+        fireUsersUpdated(updated);
+        if (added > 0) fireUserListChanged();
+        return added;
+    }
+
     /**
      * Returns the set of CNs assigned to the given entry.
      */
@@ -120,6 +369,28 @@ public class SkaWorkspace {
         return cns;
     }
 
+    /**
+     * Mark every entry that lists one of {@code cns} among its users dirty,
+     * so the next save writes the updated pool data into it. Entries not
+     * using any of them are left alone.
+     *
+     * @return number of entries marked dirty
+     */
+    public int markEntriesDirtyFor(Set<String> cns) {
+        if (cns.isEmpty()) return 0;
+        int marked = 0;
+        for (SkaConfigEntry entry : entries) {
+            for (User u : entry.getConfig().getUsers()) {
+                if (cns.contains(u.getCn())) {
+                    entry.setDirty(true);
+                    marked++;
+                    break;
+                }
+            }
+        }
+        return marked;
+    }
+
     /**
      * Synchronise an entry's user list from the master pool, keeping only
      * the given set of CNs. This is called before saving.
@@ -134,6 +405,38 @@ public class SkaWorkspace {
         entry.getConfig().setUsers(entryUsers);
     }
 
+    // ---- change notification ------------------------------------------------
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Announce in-place edits of {@code users}; nothing is sent for an empty collection. */
+    public void fireUsersUpdated(Collection<User> users) {
+        if (users.isEmpty()) return;
+        Collection<User> view = Collections.unmodifiableCollection(users);
+        for (Listener l : listeners) l.usersUpdated(view);
+    }
+
+    /** Announce that users were added to or removed from the pool or a user list. */
+    public void fireUserListChanged() {
+        for (Listener l : listeners) l.userListChanged();
+    }
+
+    /** Announce changed groups in {@code section} (named as in {@link MembershipIndex.Placement#section}). */
+    public void fireGroupsChanged(SkaConfig config, String section) {
+        for (Listener l : listeners) l.groupsChanged(config, section);
+    }
+
+    /** Announce a changed module name, version or section key metadata. */
+    public void fireMetadataChanged(SkaConfig config) {
+        for (Listener l : listeners) l.metadataChanged(config);
+    }
+
     // ---- helpers ------------------------------------------------------------
 
     private static User deepCopyUser(User src) {
@@ -144,7 +447,7 @@ public class SkaWorkspace {
         copy.setOrganisation(src.getOrganisation());
         copy.setUserId(src.getUserId());
         copy.setUserIdIntegration(src.getUserIdIntegration());
-        copy.setCertificate(src.getCertificate());
+        copy.setCertificateData(src.getCertificateData());
         copy.setOrgOwnerOf(new LinkedHashSet<>(src.getOrgOwnerOf()));
         copy.setOrgSecOffOf(new LinkedHashSet<>(src.getOrgSecOffOf()));
         copy.setOrgOpOf(new LinkedHashSet<>(src.getOrgOpOf()));
@@ -154,23 +457,77 @@ public class SkaWorkspace {
     /**
      * Merge {@code src} into {@code target}: only fill fields that are blank
      * in target but present in src.
+     *
+     * @return {@code true} if {@code target} changed
      */
-    private static void mergeUser(User target, User src) {
-        if (target.getName().isEmpty() && !src.getName().isEmpty())
+    private static boolean mergeUser(User target, User src) {
+        boolean changed = false;
+        if (target.getName().isEmpty() && !src.getName().isEmpty()) {
             target.setName(src.getName());
-        if (target.getEmail().isEmpty() && !src.getEmail().isEmpty())
+            changed = true;
+        }
+        if (target.getEmail().isEmpty() && !src.getEmail().isEmpty()) {
             target.setEmail(src.getEmail());
-        if (target.getOrganisation().isEmpty() && !src.getOrganisation().isEmpty())
+            changed = true;
+        }
+        if (target.getOrganisation().isEmpty() && !src.getOrganisation().isEmpty()) {
             target.setOrganisation(src.getOrganisation());
-        if (target.getUserId().isEmpty() && !src.getUserId().isEmpty())
+            changed = true;
+        }
+        if (target.getUserId().isEmpty() && !src.getUserId().isEmpty()) {
             target.setUserId(src.getUserId());
-        if (target.getUserIdIntegration().isEmpty() && !src.getUserIdIntegration().isEmpty())
+            changed = true;
+        }
+        if (target.getUserIdIntegration().isEmpty() && !src.getUserIdIntegration().isEmpty()) {
             target.setUserIdIntegration(src.getUserIdIntegration());
-        if (target.getCertificate().isEmpty() && !src.getCertificate().isEmpty())
-            target.setCertificate(src.getCertificate());
-        target.getOrgOwnerOf().addAll(src.getOrgOwnerOf());
-        target.getOrgSecOffOf().addAll(src.getOrgSecOffOf());
-        target.getOrgOpOf().addAll(src.getOrgOpOf());
+            changed = true;
+        }
+        if (!target.hasCertificate() && src.hasCertificate()) {
+            target.setCertificateData(src.getCertificateData());
+            changed = true;
+        }
+        changed |= target.getOrgOwnerOf().addAll(src.getOrgOwnerOf());
+        changed |= target.getOrgSecOffOf().addAll(src.getOrgSecOffOf());
+        changed |= target.getOrgOpOf().addAll(src.getOrgOpOf());
+        return changed;
+    }
+
+    /**
+     * Refresh {@code target} from {@code src}: every field that is set in src
+     * replaces the value in target; blank fields leave target as it is.
+     *
+     * @return {@code true} if {@code target} changed
+     */
+    private static boolean refreshUser(User target, User src) {
+        boolean changed = false;
+        if (!src.getName().isEmpty() && !src.getName().equals(target.getName())) {
+            target.setName(src.getName());
+            changed = true;
+        }
+        if (!src.getEmail().isEmpty() && !src.getEmail().equals(target.getEmail())) {
+            target.setEmail(src.getEmail());
+            changed = true;
+        }
+        if (!src.getOrganisation().isEmpty() && !src.getOrganisation().equals(target.getOrganisation())) {
+            target.setOrganisation(src.getOrganisation());
+            changed = true;
+        }
+        if (!src.getUserId().isEmpty() && !src.getUserId().equals(target.getUserId())) {
+            target.setUserId(src.getUserId());
+            changed = true;
+        }
+        if (!src.getUserIdIntegration().isEmpty() && !src.getUserIdIntegration().equals(target.getUserIdIntegration())) {
+            target.setUserIdIntegration(src.getUserIdIntegration());
+            changed = true;
+        }
+        if (src.hasCertificate() && !src.getCertificateData().equals(target.getCertificateData())) {
+            target.setCertificateData(src.getCertificateData());
+            changed = true;
+        }
+        changed |= target.getOrgOwnerOf().addAll(src.getOrgOwnerOf());
+        changed |= target.getOrgSecOffOf().addAll(src.getOrgSecOffOf());
+        changed |= target.getOrgOpOf().addAll(src.getOrgOpOf());
+        return changed;
     }
 
     /**
@@ -179,6 +536,9 @@ public class SkaWorkspace {
     public void clear() {
         entries.clear();
         masterUserPool.clear();
+        cnSymbols = new CnSymbolTable(); // releases the CNs of the closed entries
+        membershipIndex.clear(cnSymbols);
+        validityIndex.invalidate();
         activeIndex = -1;
     }
 }
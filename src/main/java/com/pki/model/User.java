@@ -1,6 +1,7 @@
 package com.pki.model;
 
 import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -15,7 +16,7 @@ public class User {
     private String cn = "";          // e.g. "Baesler Boris KJBDG0"
     private String name = "";        // e.g. "Baesler Boris"
     private String organisation = "";
-    private String certificate = ""; // PEM-encoded X.509 certificate
+    private CertificateData certificate = CertificateData.EMPTY; // PEM-encoded X.509 certificate
 
     // Role assignments parsed from CSV (Org Owner / Org SecOff / Org Op columns).
     // Values are module identifiers like "CVCA PP (Prod)".
@@ -23,6 +24,9 @@ public class User {
     private Set<String> orgSecOffOf = new LinkedHashSet<>();
     private Set<String> orgOpOf = new LinkedHashSet<>();
 
+    UserPool pool; // pool indexing this user by CN and certificate expiry, if any
+    int poolSlots; // number of positions of that pool holding this instance
+
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
@@ -33,7 +37,11 @@ public class User {
     public void setUserIdIntegration(String userIdIntegration) { this.userIdIntegration = userIdIntegration != null ? userIdIntegration : ""; }
 
     public String getCn() { return cn; }
-    public void setCn(String cn) { this.cn = cn; }
+    public void setCn(String cn) {
+        String old = this.cn;
+        this.cn = cn;
+        if (pool != null && !Objects.equals(old, cn)) pool.cnChanged(this, old);
+    }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -41,8 +49,19 @@ public class User {
     public String getOrganisation() { return organisation; }
     public void setOrganisation(String organisation) { this.organisation = organisation; }
 
-    public String getCertificate() { return certificate; }
-    public void setCertificate(String certificate) { this.certificate = certificate; }
+    /** The certificate text (PEM), rendered from the shared {@link CertificateData}. */
+    public String getCertificate() { return certificate.toPem(); }
+    public void setCertificate(String certificate) { setCertificateData(CertificateData.of(certificate)); }
+
+    /** The shared certificate handle; copy it between users instead of the text. */
+    public CertificateData getCertificateData() { return certificate; }
+    public void setCertificateData(CertificateData certificate) {
+        CertificateData old = this.certificate;
+        this.certificate = certificate != null ? certificate : CertificateData.EMPTY;
+        if (pool != null && old != this.certificate) pool.certificateChanged(this);
+    }
+
+    public boolean hasCertificate() { return !certificate.isEmpty(); }
 
     public Set<String> getOrgOwnerOf() { return orgOwnerOf; }
     public void setOrgOwnerOf(Set<String> orgOwnerOf) { this.orgOwnerOf = orgOwnerOf; }
@@ -0,0 +1,154 @@
+package com.pki.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The master user pool of a {@link SkaWorkspace}: an ordered, modifiable
+ * {@code List<User>} with a hash index by CN.
+ * <p>
+ * The index is kept consistent on every list change and also when the CN
+ * of a pooled user is edited in place ({@link User#setCn(String)} notifies
+ * the pool it belongs to), so {@link #findByCn(String)} is O(1).
+ * CNs are expected to be unique; if several users share a CN (e.g. while a
+ * new user is still being edited) one of them is returned.
+ * <p>
+ * Every user knows its pool and how many positions of it hold the instance,
+ * so replacing, removing and {@link List#sort sorting} never scan the list.
+ * <p>
+ * The pool also maintains a {@link CertExpiryIndex} of its users'
+ * certificates, updated the same way when a certificate is replaced.
+ */
+public class UserPool extends AbstractList<User> implements RandomAccess {
+
+    private final List<User> users = new ArrayList<>();
+    private final Map<String, User> byCn = new HashMap<>();
+    private final Map<String, List<User>> shadowed = new HashMap<>(); // CN duplicates not in byCn
+    private final CertExpiryIndex expiryIndex = new CertExpiryIndex();
+
+    /** The pooled user with this CN, or {@code null}. */
+    public User findByCn(String cn) {
+        return byCn.get(cn);
+    }
+
+    public boolean containsCn(String cn) {
+        return byCn.containsKey(cn);
+    }
+
+    /** Certificate expiry index over the pooled users. */
+    public CertExpiryIndex getExpiryIndex() {
+        return expiryIndex;
+    }
+
+    @Override
+    public User get(int index) {
+        return users.get(index);
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public User set(int index, User user) {
+        Objects.requireNonNull(user, "user");
+        User old = users.set(index, user);
+        attach(user); // first, so re-setting the same instance keeps it indexed
+        detach(old);
+        return old;
+    }
+
+    @Override
+    public void add(int index, User user) {
+        Objects.requireNonNull(user, "user");
+        users.add(index, user);
+        modCount++;
+        attach(user);
+    }
+
+    @Override
+    public User remove(int index) {
+        User old = users.remove(index);
+        modCount++;
+        detach(old);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        for (User u : users) {
+            if (u.pool == this) {
+                u.pool = null;
+                u.poolSlots = 0;
+            }
+        }
+        users.clear();
+        byCn.clear();
+        shadowed.clear();
+        expiryIndex.clear();
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof User u && u.pool == this;
+    }
+
+    // --- index maintenance ---
+
+    /** Called by {@link User#setCn(String)} for users of this pool. */
+    void cnChanged(User user, String oldCn) {
+        unindex(user, oldCn);
+        index(user, user.getCn());
+    }
+
+    /** Called by {@link User#setCertificateData} for users of this pool. */
+    void certificateChanged(User user) {
+        expiryIndex.userChanged(user);
+    }
+
+    private void attach(User user) {
+        if (user.pool != this) {
+            user.pool = this;
+            user.poolSlots = 0;
+        }
+        if (user.poolSlots++ > 0) return; // same instance already pooled at another index
+        index(user, user.getCn());
+        expiryIndex.userChanged(user);
+    }
+
+    private void detach(User user) {
+        if (user.pool != this || --user.poolSlots > 0) return;
+        user.pool = null;
+        unindex(user, user.getCn());
+        expiryIndex.userRemoved(user);
+    }
+
+    private void index(User user, String cn) {
+        User holder = byCn.putIfAbsent(cn, user);
+        if (holder != null && holder != user) {
+            shadowed.computeIfAbsent(cn, k -> new ArrayList<>(1)).add(user);
+        }
+    }
+
+    /** Drop {@code user} from the index under {@code cn}, promoting another holder of that CN. */
+    private void unindex(User user, String cn) {
+        List<User> duplicates = shadowed.get(cn);
+        if (byCn.get(cn) == user) {
+            if (duplicates == null) {
+                byCn.remove(cn);
+                return;
+            }
+            byCn.put(cn, duplicates.remove(0));
+        } else if (duplicates == null || !duplicates.remove(user)) {
+            return;
+        }
+        if (duplicates.isEmpty()) shadowed.remove(cn);
+    }
+}
@@ -0,0 +1,184 @@
+package com.pki.model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Key validity windows of the Organization, SKA Plus and SKA Modify sections
+ * across all workspace entries, for date queries such as "which key labels
+ * are valid on D" or "which end next quarter".
+ * <p>
+ * Windows are built from the {@link LocalDate}s cached by {@link SkaSection},
+ * so queries never parse strings. The index is rebuilt on the first query
+ * after entries were added, removed or replaced, or after a section's key
+ * label or validity changed (indexed sections notify the index). A build
+ * sorts the windows by start and lays an implicit interval tree over them,
+ * so "valid on D" costs O(log n + k); "ending between A and B" is a binary
+ * search over the windows sorted by end.
+ * <p>
+ * A missing start or end date makes that side of the window open. Sections
+ * with an unparseable date are left out and counted by {@link #invalidCount()}.
+ * Not thread-safe; used on the EDT.
+ */
+public class ValidityIndex {
+
+    /** The key validity of one section of one entry. */
+    public static final class Window {
+        public final SkaConfigEntry entry;
+        /** "Organization", "SkaPlus" or "SkaModify". */
+        public final String sectionName;
+        public final SkaSection section;
+        public final String keyLabel;
+        /** First valid day, or {@code null} if open. */
+        public final LocalDate start;
+        /** Last valid day (inclusive), or {@code null} if open-ended. */
+        public final LocalDate end;
+        private final long startDay;
+        private final long endDay;
+
+        Window(SkaConfigEntry entry, String sectionName, SkaSection section) {
+            this.entry = entry;
+            this.sectionName = sectionName;
+            this.section = section;
+            this.keyLabel = section.getKeyLabel();
+            this.start = section.getStartDate();
+            this.end = section.getEndDate();
+            this.startDay = start != null ? start.toEpochDay() : Long.MIN_VALUE;
+            this.endDay = end != null ? end.toEpochDay() : Long.MAX_VALUE;
+        }
+
+        public boolean isValidOn(LocalDate date) {
+            long day = date.toEpochDay();
+            return startDay <= day && day <= endDay;
+        }
+
+        @Override
+        public String toString() {
+            return entry.getDisplayLabel() + ": " + sectionName + " \"" + keyLabel + "\" "
+                    + (start != null ? start : "…") + " – " + (end != null ? end : "…");
+        }
+    }
+
+    private static final Window[] NONE = new Window[0];
+
+    private final List<SkaConfigEntry> entries;
+    private final List<SkaSection> registered = new ArrayList<>();
+    private boolean stale = true;
+    private Window[] byStart = NONE;
+    private long[] maxEnd = new long[0]; // max endDay of the implicit subtree rooted at each index
+    private Window[] byEnd = NONE;       // windows with an end date, sorted by it
+    private int invalid;
+
+    /** @param entries live view of the workspace entries */
+    ValidityIndex(List<SkaConfigEntry> entries) {
+        this.entries = entries;
+    }
+
+    /** Windows that include {@code date}, ordered by start. */
+    public List<Window> validOn(LocalDate date) {
+        refresh();
+        List<Window> out = new ArrayList<>();
+        collectValid(0, byStart.length, date.toEpochDay(), out);
+        return out;
+    }
+
+    /** Windows whose end date lies in {@code [from, to]} (inclusive), ordered by end. */
+    public List<Window> endingBetween(LocalDate from, LocalDate to) {
+        refresh();
+        int lo = firstEndAtOrAfter(from.toEpochDay());
+        int hi = firstEndAtOrAfter(to.toEpochDay() + 1);
+        return lo < hi ? new ArrayList<>(Arrays.asList(byEnd).subList(lo, hi)) : new ArrayList<>();
+    }
+
+    /** Number of indexed windows. */
+    public int size() {
+        refresh();
+        return byStart.length;
+    }
+
+    /** Number of sections left out because a validity date could not be parsed. */
+    public int invalidCount() {
+        refresh();
+        return invalid;
+    }
+
+    // --- maintenance (driven by SkaWorkspace and SkaSection) ---
+
+    /** Rebuild on the next query. */
+    void invalidate() {
+        stale = true;
+    }
+
+    private void refresh() {
+        if (!stale) return;
+        for (SkaSection s : registered) {
+            if (s.validityIndex == this) s.validityIndex = null;
+        }
+        registered.clear();
+        invalid = 0;
+
+        List<Window> windows = new ArrayList<>();
+        for (SkaConfigEntry entry : entries) {
+            SkaConfig cfg = entry.getConfig();
+            addSection(entry, "Organization", cfg.getOrganization(), windows);
+            addSection(entry, "SkaPlus", cfg.getSkaPlus(), windows);
+            addSection(entry, "SkaModify", cfg.getSkaModify(), windows);
+        }
+
+        byStart = windows.toArray(NONE);
+        Arrays.sort(byStart, Comparator.comparingLong((Window w) -> w.startDay));
+        maxEnd = new long[byStart.length];
+        buildMaxEnd(0, byStart.length);
+
+        byEnd = windows.stream().filter(w -> w.end != null)
+                .sorted(Comparator.comparingLong((Window w) -> w.endDay))
+                .toArray(Window[]::new);
+        stale = false;
+    }
+
+    private void addSection(SkaConfigEntry entry, String name, SkaSection section, List<Window> out) {
+        if (section == null) return;
+        section.validityIndex = this;
+        registered.add(section);
+
+        boolean badStart = !section.getStartValidity().isBlank() && section.getStartDate() == null;
+        boolean badEnd = !section.getEndValidity().isBlank() && section.getEndDate() == null;
+        if (badStart || badEnd) {
+            invalid++;
+            return;
+        }
+        if (section.getKeyLabel().isBlank() && section.getStartDate() == null && section.getEndDate() == null) {
+            return; // section not configured
+        }
+        out.add(new Window(entry, name, section));
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(byStart[mid].endDay, Math.max(buildMaxEnd(lo, mid), buildMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    private void collectValid(int lo, int hi, long day, List<Window> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] < day) return; // everything below ends before day
+        collectValid(lo, mid, day, out);
+        Window w = byStart[mid];
+        if (w.startDay > day) return; // this and everything to the right starts after day
+        if (w.endDay >= day) out.add(w);
+        collectValid(mid + 1, hi, day, out);
+    }
+
+    private int firstEndAtOrAfter(long day) {
+        int lo = 0;
+        int hi = byEnd.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (byEnd[mid].endDay < day) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
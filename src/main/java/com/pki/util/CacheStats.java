@@ -0,0 +1,27 @@
+package com.pki.util;
+
+/**
+ * Snapshot of the hit/miss counters of one of the parse caches in this
+ * package ({@link CertUtils#cacheStats()}, {@link CurveUtils#cacheStats()}).
+ */
+public class CacheStats {
+    public final long hits;
+    public final long misses;
+    public final long evictions;
+    public final int size;
+    public final int capacity;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", size=" + size + "/" + capacity;
+    }
+}
@@ -1,23 +1,64 @@
 package com.pki.util;
 
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Utility for parsing X.509 certificates from PEM text
  * and extracting report-relevant fields.
+ * <p>
+ * Parsed certificates are kept in a bounded LRU cache keyed by the SHA-256
+ * of the normalized PEM (whitespace and line endings removed), so the same
+ * certificate appearing for many users, files or report runs is parsed
+ * once. The capacity can be set with {@code -Dska.cert.cache.size}.
+ * <p>
+ * Cache misses decode the Base64 body straight to DER and reuse a
+ * per-thread {@link CertificateFactory} and SHA-256 {@link MessageDigest}.
  */
 public final class CertUtils {
 
     private CertUtils() {}
 
+    /** System property overriding the parse cache capacity (number of certificates). */
+    public static final String CACHE_SIZE_PROPERTY = "ska.cert.cache.size";
+
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final HexFormat FINGERPRINT_HEX = HexFormat.ofDelimiter(":").withUpperCase();
+
+    private static final ThreadLocal<CertificateFactory> X509_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return CertificateFactory.getInstance("X.509");
+        } catch (CertificateException e) {
+            throw new IllegalStateException("X.509 certificate factory not available", e);
+        }
+    });
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
     private static final DateTimeFormatter DATE_FMT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneId.systemDefault());
 
@@ -53,6 +94,22 @@ public final class CertUtils {
         }
     }
 
+    /** A parsed certificate; {@code cert}/{@code info} are null for unparseable PEM. */
+    static final class Parsed {
+        final X509Certificate cert;
+        final CertInfo info;
+
+        Parsed(X509Certificate cert, CertInfo info) {
+            this.cert = cert;
+            this.info = info;
+        }
+    }
+
+    private static final Parsed INVALID = new Parsed(null, null);
+
+    private static final ParseCache CACHE = new ParseCache(
+            Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
     /**
      * Parse a PEM-encoded X.509 certificate and extract report fields.
      *
@@ -60,18 +117,110 @@ public final class CertUtils {
      * @return parsed info, or {@code null} if parsing fails or PEM is blank
      */
     public static CertInfo parse(String pem) {
-        if (pem == null || pem.isBlank()) return null;
+        Parsed p = parseCached(pem);
+        return p != null ? p.info : null;
+    }
+
+    /**
+     * Parse a PEM-encoded X.509 certificate (cached like {@link #parse}).
+     *
+     * @return the certificate, or {@code null} if parsing fails or PEM is blank
+     */
+    public static X509Certificate parseCertificate(String pem) {
+        Parsed p = parseCached(pem);
+        return p != null ? p.cert : null;
+    }
 
+    /**
+     * The most specific common name (CN) of the certificate's subject, or
+     * {@code null} if the subject has none.
+     */
+    public static String subjectCn(X509Certificate cert) {
         try {
-            // Ensure PEM has markers (some certs might be stored without them)
-            String normalized = pem.trim();
-            if (!normalized.startsWith("-----BEGIN")) {
-                normalized = "-----BEGIN CERTIFICATE-----\n" + normalized + "\n-----END CERTIFICATE-----";
+            List<Rdn> rdns = new LdapName(cert.getSubjectX500Principal().getName()).getRdns();
+            // LdapName lists RDNs from the most significant (e.g. C) to the least
+            for (int i = rdns.size() - 1; i >= 0; i--) {
+                if (rdns.get(i).getType().equalsIgnoreCase("CN")) {
+                    return rdns.get(i).getValue().toString();
+                }
             }
+            return null;
+        } catch (InvalidNameException e) {
+            return null;
+        }
+    }
+
+    /** Current parse cache counters. */
+    public static CacheStats cacheStats() {
+        return CACHE.stats();
+    }
 
-            CertificateFactory cf = CertificateFactory.getInstance("X.509");
-            X509Certificate cert = (X509Certificate) cf.generateCertificate(
-                    new ByteArrayInputStream(normalized.getBytes(StandardCharsets.UTF_8)));
+    /** Drop all cached certificates and reset the counters. */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static Parsed parseCached(String pem) {
+        if (pem == null || pem.isBlank()) return null;
+        String key = cacheKey(pem);
+        Parsed p = CACHE.get(key);
+        if (p == null) {
+            // Parsed outside the lock; a concurrent duplicate parse is harmless
+            p = parseUncached(pem);
+            CACHE.put(key, p);
+        }
+        return p;
+    }
+
+    /** SHA-256 (hex) of the PEM with all whitespace removed. */
+    private static String cacheKey(String pem) {
+        byte[] compact = new byte[pem.length()];
+        int n = 0;
+        boolean ascii = true;
+        for (int i = 0; i < pem.length(); i++) {
+            char c = pem.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+                break;
+            }
+            if (!Character.isWhitespace(c)) compact[n++] = (byte) c;
+        }
+        MessageDigest md = SHA256.get();
+        if (ascii) {
+            md.update(compact, 0, n);
+        } else {
+            // PEM is ASCII; anything else will not parse but still needs a distinct key
+            md.update(pem.replaceAll("\\s+", "").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /**
+     * DER bytes of the first PEM block in {@code pem}, or of the whole text
+     * when it has no BEGIN/END markers (some certs are stored without them).
+     */
+    static byte[] pemToDer(String pem) {
+        int from = 0;
+        int to = pem.length();
+        int begin = pem.indexOf("-----BEGIN");
+        if (begin >= 0) {
+            int bodyStart = pem.indexOf("-----", begin + 10);
+            if (bodyStart < 0) throw new IllegalArgumentException("Unterminated PEM header");
+            from = bodyStart + 5;
+            int end = pem.indexOf("-----END", from);
+            if (end < 0) throw new IllegalArgumentException("Missing PEM footer");
+            to = end;
+        }
+        // The MIME decoder skips line breaks and other non-alphabet characters
+        return Base64.getMimeDecoder().decode(pem.substring(from, to));
+    }
+
+    /** Parse without consulting the cache (exposed for benchmarks). */
+    static Parsed parseUncached(String pem) {
+        try {
+            byte[] der = pemToDer(pem);
+            X509Certificate cert = (X509Certificate) X509_FACTORY.get()
+                    .generateCertificate(new ByteArrayInputStream(der));
 
             String subject = cert.getSubjectX500Principal().getName();
             String issuer = cert.getIssuerX500Principal().getName();
@@ -79,11 +228,11 @@ public final class CertUtils {
             String notAfter = DATE_FMT.format(cert.getNotAfter().toInstant());
             String serial = cert.getSerialNumber().toString(16).toUpperCase();
             String keyUsage = formatKeyUsage(cert.getKeyUsage());
-            String fingerprint = sha256Fingerprint(cert);
+            String fingerprint = sha256Fingerprint(cert.getEncoded());
 
-            return new CertInfo(subject, issuer, notBefore, notAfter, serial, keyUsage, fingerprint);
+            return new Parsed(cert, new CertInfo(subject, issuer, notBefore, notAfter, serial, keyUsage, fingerprint));
         } catch (Exception e) {
-            return null;
+            return INVALID; // cached too, so broken PEM is not re-parsed on every report
         }
     }
 
@@ -96,18 +245,50 @@ public final class CertUtils {
         return active.isEmpty() ? "(none)" : String.join(", ", active);
     }
 
-    private static String sha256Fingerprint(X509Certificate cert) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(cert.getEncoded());
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < digest.length; i++) {
-                if (i > 0) sb.append(':');
-                sb.append(String.format("%02X", digest[i] & 0xFF));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            return "N/A";
+    /** Colon-separated upper-case hex SHA-256 of the DER encoding, formatted in one pass. */
+    private static String sha256Fingerprint(byte[] der) {
+        return FINGERPRINT_HEX.formatHex(SHA256.get().digest(der));
+    }
+
+    /** Access-ordered LRU map with counters; all access synchronized. */
+    private static final class ParseCache {
+        private final int capacity;
+        private final LinkedHashMap<String, Parsed> map;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        ParseCache(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Parsed> eldest) {
+                    if (size() > ParseCache.this.capacity) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Parsed get(String key) {
+            Parsed p = map.get(key);
+            if (p != null) hits++; else misses++;
+            return p;
+        }
+
+        synchronized void put(String key, Parsed value) {
+            map.put(key, value);
+        }
+
+        synchronized CacheStats stats() {
+            return new CacheStats(hits, misses, evictions, map.size(), capacity);
+        }
+
+        synchronized void clear() {
+            map.clear();
+            hits = misses = evictions = 0;
         }
     }
 }
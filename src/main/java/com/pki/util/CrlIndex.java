@@ -0,0 +1,128 @@
+package com.pki.util;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.cert.CRL;
+import java.security.cert.CRLException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.*;
+
+/**
+ * Revoked certificate serial numbers from local CRL files, indexed per
+ * issuer, for offline revocation checks.
+ * <p>
+ * Each CRL is read once; its entries go into a {@link HashSet} of serials
+ * keyed by issuer, so checking a certificate is two hash lookups. Entries
+ * of indirect CRLs are filed under their certificate issuer.
+ * <p>
+ * CRL signatures are <em>not</em> verified (the issuing CA certificates are
+ * usually not at hand); only load CRLs from a trusted source.
+ * Not thread-safe while loading; read-only lookups may run concurrently.
+ */
+public final class CrlIndex {
+
+    /** Revocation status of one certificate. */
+    public enum Status {
+        /** Listed on a loaded CRL of its issuer. */
+        REVOKED,
+        /** A CRL of its issuer is loaded and does not list it. */
+        GOOD,
+        /** No CRL of its issuer is loaded. */
+        UNKNOWN
+    }
+
+    private final Map<X500Principal, Set<BigInteger>> revokedByIssuer = new HashMap<>();
+    private final List<X509CRL> crls = new ArrayList<>();
+    private int revokedCount;
+
+    /**
+     * Load every CRL in {@code files}. A file may hold one or more CRLs,
+     * PEM ({@code -----BEGIN X509 CRL-----}) or DER encoded.
+     *
+     * @throws IOException if a file cannot be read or contains no valid CRL
+     */
+    public static CrlIndex load(Collection<File> files) throws IOException {
+        CrlIndex index = new CrlIndex();
+        for (File f : files) {
+            index.addFile(f);
+        }
+        return index;
+    }
+
+    /** Add all CRLs in {@code file}. */
+    public void addFile(File file) throws IOException {
+        Collection<? extends CRL> loaded;
+        try {
+            CertificateFactory cf = CertificateFactory.getInstance("X.509");
+            loaded = cf.generateCRLs(new ByteArrayInputStream(Files.readAllBytes(file.toPath())));
+        } catch (CertificateException | CRLException e) {
+            throw new IOException("Cannot read CRL " + file.getName() + ": " + e.getMessage(), e);
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("No CRL found in " + file.getName());
+        }
+        for (CRL crl : loaded) {
+            add((X509CRL) crl);
+        }
+    }
+
+    /** Index the entries of {@code crl}. */
+    public void add(X509CRL crl) {
+        crls.add(crl);
+        X500Principal issuer = crl.getIssuerX500Principal();
+        revokedByIssuer.computeIfAbsent(issuer, k -> new HashSet<>());
+        Set<? extends X509CRLEntry> entries = crl.getRevokedCertificates();
+        if (entries == null) return;
+        for (X509CRLEntry e : entries) {
+            // Set on entries of an indirect CRL that belong to another issuer
+            X500Principal certIssuer = e.getCertificateIssuer();
+            X500Principal key = certIssuer != null ? certIssuer : issuer;
+            if (revokedByIssuer.computeIfAbsent(key, k -> new HashSet<>()).add(e.getSerialNumber())) {
+                revokedCount++;
+            }
+        }
+    }
+
+    /** Revocation status of {@code cert} against the loaded CRLs. */
+    public Status status(X509Certificate cert) {
+        Set<BigInteger> revoked = revokedByIssuer.get(cert.getIssuerX500Principal());
+        if (revoked == null) return Status.UNKNOWN;
+        return revoked.contains(cert.getSerialNumber()) ? Status.REVOKED : Status.GOOD;
+    }
+
+    public boolean isRevoked(X509Certificate cert) {
+        return status(cert) == Status.REVOKED;
+    }
+
+    /** The loaded CRLs, in load order. */
+    public List<X509CRL> getCrls() {
+        return Collections.unmodifiableList(crls);
+    }
+
+    /** Number of distinct (issuer, serial) pairs listed as revoked. */
+    public int revokedCount() {
+        return revokedCount;
+    }
+
+    /** Number of issuers covered by the loaded CRLs. */
+    public int issuerCount() {
+        return revokedByIssuer.size();
+    }
+
+    /** Loaded CRLs whose next update lies before {@code now}. */
+    public List<X509CRL> outdated(Date now) {
+        List<X509CRL> out = new ArrayList<>();
+        for (X509CRL crl : crls) {
+            if (crl.getNextUpdate() != null && crl.getNextUpdate().before(now)) out.add(crl);
+        }
+        return out;
+    }
+}
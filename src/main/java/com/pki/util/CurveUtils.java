@@ -5,11 +5,21 @@ import org.bouncycastle.asn1.ASN1Object;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.x9.ECNamedCurveTable;
 import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.field.PolynomialExtensionField;
 
 import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Shared utility for EC curve name detection.
@@ -20,7 +30,12 @@ import java.util.Map;
  * and explicit-form (full domain parameters) EC PARAMETERS encodings.
  * For explicit parameters, the actual mathematical domain parameters
  * (curve equation, generator point, order, cofactor) are compared against
- * every known curve — labels and OIDs are never trusted.
+ * every curve Bouncy Castle knows — labels and OIDs are never trusted.
+ * The comparison is a lookup in a table of domain-parameter fingerprints
+ * built once on first use, followed by a full equality check.
+ * <p>
+ * Detection results are memoized by the SHA-256 of the DER encoding, since
+ * most configurations share the same few EC parameter blocks.
  */
 public final class CurveUtils {
 
@@ -47,7 +62,10 @@ public final class CurveUtils {
         OID_TO_NAME.put("1.3.36.3.3.2.8.1.1.13",  "brainpoolP512r1");
     }
 
-    /** Curves to compare against when matching explicit parameters. */
+    /**
+     * Preferred names when matching explicit parameters: these win over
+     * Bouncy Castle aliases of the same curve (e.g. secp256r1 over prime256v1).
+     */
     private static final String[] COMPARE_CURVES = {
             "secp256r1", "secp384r1", "secp521r1", "secp256k1",
             "brainpoolP256r1", "brainpoolP384r1", "brainpoolP512r1",
@@ -66,6 +84,16 @@ public final class CurveUtils {
         CANONICAL.put("P-521",     "secp521r1");
     }
 
+    /** Maximum number of distinct EC parameter blocks remembered by {@link #detectCurveFromPem}. */
+    private static final int DETECT_CACHE_SIZE = 1024;
+
+    /** Memo value for "parameters parsed, no curve matched". */
+    private static final String NO_MATCH = "";
+
+    private static final Map<String, String> DETECTED = new ConcurrentHashMap<>();
+    private static final AtomicLong detectHits = new AtomicLong();
+    private static final AtomicLong detectMisses = new AtomicLong();
+
     /** Returns the canonical name for a curve (resolves known aliases). */
     public static String canonicalize(String name) {
         if (name == null) return "";
@@ -99,23 +127,59 @@ public final class CurveUtils {
 
             byte[] der = Base64.getDecoder().decode(base64);
 
-            try (ASN1InputStream asn1In = new ASN1InputStream(new ByteArrayInputStream(der))) {
-                ASN1Object asn1 = asn1In.readObject();
-
-                if (asn1 instanceof ASN1ObjectIdentifier oid) {
-                    // ── Named form: the DER is just an OID ──
-                    return resolveOid(oid);
-                } else {
-                    // ── Explicit form: full domain parameters ──
-                    return matchExplicitParameters(der);
-                }
+            String key = derKey(der);
+            String memo = DETECTED.get(key);
+            if (memo != null) {
+                detectHits.incrementAndGet();
+                return memo.isEmpty() ? null : memo;
+            }
+            detectMisses.incrementAndGet();
+            String detected = detectFromDer(der);
+            // Once full, new blocks are still detected but no longer remembered
+            if (DETECTED.size() < DETECT_CACHE_SIZE) {
+                DETECTED.putIfAbsent(key, detected != null ? detected : NO_MATCH);
             }
+            return detected;
         } catch (Exception e) {
-            // Malformed PEM, bad Base64, unparseable ASN.1
+            // Malformed PEM, bad Base64
         }
         return null;
     }
 
+    /** Counters of the {@link #detectCurveFromPem} memo. */
+    public static CacheStats cacheStats() {
+        return new CacheStats(detectHits.get(), detectMisses.get(), 0, DETECTED.size(), DETECT_CACHE_SIZE);
+    }
+
+    /** Forget all memoized detections and reset the counters. */
+    public static void clearCache() {
+        DETECTED.clear();
+        detectHits.set(0);
+        detectMisses.set(0);
+    }
+
+    private static String detectFromDer(byte[] der) {
+        try (ASN1InputStream asn1In = new ASN1InputStream(new ByteArrayInputStream(der))) {
+            ASN1Object asn1 = asn1In.readObject();
+
+            if (asn1 instanceof ASN1ObjectIdentifier oid) {
+                // ── Named form: the DER is just an OID ──
+                return resolveOid(oid);
+            } else {
+                // ── Explicit form: full domain parameters ──
+                return matchExplicitParameters(der);
+            }
+        } catch (Exception e) {
+            // Unparseable ASN.1
+            return null;
+        }
+    }
+
+    /** SHA-256 (hex) of the DER encoding, used as memo key. */
+    private static String derKey(byte[] der) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(der));
+    }
+
     /** Resolve a named-form OID to a curve name. */
     private static String resolveOid(ASN1ObjectIdentifier oid) {
         String oidStr = oid.getId();
@@ -142,19 +206,85 @@ public final class CurveUtils {
             X9ECParameters inputParams = parseX9(der);
             if (inputParams == null) return null;
 
-            for (String curveName : COMPARE_CURVES) {
-                try {
-                    X9ECParameters ref = ECNamedCurveTable.getByName(curveName);
-                    if (ref != null && ecParamsMatch(inputParams, ref)) {
-                        return curveName;
-                    }
-                } catch (Exception ignored) {}
+            NamedCurve candidate = CurveTable.BY_FINGERPRINT.get(fingerprint(inputParams));
+            if (candidate != null && ecParamsMatch(inputParams, candidate.params)) {
+                return candidate.name;
             }
         } catch (Exception ignored) {}
 
         return null; // No known curve matched
     }
 
+    /** A reference curve of the fingerprint table. */
+    private static final class NamedCurve {
+        final String name;
+        final X9ECParameters params;
+
+        NamedCurve(String name, X9ECParameters params) {
+            this.name = name;
+            this.params = params;
+        }
+    }
+
+    /** Fingerprint → curve for every curve Bouncy Castle knows; built on first use. */
+    private static final class CurveTable {
+        static final Map<String, NamedCurve> BY_FINGERPRINT = build();
+
+        private static Map<String, NamedCurve> build() {
+            Map<String, NamedCurve> table = new HashMap<>();
+            for (String name : COMPARE_CURVES) {
+                add(table, name);
+            }
+            for (Enumeration<?> names = ECNamedCurveTable.getNames(); names.hasMoreElements(); ) {
+                add(table, (String) names.nextElement());
+            }
+            return table;
+        }
+
+        private static void add(Map<String, NamedCurve> table, String name) {
+            try {
+                X9ECParameters params = ECNamedCurveTable.getByName(name);
+                if (params != null) {
+                    table.putIfAbsent(fingerprint(params), new NamedCurve(name, params));
+                }
+            } catch (Exception ignored) {} // skip curves BC cannot instantiate
+        }
+    }
+
+    /**
+     * SHA-256 (hex) over the field (characteristic, size and, for binary
+     * fields, the reduction polynomial), a, b, the uncompressed generator
+     * and the order. The cofactor is optional in the encoding and therefore
+     * left out; {@link #ecParamsMatch} still compares it when present.
+     */
+    private static String fingerprint(X9ECParameters params) throws NoSuchAlgorithmException {
+        ECCurve curve = params.getCurve();
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        update(md, curve.getField().getCharacteristic());
+        update(md, BigInteger.valueOf(curve.getFieldSize()));
+        if (curve.getField() instanceof PolynomialExtensionField ext) {
+            for (int exponent : ext.getMinimalPolynomial().getExponentsPresent()) {
+                update(md, BigInteger.valueOf(exponent));
+            }
+        }
+        update(md, curve.getA().toBigInteger());
+        update(md, curve.getB().toBigInteger());
+        update(md, params.getG().getEncoded(false));
+        update(md, params.getN());
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static void update(MessageDigest md, BigInteger value) {
+        update(md, value.toByteArray());
+    }
+
+    /** Length-prefixed, so adjacent components cannot run into each other. */
+    private static void update(MessageDigest md, byte[] bytes) {
+        md.update((byte) (bytes.length >>> 8));
+        md.update((byte) bytes.length);
+        md.update(bytes);
+    }
+
     /** Parse raw DER bytes into X9ECParameters. */
     private static X9ECParameters parseX9(byte[] der) {
         try (ASN1InputStream in = new ASN1InputStream(new ByteArrayInputStream(der))) {
@@ -0,0 +1,69 @@
+package com.pki;
+
+import com.pki.io.SkaXmlWriter;
+import com.pki.model.SkaConfig;
+import com.pki.model.User;
+import com.pki.util.TestCertificates;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the headless {@link ExpiringCommand}.
+ */
+public class ExpiringCommandTest {
+
+    private static User user(String cn, int validDays) {
+        User u = new User();
+        u.setCn(cn);
+        u.setName(cn + " Name");
+        u.setCertificate(TestCertificates.selfSigned(cn, validDays));
+        return u;
+    }
+
+    @Test
+    public void testListsExpiringCertificatesAcrossFiles() throws Exception {
+        File dir = Files.createTempDirectory("expiring-cmd").toFile();
+        SkaConfig a = new SkaConfig();
+        a.setUsers(List.of(user("Cmd Soon", 10), user("Cmd Later", 400)));
+        SkaConfig b = new SkaConfig();
+        b.setUsers(List.of(user("Cmd Soon", 10)));
+        new SkaXmlWriter().write(a, new File(dir, "a.xml"));
+        new SkaXmlWriter().write(b, new File(dir, "b.xml"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = ExpiringCommand.run(new String[] {"--expiring", "30", dir.getPath()},
+                new PrintStream(out, true), new PrintStream(err, true));
+
+        String[] lines = out.toString().trim().split("\n");
+        assertEquals(ExpiringCommand.EXIT_EXPIRING, status);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\tCmd Soon\tCmd Soon Name\ta.xml,b.xml"));
+        assertEquals("", err.toString());
+
+        assertEquals(ExpiringCommand.EXIT_NONE, ExpiringCommand.run(
+                new String[] {"--expiring", "1", dir.getPath()},
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(err)));
+
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testUsageErrors() {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(ExpiringCommand.EXIT_ERROR, ExpiringCommand.run(new String[] {"--expiring"}, sink, sink));
+        assertEquals(ExpiringCommand.EXIT_ERROR,
+                ExpiringCommand.run(new String[] {"--expiring", "x", "."}, sink, sink));
+        assertEquals(ExpiringCommand.EXIT_ERROR,
+                ExpiringCommand.run(new String[] {"--expiring", "5", "does-not-exist"}, sink, sink));
+        assertFalse(ExpiringCommand.matches(new String[0]));
+    }
+}
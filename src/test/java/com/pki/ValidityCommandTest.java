@@ -0,0 +1,69 @@
+package com.pki;
+
+import com.pki.io.SkaXmlWriter;
+import com.pki.model.SkaConfig;
+import com.pki.model.SkaSection;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the headless {@link ValidityCommand}.
+ */
+public class ValidityCommandTest {
+
+    private static void validity(SkaSection section, String label, String start, String end) {
+        section.setKeyLabel(label);
+        section.setStartValidity(start);
+        section.setEndValidity(end);
+    }
+
+    @Test
+    public void testListsKeysEndingAcrossFiles() throws Exception {
+        File dir = Files.createTempDirectory("validity-cmd").toFile();
+        SkaConfig a = new SkaConfig();
+        validity(a.getOrganization(), "ORG_A", "2024-01-01", "2026-11-30");
+        validity(a.getSkaPlus(), "PLUS_A", "2024-01-01", "2030-01-01");
+        SkaConfig b = new SkaConfig();
+        validity(b.getSkaModify(), "MODIFY_B", "2020-01-01", "2026-01-31");
+        new SkaXmlWriter().write(a, new File(dir, "a.xml"));
+        new SkaXmlWriter().write(b, new File(dir, "b.xml"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = ValidityCommand.run(new String[] {"--validity", "90", dir.getPath(), "2026-10-16"},
+                new PrintStream(out, true), new PrintStream(err, true));
+
+        String[] lines = out.toString().trim().split("\n");
+        assertEquals(ValidityCommand.EXIT_ENDING, status);
+        assertEquals(3, lines.length);
+        assertEquals("2026-01-31\t-258\tSkaModify\tMODIFY_B\tb.xml", lines[1].trim());
+        assertEquals("2026-11-30\t45\tOrganization\tORG_A\ta.xml", lines[2].trim());
+        assertEquals("", err.toString());
+
+        assertEquals(ValidityCommand.EXIT_NONE, ValidityCommand.run(
+                new String[] {"--validity", "30", new File(dir, "a.xml").getPath(), "2025-01-01"},
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(err)));
+
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testUsageErrors() {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(ValidityCommand.EXIT_ERROR, ValidityCommand.run(new String[] {"--validity"}, sink, sink));
+        assertEquals(ValidityCommand.EXIT_ERROR,
+                ValidityCommand.run(new String[] {"--validity", "x", "."}, sink, sink));
+        assertEquals(ValidityCommand.EXIT_ERROR,
+                ValidityCommand.run(new String[] {"--validity", "5", ".", "16.10.2026"}, sink, sink));
+        assertEquals(ValidityCommand.EXIT_ERROR,
+                ValidityCommand.run(new String[] {"--validity", "5", "does-not-exist"}, sink, sink));
+        assertFalse(ValidityCommand.matches(new String[] {"--expiring"}));
+    }
+}
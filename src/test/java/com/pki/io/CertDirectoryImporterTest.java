@@ -0,0 +1,152 @@
+package com.pki.io;
+
+import com.pki.model.CertificateData;
+import com.pki.model.User;
+import com.pki.model.UserPool;
+import com.pki.util.CertUtils;
+import com.pki.util.TestCertificates;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for importing certificates from a directory ({@link CertDirectoryImporter}).
+ */
+public class CertDirectoryImporterTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static String cert(String cn, long serial, int startDaysAgo) {
+        Date from = new Date(System.currentTimeMillis() - startDaysAgo * DAY);
+        return TestCertificates.selfSigned(cn, BigInteger.valueOf(serial), from, new Date(from.getTime() + 365 * DAY));
+    }
+
+    private static File write(File dir, String name, byte[] content) throws Exception {
+        File f = new File(dir, name);
+        Files.write(f.toPath(), content);
+        f.deleteOnExit();
+        return f;
+    }
+
+    private static File write(File dir, String name, String content) throws Exception {
+        return write(dir, name, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] der(String pem) {
+        return CertificateData.of(pem.strip()).getDer();
+    }
+
+    private static byte[] pkcs7(String... pems) throws Exception {
+        CertificateFactory cf = CertificateFactory.getInstance("X.509");
+        List<X509Certificate> certs = new ArrayList<>();
+        for (String pem : pems) {
+            certs.add((X509Certificate) cf.generateCertificate(new ByteArrayInputStream(pem.getBytes())));
+        }
+        return cf.generateCertPath(certs).getEncoded("PKCS7");
+    }
+
+    private static User user(String cn, String pem) {
+        User u = new User();
+        u.setCn(cn);
+        if (pem != null) u.setCertificate(pem);
+        return u;
+    }
+
+    @Test
+    public void testScanAndMatchPool() throws Exception {
+        File dir = Files.createTempDirectory("cert-dir-test").toFile();
+        dir.deleteOnExit();
+        String alice = cert("Dir Alice", 1, 1);
+        String bobOld = cert("Dir Bob", 2, 100);
+        String bobNew = cert("Dir Bob", 3, 1);
+        String carol = cert("Dir Carol", 4, 1);
+        String daveOld = cert("Dir Dave", 5, 50);
+        String daveNew = cert("Dir Dave", 6, 2);
+
+        write(dir, "alice.pem", alice);
+        write(dir, "bob.crt", der(bobNew));
+        write(dir, "bundle.p7b", pkcs7(carol, TestCertificates.selfSignedCa("Dir Root CA")));
+        write(dir, "dave-new.pem", daveNew);
+        write(dir, "dave-old.cer", daveOld);
+        write(dir, "stranger.pem", cert("Dir Stranger", 7, 1));
+        write(dir, "junk.pem", Base64.getEncoder().encode("junk".getBytes()));
+        write(dir, "notes.txt", "not scanned");
+
+        CertDirectoryImporter.ScanResult scan = new CertDirectoryImporter(2).scan(dir);
+        assertEquals(7, scan.files);
+        assertEquals(1, scan.errors.size());
+        assertTrue(scan.errors.get(0), scan.errors.get(0).startsWith("junk.pem: "));
+        assertEquals(1, scan.caCertificates);
+        assertEquals(6, scan.certificates);
+        assertEquals(List.of("Dir Dave"), scan.superseded);
+        assertEquals(List.of("Dir Alice", "Dir Bob", "Dir Carol", "Dir Dave", "Dir Stranger"),
+                new ArrayList<>(scan.byCn.keySet()));
+        assertEquals("dave-new.pem", scan.byCn.get("Dir Dave").file.getName());
+
+        UserPool pool = new UserPool();
+        User a = user("Dir Alice", alice.strip().replace("\n", "\r\n")); // same certificate, CRLF layout
+        User b = user("Dir Bob", bobOld);
+        User c = user("Dir Carol", null);
+        User d = user("Dir Dave", daveOld);
+        User e = user("Dir Erin", null);
+        pool.addAll(List.of(a, b, c, d, e));
+
+        CertDirectoryImporter.Matches matches = scan.match(pool);
+        assertEquals(1, matches.unchanged);
+        assertEquals(List.of(b, c, d), matches.changed.stream().map(ch -> ch.user).toList());
+        assertEquals(List.of("Dir Stranger"), matches.unmatched.stream().map(f -> f.cn).toList());
+
+        String aliceBefore = a.getCertificate();
+        matches.apply();
+        assertEquals(aliceBefore, a.getCertificate());
+        assertEquals(bobNew.strip(), b.getCertificate());
+        assertEquals(carol.strip(), c.getCertificate());
+        assertEquals(BigInteger.valueOf(6), CertUtils.parseCertificate(d.getCertificate()).getSerialNumber());
+        assertFalse(e.hasCertificate());
+        assertEquals(4, pool.getExpiryIndex().size()); // a, b, c and d hold certificates
+
+        // Matching a plain list (single-file mode) gives the same result
+        CertDirectoryImporter.Matches again = scan.match(new ArrayList<>(pool));
+        assertTrue(again.changed.isEmpty());
+        assertEquals(4, again.unchanged);
+    }
+
+    @Test
+    public void testParallelScanMatchesSequential() throws Exception {
+        File dir = Files.createTempDirectory("cert-dir-test-par").toFile();
+        dir.deleteOnExit();
+        for (int i = 0; i < 80; i++) {
+            write(dir, String.format("user%02d.pem", i), cert("Par User " + (i % 60), 100 + i, i));
+        }
+
+        CertDirectoryImporter.ScanResult seq = new CertDirectoryImporter(1).scan(dir);
+        CertDirectoryImporter.ScanResult par = new CertDirectoryImporter(4).scan(dir);
+        assertEquals(80, par.certificates);
+        assertEquals(60, par.byCn.size());
+        assertEquals(20, par.superseded.size());
+        assertEquals(seq.byCn.keySet(), par.byCn.keySet());
+        for (String cn : seq.byCn.keySet()) {
+            assertEquals(seq.byCn.get(cn).certificate, par.byCn.get(cn).certificate);
+        }
+        // Users 0..19 appear twice; the file with the later notBefore (fewer days ago) wins
+        assertEquals("user00.pem", par.byCn.get("Par User 0").file.getName());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingDirectory() throws Exception {
+        new CertDirectoryImporter().scan(new File("does-not-exist-cert-dir"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.pki.io;
+
+import com.pki.model.User;
+import com.pki.model.UserPool;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for incremental CSV re-imports ({@link CsvImportState}, {@link CsvImporter#hashRows}).
+ */
+public class CsvImportStateTest {
+
+    private static File writeCsv(Path dir, String... lines) throws Exception {
+        File f = dir.resolve("export.csv").toFile();
+        Files.write(f.toPath(), String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+        f.deleteOnExit();
+        return f;
+    }
+
+    private static Path tempDir(String prefix) throws Exception {
+        Path dir = Files.createTempDirectory(prefix);
+        dir.toFile().deleteOnExit();
+        return dir;
+    }
+
+    /** Apply users to the pool the simple way: add new ones, replace the email of known ones. */
+    private static void apply(List<User> users, UserPool pool) {
+        for (User u : users) {
+            User existing = pool.findByCn(u.getCn());
+            if (existing == null) pool.add(u);
+            else existing.setEmail(u.getEmail());
+        }
+    }
+
+    @Test
+    public void testRowHashesFollowRowContent() throws Exception {
+        Path dir = tempDir("csv-hash");
+        CsvImporter importer = new CsvImporter(1);
+        Map<String, Long> first = importer.hashRows(writeCsv(dir,
+                "Key,cn,Email", "EDOC-1,Alice A,a@x", "EDOC-2,Bob B,b@x", "EDOC-3,Alice A,"));
+        assertEquals(Set.of("Alice A", "Bob B"), first.keySet());
+
+        Map<String, Long> same = importer.hashRows(writeCsv(dir,
+                "Key,cn,Email", "EDOC-1,Alice A,a@x", "EDOC-2,Bob B,b@x", "EDOC-3,Alice A,"));
+        assertEquals(first, same);
+
+        // A change in a column that is not imported still counts
+        Map<String, Long> changed = importer.hashRows(writeCsv(dir,
+                "Key,cn,Email", "EDOC-1,Alice A,a@x", "EDOC-9,Bob B,b@x", "EDOC-3,Alice A,"));
+        assertEquals(first.get("Alice A"), changed.get("Alice A"));
+        assertNotEquals(first.get("Bob B"), changed.get("Bob B"));
+
+        // Field boundaries matter
+        assertNotEquals(CsvImporter.rowHash(new String[] {"ab", ""}), CsvImporter.rowHash(new String[] {"a", "b"}));
+    }
+
+    @Test
+    public void testOnlyChangedUsersAreImportedAgain() throws Exception {
+        Path dir = tempDir("csv-state");
+        Path cacheDir = tempDir("csv-state-cache");
+        File workspace = dir.toFile();
+        CsvImporter importer = new CsvImporter(1);
+        UserPool pool = new UserPool();
+
+        // First import: everything is new
+        File csv = writeCsv(dir, "cn,Email", "Alice A,a@x", "Bob B,b@x", "Carol C,c@x");
+        CsvImportState state = new CsvImportState(cacheDir, workspace);
+        Map<String, Long> hashes = importer.hashRows(csv);
+        Set<String> changed = state.changedCns(hashes, CsvImportState.userHashes(pool));
+        assertEquals(3, changed.size());
+        apply(importer.importUsers(csv, changed), pool);
+        state.record(hashes, pool);
+        assertTrue(state.save());
+
+        // Second import: Bob's row changed, Carol was edited in the pool since
+        csv = writeCsv(dir, "cn,Email", "Alice A,a@x", "Bob B,bob@x", "Carol C,c@x", "Dave D,d@x");
+        pool.findByCn("Carol C").setName("Carol");
+        state = new CsvImportState(cacheDir, workspace);
+        assertEquals(3, state.size());
+        hashes = importer.hashRows(csv);
+        changed = state.changedCns(hashes, CsvImportState.userHashes(pool));
+        assertEquals(Set.of("Bob B", "Carol C", "Dave D"), changed);
+
+        List<User> imported = importer.importUsers(csv, changed);
+        assertEquals(3, imported.size());
+        apply(imported, pool);
+        assertEquals("bob@x", pool.findByCn("Bob B").getEmail());
+        state.record(hashes, pool);
+        assertTrue(state.save());
+
+        // Third import of the same export: nothing to do
+        state = new CsvImportState(cacheDir, workspace);
+        assertTrue(state.changedCns(importer.hashRows(csv), CsvImportState.userHashes(pool)).isEmpty());
+        assertTrue(importer.importUsers(csv, Set.of()).isEmpty());
+    }
+
+    @Test
+    public void testCorruptStateMeansNoPreviousImport() throws Exception {
+        Path cacheDir = tempDir("csv-state-bad");
+        File workspace = tempDir("csv-state-ws").toFile();
+        CsvImportState state = new CsvImportState(cacheDir, workspace);
+        Files.write(state.getStateFile(), new byte[] {1, 2, 3});
+        state.getStateFile().toFile().deleteOnExit();
+
+        assertEquals(0, new CsvImportState(cacheDir, workspace).size());
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.Assume;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -80,4 +83,100 @@ public class CsvImporterTest {
         assertTrue(CsvImporter.parseMultiValue("").isEmpty());
         assertTrue(CsvImporter.parseMultiValue(null).isEmpty());
     }
+
+    private static final String PEM =
+            "-----BEGIN CERTIFICATE-----\nQUJD\n-----END CERTIFICATE-----";
+
+    private static File writeCsv(String... lines) throws Exception {
+        File f = File.createTempFile("csv-import", ".csv");
+        f.deleteOnExit();
+        Files.write(f.toPath(), String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    private static File sampleCsv() throws Exception {
+        return writeCsv(
+                "Key,cn,Name,Email,userID,cert,Org Owner",
+                "EDOC-1,Alice A,Alice,,111,,CVCA",
+                "EDOC-2,,Nobody,nobody@example.com,,,",
+                "EDOC-3,Bob B,Bob,bob@example.com,222,\"" + PEM.replace("\n", "\r\n") + "\",",
+                "EDOC-4,Alice A,,alice@example.com,,,DV");
+    }
+
+    @Test
+    public void testImportUsersMergesRowsByCn() throws Exception {
+        List<User> users = new CsvImporter().importUsers(sampleCsv());
+
+        assertEquals(2, users.size());
+        User alice = users.get(0);
+        assertEquals("Alice A", alice.getCn());
+        assertEquals("alice@example.com", alice.getEmail());
+        assertEquals("111", alice.getUserId());
+        assertEquals(Set.of("CVCA", "DV"), alice.getOrgOwnerOf());
+        assertEquals(PEM, users.get(1).getCertificate());
+    }
+
+    @Test
+    public void testForEachUserPassesOneUserPerRow() throws Exception {
+        List<String> cns = new ArrayList<>();
+        int count = new CsvImporter().forEachUser(sampleCsv(), cn -> true, u -> cns.add(u.getCn()));
+
+        assertEquals(3, count);
+        assertEquals(List.of("Alice A", "Bob B", "Alice A"), cns);
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void testEmptyFileIsRejected() throws Exception {
+        new CsvImporter().importUsers(writeCsv(""));
+    }
+
+    @Test
+    public void testCleanCertificateSinglePassEdgeCases() {
+        // CRLF line endings, &nbsp; and NBSP inside the block, text around it
+        String raw = "see below:\r\n------BEGIN CERTIFICATE-----\r\nAB&nbsp;C\u00A0\r\n"
+                + "-----END CERTIFICATE-----\r\ntrailer";
+        assertEquals("-----BEGIN CERTIFICATE-----\nABC\n-----END CERTIFICATE-----",
+                CsvImporter.cleanCertificate(raw));
+        // An END marker before the BEGIN marker is ignored
+        assertEquals("-----BEGIN CERTIFICATE-----\nX\n-----END CERTIFICATE-----",
+                CsvImporter.cleanCertificate("-----END CERTIFICATE-----\n"
+                        + "-----BEGIN CERTIFICATE-----\nX\n-----END CERTIFICATE-----"));
+        // No END marker
+        assertEquals("", CsvImporter.cleanCertificate("-----BEGIN CERTIFICATE-----\nABC"));
+    }
+
+    @Test
+    public void testCertificateFoundInOtherColumn() throws Exception {
+        File csv = writeCsv(
+                "cn,cert,Comment",
+                "Carol C,,\"note&nbsp;" + PEM + "\"");
+        List<User> users = new CsvImporter(1).importUsers(csv);
+        assertEquals(PEM, users.get(0).getCertificate());
+    }
+
+    @Test
+    public void testParallelImportKeepsRowOrder() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("cn,Name,Email,Org Op");
+        for (int i = 0; i < 5000; i++) {
+            int id = i % 1700; // repeated CNs, merged in row order
+            lines.add("User " + id + ",Name " + i + ",," + "Op" + (i % 7));
+        }
+        File csv = writeCsv(lines.toArray(new String[0]));
+
+        List<String> sequential = new ArrayList<>();
+        new CsvImporter(1).forEachUser(csv, cn -> true, u -> sequential.add(u.getCn() + "/" + u.getName()));
+        List<String> parallel = new ArrayList<>();
+        new CsvImporter(4).forEachUser(csv, cn -> true, u -> parallel.add(u.getCn() + "/" + u.getName()));
+        assertEquals(sequential, parallel);
+
+        List<User> a = new CsvImporter(1).importUsers(csv);
+        List<User> b = new CsvImporter(4).importUsers(csv);
+        assertEquals(1700, b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getCn(), b.get(i).getCn());
+            assertEquals(a.get(i).getName(), b.get(i).getName());
+            assertEquals(a.get(i).getOrgOpOf(), b.get(i).getOrgOpOf());
+        }
+    }
 }
@@ -1,13 +1,20 @@
 package com.pki.io;
 
 import com.pki.model.*;
+import com.pki.util.CrlIndex;
+import com.pki.util.TestCertificates;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileReader;
+import java.math.BigInteger;
 import java.nio.file.Files;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -175,4 +182,77 @@ public class ReportGeneratorTest {
         new File(tmpDir, "report_users.csv").delete();
         tmpDir.delete();
     }
+
+    @Test
+    public void testParallelUserReportMatchesSequential() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            User u = new User();
+            u.setCn(String.format("Parallel User %03d", 119 - i));
+            u.setName("User " + i);
+            if (i % 10 == 9) {
+                u.setCertificate("-----BEGIN CERTIFICATE-----\nbroken\n-----END CERTIFICATE-----");
+            } else if (i % 7 != 0) {
+                // Every third certificate is shared, like a role account in several files
+                u.setCertificate(TestCertificates.selfSigned("Cert " + (i % 3 == 0 ? 0 : i), 365));
+            }
+            users.add(u);
+        }
+        List<SkaConfigEntry> entries = List.of(new SkaConfigEntry(new SkaConfig(), new File("p.xml")));
+
+        File seqDir = Files.createTempDirectory("report-test-seq").toFile();
+        File parDir = Files.createTempDirectory("report-test-par").toFile();
+        ReportGenerator.ReportResult seq = new ReportGenerator(1).generate(entries, users, seqDir);
+        ReportGenerator.ReportResult par = new ReportGenerator(4).generate(entries, users, parDir);
+
+        assertEquals(120, par.userRows);
+        String expected = Files.readString(seq.userFile.toPath());
+        assertEquals(expected, Files.readString(par.userFile.toPath()));
+        assertTrue(expected.indexOf("Parallel User 000") < expected.indexOf("Parallel User 119"));
+        assertTrue(expected.contains("CN=Cert 0"));
+        assertTrue(par.certParseMillis >= 0 && par.timingSummary().contains("certificates"));
+
+        for (File dir : List.of(seqDir, parDir)) {
+            new File(dir, "report_memberships.csv").delete();
+            new File(dir, "report_users.csv").delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testRevocationColumn() throws Exception {
+        Date from = new Date(System.currentTimeMillis() - 86_400_000L);
+        Date to = new Date(from.getTime() + 365 * 86_400_000L);
+        List<User> users = new ArrayList<>();
+        String[][] rows = {{"Rev Alice", "Report CA", "1"}, {"Rev Bob", "Report CA", "2"},
+                {"Rev Carol", "Other CA", "1"}, {"Rev Dave", null, null}};
+        for (String[] r : rows) {
+            User u = new User();
+            u.setCn(r[0]);
+            if (r[1] != null) u.setCertificate(TestCertificates.selfSigned(r[1], new BigInteger(r[2]), from, to));
+            users.add(u);
+        }
+        CrlIndex crls = new CrlIndex();
+        crls.add((X509CRL) CertificateFactory.getInstance("X.509").generateCRL(
+                new ByteArrayInputStream(TestCertificates.crl("Report CA", 30, BigInteger.ONE).getBytes())));
+
+        File tmpDir = Files.createTempDirectory("report-test-crl").toFile();
+        ReportGenerator gen = new ReportGenerator(1);
+        ReportGenerator.ReportResult plain = gen.generate(List.of(), users, tmpDir);
+        List<String> lines = Files.readAllLines(plain.userFile.toPath());
+        assertTrue(lines.get(0).endsWith("\"Revocation\""));
+        assertTrue(lines.get(1).endsWith(",\"\""));
+
+        gen.setCrlIndex(crls);
+        ReportGenerator.ReportResult checked = gen.generate(List.of(), users, tmpDir);
+        lines = Files.readAllLines(checked.userFile.toPath());
+        assertTrue(lines.get(1), lines.get(1).startsWith("\"Rev Alice\"") && lines.get(1).endsWith("\"Revoked\""));
+        assertTrue(lines.get(2), lines.get(2).endsWith("\"Not revoked\""));
+        assertTrue(lines.get(3), lines.get(3).endsWith("\"No CRL for issuer\""));
+        assertTrue(lines.get(4), lines.get(4).endsWith(",\"\""));
+
+        new File(tmpDir, "report_memberships.csv").delete();
+        new File(tmpDir, "report_users.csv").delete();
+        tmpDir.delete();
+    }
 }
@@ -0,0 +1,61 @@
+package com.pki.io;
+
+import com.pki.model.User;
+import com.pki.util.CrlIndex;
+import com.pki.util.TestCertificates;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the parallel pool revocation pass ({@link RevocationChecker}).
+ */
+public class RevocationCheckerTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void testParallelCheckMatchesSequential() throws Exception {
+        Date from = new Date(System.currentTimeMillis() - DAY);
+        Date to = new Date(from.getTime() + 365 * DAY);
+        List<User> users = new ArrayList<>();
+        List<BigInteger> revokedSerials = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            User u = new User();
+            u.setCn(String.format("Check User %03d", i));
+            if (i % 10 == 9) {
+                u.setCertificate("-----BEGIN CERTIFICATE-----\nbroken\n-----END CERTIFICATE-----");
+            } else if (i % 11 != 0) {
+                BigInteger serial = BigInteger.valueOf(1000 + i);
+                u.setCertificate(TestCertificates.selfSigned(i % 4 == 0 ? "Unknown CA" : "Check CA",
+                        serial, from, to));
+                if (i % 4 != 0 && i % 5 == 0) revokedSerials.add(serial);
+            }
+            users.add(u);
+        }
+
+        CrlIndex crls = new CrlIndex();
+        crls.add((X509CRL) CertificateFactory.getInstance("X.509").generateCRL(new ByteArrayInputStream(
+                TestCertificates.crl("Check CA", 30, revokedSerials.toArray(new BigInteger[0])).getBytes())));
+
+        RevocationChecker.Result seq = new RevocationChecker(1).check(users, crls);
+        RevocationChecker.Result par = new RevocationChecker(4).check(users, crls);
+
+        assertEquals(revokedSerials.size(), par.revoked.size());
+        assertEquals(seq.revoked, par.revoked);
+        assertEquals(seq.unknown, par.unknown);
+        assertEquals(seq.good, par.good);
+        assertEquals(seq.unchecked, par.unchecked);
+        assertEquals(users.size(), par.revoked.size() + par.unknown.size() + par.good + par.unchecked);
+        assertEquals("Check User 005", par.revoked.get(0).getCn());
+        assertTrue(par.summary().startsWith(revokedSerials.size() + " revoked"));
+    }
+}
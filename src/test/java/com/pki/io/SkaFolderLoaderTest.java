@@ -0,0 +1,96 @@
+package com.pki.io;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SkaFolderLoaderTest {
+
+    private static Path createFolder(int goodFiles, String... brokenNames) throws Exception {
+        Path dir = Files.createTempDirectory("ska_folder_");
+        dir.toFile().deleteOnExit();
+        String xml = Files.readString(Path.of("example/ska.xml"));
+        for (int i = 0; i < goodFiles; i++) {
+            // Distinct module names so order can be checked on the parsed models
+            Path f = dir.resolve(String.format("ska_%03d.xml", i));
+            Files.writeString(f, xml.replace("moduleName=\"proto\"", "moduleName=\"m" + i + "\""));
+            f.toFile().deleteOnExit();
+        }
+        for (String name : brokenNames) {
+            Path f = dir.resolve(name);
+            Files.writeString(f, "<skaconfig><users></skaconfig>");
+            f.toFile().deleteOnExit();
+        }
+        Path txt = dir.resolve("notes.txt");
+        Files.writeString(txt, "not xml");
+        txt.toFile().deleteOnExit();
+        return dir;
+    }
+
+    @Test
+    public void testListXmlFilesSortedAndFiltered() throws Exception {
+        Path dir = createFolder(3, "A_BROKEN.XML");
+        List<File> files = SkaFolderLoader.listXmlFiles(dir.toFile());
+        assertEquals(4, files.size());
+        assertEquals("A_BROKEN.XML", files.get(0).getName());
+        assertEquals("ska_000.xml", files.get(1).getName());
+        assertEquals("ska_002.xml", files.get(3).getName());
+    }
+
+    @Test
+    public void testParallelLoadKeepsInputOrderAndCollectsErrors() throws Exception {
+        Path dir = createFolder(20, "ska_005b.xml", "zz_broken.xml");
+        List<File> files = SkaFolderLoader.listXmlFiles(dir.toFile());
+        AtomicInteger progressCalls = new AtomicInteger();
+
+        SkaFolderLoader.LoadResult result = new SkaFolderLoader(4)
+                .load(files, (done, total, file) -> {
+                    assertEquals(22, total);
+                    progressCalls.incrementAndGet();
+                });
+
+        assertFalse(result.cancelled);
+        assertEquals(22, progressCalls.get());
+        assertEquals(20, result.loaded.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Results must follow sorted filename order",
+                    "m" + i, result.loaded.get(i).config.getModuleName());
+            assertEquals(String.format("ska_%03d.xml", i), result.loaded.get(i).file.getName());
+        }
+        List<String> errorNames = new ArrayList<>();
+        result.errors.keySet().forEach(f -> errorNames.add(f.getName()));
+        assertEquals(List.of("ska_005b.xml", "zz_broken.xml"), errorNames);
+        assertFalse(result.errors.get(files.get(files.size() - 1)).isEmpty());
+    }
+
+    @Test
+    public void testCancelSkipsRemainingFiles() throws Exception {
+        Path dir = createFolder(10);
+        List<File> files = SkaFolderLoader.listXmlFiles(dir.toFile());
+        SkaFolderLoader loader = new SkaFolderLoader(1);
+
+        SkaFolderLoader.LoadResult result = loader.load(files, (done, total, file) -> {
+            if (done == 3) loader.cancel();
+        });
+
+        assertTrue(result.cancelled);
+        assertEquals(3, result.loaded.size());
+        assertTrue(result.errors.isEmpty());
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        SkaFolderLoader.LoadResult result = new SkaFolderLoader().load(Collections.emptyList(), null);
+        assertTrue(result.loaded.isEmpty());
+        assertTrue(result.errors.isEmpty());
+        assertFalse(result.cancelled);
+    }
+}
@@ -0,0 +1,116 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SkaFolderSaverTest {
+
+    private static Path tempDir() throws Exception {
+        Path dir = Files.createTempDirectory("ska_save_");
+        dir.toFile().deleteOnExit();
+        return dir;
+    }
+
+    private static List<String> leftoverTempFiles(Path dir) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (var stream = Files.list(dir)) {
+            stream.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".tmp")).forEach(names::add);
+        }
+        return names;
+    }
+
+    @Test
+    public void testAtomicWriteReplacesFileWithoutLeftovers() throws Exception {
+        Path dir = tempDir();
+        File file = dir.resolve("ska.xml").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "old content");
+
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        new SkaXmlWriter().write(config, file);
+
+        assertEquals("proto", new SkaXmlReader().read(file).getModuleName());
+        assertTrue(leftoverTempFiles(dir).isEmpty());
+    }
+
+    @Test
+    public void testFailedWriteKeepsPreviousFile() throws Exception {
+        Path dir = tempDir();
+        File file = dir.resolve("ska.xml").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "old content");
+
+        SkaConfig broken = new SkaXmlReader().read(new File("example/ska.xml"));
+        broken.setKeysProto(null); // makes serialization fail midway
+        try {
+            new SkaXmlWriter().write(broken, file);
+            fail("Expected the write to fail");
+        } catch (Exception expected) {
+            // expected
+        }
+        assertEquals("old content", Files.readString(file.toPath()));
+        assertTrue(leftoverTempFiles(dir).isEmpty());
+    }
+
+    @Test
+    public void testParallelSaveCollectsResultsInOrder() throws Exception {
+        Path dir = tempDir();
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        List<SkaFolderSaver.SaveJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            File f = dir.resolve(String.format("ska_%02d.xml", i)).toFile();
+            f.deleteOnExit();
+            jobs.add(new SkaFolderSaver.SaveJob(config, f));
+        }
+        File missingDir = dir.resolve("missing").resolve("ska.xml").toFile();
+        jobs.add(5, new SkaFolderSaver.SaveJob(config, missingDir));
+        AtomicInteger progress = new AtomicInteger();
+
+        SkaFolderSaver.SaveResult result = new SkaFolderSaver(4)
+                .save(jobs, (done, total, file) -> progress.incrementAndGet());
+
+        assertFalse(result.cancelled);
+        assertEquals(13, progress.get());
+        assertEquals(12, result.saved.size());
+        assertEquals("ska_00.xml", result.saved.get(0).getName());
+        assertEquals("ska_11.xml", result.saved.get(11).getName());
+        assertEquals(1, result.errors.size());
+        assertTrue(result.errors.containsKey(missingDir));
+
+        byte[] expected = Files.readAllBytes(result.saved.get(0).toPath());
+        for (File f : result.saved) {
+            assertArrayEquals(expected, Files.readAllBytes(f.toPath()));
+        }
+        assertTrue(leftoverTempFiles(dir).isEmpty());
+    }
+
+    @Test
+    public void testCancelledSaveLeavesRemainingFilesUntouched() throws Exception {
+        Path dir = tempDir();
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        List<SkaFolderSaver.SaveJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            File f = dir.resolve("ska_" + i + ".xml").toFile();
+            f.deleteOnExit();
+            Files.writeString(f.toPath(), "old");
+            jobs.add(new SkaFolderSaver.SaveJob(config, f));
+        }
+        SkaFolderSaver saver = new SkaFolderSaver(1);
+        SkaFolderSaver.SaveResult result = saver.save(jobs, (done, total, file) -> saver.cancel());
+
+        assertTrue(result.cancelled);
+        assertEquals(1, result.saved.size());
+        for (int i = 1; i < 10; i++) {
+            assertEquals("old", Files.readString(jobs.get(i).file.toPath()));
+        }
+    }
+}
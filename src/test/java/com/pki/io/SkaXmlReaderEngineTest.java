@@ -0,0 +1,233 @@
+package com.pki.io;
+
+import com.pki.model.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that the DOM and StAX engines of {@link SkaXmlReader} produce
+ * identical models, including on unusual but well-formed input.
+ */
+public class SkaXmlReaderEngineTest {
+
+    @Test
+    public void testEnginesAgreeOnExample() throws Exception {
+        File xmlFile = new File("example/ska.xml");
+        assertTrue("Example XML must exist", xmlFile.exists());
+        assertEnginesAgree(xmlFile);
+    }
+
+    @Test
+    public void testEnginesAgreeAfterRoundTrip() throws Exception {
+        SkaConfig config = new SkaXmlReader(SkaXmlReader.Engine.DOM).read(new File("example/ska.xml"));
+        File tmp = File.createTempFile("ska_engine_", ".xml");
+        tmp.deleteOnExit();
+        new SkaXmlWriter().write(config, tmp);
+        assertEnginesAgree(tmp);
+    }
+
+    @Test
+    public void testEnginesAgreeOnEdgeCases() throws Exception {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <!-- leading comment -->
+                <skaconfig xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" moduleName="m &amp; n" version="x">
+                    <organization keyLabel="ORG" blockedOnInitialize="TRUE" startValidity="2024-01-01">
+                        <unknown><ecParameters curveName="ignored"/></unknown>
+                        <ecParameters curveName="secp256r1">  text <!-- c --> more <![CDATA[ <raw> ]]>  </ecParameters>
+                        <ecParameters curveName="second"/>
+                        <operations>
+                            <use delayMillis="abc" timeLimitMillis="42">
+                                <boundary>
+                                    <group quorum="2" name="G1">
+                                        <members>
+                                            <membercn> A </membercn>
+                                            <wrapper><membercn>Nested</membercn></wrapper>
+                                        </members>
+                                        <members><membercn>Ignored</membercn></members>
+                                        <keys><keylabel>K1</keylabel></keys>
+                                    </group>
+                                    <notagroup/>
+                                    <group/>
+                                </boundary>
+                                <boundary/>
+                            </use>
+                            <use delayMillis="99"/>
+                            <unblock delayMillis="7"/>
+                        </operations>
+                    </organization>
+                    <organization keyLabel="SECOND"/>
+                    <skamodify/>
+                    <keys>
+                        <personalization useKek="true" kekLabel="KEK">
+                            <ecParameters curveName="p">PEM</ecParameters>
+                            <operations><block/></operations>
+                        </personalization>
+                        <proto/>
+                    </keys>
+                    <users>
+                        <user cn="Z" email="z@x" userId="1"><cert><![CDATA[
+                CERT]]></cert><cert>second</cert></user>
+                        <user cn="A"/>
+                        <other cn="B"/>
+                    </users>
+                    <users><user cn="late"/></users>
+                </skaconfig>
+                """;
+        assertEnginesAgree(write(xml));
+    }
+
+    @Test
+    public void testEnginesAgreeOnProtoBeforePersonalization() throws Exception {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <skaconfig moduleName="m" version="3" xsi:noNamespaceSchemaLocation="s.xsd"
+                           xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+                    <keys>
+                        <myproto><ecParameters curveName="a">A</ecParameters></myproto>
+                        <personalization useKek="false"><ecParameters curveName="b">B</ecParameters></personalization>
+                    </keys>
+                </skaconfig>
+                """;
+        assertEnginesAgree(write(xml));
+        SkaConfig config = new SkaXmlReader(SkaXmlReader.Engine.STAX).read(write(xml));
+        assertEquals("myproto", config.getKeysProto().getChildName());
+        assertEquals("B", config.getPersonalization().getEcParameters().getPemText());
+        assertEquals("s.xsd", config.getXsiNoNamespaceSchemaLocation());
+    }
+
+    @Test
+    public void testBothEnginesRejectDoctype() throws Exception {
+        File tmp = write("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <!DOCTYPE skaconfig [ <!ENTITY xxe SYSTEM "file:///etc/passwd"> ]>
+                <skaconfig moduleName="&xxe;"/>
+                """);
+        for (SkaXmlReader.Engine engine : SkaXmlReader.Engine.values()) {
+            try {
+                new SkaXmlReader(engine).read(tmp);
+                fail(engine + " engine must reject DOCTYPE");
+            } catch (Exception expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testBothEnginesRejectMalformedXml() throws Exception {
+        File tmp = write("<skaconfig><users></skaconfig>");
+        for (SkaXmlReader.Engine engine : SkaXmlReader.Engine.values()) {
+            try {
+                new SkaXmlReader(engine).read(tmp);
+                fail(engine + " engine must reject malformed XML");
+            } catch (Exception expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultEngineFromSystemProperty() {
+        String old = System.getProperty(SkaXmlReader.ENGINE_PROPERTY);
+        try {
+            System.clearProperty(SkaXmlReader.ENGINE_PROPERTY);
+            assertEquals(SkaXmlReader.Engine.STAX, new SkaXmlReader().getEngine());
+            System.setProperty(SkaXmlReader.ENGINE_PROPERTY, "DOM");
+            assertEquals(SkaXmlReader.Engine.DOM, new SkaXmlReader().getEngine());
+            System.setProperty(SkaXmlReader.ENGINE_PROPERTY, "bogus");
+            assertEquals(SkaXmlReader.Engine.STAX, new SkaXmlReader().getEngine());
+        } finally {
+            if (old == null) System.clearProperty(SkaXmlReader.ENGINE_PROPERTY);
+            else System.setProperty(SkaXmlReader.ENGINE_PROPERTY, old);
+        }
+    }
+
+    // --- helpers ---
+
+    private static File write(String xml) throws Exception {
+        File tmp = File.createTempFile("ska_engine_", ".xml");
+        tmp.deleteOnExit();
+        Files.writeString(tmp.toPath(), xml.stripLeading(), StandardCharsets.UTF_8);
+        return tmp;
+    }
+
+    private static void assertEnginesAgree(File file) throws Exception {
+        String dom = dump(new SkaXmlReader(SkaXmlReader.Engine.DOM).read(file));
+        String stax = dump(new SkaXmlReader(SkaXmlReader.Engine.STAX).read(file));
+        assertEquals("DOM and StAX engines must produce identical models", dom, stax);
+    }
+
+    /** Renders every field the reader populates into a comparable string. */
+    private static String dump(SkaConfig c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("module=").append(c.getModuleName())
+          .append(" version=").append(c.getVersion())
+          .append(" xsi=").append(c.getXsiNoNamespaceSchemaLocation()).append('\n');
+        dumpSection(sb, "organization", c.getOrganization());
+        dumpSection(sb, "skaplus", c.getSkaPlus());
+        dumpSection(sb, "skamodify", c.getSkaModify());
+
+        KeysProto kp = c.getKeysProto();
+        sb.append("keysProto child=").append(kp.getChildName()).append('\n');
+        dumpEc(sb, kp.getEcParameters());
+        dumpOperations(sb, kp.getOperations());
+
+        Personalization p = c.getPersonalization();
+        sb.append("perso enabled=").append(p.isEnabled())
+          .append(" useKek=").append(p.isUseKek())
+          .append(" kek=").append(p.getKekLabel()).append('\n');
+        dumpEc(sb, p.getEcParameters());
+
+        for (User u : c.getUsers()) {
+            sb.append("user cn=").append(u.getCn())
+              .append(" email=").append(u.getEmail())
+              .append(" userId=").append(u.getUserId())
+              .append(" name=").append(u.getName())
+              .append(" org=").append(u.getOrganisation())
+              .append(" cert=[").append(u.getCertificate()).append("]\n");
+        }
+        return sb.toString();
+    }
+
+    private static void dumpSection(StringBuilder sb, String label, SkaSection s) {
+        sb.append(label)
+          .append(" blocked=").append(s.isBlockedOnInitialize())
+          .append(" keyLabel=").append(s.getKeyLabel())
+          .append(" start=").append(s.getStartValidity())
+          .append(" end=").append(s.getEndValidity()).append('\n');
+        dumpEc(sb, s.getEcParameters());
+        dumpOperations(sb, s.getOperations());
+    }
+
+    private static void dumpEc(StringBuilder sb, EcParameters ec) {
+        sb.append("  ec curve=").append(ec.getCurveName())
+          .append(" pem=[").append(ec.getPemText()).append("]\n");
+    }
+
+    private static void dumpOperations(StringBuilder sb, Operations ops) {
+        dumpOperation(sb, "use", ops.getUse());
+        dumpOperation(sb, "modify", ops.getModify());
+        dumpOperation(sb, "block", ops.getBlock());
+        dumpOperation(sb, "unblock", ops.getUnblock());
+    }
+
+    private static void dumpOperation(StringBuilder sb, String label, Operation op) {
+        sb.append("  ").append(label)
+          .append(" delay=").append(op.getDelayMillis())
+          .append(" limit=").append(op.getTimeLimitMillis()).append('\n');
+        for (Boundary b : op.getBoundaries()) {
+            sb.append("    boundary\n");
+            for (Group g : b.getGroups()) {
+                sb.append("      group name=").append(g.getName())
+                  .append(" quorum=").append(g.getQuorum())
+                  .append(" members=").append(g.getMemberCns())
+                  .append(" keys=").append(g.getKeyLabels()).append('\n');
+            }
+        }
+    }
+}
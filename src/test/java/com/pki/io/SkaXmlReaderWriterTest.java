@@ -137,4 +137,27 @@ public class SkaXmlReaderWriterTest {
             assertEquals(origUser.getCertificate().trim(), rtUser.getCertificate().trim());
         }
     }
+
+    @Test
+    public void testContentHashIgnoresVersionAndListOrder() throws Exception {
+        SkaXmlReader reader = new SkaXmlReader();
+        SkaConfig a = reader.read(new File("example/ska.xml"));
+        SkaConfig b = reader.read(new File("example/ska.xml"));
+        byte[] base = SkaXmlWriter.contentHash(a);
+        assertArrayEquals(base, SkaXmlWriter.contentHash(b));
+
+        // Version bumps and user order do not change the written content
+        b.setVersion(b.getVersion() + 5);
+        java.util.Collections.reverse(b.getUsers());
+        assertArrayEquals(base, SkaXmlWriter.contentHash(b));
+
+        // Any structural change does
+        b.getOrganization().getOperations().getUse().getBoundaries().get(0)
+                .getGroups().get(0).setQuorum(99);
+        assertFalse(java.util.Arrays.equals(base, SkaXmlWriter.contentHash(b)));
+
+        SkaConfig c = reader.read(new File("example/ska.xml"));
+        c.getUsers().get(0).setEmail("changed@example.com");
+        assertFalse(java.util.Arrays.equals(base, SkaXmlWriter.contentHash(c)));
+    }
 }
@@ -0,0 +1,157 @@
+package com.pki.io;
+
+import com.pki.model.*;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the streaming {@link SkaXmlWriter} is byte-for-byte identical
+ * to the original DOM + Transformer implementation ({@link DomSkaXmlWriter}).
+ */
+public class SkaXmlWriterStreamingTest {
+
+    @Test
+    public void testExampleRoundTripIsByteIdentical() throws Exception {
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        assertSameBytes(config);
+    }
+
+    @Test
+    public void testIntegrationEnvironmentAndUnsortedLists() throws Exception {
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        config.setIntegrationEnvironment(true);
+        config.getUsers().get(0).setUserIdIntegration("INT-1");
+        Collections.reverse(config.getUsers());
+        Group owners = config.getOrganization().getOperations().getUse()
+                .getBoundaries().get(0).getGroups().get(0);
+        Collections.reverse(owners.getMemberCns());
+        List<String> before = new ArrayList<>(owners.getMemberCns());
+
+        assertSameBytes(config);
+        assertEquals("Writer must not reorder the model", before, owners.getMemberCns());
+    }
+
+    @Test
+    public void testMinimalConfigurations() throws Exception {
+        SkaConfig empty = new SkaConfig();
+        assertSameBytes(empty);
+
+        SkaConfig persoOnly = new SkaConfig();
+        persoOnly.getPersonalization().setEnabled(true);
+        persoOnly.getPersonalization().setKekLabel("KEK");
+        persoOnly.setXsiNoNamespaceSchemaLocation("skaconfig.xsd");
+        assertSameBytes(persoOnly);
+
+        SkaConfig protoOnly = new SkaConfig();
+        protoOnly.getKeysProto().setChildName("proto");
+        protoOnly.getKeysProto().getEcParameters().setCurveName("secp256r1");
+        assertSameBytes(protoOnly);
+    }
+
+    @Test
+    public void testEscapingMatchesTransformer() throws Exception {
+        String[] samples = {
+                "", " ", "a & b", "<tag>", "\"quoted\" 'single'", "tab\there", "line\nbreak",
+                "cr\rlf\r\n", "]]>", "x]]>y]]>", "]]]>", "\u007F\u0080\u009F\u00A0", "caf\u00E9",
+                "\u2028\uFEFF\uFFFD", "emoji \uD83D\uDE00", "  leading and trailing  "
+        };
+        for (String s : samples) {
+            assertSameBytes(configWith(s));
+        }
+    }
+
+    @Test
+    public void testRandomContentMatchesTransformer() throws Exception {
+        char[] alphabet = "aZ09 &<>\"'\t\n\r]>\u007F\u0085\u00A0\u00E9\u2028\uFEFF".toCharArray();
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(12);
+            for (int i = 0; i < len; i++) {
+                if (random.nextInt(20) == 0) {
+                    sb.append("\uD83D\uDE00");
+                } else {
+                    sb.append(alphabet[random.nextInt(alphabet.length)]);
+                }
+            }
+            assertSameBytes(configWith(sb.toString()));
+        }
+    }
+
+    @Test(expected = Exception.class)
+    public void testInvalidCharacterIsRejected() throws Exception {
+        new SkaXmlWriter().write(configWith("bell\u0007"), new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testStreamIsNotClosed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("Caller's stream must stay open");
+            }
+        };
+        new SkaXmlWriter().write(new SkaConfig(), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("</skaconfig>" + System.lineSeparator()));
+    }
+
+    // --- helpers ---
+
+    /** Puts the sample into every kind of output position: attribute, text, CDATA. */
+    private static SkaConfig configWith(String s) {
+        SkaConfig config = new SkaConfig();
+        config.setModuleName(s);
+        config.setXsiNoNamespaceSchemaLocation(s);
+        SkaSection org = config.getOrganization();
+        org.setKeyLabel(s);
+        org.getEcParameters().setCurveName(s);
+        org.getEcParameters().setPemText(s);
+
+        Group group = new Group();
+        group.setName(s);
+        group.setMemberCns(new ArrayList<>(Arrays.asList(s, "b", "a")));
+        group.setKeyLabels(new ArrayList<>(Arrays.asList(s, "")));
+        Boundary boundary = new Boundary();
+        boundary.getGroups().add(group);
+        org.getOperations().getUse().getBoundaries().add(boundary);
+        org.getOperations().getBlock().getBoundaries().add(new Boundary());
+
+        config.getKeysProto().setChildName("proto");
+        config.getPersonalization().setEnabled(true);
+        config.getPersonalization().setKekLabel(s);
+
+        User user = new User();
+        user.setCn("cn " + s);
+        user.setName(s);
+        user.setCertificate(s);
+        User noCert = new User();
+        noCert.setCn("a");
+        config.getUsers().add(user);
+        config.getUsers().add(noCert);
+        return config;
+    }
+
+    private static void assertSameBytes(SkaConfig config) throws Exception {
+        File expected = File.createTempFile("ska_dom_", ".xml");
+        File actual = File.createTempFile("ska_stream_", ".xml");
+        expected.deleteOnExit();
+        actual.deleteOnExit();
+        new DomSkaXmlWriter().write(config, expected);
+        new SkaXmlWriter().write(config, actual);
+        String want = Files.readString(expected.toPath(), StandardCharsets.UTF_8);
+        String got = Files.readString(actual.toPath(), StandardCharsets.UTF_8);
+        assertEquals(want, got);
+        assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+}
@@ -0,0 +1,170 @@
+package com.pki.io;
+
+import com.pki.model.SkaConfig;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WorkspaceCacheTest {
+
+    private static Path createFolder(int files) throws Exception {
+        Path dir = Files.createTempDirectory("ska_cache_ws_");
+        dir.toFile().deleteOnExit();
+        String xml = Files.readString(Path.of("example/ska.xml"));
+        for (int i = 0; i < files; i++) {
+            Path f = dir.resolve("ska_" + i + ".xml");
+            Files.writeString(f, xml);
+            f.toFile().deleteOnExit();
+        }
+        return dir;
+    }
+
+    private static Path cacheDir() throws Exception {
+        Path dir = Files.createTempDirectory("ska_cache_");
+        dir.toFile().deleteOnExit();
+        return dir;
+    }
+
+    /** Serialized form used to compare models independent of object identity. */
+    private static String xmlOf(SkaConfig config) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SkaXmlWriter().write(config, out);
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    public void testCodecRoundTrip() throws Exception {
+        SkaConfig config = new SkaXmlReader().read(new File("example/ska.xml"));
+        config.getUsers().get(0).getOrgOwnerOf().add("CVCA PP (Prod)");
+        config.getUsers().get(1).setName(null);
+        SkaConfig decoded = SkaConfigCodec.decode(SkaConfigCodec.encode(config));
+        assertEquals(xmlOf(config).replace("name=\"\"", ""), xmlOf(decoded).replace("name=\"\"", ""));
+        assertEquals(config.getUsers().get(0).getOrgOwnerOf(), decoded.getUsers().get(0).getOrgOwnerOf());
+        assertNull(decoded.getUsers().get(1).getName());
+    }
+
+    @Test
+    public void testSecondOpenIsServedFromCache() throws Exception {
+        Path folder = createFolder(5);
+        Path cacheDir = cacheDir();
+        List<File> files = SkaFolderLoader.listXmlFiles(folder.toFile());
+
+        SkaFolderLoader first = new SkaFolderLoader(2);
+        first.setCache(new WorkspaceCache(cacheDir, folder.toFile()));
+        SkaFolderLoader.LoadResult r1 = first.load(files, null);
+        assertEquals(0, r1.cacheHits);
+        assertTrue("Cache file must be written",
+                Files.exists(new WorkspaceCache(cacheDir, folder.toFile()).getCacheFile()));
+
+        SkaFolderLoader second = new SkaFolderLoader(2);
+        second.setCache(new WorkspaceCache(cacheDir, folder.toFile()));
+        SkaFolderLoader.LoadResult r2 = second.load(files, null);
+        assertEquals(5, r2.cacheHits);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(xmlOf(r1.loaded.get(i).config), xmlOf(r2.loaded.get(i).config));
+        }
+    }
+
+    @Test
+    public void testContentHashIsKeptInTheCache() throws Exception {
+        Path folder = createFolder(2);
+        Path cacheDir = cacheDir();
+        List<File> files = SkaFolderLoader.listXmlFiles(folder.toFile());
+
+        SkaFolderLoader first = new SkaFolderLoader(2);
+        first.setCache(new WorkspaceCache(cacheDir, folder.toFile()));
+        SkaFolderLoader.LoadResult r1 = first.load(files, null);
+        byte[] expected = SkaXmlWriter.contentHash(new SkaXmlReader().read(files.get(0)));
+        assertArrayEquals(expected, r1.loaded.get(0).contentHash);
+
+        // Served from the cache: the stored hash is reused, even after the model is edited
+        SkaFolderLoader second = new SkaFolderLoader(2);
+        WorkspaceCache cache = new WorkspaceCache(cacheDir, folder.toFile());
+        second.setCache(cache);
+        SkaFolderLoader.LoadResult r2 = second.load(files, null);
+        assertEquals(2, r2.cacheHits);
+        assertArrayEquals(expected, r2.loaded.get(0).contentHash);
+        r2.loaded.get(0).config.setModuleName("edited");
+        assertArrayEquals(expected, cache.getContentHash(files.get(0)));
+
+        assertNull(new SkaFolderLoader(1).load(files, null).loaded.get(0).contentHash);
+    }
+
+    @Test
+    public void testChangedFileIsReparsed() throws Exception {
+        Path folder = createFolder(3);
+        Path cacheDir = cacheDir();
+        WorkspaceCache cache = new WorkspaceCache(cacheDir, folder.toFile());
+        SkaXmlReader reader = new SkaXmlReader();
+        for (File f : SkaFolderLoader.listXmlFiles(folder.toFile())) cache.load(f, reader);
+        assertTrue(cache.save());
+
+        // Content change that alters the file size
+        Path changed = folder.resolve("ska_1.xml");
+        Files.writeString(changed, Files.readString(changed).replace("moduleName=\"proto\"", "moduleName=\"changed\""));
+
+        WorkspaceCache reopened = new WorkspaceCache(cacheDir, folder.toFile());
+        SkaConfig c0 = reopened.load(folder.resolve("ska_0.xml").toFile(), reader);
+        SkaConfig c1 = reopened.load(changed.toFile(), reader);
+        assertEquals("proto", c0.getModuleName());
+        assertEquals("changed", c1.getModuleName());
+        assertEquals(1, reopened.getHits());
+        assertEquals(1, reopened.getMisses());
+    }
+
+    @Test
+    public void testTouchedButUnchangedFileIsAHit() throws Exception {
+        Path folder = createFolder(1);
+        Path cacheDir = cacheDir();
+        File file = folder.resolve("ska_0.xml").toFile();
+        WorkspaceCache cache = new WorkspaceCache(cacheDir, folder.toFile());
+        cache.load(file, new SkaXmlReader());
+        cache.save();
+
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 60_000));
+        WorkspaceCache reopened = new WorkspaceCache(cacheDir, folder.toFile());
+        reopened.load(file, new SkaXmlReader());
+        assertEquals("Same content hash must be a hit", 1, reopened.getHits());
+    }
+
+    @Test
+    public void testSameSizeEditWithNewMtimeIsReparsed() throws Exception {
+        Path folder = createFolder(1);
+        Path cacheDir = cacheDir();
+        File file = folder.resolve("ska_0.xml").toFile();
+        WorkspaceCache cache = new WorkspaceCache(cacheDir, folder.toFile());
+        cache.load(file, new SkaXmlReader());
+        cache.save();
+
+        // Same length edit with a different mtime: the hash must catch it
+        long mtime = file.lastModified();
+        Files.writeString(file.toPath(), Files.readString(file.toPath()).replace("proto\"", "PROTO\""));
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(mtime + 2000));
+        WorkspaceCache reopened = new WorkspaceCache(cacheDir, folder.toFile());
+        assertEquals("PROTO", reopened.load(file, new SkaXmlReader()).getModuleName());
+        assertEquals(0, reopened.getHits());
+    }
+
+    @Test
+    public void testCorruptCacheIsIgnored() throws Exception {
+        Path folder = createFolder(1);
+        Path cacheDir = cacheDir();
+        WorkspaceCache cache = new WorkspaceCache(cacheDir, folder.toFile());
+        Files.write(cache.getCacheFile(), ByteBuffer.allocate(12)
+                .putInt(0x534B4143).putInt(SkaConfigCodec.FORMAT_VERSION).putInt(0x7F000000).array());
+
+        WorkspaceCache reopened = new WorkspaceCache(cacheDir, folder.toFile());
+        SkaConfig config = reopened.load(folder.resolve("ska_0.xml").toFile(), new SkaXmlReader());
+        assertEquals("proto", config.getModuleName());
+        assertEquals(1, reopened.getMisses());
+        assertTrue(reopened.save());
+    }
+}
@@ -0,0 +1,74 @@
+package com.pki.io;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WorkspaceWatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Test
+    public void testReportsChangedAndDeletedXmlFiles() throws Exception {
+        Path dir = Files.createTempDirectory("ska_watch_");
+        dir.toFile().deleteOnExit();
+        String xml = Files.readString(Path.of("example/ska.xml"));
+        BlockingQueue<List<WorkspaceWatcher.FileChange>> batches = new LinkedBlockingQueue<>();
+
+        WorkspaceWatcher watcher = new WorkspaceWatcher(dir.toFile(), batches::add, 100);
+        try {
+            Path file = dir.resolve("ska_new.xml");
+            Files.writeString(dir.resolve("ignored.tmp"), "not xml");
+            Files.writeString(file, xml);
+
+            List<WorkspaceWatcher.FileChange> changed = batches.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("Expected a change batch", changed);
+            assertEquals(1, changed.size());
+            assertEquals(WorkspaceWatcher.Kind.CHANGED, changed.get(0).kind);
+            assertEquals("ska_new.xml", changed.get(0).file.getName());
+            assertEquals("proto", changed.get(0).config.getModuleName());
+            assertArrayEquals(SkaXmlWriter.contentHash(changed.get(0).config), changed.get(0).contentHash);
+
+            Files.delete(file);
+            List<WorkspaceWatcher.FileChange> deleted = batches.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("Expected a delete batch", deleted);
+            assertEquals(WorkspaceWatcher.Kind.DELETED, deleted.get(0).kind);
+        } finally {
+            watcher.close();
+            Files.deleteIfExists(dir.resolve("ignored.tmp"));
+        }
+    }
+
+    @Test
+    public void testOwnWritesAreNotReported() throws Exception {
+        Path dir = Files.createTempDirectory("ska_watch_");
+        dir.toFile().deleteOnExit();
+        String xml = Files.readString(Path.of("example/ska.xml"));
+        BlockingQueue<List<WorkspaceWatcher.FileChange>> batches = new LinkedBlockingQueue<>();
+
+        try (WorkspaceWatcher watcher = new WorkspaceWatcher(dir.toFile(), batches::add, 100)) {
+            Path own = dir.resolve("own.xml");
+            Files.writeString(own, xml);
+            watcher.markOwnWrite(own.toFile());
+            // A later external file acts as a marker that the own write was skipped
+            Path external = dir.resolve("zz_external.xml");
+            Files.writeString(external, xml.replace("moduleName=\"proto\"", "moduleName=\"ext\""));
+
+            List<WorkspaceWatcher.FileChange> batch = batches.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("Expected a change batch", batch);
+            for (WorkspaceWatcher.FileChange c : batch) {
+                assertNotEquals("Own write must be suppressed", "own.xml", c.file.getName());
+            }
+            assertEquals("ext", batch.get(batch.size() - 1).config.getModuleName());
+            Files.delete(own);
+            Files.delete(external);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pki.model;
+
+import com.pki.util.TestCertificates;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CertExpiryIndex} and its maintenance by {@link UserPool}.
+ */
+public class CertExpiryIndexTest {
+
+    private static User user(String cn, int validDays) {
+        User u = new User();
+        u.setCn(cn);
+        u.setCertificate(TestCertificates.selfSigned(cn, validDays));
+        return u;
+    }
+
+    private static List<String> cns(List<CertExpiryIndex.Expiry> expiries) {
+        return expiries.stream().map(e -> e.user.getCn()).toList();
+    }
+
+    @Test
+    public void testPoolIndexFollowsChanges() {
+        UserPool pool = new UserPool();
+        User soon = user("Exp Soon", 10);
+        User later = user("Exp Later", 100);
+        User none = new User();
+        none.setCn("Exp None");
+        pool.add(later);
+        pool.add(soon);
+        pool.add(none);
+        Instant now = Instant.now();
+        CertExpiryIndex index = pool.getExpiryIndex();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("Exp Soon"), cns(index.expiringWithin(30, now)));
+        assertEquals(List.of("Exp Soon", "Exp Later"), cns(index.expiringWithin(365, now)));
+        assertTrue(index.get(soon).daysLeft(now) >= 8);
+
+        // Certificate renewed through the editor / CSV import
+        later.setCertificate(TestCertificates.selfSigned("Exp Later", 5));
+        assertEquals(List.of("Exp Later", "Exp Soon"), cns(index.expiringWithin(30, now)));
+        none.setCertificate(TestCertificates.selfSigned("Exp None", 20));
+        assertEquals(3, index.expiringWithin(30, now).size());
+
+        pool.remove(soon);
+        assertEquals(List.of("Exp Later", "Exp None"), cns(index.expiringWithin(30, now)));
+        assertNull(index.get(soon));
+
+        pool.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testExpiredAndRangeQueries() {
+        Instant now = Instant.now();
+        User expired = new User();
+        expired.setCn("Exp Expired");
+        expired.setCertificate(TestCertificates.selfSigned("Exp Expired", BigInteger.TEN,
+                Date.from(now.minus(Duration.ofDays(60))), Date.from(now.minus(Duration.ofDays(3)))));
+        User mid = user("Exp Mid", 50);
+
+        CertExpiryIndex index = CertExpiryIndex.of(List.of(mid, expired));
+        List<CertExpiryIndex.Expiry> within = index.expiringWithin(7, now);
+        assertEquals(List.of("Exp Expired"), cns(within));
+        assertTrue(within.get(0).isExpired(now));
+        assertTrue(within.get(0).daysLeft(now) < 0);
+
+        assertEquals(List.of("Exp Mid"),
+                cns(index.expiringBetween(now, now.plus(Duration.ofDays(60)))));
+        assertTrue(index.expiringBetween(now, now).isEmpty());
+    }
+}
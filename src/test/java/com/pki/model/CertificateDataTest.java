@@ -0,0 +1,111 @@
+package com.pki.model;
+
+import com.pki.util.TestCertificates;
+import org.junit.Test;
+
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the compact, interned certificate handle ({@link CertificateData}).
+ */
+public class CertificateDataTest {
+
+    private static final String PEM = TestCertificates.selfSigned("Handle Alice", 30).trim();
+
+    @Test
+    public void testStandardPemIsStoredAsDer() {
+        CertificateData data = CertificateData.of(PEM);
+        assertTrue(data.isCompact());
+        assertEquals(PEM, data.toPem());
+        byte[] der = data.getDer();
+        assertTrue(der.length * 4 / 3 < PEM.length());
+
+        String crlf = PEM.replace("\n", "\r\n");
+        CertificateData crlfData = CertificateData.of(crlf);
+        assertTrue(crlfData.isCompact());
+        assertEquals(crlf, crlfData.toPem());
+        assertNotEquals(data, crlfData);
+
+        String wide = "-----BEGIN CERTIFICATE-----\n"
+                + Base64.getMimeEncoder(76, "\n".getBytes()).encodeToString(der)
+                + "\n-----END CERTIFICATE-----";
+        assertTrue(CertificateData.of(wide).isCompact());
+        assertEquals(wide, CertificateData.of(wide).toPem());
+    }
+
+    @Test
+    public void testOtherTextIsKeptVerbatim() {
+        for (String text : new String[] {
+                "CERT-A",
+                PEM + "\n",
+                PEM.replace("-----BEGIN CERTIFICATE-----\n", "").replace("\n-----END CERTIFICATE-----", ""),
+                "-----BEGIN CERTIFICATE-----\n...\n-----END CERTIFICATE-----"}) {
+            CertificateData data = CertificateData.of(text);
+            assertFalse(text, data.isCompact());
+            assertNull(data.getDer());
+            assertEquals(text, data.toPem());
+        }
+    }
+
+    @Test
+    public void testEqualCertificatesShareOneHandle() {
+        User a = new User();
+        User b = new User();
+        a.setCertificate(PEM);
+        b.setCertificate(new String(PEM.toCharArray()));
+        assertSame(a.getCertificateData(), b.getCertificateData());
+
+        User copy = new User();
+        copy.setCertificateData(a.getCertificateData());
+        assertEquals(PEM, copy.getCertificate());
+    }
+
+    @Test
+    public void testConcurrentInterningYieldsOneHandle() throws Exception {
+        byte[] der = CertificateData.of(PEM).getDer();
+        int threads = 8;
+        CertificateData[][] seen = new CertificateData[threads][];
+        java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            workers[t] = new Thread(() -> {
+                CertificateData[] mine = new CertificateData[2000];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < mine.length; i++) {
+                    mine[i] = i % 2 == 0
+                            ? CertificateData.of(new String(PEM.toCharArray()))
+                            : CertificateData.fromDer(der);
+                }
+                seen[slot] = mine;
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+
+        CertificateData expected = CertificateData.of(PEM);
+        for (CertificateData[] mine : seen) {
+            for (CertificateData d : mine) assertSame(expected, d);
+        }
+    }
+
+    @Test
+    public void testEmptyCertificate() {
+        User u = new User();
+        assertFalse(u.hasCertificate());
+        assertEquals("", u.getCertificate());
+        u.setCertificate(null);
+        assertSame(CertificateData.EMPTY, u.getCertificateData());
+        u.setCertificate(PEM);
+        assertTrue(u.hasCertificate());
+        u.setCertificateData(null);
+        assertEquals("", u.getCertificate());
+    }
+}
@@ -0,0 +1,146 @@
+package com.pki.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the interned member storage of {@link Group} and its
+ * {@code List<String>} view.
+ */
+public class GroupMembersTest {
+
+    @Test
+    public void testSymbolTableInternsOnce() {
+        CnSymbolTable symbols = new CnSymbolTable();
+        int id = symbols.intern("Symbol Test CN 1");
+        assertEquals(id, symbols.intern(new String("Symbol Test CN 1")));
+        assertEquals(id, symbols.idOf("Symbol Test CN 1"));
+        assertEquals("Symbol Test CN 1", symbols.cnOf(id));
+        assertEquals(-1, symbols.idOf("Never Interned CN"));
+        assertEquals(-1, symbols.idOf(null));
+        assertEquals(1, symbols.size());
+    }
+
+    @Test
+    public void testViewBehavesLikeAList() {
+        Group g = new Group();
+        List<String> members = g.getMemberCns();
+        assertTrue(members.isEmpty());
+
+        members.add("Carol C");
+        members.add("Alice A");
+        members.add(1, "Bob B");
+        assertEquals(Arrays.asList("Carol C", "Bob B", "Alice A"), members);
+        assertTrue(g.containsMember("Bob B"));
+        assertTrue(members.contains("Alice A"));
+        assertFalse(members.contains("Dave D"));
+        assertEquals(2, members.indexOf("Alice A"));
+
+        Collections.sort(members);
+        assertEquals(Arrays.asList("Alice A", "Bob B", "Carol C"), new ArrayList<>(members));
+
+        assertEquals("Bob B", members.set(1, "Dave D"));
+        assertFalse(g.containsMember("Bob B"));
+        assertTrue(g.containsMember("Dave D"));
+
+        assertEquals("Alice A", members.remove(0));
+        assertFalse(g.containsMember("Alice A"));
+        assertEquals(Arrays.asList("Dave D", "Carol C"), members);
+
+        members.clear();
+        assertFalse(g.containsMember("Carol C"));
+        assertEquals(0, g.getMemberIds().length);
+    }
+
+    @Test
+    public void testDuplicatesKeepMembershipUntilLastIsRemoved() {
+        Group g = new Group();
+        g.setMemberCns(new ArrayList<>(Arrays.asList("Dup X", "Other Y", "Dup X")));
+        assertEquals(3, g.getMemberCns().size());
+        assertEquals(2, g.getMemberCns().lastIndexOf("Dup X"));
+
+        g.getMemberCns().remove(0);
+        assertTrue("Second copy is still a member", g.containsMember("Dup X"));
+        g.getMemberCns().remove("Dup X");
+        assertFalse(g.containsMember("Dup X"));
+        assertEquals(Collections.singletonList("Other Y"), g.getMemberCns());
+    }
+
+    @Test
+    public void testSetMemberCnsCopies() {
+        List<String> source = new ArrayList<>(Arrays.asList("Shared Z", "Only A"));
+        Group a = new Group();
+        a.setMemberCns(source);
+        source.clear();
+
+        assertEquals(Arrays.asList("Shared Z", "Only A"), a.getMemberCns());
+        a.setMemberCns(null);
+        assertTrue(a.getMemberCns().isEmpty());
+    }
+
+    @Test
+    public void testWorkspaceGroupsShareItsSymbolTable() {
+        Group a = new Group();
+        Group b = new Group();
+        a.setMemberCns(new ArrayList<>(Arrays.asList("Only A", "Shared Z")));
+        b.setMemberCns(Collections.singletonList("Shared Z"));
+        assertNotSame("Unbound groups keep their own tables", a.getSymbols(), b.getSymbols());
+
+        SkaConfig cfg = new SkaConfig();
+        Boundary boundary = new Boundary();
+        boundary.getGroups().add(a);
+        boundary.getGroups().add(b);
+        cfg.getOrganization().getOperations().getUse().getBoundaries().add(boundary);
+        SkaWorkspace ws = new SkaWorkspace();
+        ws.addEntry(new SkaConfigEntry(cfg, new java.io.File("a.xml")));
+
+        CnSymbolTable symbols = ws.getCnSymbols();
+        assertSame(symbols, a.getSymbols());
+        assertSame(symbols, b.getSymbols());
+        assertEquals(a.getMemberIds()[1], b.getMemberIds()[0]);
+        assertTrue(b.containsMemberId(symbols.idOf("Shared Z")));
+        assertEquals(Arrays.asList("Only A", "Shared Z"), a.getMemberCns());
+        assertTrue(a.containsMember("Only A"));
+
+        // Closing the workspace starts a new table
+        ws.clear();
+        assertNotSame(symbols, ws.getCnSymbols());
+        assertEquals(0, ws.getCnSymbols().size());
+    }
+
+    @Test
+    public void testMembershipMatchesListAfterRandomEdits() {
+        Group g = new Group();
+        List<String> members = g.getMemberCns();
+        List<String> expected = new ArrayList<>();
+        java.util.Random rnd = new java.util.Random(8);
+        for (int step = 0; step < 20_000; step++) {
+            String cn = "Random CN " + rnd.nextInt(200);
+            int op = rnd.nextInt(4);
+            if (op < 2 || expected.isEmpty()) {
+                int at = rnd.nextInt(expected.size() + 1);
+                members.add(at, cn);
+                expected.add(at, cn);
+            } else if (op == 2) {
+                int at = rnd.nextInt(expected.size());
+                assertEquals(expected.set(at, cn), members.set(at, cn));
+            } else {
+                int at = rnd.nextInt(expected.size());
+                assertEquals(expected.remove(at), members.remove(at));
+            }
+            String probe = "Random CN " + rnd.nextInt(200);
+            assertEquals(probe, expected.contains(probe), g.containsMember(probe));
+        }
+        assertEquals(expected, members);
+        for (int i = 0; i < 200; i++) {
+            String cn = "Random CN " + i;
+            assertEquals(cn, expected.contains(cn), g.containsMember(cn));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.pki.model;
+
+import com.pki.io.SkaXmlReader;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the workspace-wide CN → group index ({@link MembershipIndex}).
+ */
+public class MembershipIndexTest {
+
+    private static Group group(String name, String... cns) {
+        Group g = new Group();
+        g.setName(name);
+        g.setMemberCns(new ArrayList<>(Arrays.asList(cns)));
+        return g;
+    }
+
+    private static SkaConfigEntry entry(String file, Group orgUseGroup, Group keysModifyGroup) {
+        SkaConfig cfg = new SkaConfig();
+        Boundary b1 = new Boundary();
+        b1.getGroups().add(orgUseGroup);
+        cfg.getOrganization().getOperations().getUse().getBoundaries().add(b1);
+        Boundary b2 = new Boundary();
+        b2.getGroups().add(keysModifyGroup);
+        cfg.getKeysProto().setChildName("proto");
+        cfg.getKeysProto().getOperations().getModify().getBoundaries().add(b2);
+        return new SkaConfigEntry(cfg, new File(file));
+    }
+
+    @Test
+    public void testWhereUsedAcrossEntries() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = entry("a.xml", group("Owners", "Idx Alice", "Idx Bob"), group("", "Idx Alice"));
+        SkaConfigEntry b = entry("b.xml", group("Owners", "Idx Bob"), group("Ops", "Idx Carol"));
+        ws.addEntry(a);
+        ws.addEntry(b);
+
+        List<MembershipIndex.Placement> alice = ws.whereUsed("Idx Alice");
+        assertEquals(2, alice.size());
+        assertSame(a, alice.get(0).entry);
+        assertEquals("Organization > use > boundary 1 > group \"Owners\"", alice.get(0).describe());
+        assertEquals("Keys(proto) > modify > boundary 1 > group 1", alice.get(1).describe());
+
+        List<MembershipIndex.Placement> bob = ws.whereUsed("Idx Bob");
+        assertEquals(2, bob.size());
+        assertSame(a, bob.get(0).entry);
+        assertSame(b, bob.get(1).entry);
+
+        assertTrue(ws.whereUsed("Idx Nobody").isEmpty());
+        assertEquals(1, ws.getMembershipIndex().countPlacements("Idx Carol"));
+    }
+
+    @Test
+    public void testWhereUsedFollowsEntryOrderAfterInsertAndRemove() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = entry("a.xml", group("Owners", "Ord Alice"), group("Ops"));
+        SkaConfigEntry c = entry("c.xml", group("Owners", "Ord Alice"), group("Ops"));
+        ws.addEntry(a);
+        ws.addEntry(c);
+        assertSame(c, ws.whereUsed("Ord Alice").get(1).entry);
+
+        // A file created on disk is inserted between the two in name order
+        SkaConfigEntry b = entry("b.xml", group("Owners", "Ord Alice"), group("Ops"));
+        ws.applyFileChanged(new File("b.xml"), b.getConfig());
+        List<MembershipIndex.Placement> hits = ws.whereUsed("Ord Alice");
+        assertEquals(3, hits.size());
+        assertSame(a, hits.get(0).entry);
+        assertEquals("b.xml", hits.get(1).entry.getSourceFile().getName());
+        assertSame(c, hits.get(2).entry);
+
+        ws.removeEntry(a);
+        hits = ws.whereUsed("Ord Alice");
+        assertEquals(2, hits.size());
+        assertSame(c, hits.get(1).entry);
+    }
+
+    @Test
+    public void testMemberEditsAreTrackedIncrementally() {
+        SkaWorkspace ws = new SkaWorkspace();
+        Group owners = group("Owners", "Inc Alice");
+        ws.addEntry(entry("a.xml", owners, group("Ops")));
+
+        owners.getMemberCns().add("Inc Dave");
+        assertEquals(1, ws.whereUsed("Inc Dave").size());
+
+        owners.getMemberCns().set(0, "Inc Erin");
+        assertFalse(ws.getMembershipIndex().isUsed("Inc Alice"));
+        assertTrue(ws.getMembershipIndex().isUsed("Inc Erin"));
+
+        owners.setMemberCns(List.of("Inc Frank"));
+        assertFalse(ws.getMembershipIndex().isUsed("Inc Dave"));
+        assertSame(owners, ws.whereUsed("Inc Frank").get(0).group);
+
+        owners.getMemberCns().clear();
+        assertFalse(ws.getMembershipIndex().isUsed("Inc Frank"));
+    }
+
+    @Test
+    public void testStructureChangesAndEntryLifecycle() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = entry("a.xml", group("Owners", "Life Alice"), group("Ops"));
+        ws.addEntry(a);
+
+        // Replace the boundaries wholesale, as the operation editor does
+        Operation use = a.getConfig().getOrganization().getOperations().getUse();
+        Boundary replaced = new Boundary();
+        replaced.getGroups().add(group("Owners", "Life Bob"));
+        use.setBoundaries(new ArrayList<>(List.of(replaced)));
+        ws.reindexEntry(a);
+        assertFalse(ws.getMembershipIndex().isUsed("Life Alice"));
+        assertEquals(1, ws.whereUsed("Life Bob").size());
+
+        // Reloading the file from disk swaps the entry
+        SkaConfigEntry reloaded = entry("a.xml", group("Owners", "Life Carol"), group("Ops"));
+        ws.applyFileChanged(new File("a.xml"), reloaded.getConfig());
+        assertFalse(ws.getMembershipIndex().isUsed("Life Bob"));
+        assertEquals(1, ws.whereUsed("Life Carol").size());
+
+        ws.applyFileDeleted(new File("a.xml"));
+        assertFalse(ws.getMembershipIndex().isUsed("Life Carol"));
+
+        ws.addEntry(entry("b.xml", group("Owners", "Life Dan"), group("Ops")));
+        ws.clear();
+        assertFalse(ws.getMembershipIndex().isUsed("Life Dan"));
+    }
+
+    @Test
+    public void testIndexMatchesFullScanOfExample() throws Exception {
+        SkaConfig cfg = new SkaXmlReader().read(new File("example/ska.xml"));
+        SkaWorkspace ws = new SkaWorkspace();
+        ws.addEntry(new SkaConfigEntry(cfg, new File("example/ska.xml")));
+
+        for (User u : cfg.getUsers()) {
+            int expected = 0;
+            for (SkaSection s : List.of(cfg.getOrganization(), cfg.getSkaPlus(), cfg.getSkaModify())) {
+                expected += count(s.getOperations(), u.getCn());
+            }
+            expected += count(cfg.getKeysProto().getOperations(), u.getCn());
+            assertEquals(u.getCn(), expected, ws.whereUsed(u.getCn()).size());
+        }
+    }
+
+    private static int count(Operations ops, String cn) {
+        int n = 0;
+        for (Operation op : List.of(ops.getUse(), ops.getModify(), ops.getBlock(), ops.getUnblock())) {
+            for (Boundary b : op.getBoundaries()) {
+                for (Group g : b.getGroups()) {
+                    if (g.getMemberCns().contains(cn)) n++;
+                }
+            }
+        }
+        return n;
+    }
+}
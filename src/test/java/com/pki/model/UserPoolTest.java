@@ -0,0 +1,136 @@
+package com.pki.model;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CN index of the master user pool ({@link UserPool}).
+ */
+public class UserPoolTest {
+
+    private static User user(String cn) {
+        User u = new User();
+        u.setCn(cn);
+        return u;
+    }
+
+    @Test
+    public void testIndexFollowsListChanges() {
+        UserPool pool = new UserPool();
+        User alice = user("Alice");
+        User bob = user("Bob");
+        pool.add(alice);
+        pool.add(bob);
+        assertSame(alice, pool.findByCn("Alice"));
+        assertSame(bob, pool.findByCn("Bob"));
+        assertNull(pool.findByCn("Carol"));
+
+        User carol = user("Carol");
+        assertSame(alice, pool.set(0, carol));
+        assertNull(pool.findByCn("Alice"));
+        assertSame(carol, pool.findByCn("Carol"));
+
+        pool.remove(bob);
+        assertNull(pool.findByCn("Bob"));
+        assertFalse(pool.contains(bob));
+        assertEquals(1, pool.size());
+
+        pool.clear();
+        assertNull(pool.findByCn("Carol"));
+        assertTrue(pool.isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsCnEdits() {
+        UserPool pool = new UserPool();
+        User u = user("Old CN");
+        pool.add(u);
+        u.setCn("New CN");
+        assertNull(pool.findByCn("Old CN"));
+        assertSame(u, pool.findByCn("New CN"));
+
+        // Users removed from the pool no longer update it
+        pool.remove(0);
+        u.setCn("Third CN");
+        assertNull(pool.findByCn("Third CN"));
+    }
+
+    @Test
+    public void testDuplicateCnIsPromotedOnRemoval() {
+        UserPool pool = new UserPool();
+        User first = user("Same");
+        User second = user("");
+        pool.add(first);
+        pool.add(second);
+        second.setCn("Same"); // transient duplicate while editing
+        assertSame(first, pool.findByCn("Same"));
+
+        pool.remove(first);
+        assertSame(second, pool.findByCn("Same"));
+    }
+
+    @Test
+    public void testSortKeepsIndex() {
+        UserPool pool = new UserPool();
+        pool.add(user("C"));
+        pool.add(user("A"));
+        pool.add(user("B"));
+        pool.sort(Comparator.comparing(User::getCn));
+        assertEquals("A", pool.get(0).getCn());
+        for (String cn : new String[]{"A", "B", "C"}) {
+            assertEquals(cn, pool.findByCn(cn).getCn());
+        }
+    }
+
+    @Test
+    public void testSameInstanceAtSeveralPositions() {
+        UserPool pool = new UserPool();
+        User alice = user("Alice");
+        User bob = user("Bob");
+        pool.add(alice);
+        pool.add(bob);
+        pool.set(1, alice); // alice now at both positions, bob gone
+        assertFalse(pool.contains(bob));
+        assertNull(pool.findByCn("Bob"));
+        pool.set(0, alice);
+        pool.remove(0);
+        assertTrue("Still pooled at the other position", pool.contains(alice));
+        assertSame(alice, pool.findByCn("Alice"));
+        pool.remove(0);
+        assertFalse(pool.contains(alice));
+        assertNull(pool.findByCn("Alice"));
+    }
+
+    @Test
+    public void testReverseSortOfLargePoolKeepsIndex() {
+        UserPool pool = new UserPool();
+        int n = 20_000;
+        for (int i = 0; i < n; i++) pool.add(user(String.format("CN %05d", i)));
+        pool.sort(Comparator.comparing(User::getCn).reversed());
+        assertEquals(String.format("CN %05d", n - 1), pool.get(0).getCn());
+        for (int i = 0; i < n; i += 997) {
+            String cn = String.format("CN %05d", i);
+            assertEquals(cn, pool.findByCn(cn).getCn());
+        }
+        assertEquals(n, pool.size());
+    }
+
+    @Test
+    public void testWorkspaceLookupUsesPool() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfig cfg = new SkaConfig();
+        cfg.getUsers().add(user("Alice"));
+        ws.addEntry(new SkaConfigEntry(cfg, new java.io.File("a.xml")));
+        ws.rebuildMasterUserPool();
+
+        User pooled = ws.findUserByCn("Alice");
+        assertNotNull(pooled);
+        assertNotSame("Pool owns copies", cfg.getUsers().get(0), pooled);
+        pooled.setCn("Alice Renamed");
+        assertSame(pooled, ws.findUserByCn("Alice Renamed"));
+        assertNull(ws.findUserByCn("Alice"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.pki.model;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the workspace-wide key validity index ({@link ValidityIndex}).
+ */
+public class ValidityIndexTest {
+
+    private static void set(SkaSection s, String label, String start, String end) {
+        s.setKeyLabel(label);
+        s.setStartValidity(start);
+        s.setEndValidity(end);
+    }
+
+    private static SkaConfigEntry entry(String file) {
+        return new SkaConfigEntry(new SkaConfig(), new File(file));
+    }
+
+    private static List<String> labels(List<ValidityIndex.Window> windows) {
+        List<String> out = new ArrayList<>();
+        for (ValidityIndex.Window w : windows) out.add(w.keyLabel);
+        return out;
+    }
+
+    @Test
+    public void testParseDate() {
+        assertEquals(LocalDate.of(2025, 3, 1), SkaSection.parseDate(" 2025-03-01 "));
+        assertNull(SkaSection.parseDate(""));
+        assertNull(SkaSection.parseDate(null));
+        assertNull(SkaSection.parseDate("2025-02-30"));
+        assertNull(SkaSection.parseDate("2025-3-1"));
+
+        SkaSection s = new SkaSection();
+        s.setStartValidity("2024-01-01");
+        s.setEndValidity("not a date");
+        assertEquals(LocalDate.of(2024, 1, 1), s.getStartDate());
+        assertNull(s.getEndDate());
+        assertEquals("not a date", s.getEndValidity());
+    }
+
+    @Test
+    public void testValidOnAndEndingBetween() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = entry("a.xml");
+        set(a.getConfig().getOrganization(), "orgA", "2024-01-01", "2026-12-31");
+        set(a.getConfig().getSkaPlus(), "plusA", "2025-01-01", "2025-06-30");
+        set(a.getConfig().getSkaModify(), "modA", "", "2025-03-31");
+        SkaConfigEntry b = entry("b.xml");
+        set(b.getConfig().getOrganization(), "orgB", "2025-04-01", "");
+        set(b.getConfig().getSkaPlus(), "plusB", "2025-02-30", "2025-12-31");
+        ws.addEntry(a);
+        ws.addEntry(b);
+
+        ValidityIndex index = ws.getValidityIndex();
+        assertEquals(4, index.size());
+        assertEquals(1, index.invalidCount());
+
+        assertEquals(List.of("modA", "orgA"), labels(index.validOn(LocalDate.of(2024, 6, 1))));
+        assertEquals(List.of("modA", "orgA", "plusA"), labels(index.validOn(LocalDate.of(2025, 3, 31))));
+        assertEquals(List.of("orgA", "plusA", "orgB"), labels(index.validOn(LocalDate.of(2025, 4, 1))));
+        assertEquals(List.of("orgB"), labels(index.validOn(LocalDate.of(2030, 1, 1))));
+
+        // second quarter of 2025, bounds inclusive
+        assertEquals(List.of("plusA"),
+                labels(index.endingBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 6, 30))));
+        assertEquals(List.of("modA", "plusA", "orgA"),
+                labels(index.endingBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 12, 31))));
+        assertTrue(index.endingBetween(LocalDate.of(2027, 1, 1), LocalDate.of(2099, 1, 1)).isEmpty());
+
+        ValidityIndex.Window w = index.endingBetween(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 3, 31)).get(0);
+        assertSame(a, w.entry);
+        assertEquals("SkaModify", w.sectionName);
+        assertNull(w.start);
+    }
+
+    @Test
+    public void testEditsAndEntryLifecycleRebuildIndex() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = entry("a.xml");
+        SkaSection org = a.getConfig().getOrganization();
+        set(org, "org", "2024-01-01", "2024-12-31");
+        ws.addEntry(a);
+        ValidityIndex index = ws.getValidityIndex();
+        LocalDate day = LocalDate.of(2025, 6, 1);
+        assertTrue(index.validOn(day).isEmpty());
+
+        org.setEndValidity("2025-12-31");
+        assertEquals(List.of("org"), labels(index.validOn(day)));
+        org.setKeyLabel("renamed");
+        assertEquals(List.of("renamed"), labels(index.validOn(day)));
+
+        SkaConfig reloaded = new SkaConfig();
+        set(reloaded.getSkaPlus(), "fromDisk", "2025-01-01", "2025-12-31");
+        ws.applyFileChanged(new File("a.xml"), reloaded);
+        assertEquals(List.of("fromDisk"), labels(index.validOn(day)));
+
+        // sections of the replaced entry no longer affect the index
+        org.setKeyLabel("stale");
+        assertEquals(List.of("fromDisk"), labels(index.validOn(day)));
+
+        ws.applyFileDeleted(new File("a.xml"));
+        assertEquals(0, index.size());
+
+        ws.addEntry(a);
+        ws.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random rnd = new Random(18);
+        SkaWorkspace ws = new SkaWorkspace();
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            SkaConfigEntry e = entry("e" + i + ".xml");
+            for (SkaSection s : List.of(e.getConfig().getOrganization(), e.getConfig().getSkaPlus(),
+                    e.getConfig().getSkaModify())) {
+                LocalDate start = base.plusDays(rnd.nextInt(3000));
+                LocalDate end = start.plusDays(rnd.nextInt(1500));
+                set(s, "k" + i, rnd.nextInt(10) == 0 ? "" : start.toString(),
+                        rnd.nextInt(10) == 0 ? "" : end.toString());
+            }
+            ws.addEntry(e);
+        }
+
+        ValidityIndex index = ws.getValidityIndex();
+        assertEquals(600, index.size());
+        for (int d = 0; d < 5000; d += 37) {
+            LocalDate day = base.plusDays(d - 200);
+            int expected = 0;
+            for (SkaConfigEntry e : ws.getEntries()) {
+                for (SkaSection s : List.of(e.getConfig().getOrganization(), e.getConfig().getSkaPlus(),
+                        e.getConfig().getSkaModify())) {
+                    boolean started = s.getStartDate() == null || !s.getStartDate().isAfter(day);
+                    boolean notEnded = s.getEndDate() == null || !s.getEndDate().isBefore(day);
+                    if (started && notEnded) expected++;
+                }
+            }
+            List<ValidityIndex.Window> hits = index.validOn(day);
+            assertEquals(day.toString(), expected, hits.size());
+            for (ValidityIndex.Window w : hits) assertTrue(w.isValidOn(day));
+        }
+    }
+}
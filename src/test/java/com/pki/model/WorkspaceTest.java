@@ -7,6 +7,9 @@ import org.junit.Test;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -256,4 +259,189 @@ public class WorkspaceTest {
         assertNotNull(bob);
         assertEquals("bob@example.com", bob.getEmail());
     }
+
+    /**
+     * Incremental reload: clean entries are replaced/added in filename order,
+     * dirty entries are flagged instead of overwritten, pool grows without rebuild.
+     */
+    @Test
+    public void testApplyExternalChanges() {
+        SkaWorkspace ws = new SkaWorkspace();
+        ws.addEntry(new SkaConfigEntry(configWithUser("A", "Alice CN"), new File("a.xml")));
+        ws.addEntry(new SkaConfigEntry(configWithUser("C", "Carol CN"), new File("c.xml")));
+        ws.rebuildMasterUserPool();
+        ws.setActiveIndex(1);
+        User carolInPool = ws.findUserByCn("Carol CN");
+        carolInPool.setEmail("old@example.com");
+
+        // New file lands between a.xml and c.xml; active index follows its entry
+        assertEquals(SkaWorkspace.ExternalChange.ADDED,
+                ws.applyFileChanged(new File("b.xml"), configWithUser("B", "Bob CN")));
+        assertEquals("b.xml", ws.getEntries().get(1).getSourceFile().getName());
+        assertEquals("c.xml", ws.getActiveEntry().getSourceFile().getName());
+        assertNotNull(ws.findUserByCn("Bob CN"));
+
+        // Clean entry is replaced; users without local edits take the disk values
+        SkaConfig newC = configWithUser("C2", "Carol CN");
+        newC.getUsers().get(0).setEmail("disk@example.com");
+        newC.getUsers().get(0).setOrganisation("OrgC");
+        assertEquals(SkaWorkspace.ExternalChange.RELOADED, ws.applyFileChanged(new File("c.xml"), newC));
+        assertEquals("C2", ws.getActiveEntry().getConfig().getModuleName());
+        assertSame(carolInPool, ws.findUserByCn("Carol CN"));
+        assertEquals("disk@example.com", carolInPool.getEmail());
+        assertEquals("OrgC", carolInPool.getOrganisation());
+        assertEquals(3, ws.getMasterUserPool().size());
+
+        // Users listed by a dirty entry keep their local edits; blanks are filled
+        SkaConfigEntry a = ws.getEntries().get(0);
+        ws.findUserByCn("Alice CN").setEmail("edited@example.com");
+        a.setDirty(true);
+        SkaConfig newC3 = configWithUser("C3", "Carol CN");
+        User aliceOnDisk = new User();
+        aliceOnDisk.setCn("Alice CN");
+        aliceOnDisk.setEmail("disk@example.com");
+        aliceOnDisk.setOrganisation("OrgA");
+        newC3.getUsers().add(aliceOnDisk);
+        assertEquals(SkaWorkspace.ExternalChange.RELOADED, ws.applyFileChanged(new File("c.xml"), newC3));
+        assertEquals("edited@example.com", ws.findUserByCn("Alice CN").getEmail());
+        assertEquals("OrgA", ws.findUserByCn("Alice CN").getOrganisation());
+
+        // Dirty entry is flagged, not overwritten
+        assertEquals(SkaWorkspace.ExternalChange.CONFLICT,
+                ws.applyFileChanged(new File("a.xml"), configWithUser("A2", "Alice CN")));
+        assertSame(a, ws.getEntries().get(0));
+        assertEquals("A", a.getConfig().getModuleName());
+        assertTrue(a.hasExternalConflict());
+        assertTrue(a.getDisplayLabelWithDirty().contains("changed on disk"));
+        assertEquals(SkaWorkspace.ExternalChange.CONFLICT, ws.applyFileDeleted(new File("a.xml")));
+        assertEquals(3, ws.getEntries().size());
+
+        // Clean entry is removed on delete; pool users stay
+        assertEquals(SkaWorkspace.ExternalChange.REMOVED, ws.applyFileDeleted(new File("b.xml")));
+        assertEquals(2, ws.getEntries().size());
+        assertEquals("c.xml", ws.getActiveEntry().getSourceFile().getName());
+        assertNotNull(ws.findUserByCn("Bob CN"));
+        assertEquals(SkaWorkspace.ExternalChange.IGNORED, ws.applyFileDeleted(new File("zzz.xml")));
+    }
+
+    @Test
+    public void testMergeUsersIntoPool() {
+        SkaWorkspace ws = new SkaWorkspace();
+        ws.addEntry(new SkaConfigEntry(configWithUser("A", "Alice CN"), new File("a.xml")));
+        ws.rebuildMasterUserPool();
+
+        SkaConfig other = configWithUser("B", "Alice CN");
+        User bob = new User();
+        bob.setCn("Bob CN");
+        other.getUsers().add(bob);
+        User blank = new User();
+        other.getUsers().add(blank);
+
+        assertEquals(1, ws.mergeUsersIntoPool(other.getUsers()));
+        assertEquals(2, ws.getMasterUserPool().size());
+        assertNotSame("Pool must own copies", bob, ws.findUserByCn("Bob CN"));
+    }
+
+    @Test
+    public void testEntryUnchangedByContentHash() {
+        SkaConfigEntry entry = new SkaConfigEntry(configWithUser("A", "Alice CN"), new File("a.xml"));
+        byte[] hash = {1, 2, 3};
+        assertFalse("Unknown baseline is never unchanged", entry.isUnchanged(hash));
+
+        entry.setContentHash(hash.clone());
+        assertTrue(entry.isUnchanged(hash));
+        assertFalse(entry.isUnchanged(new byte[]{1, 2, 4}));
+        assertFalse(entry.isUnchanged(null));
+
+        // A manual version bump must still be written
+        entry.getConfig().setVersion(entry.getLoadedVersion() + 1);
+        assertFalse(entry.isUnchanged(hash));
+    }
+
+    @Test
+    public void testMarkEntriesDirtyForChangedUsers() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = new SkaConfigEntry(configWithUser("A", "Alice CN"), new File("a.xml"));
+        SkaConfigEntry b = new SkaConfigEntry(configWithUser("B", "Bob CN"), new File("b.xml"));
+        ws.addEntry(a);
+        ws.addEntry(b);
+
+        assertEquals(0, ws.markEntriesDirtyFor(Set.of()));
+        assertEquals(1, ws.markEntriesDirtyFor(Set.of("Bob CN", "Nobody CN")));
+        assertFalse(a.isDirty());
+        assertTrue(b.isDirty());
+    }
+
+    /**
+     * Listeners get targeted events: entry switches, in-place user edits,
+     * pool additions and announced group/metadata changes.
+     */
+    @Test
+    public void testListenerEvents() {
+        SkaWorkspace ws = new SkaWorkspace();
+        SkaConfigEntry a = new SkaConfigEntry(configWithUser("A", "Alice CN"), new File("a.xml"));
+        SkaConfigEntry b = new SkaConfigEntry(configWithUser("B", "Bob CN"), new File("b.xml"));
+        ws.addEntry(a);
+        ws.addEntry(b);
+        ws.rebuildMasterUserPool();
+
+        List<String> events = new ArrayList<>();
+        ws.addListener(new SkaWorkspace.Listener() {
+            @Override
+            public void activeEntryChanged(SkaConfigEntry previous, SkaConfigEntry active) {
+                events.add("active " + previous.getConfig().getModuleName() + "->" + active.getConfig().getModuleName());
+            }
+
+            @Override
+            public void usersUpdated(Collection<User> users) {
+                events.add("updated " + users.stream().map(User::getCn).toList());
+            }
+
+            @Override
+            public void userListChanged() {
+                events.add("list");
+            }
+
+            @Override
+            public void groupsChanged(SkaConfig config, String section) {
+                events.add("groups " + config.getModuleName() + " " + section);
+            }
+
+            @Override
+            public void metadataChanged(SkaConfig config) {
+                events.add("metadata " + config.getModuleName());
+            }
+        });
+
+        ws.setActiveIndex(1);
+        ws.setActiveIndex(1); // no change, no event
+        assertEquals(List.of("active A->B"), events);
+
+        // Merge: Alice gets an email filled in, Carol is new, Bob is unchanged
+        events.clear();
+        User alice = new User();
+        alice.setCn("Alice CN");
+        alice.setEmail("alice@example.com");
+        User carol = new User();
+        carol.setCn("Carol CN");
+        User bob = new User();
+        bob.setCn("Bob CN");
+        assertEquals(1, ws.mergeUsersIntoPool(List.of(alice, carol, bob)));
+        assertEquals(List.of("updated [Alice CN]", "list"), events);
+
+        events.clear();
+        ws.fireUsersUpdated(List.of()); // nothing to announce
+        ws.fireGroupsChanged(a.getConfig(), "SkaPlus");
+        ws.fireMetadataChanged(b.getConfig());
+        assertEquals(List.of("groups A SkaPlus", "metadata B"), events);
+    }
+
+    private static SkaConfig configWithUser(String module, String cn) {
+        SkaConfig cfg = new SkaConfig();
+        cfg.setModuleName(module);
+        User u = new User();
+        u.setCn(cn);
+        cfg.getUsers().add(u);
+        return cfg;
+    }
 }
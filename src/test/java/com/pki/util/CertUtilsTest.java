@@ -0,0 +1,109 @@
+package com.pki.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CertUtils} parsing and its parse cache.
+ */
+public class CertUtilsTest {
+
+    @Before
+    public void resetCache() {
+        CertUtils.clearCache();
+    }
+
+    @Test
+    public void testParseExtractsFields() {
+        String pem = TestCertificates.selfSigned("Parse Alice", 30);
+        CertUtils.CertInfo info = CertUtils.parse(pem);
+        assertNotNull(info);
+        assertTrue(info.subject.contains("Parse Alice"));
+        assertEquals(info.subject, info.issuer);
+        assertEquals(95, info.sha256Fingerprint.length());
+        assertEquals("Parse Alice", CertUtils.parseCertificate(pem)
+                .getSubjectX500Principal().getName().substring(3));
+    }
+
+    @Test
+    public void testParseWithoutMarkers() {
+        String pem = TestCertificates.selfSigned("Bare Erin", 30);
+        String bare = pem.replace("-----BEGIN CERTIFICATE-----", "")
+                .replace("-----END CERTIFICATE-----", "");
+        CertUtils.CertInfo info = CertUtils.parse(bare);
+        assertNotNull(info);
+        assertEquals(CertUtils.parse(pem).sha256Fingerprint, info.sha256Fingerprint);
+    }
+
+    @Test
+    public void testFingerprintMatchesDigestOfEncoding() throws Exception {
+        String pem = TestCertificates.selfSigned("Digest Frank", 30);
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(CertUtils.parseCertificate(pem).getEncoded());
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < digest.length; i++) {
+            if (i > 0) expected.append(':');
+            expected.append(String.format("%02X", digest[i] & 0xFF));
+        }
+        assertEquals(expected.toString(), CertUtils.parse(pem).sha256Fingerprint);
+    }
+
+    @Test
+    public void testRepeatedParseHitsCache() {
+        String pem = TestCertificates.selfSigned("Cache Bob", 30);
+        CertUtils.CertInfo first = CertUtils.parse(pem);
+        CertUtils.CertInfo second = CertUtils.parse(pem);
+        assertSame(first, second);
+
+        CacheStats stats = CertUtils.cacheStats();
+        assertEquals(1, stats.misses);
+        assertEquals(1, stats.hits);
+        assertEquals(1, stats.size);
+    }
+
+    @Test
+    public void testWhitespaceVariantsShareAnEntry() {
+        String pem = TestCertificates.selfSigned("Cache Carol", 30);
+        CertUtils.CertInfo info = CertUtils.parse(pem);
+        String crlf = "  " + pem.replace("\n", "\r\n") + "\r\n";
+        assertSame(info, CertUtils.parse(crlf));
+        assertEquals(1, CertUtils.cacheStats().size);
+    }
+
+    @Test
+    public void testMalformedResultIsCachedAsNull() {
+        String bad = "-----BEGIN CERTIFICATE-----\nnot-valid\n-----END CERTIFICATE-----";
+        assertNull(CertUtils.parse(bad));
+        assertNull(CertUtils.parse(bad));
+        assertNull(CertUtils.parseCertificate(bad));
+        assertEquals(1, CertUtils.cacheStats().misses);
+        assertEquals(2, CertUtils.cacheStats().hits);
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        int capacity = CertUtils.cacheStats().capacity;
+        assertTrue(capacity > 0);
+        String pem = TestCertificates.selfSigned("Bound Dave", 30);
+        // Unparseable, distinct keys are the cheapest way to fill the cache
+        for (int i = 0; i <= capacity; i++) {
+            CertUtils.parse("-----BEGIN CERTIFICATE-----\nx" + i + "\n-----END CERTIFICATE-----");
+        }
+        CacheStats stats = CertUtils.cacheStats();
+        assertEquals(capacity, stats.size);
+        assertEquals(1, stats.evictions);
+        assertNotNull(CertUtils.parse(pem));
+    }
+
+    @Test
+    public void testSubjectCn() {
+        assertEquals("Alice A ABC123", CertUtils.subjectCn(CertUtils.parseCertificate(
+                TestCertificates.selfSigned("Alice A ABC123,O=Example,C=CH", 30))));
+        assertEquals("Comma, Name", CertUtils.subjectCn(CertUtils.parseCertificate(
+                TestCertificates.selfSigned("Comma\\, Name", 30))));
+    }
+}
@@ -0,0 +1,99 @@
+package com.pki.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the per-issuer revoked serial index ({@link CrlIndex}).
+ */
+public class CrlIndexTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static X509Certificate cert(String issuerCn, long serial) {
+        Date from = new Date(System.currentTimeMillis() - DAY);
+        return CertUtils.parseCertificate(TestCertificates.selfSigned(issuerCn, BigInteger.valueOf(serial),
+                from, new Date(from.getTime() + 365 * DAY)));
+    }
+
+    private static File write(File dir, String name, byte[] content) throws IOException {
+        File f = new File(dir, name);
+        Files.write(f.toPath(), content);
+        f.deleteOnExit();
+        return f;
+    }
+
+    @Test
+    public void testStatusPerIssuer() throws Exception {
+        File dir = Files.createTempDirectory("crl-test").toFile();
+        dir.deleteOnExit();
+        File pem = write(dir, "ca1.crl", TestCertificates.crl("CRL CA 1", 30,
+                BigInteger.valueOf(10), BigInteger.valueOf(11)).getBytes(StandardCharsets.US_ASCII));
+
+        // Second file: DER encoded
+        String pem2 = TestCertificates.crl("CRL CA 2", 30, BigInteger.valueOf(20));
+        byte[] der2 = CertUtils.pemToDer(pem2);
+        File der = write(dir, "ca2.der", der2);
+
+        CrlIndex index = CrlIndex.load(List.of(pem, der));
+        assertEquals(2, index.getCrls().size());
+        assertEquals(2, index.issuerCount());
+        assertEquals(3, index.revokedCount());
+
+        assertEquals(CrlIndex.Status.REVOKED, index.status(cert("CRL CA 1", 10)));
+        assertEquals(CrlIndex.Status.GOOD, index.status(cert("CRL CA 1", 12)));
+        assertEquals(CrlIndex.Status.GOOD, index.status(cert("CRL CA 2", 10)));
+        assertTrue(index.isRevoked(cert("CRL CA 2", 20)));
+        assertEquals(CrlIndex.Status.UNKNOWN, index.status(cert("CRL CA 3", 10)));
+    }
+
+    @Test
+    public void testSeveralCrlsInOneFileAndEmptyCrl() throws Exception {
+        File dir = Files.createTempDirectory("crl-test-multi").toFile();
+        dir.deleteOnExit();
+        String both = TestCertificates.crl("Multi CA", 30, BigInteger.ONE)
+                + TestCertificates.crl("Empty CA", 30);
+        File f = write(dir, "all.pem", both.getBytes(StandardCharsets.US_ASCII));
+
+        CrlIndex index = CrlIndex.load(List.of(f));
+        assertEquals(2, index.getCrls().size());
+        assertTrue(index.isRevoked(cert("Multi CA", 1)));
+        // An empty CRL still covers its issuer
+        assertEquals(CrlIndex.Status.GOOD, index.status(cert("Empty CA", 1)));
+    }
+
+    @Test
+    public void testOutdatedCrl() throws Exception {
+        File dir = Files.createTempDirectory("crl-test-old").toFile();
+        dir.deleteOnExit();
+        CrlIndex index = new CrlIndex();
+        index.addFile(write(dir, "old.crl",
+                TestCertificates.crl("Old CA", 2).getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(index.outdated(new Date()).isEmpty());
+        assertEquals(1, index.outdated(new Date(System.currentTimeMillis() + 5 * DAY)).size());
+    }
+
+    @Test
+    public void testInvalidFileIsReported() throws Exception {
+        File dir = Files.createTempDirectory("crl-test-bad").toFile();
+        dir.deleteOnExit();
+        File bad = write(dir, "bad.crl", Base64.getEncoder().encode("not a crl".getBytes()));
+        try {
+            CrlIndex.load(List.of(bad));
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("bad.crl"));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.pki.util;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.x9.ECNamedCurveTable;
 import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.asn1.x9.X9ECPoint;
 import org.junit.Test;
 
 import java.util.Base64;
@@ -131,6 +132,26 @@ public class CurveUtilsTest {
         assertEquals("brainpoolP224r1", CurveUtils.detectCurveFromPem(pem));
     }
 
+    @Test
+    public void testExplicitCurvesBeyondPreferredList() {
+        assertEquals("brainpoolP320r1", CurveUtils.detectCurveFromPem(explicitFormPem("brainpoolP320r1")));
+        assertEquals("sect283k1", CurveUtils.detectCurveFromPem(explicitFormPem("sect283k1")));
+    }
+
+    @Test
+    public void testExplicitAliasReportsPreferredName() {
+        assertEquals("secp256r1", CurveUtils.detectCurveFromPem(explicitFormPem("prime256v1")));
+        assertEquals("secp384r1", CurveUtils.detectCurveFromPem(explicitFormPem("P-384")));
+    }
+
+    @Test
+    public void testExplicitWithForeignGeneratorNotMatched() throws Exception {
+        X9ECParameters ref = ECNamedCurveTable.getByName("secp256r1");
+        X9ECParameters tampered = new X9ECParameters(ref.getCurve(),
+                new X9ECPoint(ref.getG().twice(), false), ref.getN(), ref.getH());
+        assertNull(CurveUtils.detectCurveFromPem(wrapPem(tampered.getEncoded())));
+    }
+
     // ── resolveCurveName ────────────────────────────────────
 
     @Test
@@ -197,6 +218,33 @@ public class CurveUtilsTest {
         assertTrue(curves.contains("secp521r1"));
     }
 
+    // ── Detection memo ──────────────────────────────────────
+
+    @Test
+    public void testDetectionIsMemoizedByDer() {
+        CurveUtils.clearCache();
+        String pem = explicitFormPem("secp384r1");
+        assertEquals("secp384r1", CurveUtils.detectCurveFromPem(pem));
+        // Same DER with different line wrapping is a hit
+        String rewrapped = pem.replace("\n", "\r\n  ");
+        assertEquals("secp384r1", CurveUtils.detectCurveFromPem(rewrapped));
+
+        CacheStats stats = CurveUtils.cacheStats();
+        assertEquals(1, stats.misses);
+        assertEquals(1, stats.hits);
+        assertEquals(1, stats.size);
+    }
+
+    @Test
+    public void testUnknownCurveIsMemoized() throws Exception {
+        CurveUtils.clearCache();
+        String pem = wrapPem(new ASN1ObjectIdentifier("1.2.3.4.5").getEncoded());
+        assertNull(CurveUtils.detectCurveFromPem(pem));
+        assertNull(CurveUtils.detectCurveFromPem(pem));
+        assertEquals(1, CurveUtils.cacheStats().misses);
+        assertEquals(1, CurveUtils.cacheStats().hits);
+    }
+
     // ── CertUtils ───────────────────────────────────────────
 
     @Test
@@ -0,0 +1,133 @@
+package com.pki.util;
+
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Certificate;
+import org.bouncycastle.asn1.x509.CertificateList;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.asn1.x509.TBSCertList;
+import org.bouncycastle.asn1.x509.TBSCertificate;
+import org.bouncycastle.asn1.x509.Time;
+import org.bouncycastle.asn1.x509.V2TBSCertListGenerator;
+import org.bouncycastle.asn1.x509.V3TBSCertificateGenerator;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Generates self-signed EC test certificates and CRLs as PEM text, using
+ * only the Bouncy Castle ASN.1 classes and the JCA signer.
+ */
+public final class TestCertificates {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final AlgorithmIdentifier ECDSA_SHA256 =
+            new AlgorithmIdentifier(X9ObjectIdentifiers.ecdsa_with_SHA256);
+    private static KeyPair keyPair;
+
+    private TestCertificates() {}
+
+    /** A certificate for {@code cn} valid from yesterday for {@code days} days. */
+    public static String selfSigned(String cn, int days) {
+        Date from = new Date(System.currentTimeMillis() - DAY);
+        return selfSigned(cn, BigInteger.valueOf(Math.abs(cn.hashCode()) + 1L), from,
+                new Date(from.getTime() + days * DAY));
+    }
+
+    public static String selfSigned(String cn, BigInteger serial, Date notBefore, Date notAfter) {
+        return selfSigned(cn, serial, notBefore, notAfter, false);
+    }
+
+    /** A CA certificate (basic constraints cA=true) for {@code cn}, valid from yesterday for a year. */
+    public static String selfSignedCa(String cn) {
+        Date from = new Date(System.currentTimeMillis() - DAY);
+        return selfSigned(cn, BigInteger.ONE, from, new Date(from.getTime() + 365 * DAY), true);
+    }
+
+    private static String selfSigned(String cn, BigInteger serial, Date notBefore, Date notAfter, boolean ca) {
+        try {
+            KeyPair kp = keyPair();
+            X500Name name = new X500Name("CN=" + cn);
+            V3TBSCertificateGenerator gen = new V3TBSCertificateGenerator();
+            gen.setSerialNumber(new ASN1Integer(serial));
+            gen.setIssuer(name);
+            gen.setSubject(name);
+            gen.setStartDate(new Time(notBefore));
+            gen.setEndDate(new Time(notAfter));
+            gen.setSignature(ECDSA_SHA256);
+            gen.setSubjectPublicKeyInfo(SubjectPublicKeyInfo.getInstance(kp.getPublic().getEncoded()));
+            if (ca) {
+                gen.setExtensions(new Extensions(new Extension(Extension.basicConstraints, true,
+                        new BasicConstraints(true).getEncoded())));
+            }
+            TBSCertificate tbs = gen.generateTBSCertificate();
+
+            Signature signer = Signature.getInstance("SHA256withECDSA");
+            signer.initSign(kp.getPrivate());
+            signer.update(tbs.getEncoded());
+            Certificate cert = Certificate.getInstance(new DERSequence(new ASN1Encodable[] {
+                    tbs, ECDSA_SHA256, new DERBitString(signer.sign())}));
+
+            return "-----BEGIN CERTIFICATE-----\n"
+                    + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(cert.getEncoded())
+                    + "\n-----END CERTIFICATE-----\n";
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate test certificate for " + cn, e);
+        }
+    }
+
+    /**
+     * A CRL issued by {@code CN=<issuerCn>} (the issuer of
+     * {@code selfSigned(issuerCn, ...)}), valid from yesterday for
+     * {@code days} days and revoking {@code serials}.
+     */
+    public static String crl(String issuerCn, int days, BigInteger... serials) {
+        try {
+            Date thisUpdate = new Date(System.currentTimeMillis() - DAY);
+            V2TBSCertListGenerator gen = new V2TBSCertListGenerator();
+            gen.setIssuer(new X500Name("CN=" + issuerCn));
+            gen.setThisUpdate(new Time(thisUpdate));
+            gen.setNextUpdate(new Time(new Date(thisUpdate.getTime() + days * DAY)));
+            gen.setSignature(ECDSA_SHA256);
+            for (BigInteger serial : serials) {
+                gen.addCRLEntry(new ASN1Integer(serial), new Time(thisUpdate), CRLReason.keyCompromise);
+            }
+            TBSCertList tbs = gen.generateTBSCertList();
+
+            Signature signer = Signature.getInstance("SHA256withECDSA");
+            signer.initSign(keyPair().getPrivate());
+            signer.update(tbs.getEncoded());
+            CertificateList crl = CertificateList.getInstance(new DERSequence(new ASN1Encodable[] {
+                    tbs, ECDSA_SHA256, new DERBitString(signer.sign())}));
+
+            return "-----BEGIN X509 CRL-----\n"
+                    + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(crl.getEncoded())
+                    + "\n-----END X509 CRL-----\n";
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate test CRL for " + issuerCn, e);
+        }
+    }
+
+    private static synchronized KeyPair keyPair() throws Exception {
+        if (keyPair == null) {
+            KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+            kpg.initialize(new ECGenParameterSpec("secp256r1"));
+            keyPair = kpg.generateKeyPair();
+        }
+        return keyPair;
+    }
+}